@@ -1,42 +1,102 @@
 package nzqr.java.accumulators;
 
+import java.util.Arrays;
+
 import nzqr.java.numbers.BigFloat;
 
 /** Naive sum of <code>double</code> values with a BigFloat
  * accumulator.
+ * <br>
+ * Single terms and products are buffered, and added a block at
+ * a time by {@link BigFloat#addAll(double[])} and
+ * {@link BigFloat#addProducts(double[],double[])},
+ * which update the sum in place.
+ * Since the sum is exact, the order doesn't matter.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-08-16
+ * @version 2026-10-17
  */
 public final class BigFloatAccumulator
 extends ExactAccumulator<BigFloatAccumulator> {
 
   private BigFloat _sum;
 
+  private static final int BUFFER_SIZE = 256;
+
+  private final double[] _terms = new double[BUFFER_SIZE];
+  private int _nterms;
+
+  private final double[] _factors0 = new double[BUFFER_SIZE];
+  private final double[] _factors1 = new double[BUFFER_SIZE];
+  private int _nproducts;
+
+  private final void addTerm (final double z) {
+    if (BUFFER_SIZE==_nterms) { flushTerms(); }
+    _terms[_nterms++] = z; }
+
+  private final void addFactors (final double z0,
+                                 final double z1) {
+    if (BUFFER_SIZE==_nproducts) { flushProducts(); }
+    _factors0[_nproducts] = z0;
+    _factors1[_nproducts] = z1;
+    _nproducts++; }
+
+  private final void flushTerms () {
+    if (0<_nterms) {
+      _sum = _sum.addAll(
+        (BUFFER_SIZE==_nterms)
+        ? _terms
+        : Arrays.copyOf(_terms,_nterms));
+      _nterms = 0; } }
+
+  private final void flushProducts () {
+    if (0<_nproducts) {
+      if (BUFFER_SIZE==_nproducts) {
+        _sum = _sum.addProducts(_factors0,_factors1); }
+      else {
+        _sum = _sum.addProducts(
+          Arrays.copyOf(_factors0,_nproducts),
+          Arrays.copyOf(_factors1,_nproducts)); }
+      _nproducts = 0; } }
+
+  private final BigFloat sum () {
+    flushTerms();
+    flushProducts();
+    return _sum; }
+
+  /** Start a new sum from <code>s</code>, dropping buffered
+   * terms.
+   */
+
+  private final void setSum (final BigFloat s) {
+    _sum = s;
+    _nterms = 0;
+    _nproducts = 0; }
+
   //--------------------------------------------------------------
 
   @Override
   public final boolean noOverflow () { return true; }
 
   @Override
-  public final Object value () { return _sum; }
+  public final Object value () { return sum(); }
 
   @Override
   public final double doubleValue () {
-    return _sum.doubleValue(); }
+    return sum().doubleValue(); }
 
   @Override
   public final float floatValue () {
-    return _sum.floatValue(); }
+    return sum().floatValue(); }
 
   @Override
   public final BigFloatAccumulator clear () {
-    _sum = BigFloat.ZERO;
+    setSum(BigFloat.ZERO);
     return this; }
 
   @Override
   public final BigFloatAccumulator add (final double z) {
-    _sum = _sum.add(z);
+    addTerm(z);
     return this; }
 
   @Override
@@ -46,7 +106,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
 
   @Override
   public final BigFloatAccumulator addAbs (final double z) {
-    _sum = _sum.addAbs(z);
+    addTerm(Math.abs(z));
     return this; }
 
   @Override
@@ -56,7 +116,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
 
   @Override
   public final BigFloatAccumulator add2 (final double z) {
-    _sum = _sum.add2(z);
+    addFactors(z,z);
     return this; }
 
   @Override
@@ -67,7 +127,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
   @Override
   public final BigFloatAccumulator addProduct (final double z0,
                                                final double z1) {
-    _sum = _sum.addProduct(z0,z1);
+    addFactors(z0,z1);
     return this; }
 
   @Override
@@ -79,8 +139,8 @@ extends ExactAccumulator<BigFloatAccumulator> {
   @Override
   public final BigFloatAccumulator addL1 (final double z0,
                                           final double z1) {
-
-    _sum = _sum.addL1(z0,z1);
+    if (z0>z1) { addTerm(z0); addTerm(-z1); }
+    else if (z0<z1) { addTerm(-z0); addTerm(z1); }
     return this; }
 
   @Override
@@ -92,7 +152,11 @@ extends ExactAccumulator<BigFloatAccumulator> {
   @Override
   public final BigFloatAccumulator addL2 (final double z0,
                                           final double z1) {
-    _sum = _sum.addL2(z0,z1);
+    // (z0-z1)^2 = z0^2 + z1^2 - 2*z0*z1, exactly
+    addFactors(z0,z0);
+    addFactors(z1,z1);
+    addFactors(z0,-z1);
+    addFactors(z0,-z1);
     return this; }
 
   @Override
@@ -113,7 +177,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.add(x[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum; }
+    setSum(sum); }
 
   @Override
   public final double[] partialSums (final double[] x) {
@@ -123,7 +187,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.add(x[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   @Override
@@ -134,7 +198,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.addAbs(x[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   @Override
@@ -145,7 +209,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.add2(x[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   @Override
@@ -157,7 +221,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.addProduct(x0[i],x1[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   @Override
@@ -169,7 +233,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.addL1(x0[i],x1[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   @Override
@@ -181,7 +245,7 @@ extends ExactAccumulator<BigFloatAccumulator> {
     for (int i=0;i<n;i++) {
       sum = sum.addL2(x0[i],x1[i]);
       s[i] = sum.doubleValue(); }
-    _sum = sum;
+    setSum(sum);
     return s; }
 
   //--------------------------------------------------------------
@@ -12,7 +12,7 @@ import static nzqr.java.numbers.Numbers.loBit;
  * <code>int</code> exponent.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-02
+ * @version 2026-10-17
  */
 
 @SuppressWarnings("unchecked")
@@ -164,9 +164,9 @@ implements Ringlike<BigFloat> {
   public final BigFloat
   addAll (final double[] z) {
     //assert Double.isFinite(z);
-    BigFloat s = this;
-    for (final double zi : z) { s = s.add(zi); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (final double zi : z) { s.add(zi); }
+    return s.value(); }
 
   //--------------------------------------------------------------
 
@@ -183,9 +183,9 @@ implements Ringlike<BigFloat> {
   public final BigFloat
   addAbsAll (final double[] z) {
     //assert Double.isFinite(z);
-    BigFloat s = this;
-    for (final double zi : z) { s = s.addAbs(zi); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (final double zi : z) { s.addAbs(zi); }
+    return s.value(); }
 
   //--------------------------------------------------------------
 
@@ -290,9 +290,9 @@ implements Ringlike<BigFloat> {
 
   public final BigFloat
   add2All (final double[] z) {
-    BigFloat s = this;
-    for (final double zi : z) { s = s.add2(zi); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (final double zi : z) { s.add2(zi); }
+    return s.value(); }
 
   //--------------------------------------------------------------
 
@@ -329,9 +329,9 @@ implements Ringlike<BigFloat> {
                final double[] z1)  {
     final int n = z0.length;
     //assert n==z1.length;
-    BigFloat s = this;
-    for (int i=0;i<n;i++) { s = s.addProduct(z0[i],z1[i]); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (int i=0;i<n;i++) { s.addProduct(z0[i],z1[i],0); }
+    return s.value(); }
 
   //--------------------------------------------------------------
   /** Exact <code>a*x+y</code> (aka fma). */
@@ -408,9 +408,9 @@ implements Ringlike<BigFloat> {
                  final double[] z1) {
     final int n = z0.length;
     //assert n==z1.length;
-    BigFloat s = this;
-    for (int i=0;i<n;i++) { s = s.addL1(z0[i],z1[i]); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (int i=0;i<n;i++) { s.addL1(z0[i],z1[i]); }
+    return s.value(); }
 
   //--------------------------------------------------------------
   // internal special case: add 2*z0*z1
@@ -457,9 +457,114 @@ implements Ringlike<BigFloat> {
                  final double[] z1) {
     final int n = z0.length;
     //assert n==z1.length;
-    BigFloat s = this;
-    for (int i=0;i<n;i++) { s = s.addL2(z0[i],z1[i]); }
-    return s; }
+    final Sum s = new Sum(this);
+    for (int i=0;i<n;i++) { s.addL2(z0[i],z1[i]); }
+    return s.value(); }
+
+  //--------------------------------------------------------------
+  // in-place sums
+  //--------------------------------------------------------------
+  /** A running sum, with the significand updated in place,
+   * for the <code>...All</code> methods.
+   * Follows the same rules as the immutable adds, so the
+   * result has the same exponent as a chain of them.
+   */
+
+  private static final class Sum {
+
+    private boolean _p;
+    private final MutableNatural _t;
+    private int _e;
+    /** Words of the current term. */
+    private final int[] _w = new int[4];
+
+    /** <code>+/- w*2<sup>e1</sup></code>. */
+
+    private final void add (final boolean p1,
+                            final int nw,
+                            final int e1) {
+      if (_e>e1) { _t.shiftUp(_e-e1); _e = e1; }
+      final int upShift = e1-_e;
+      if (_p==p1) { _t.add(_w,nw,upShift); return; }
+      final int c = _t.compareTo(_w,nw,upShift);
+      if (0<c) { _t.subtract(_w,nw,upShift); }
+      else if (0>c) { _t.subtractFrom(_w,nw,upShift); _p = p1; }
+      else { _t.setZero(); _p = true; _e = 0; } }
+
+    /** Set the term words to <code>t</code>, returning the
+     * word count.
+     */
+
+    private final int words (final long t) {
+      _w[0] = (int) t;
+      _w[1] = (int) (t>>>32);
+      return (0==_w[1]) ? 1 : 2; }
+
+    /** Set the term words to <code>t0*t1</code>, returning the
+     * word count.
+     */
+
+    private final int words (final long t0,
+                             final long t1) {
+      final long lo = t0*t1;
+      final long hi = Numbers.unsignedMultiplyHigh(t0,t1);
+      _w[0] = (int) lo;
+      _w[1] = (int) (lo>>>32);
+      _w[2] = (int) hi;
+      _w[3] = (int) (hi>>>32);
+      int n = 4;
+      while ((0<n) && (0==_w[n-1])) { n--; }
+      return n; }
+
+    private final void add (final boolean p1,
+                            final long t11,
+                            final int e11) {
+      // minimize long bits
+      final int shift = Numbers.loBit(t11);
+      add(p1,words(t11>>>shift),e11+shift); }
+
+    final void add (final double z) {
+      if (0.0==z) { return; }
+      add(Doubles.nonNegative(z),Doubles.significand(z),Doubles.exponent(z)); }
+
+    final void addAbs (final double z) {
+      if (0.0==z) { return; }
+      add(true,Doubles.significand(z),Doubles.exponent(z)); }
+
+    /** Add <code>2<sup>k</sup>*z0*z1</code>. */
+
+    final void addProduct (final double z0,
+                           final double z1,
+                           final int k) {
+      if ((0.0==z0) || (0.0==z1)) { return; }
+      final long t01 = Doubles.significand(z0);
+      final int shift0 = Numbers.loBit(t01);
+      final long t11 = Doubles.significand(z1);
+      final int shift1 = Numbers.loBit(t11);
+      add(
+        Doubles.nonNegative(z0)==Doubles.nonNegative(z1),
+        words(t01>>>shift0,t11>>>shift1),
+        Doubles.exponent(z0)+shift0+Doubles.exponent(z1)+shift1+k); }
+
+    final void add2 (final double z) { addProduct(z,z,0); }
+
+    final void addL1 (final double z0,
+                      final double z1) {
+      if (z0>z1) { add(z0); add(-z1); }
+      else if (z0<z1) { add(-z0); add(z1); } }
+
+    final void addL2 (final double z0,
+                      final double z1) {
+      add2(z0); add2(z1); addProduct(z0,-z1,1); }
+
+    final BigFloat value () {
+      return valueOf(_p,_t.freeze(),_e); }
+
+    Sum (final BigFloat x) {
+      final BoundedNatural t = x.significand();
+      _p = x.nonNegative();
+      _t = MutableNatural.copy(t,t.hiInt()+4);
+      _e = x.exponent(); } }
 
   //--------------------------------------------------------------
   // Number methods
@@ -510,7 +615,6 @@ implements Ringlike<BigFloat> {
   private static final boolean roundUp (final BoundedNatural u,
                                         final int e) {
     final int nt = u.hiInt();
-    if (nt<=(e>>>5)) { return false; }
     final int[] tt = u.words();
     final int e1 = e-1;
     final int n1 = (e1>>>5);
@@ -538,14 +642,19 @@ implements Ringlike<BigFloat> {
         Math.min(
           Floats.MAXIMUM_EXPONENT_INTEGRAL_SIGNIFICAND-e0-1,
           eh-Floats.SIGNIFICAND_BITS));
+    if ((eh-es)>Floats.SIGNIFICAND_BITS) {
+      return
+        (p0 ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY); }
     if (0==es) {
       return floatMergeBits(p0,s0.intValue(),e0); }
     if (0 > es) {
       final int e1 = e0 + es;
       final int s1 = (s0.intValue() << -es);
       return floatMergeBits(p0,s1,e1); }
-    if (eh <= es) { return (p0 ? 0.0F : -0.0F); }
-    // eh > es > 0
+    // eh==es: in [1/2,1) of the smallest subnormal, rounds up
+    // unless exactly 1/2
+    if (eh < es) { return (p0 ? 0.0F : -0.0F); }
+    // eh >= es > 0
     final boolean up = roundUp(s0,es);
     // TODO: faster way to select the right bits as a int?
     //final int s1 = s0.shiftDown(es).intValue();
@@ -627,8 +736,10 @@ implements Ringlike<BigFloat> {
       final int e1 = e0 + es;
       final long s1 = (s0.longValue() << -es);
       return doubleMergeBits(p0,s1,e1); }
-    if (eh <= es) { return (p0 ? 0.0 : -0.0); }
-    // eh > es > 0
+    // eh==es: in [1/2,1) of the smallest subnormal, rounds up
+    // unless exactly 1/2
+    if (eh < es) { return (p0 ? 0.0 : -0.0); }
+    // eh >= es > 0
     final boolean up = roundUp(s0,es);
     final long s1 = getShiftedLong(s0,es);
     final int e1 = e0 + es;
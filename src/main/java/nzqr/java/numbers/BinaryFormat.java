@@ -0,0 +1,398 @@
+package nzqr.java.numbers;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/** Compact, versioned, little-endian binary format for
+ * {@link BoundedNatural}, {@link BigFloat} and
+ * {@link RationalFloat}, with {@link ByteBuffer} and stream
+ * readers and writers that copy word arrays in bulk.
+ * <br>
+ * Every value starts with a one byte type tag and a one byte
+ * format version, so a reader can check what it's getting,
+ * and {@link #read(ByteBuffer)} can dispatch on it.
+ * All multi-byte fields are little-endian.
+ * <pre>
+ * natural:  int nwords, then nwords int words, least
+ *           significant first, no leading zero words
+ *
+ * BoundedNatural: TAG_NATURAL  VERSION natural
+ * BigFloat:       TAG_BIGFLOAT VERSION byte sign, int exponent,
+ *                 natural significand
+ * RationalFloat:  TAG_RATIONAL VERSION byte sign, int exponent,
+ *                 natural numerator, natural denominator
+ * </pre>
+ * <code>sign</code> is 0 for non-negative, 1 for negative.
+ * Values are written as they are, not reduced, and read back
+ * identically, whatever the current
+ * {@link RationalFloat#reductionPolicy()}.
+ * <br>
+ * Malformed input is reported with
+ * {@link StreamCorruptedException} or {@link EOFException}
+ * by the stream readers, and {@link IllegalArgumentException}
+ * or {@link java.nio.BufferUnderflowException} by the
+ * {@link ByteBuffer} readers.
+ * The {@link ByteBuffer} methods restore the buffer's byte
+ * order when they're done.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class BinaryFormat {
+
+  public static final byte VERSION = 1;
+
+  public static final byte TAG_NATURAL = 'N';
+  public static final byte TAG_BIGFLOAT = 'F';
+  public static final byte TAG_RATIONAL = 'Q';
+
+  /** Word array bytes buffered per stream read or write. */
+
+  private static final int CHUNK_WORDS = 1<<14;
+
+  //--------------------------------------------------------------
+  // sizes
+  //--------------------------------------------------------------
+
+  private static final int size (final BoundedNatural u) {
+    return Integer.BYTES*(1+u.hiInt()); }
+
+  /** Bytes {@link #write(ByteBuffer,BoundedNatural)} will
+   * use.
+   */
+
+  public static final int serializedSize (final BoundedNatural u) {
+    return 2 + size(u); }
+
+  public static final int serializedSize (final BigFloat x) {
+    return 2 + 1 + Integer.BYTES + size(x.significand()); }
+
+  public static final int serializedSize (final RationalFloat x) {
+    return 2 + 1 + Integer.BYTES
+      + size(x.numerator()) + size(x.denominator()); }
+
+  //--------------------------------------------------------------
+  // ByteBuffer
+  //--------------------------------------------------------------
+
+  private static final void putNatural (final ByteBuffer b,
+                                        final BoundedNatural u) {
+    final int n = u.hiInt();
+    b.putInt(n);
+    // buffer is little-endian, so the view is too
+    b.asIntBuffer().put(u.words(),0,n);
+    b.position(b.position()+(Integer.BYTES*n)); }
+
+  private static final BoundedNatural getNatural (final ByteBuffer b) {
+    final int n = b.getInt();
+    if ((0>n) || (NaturalInts.MAX_WORDS<n)
+      || (b.remaining()<(Integer.BYTES*(long) n))) {
+      throw new IllegalArgumentException(
+        "bad natural length: " + n + " words, "
+          + b.remaining() + " bytes left"); }
+    final int[] w = new int[n];
+    b.asIntBuffer().get(w);
+    b.position(b.position()+(Integer.BYTES*n));
+    if ((0<n) && (0==w[n-1])) {
+      throw new IllegalArgumentException(
+        "natural with a leading zero word: " + n + " words"); }
+    return BoundedNatural.unsafe(w); }
+
+  private static final void putHeader (final ByteBuffer b,
+                                       final byte tag) {
+    b.put(tag);
+    b.put(VERSION); }
+
+  private static final byte getHeader (final ByteBuffer b) {
+    final byte tag = b.get();
+    final byte version = b.get();
+    if (VERSION!=version) {
+      throw new IllegalArgumentException(
+        "unsupported version: " + version); }
+    return tag; }
+
+  private static final void checkTag (final byte expected,
+                                      final byte tag) {
+    if (expected!=tag) {
+      throw new IllegalArgumentException(
+        "expected tag " + (char) expected + ", found " + tag); } }
+
+  private static final boolean sign (final byte s) {
+    if (0==s) { return true; }
+    if (1==s) { return false; }
+    throw new IllegalArgumentException("bad sign byte: " + s); }
+
+  //--------------------------------------------------------------
+
+  public static final void write (final ByteBuffer b,
+                                  final BoundedNatural u) {
+    final ByteOrder order = b.order();
+    try {
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      putHeader(b,TAG_NATURAL);
+      putNatural(b,u); }
+    finally { b.order(order); } }
+
+  public static final void write (final ByteBuffer b,
+                                  final BigFloat x) {
+    final ByteOrder order = b.order();
+    try {
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      putHeader(b,TAG_BIGFLOAT);
+      b.put((byte) (x.nonNegative() ? 0 : 1));
+      b.putInt(x.exponent());
+      putNatural(b,x.significand()); }
+    finally { b.order(order); } }
+
+  public static final void write (final ByteBuffer b,
+                                  final RationalFloat x) {
+    final ByteOrder order = b.order();
+    try {
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      putHeader(b,TAG_RATIONAL);
+      b.put((byte) (x.nonNegative() ? 0 : 1));
+      b.putInt(x.exponent());
+      putNatural(b,x.numerator());
+      putNatural(b,x.denominator()); }
+    finally { b.order(order); } }
+
+  //--------------------------------------------------------------
+
+  private static final Object readBody (final ByteBuffer b,
+                                        final byte tag) {
+    switch (tag) {
+      case TAG_NATURAL : return getNatural(b);
+      case TAG_BIGFLOAT : {
+        final boolean p = sign(b.get());
+        final int e = b.getInt();
+        return BigFloat.valueOf(p,getNatural(b),e); }
+      case TAG_RATIONAL : {
+        final boolean p = sign(b.get());
+        final int e = b.getInt();
+        final BoundedNatural n = getNatural(b);
+        final BoundedNatural d = getNatural(b);
+        if (d.isZero()) {
+          throw new IllegalArgumentException("zero denominator"); }
+        return RationalFloat.unreduced(p,n,d,e); }
+      default :
+        throw new IllegalArgumentException("unknown tag: " + tag); } }
+
+  /** Whichever of the supported types comes next. */
+
+  public static final Object read (final ByteBuffer b) {
+    final ByteOrder order = b.order();
+    try {
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      return readBody(b,getHeader(b)); }
+    finally { b.order(order); } }
+
+  private static final Object read (final ByteBuffer b,
+                                    final byte expected) {
+    final ByteOrder order = b.order();
+    try {
+      b.order(ByteOrder.LITTLE_ENDIAN);
+      final byte tag = getHeader(b);
+      checkTag(expected,tag);
+      return readBody(b,tag); }
+    finally { b.order(order); } }
+
+  public static final BoundedNatural readBoundedNatural (final ByteBuffer b) {
+    return (BoundedNatural) read(b,TAG_NATURAL); }
+
+  public static final BigFloat readBigFloat (final ByteBuffer b) {
+    return (BigFloat) read(b,TAG_BIGFLOAT); }
+
+  public static final RationalFloat readRationalFloat (final ByteBuffer b) {
+    return (RationalFloat) read(b,TAG_RATIONAL); }
+
+  //--------------------------------------------------------------
+  // streams
+  //--------------------------------------------------------------
+  /** Header and fixed size fields, written through a small
+   * buffer, followed by the words of each natural, copied
+   * through <code>chunk</code>.
+   */
+
+  private static final void writeNatural (final OutputStream out,
+                                          final BoundedNatural u,
+                                          final ByteBuffer chunk)
+    throws IOException {
+    final int n = u.hiInt();
+    final int[] w = u.words();
+    chunk.clear();
+    chunk.putInt(n);
+    out.write(chunk.array(),0,Integer.BYTES);
+    for (int i=0;i<n;i+=CHUNK_WORDS) {
+      final int m = Math.min(CHUNK_WORDS,n-i);
+      chunk.clear();
+      chunk.asIntBuffer().put(w,i,m);
+      out.write(chunk.array(),0,Integer.BYTES*m); } }
+
+  private static final ByteBuffer chunk (final int nwords) {
+    return ByteBuffer
+      .allocate(Integer.BYTES*Math.max(4,Math.min(CHUNK_WORDS,nwords)))
+      .order(ByteOrder.LITTLE_ENDIAN); }
+
+  private static final void writeHeader (final OutputStream out,
+                                         final byte tag,
+                                         final ByteBuffer chunk,
+                                         final boolean nonNegative,
+                                         final int exponent)
+    throws IOException {
+    chunk.clear();
+    chunk.put(tag).put(VERSION);
+    chunk.put((byte) (nonNegative ? 0 : 1)).putInt(exponent);
+    out.write(chunk.array(),0,chunk.position()); }
+
+  public static final void write (final OutputStream out,
+                                  final BoundedNatural u)
+    throws IOException {
+    final ByteBuffer chunk = chunk(u.hiInt());
+    out.write(TAG_NATURAL);
+    out.write(VERSION);
+    writeNatural(out,u,chunk); }
+
+  public static final void write (final OutputStream out,
+                                  final BigFloat x)
+    throws IOException {
+    final ByteBuffer chunk = chunk(x.significand().hiInt());
+    writeHeader(out,TAG_BIGFLOAT,chunk,x.nonNegative(),x.exponent());
+    writeNatural(out,x.significand(),chunk); }
+
+  public static final void write (final OutputStream out,
+                                  final RationalFloat x)
+    throws IOException {
+    final ByteBuffer chunk =
+      chunk(Math.max(
+        x.numerator().hiInt(),x.denominator().hiInt()));
+    writeHeader(out,TAG_RATIONAL,chunk,x.nonNegative(),x.exponent());
+    writeNatural(out,x.numerator(),chunk);
+    writeNatural(out,x.denominator(),chunk); }
+
+  //--------------------------------------------------------------
+
+  private static final ByteBuffer readFully (final InputStream in,
+                                             final ByteBuffer chunk,
+                                             final int nbytes)
+    throws IOException {
+    chunk.clear();
+    final int m = in.readNBytes(chunk.array(),0,nbytes);
+    if (m<nbytes) {
+      throw new EOFException(
+        "expected " + nbytes + " bytes, found " + m); }
+    chunk.limit(nbytes);
+    return chunk; }
+
+  /** The length comes from the stream, so it can't be trusted:
+   * the word array starts at most one chunk long, and doubles
+   * as words actually arrive, so a corrupt or hostile length
+   * fails with {@link EOFException} before allocating much
+   * more than the input.
+   */
+
+  private static final BoundedNatural readNatural (final InputStream in,
+                                                   final ByteBuffer chunk)
+    throws IOException {
+    final int n = readFully(in,chunk,Integer.BYTES).getInt();
+    if ((0>n) || (NaturalInts.MAX_WORDS<n)) {
+      throw new StreamCorruptedException(
+        "bad natural length: " + n + " words"); }
+    int[] w = new int[Math.min(CHUNK_WORDS,n)];
+    final ByteBuffer c =
+      (chunk.capacity()>=(Integer.BYTES*Math.min(CHUNK_WORDS,n)))
+      ? chunk : chunk(n);
+    for (int i=0;i<n;i+=CHUNK_WORDS) {
+      final int m = Math.min(CHUNK_WORDS,n-i);
+      if (w.length<(i+m)) {
+        w = Arrays.copyOf(w,Math.min(n,Math.max(i+m,2*w.length))); }
+      readFully(in,c,Integer.BYTES*m).asIntBuffer().get(w,i,m); }
+    if ((0<n) && (0==w[n-1])) {
+      throw new StreamCorruptedException(
+        "natural with a leading zero word: " + n + " words"); }
+    return BoundedNatural.unsafe(w); }
+
+  private static final Object readBody (final InputStream in,
+                                        final byte tag,
+                                        final ByteBuffer chunk)
+    throws IOException {
+    if (TAG_NATURAL==tag) { return readNatural(in,chunk); }
+    final ByteBuffer b = readFully(in,chunk,1+Integer.BYTES);
+    final byte s = b.get();
+    if ((0!=s) && (1!=s)) {
+      throw new StreamCorruptedException("bad sign byte: " + s); }
+    final boolean p = (0==s);
+    final int e = b.getInt();
+    switch (tag) {
+      case TAG_BIGFLOAT :
+        return BigFloat.valueOf(p,readNatural(in,chunk),e);
+      case TAG_RATIONAL : {
+        final BoundedNatural n = readNatural(in,chunk);
+        final BoundedNatural d = readNatural(in,chunk);
+        if (d.isZero()) {
+          throw new StreamCorruptedException("zero denominator"); }
+        return RationalFloat.unreduced(p,n,d,e); }
+      default :
+        throw new StreamCorruptedException("unknown tag: " + tag); } }
+
+  private static final byte readHeader (final InputStream in,
+                                        final ByteBuffer chunk)
+    throws IOException {
+    final ByteBuffer b = readFully(in,chunk,2);
+    final byte tag = b.get();
+    final byte version = b.get();
+    if (VERSION!=version) {
+      throw new StreamCorruptedException(
+        "unsupported version: " + version); }
+    if ((TAG_NATURAL!=tag) && (TAG_BIGFLOAT!=tag) && (TAG_RATIONAL!=tag)) {
+      throw new StreamCorruptedException("unknown tag: " + tag); }
+    return tag; }
+
+  /** Whichever of the supported types comes next. */
+
+  public static final Object read (final InputStream in)
+    throws IOException {
+    final ByteBuffer chunk = chunk(0);
+    return readBody(in,readHeader(in,chunk),chunk); }
+
+  private static final Object read (final InputStream in,
+                                    final byte expected)
+    throws IOException {
+    final ByteBuffer chunk = chunk(0);
+    final byte tag = readHeader(in,chunk);
+    if (expected!=tag) {
+      throw new StreamCorruptedException(
+        "expected tag " + (char) expected + ", found " + tag); }
+    return readBody(in,tag,chunk); }
+
+  public static final BoundedNatural readBoundedNatural (final InputStream in)
+    throws IOException {
+    return (BoundedNatural) read(in,TAG_NATURAL); }
+
+  public static final BigFloat readBigFloat (final InputStream in)
+    throws IOException {
+    return (BigFloat) read(in,TAG_BIGFLOAT); }
+
+  public static final RationalFloat readRationalFloat (final InputStream in)
+    throws IOException {
+    return (RationalFloat) read(in,TAG_RATIONAL); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private BinaryFormat () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
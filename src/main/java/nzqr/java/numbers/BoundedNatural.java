@@ -7,6 +7,7 @@ import org.apache.commons.rng.UniformRandomProvider;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 import static nzqr.java.numbers.Numbers.*;
 
@@ -60,7 +61,7 @@ import static nzqr.java.numbers.Numbers.*;
  * when the operation result exceeds the bound.
  *  <br>
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-19
+ * @version 2026-10-17
  */
 
 //@SuppressWarnings("unchecked")
@@ -71,31 +72,86 @@ implements Ringlike<BoundedNatural> {
   // fields
   //--------------------------------------------------------------
   /** This array is never modified.
+   * <code>null</code> for values of at most
+   * {@link #INLINE_WORDS} words, which are held in
+   * {@link #_lo} and {@link #_hi} instead, so creating them,
+   * and adding, subtracting, multiplying, shifting and comparing
+   * them, is plain <code>long</code> arithmetic, with no array
+   * allocation unless the result outgrows 128 bits.
    */
 
   private final int[] _words;
-  final int[] words () { return _words; }
+
+  /** Low and high 64 bits of inline values, unsigned;
+   * both 0 when {@link #_words} is used.
+   */
+
+  private final long _lo;
+  private final long _hi;
+
+  static final int INLINE_WORDS = 4;
+
+  private static final int[] NO_WORDS = new int[0];
+
+  final boolean isInline () { return null==_words; }
+
+  /** A fresh array, of just the significant words, for inline
+   * values.
+   */
+
+  final int[] words () {
+    if (null!=_words) { return _words; }
+    final int n = inlineHiInt(_lo,_hi);
+    if (0==n) { return NO_WORDS; }
+    final int[] w = new int[n];
+    w[0] = (int) _lo;
+    if (1<n) { w[1] = (int) hiWord(_lo); }
+    if (2<n) { w[2] = (int) _hi; }
+    if (3<n) { w[3] = (int) hiWord(_hi); }
+    return w; }
+
+  private static final int inlineHiInt (final long lo,
+                                        final long hi) {
+    if (0L!=hi) { return (0L!=hiWord(hi)) ? 4 : 3; }
+    if (0L!=lo) { return (0L!=hiWord(lo)) ? 2 : 1; }
+    return 0; }
 
   public final int hiInt () {
-    return NaturalInts.hiInt(words()); }
+    if (null==_words) { return inlineHiInt(_lo,_hi); }
+    return NaturalInts.hiInt(_words); }
 
   public final int hiBit () {
-    return NaturalInts.hiBit(words()); }
+    if (null==_words) {
+      if (0L!=_hi) { return 128-Long.numberOfLeadingZeros(_hi); }
+      return 64-Long.numberOfLeadingZeros(_lo); }
+    return NaturalInts.hiBit(_words); }
 
   public final int loBit () {
-    return NaturalInts.loBit(words()); }
+    if (null==_words) {
+      if (0L!=_lo) { return Long.numberOfTrailingZeros(_lo); }
+      if (0L!=_hi) { return 64+Long.numberOfTrailingZeros(_hi); }
+      return 0; }
+    return NaturalInts.loBit(_words); }
 
   //--------------------------------------------------------------
 
   public final int word (final int i) {
     assert 0<=i : "Negative index: " + i;
     //assert i < MAX_WORDS : "word index too large " + i;
+    if (null==_words) {
+      return switch (i) {
+        case 0 -> (int) _lo;
+        case 1 -> (int) hiWord(_lo);
+        case 2 -> (int) _hi;
+        case 3 -> (int) hiWord(_hi);
+        default -> 0; }; }
     if (hiInt()<=i) { return 0; }
     return _words[i]; }
 
   public final long uword (final int i) {
     assert 0<=i : "Negative index: " + i;
     //assert i < MAX_WORDS : "word index too large " + i;
+    if (null==_words) { return unsigned(word(i)); }
     if (hiInt()<=i) { return 0L; }
     return unsigned(_words[i]); }
 
@@ -121,12 +177,13 @@ implements Ringlike<BoundedNatural> {
                                        final int w) {
     return unsafe(NaturalInts.setWord(words(), i, w)); }
 
-  /** Singleton. */
-  static final BoundedNatural ZERO =
-    new BoundedNatural(new int[0]);
+  /** Singleton, shared with {@link NaturalCache}. */
+  static final BoundedNatural ZERO = NaturalCache.valueOf(0L);
 
   @Override
-  public final boolean isZero () { return 0==hiInt(); }
+  public final boolean isZero () {
+    if (null==_words) { return 0L==(_lo|_hi); }
+    return 0==hiInt(); }
 
   @Override
   public final BoundedNatural zero () { return ZERO; }
@@ -141,11 +198,19 @@ implements Ringlike<BoundedNatural> {
 
   @Override
   public final int compareTo (final BoundedNatural u) {
+    if (this==u) { return 0; }
+    if ((null==_words) && (null==u._words)) {
+      final int c = Long.compareUnsigned(_hi,u._hi);
+      if (0!=c) { return c; }
+      return Long.compareUnsigned(_lo,u._lo); }
     final int b0 = hiBit();
     final int b1 = u.hiBit();
     if (b0<b1) { return -1; }
     if (b0>b1) { return 1; }
-    int i = hiInt()-1;
+    final int n = hiInt();
+    if (NaturalInts.vectorize(n)) {
+      return NaturalVector.compare(words(),u.words(),n); }
+    int i = n-1;
     for (;i>=0;i--) {
       final long u0i = uword(i);
       final long u1i = u.uword(i);
@@ -157,6 +222,9 @@ implements Ringlike<BoundedNatural> {
 
   public final int compareTo (final long u) {
     assert 0L<=u;
+    if (null==_words) {
+      if (0L!=_hi) { return 1; }
+      return Long.compareUnsigned(_lo,u); }
     final int nt = hiInt();
     final long ulo = loWord(u);
     final long uhi = hiWord(u);
@@ -253,52 +321,19 @@ implements Ringlike<BoundedNatural> {
     assert 0L<=t1;
     //if ((0L==t0||(0L==t1))) { return zero(); }
 
-    final long lo0 = loWord(t0);
-    final long lo1 = loWord(t1);
-    final long hi0 = hiWord(t0);
-    final long hi1 = hiWord(t1);
-
-    long sum = lo0*lo1;
-    final int w0 = (int) sum;
-    // TODO: fix lurking overflow issue
-    // works here because t0,t1 53 bit double significands
-    //final long hilo2 = Math.addExact(hi0*lo1,hi1*lo0);
-    sum = hiWord(sum) + (hi0*lo1) + (hi1*lo0);
-    final int w1 = (int) sum;
-    sum = hiWord(sum) + (hi0*hi1);
-    final int w2 = (int) sum;
-    final int w3 = (int) hiWord(sum);
-    if (0!=w3) { return new BoundedNatural(new int[] {w0,w1,w2,w3,}); }
-    if (0!=w2) { return new BoundedNatural(new int[] {w0,w1,w2,}); }
-    if (0!=w1) { return new BoundedNatural(new int[] {w0,w1,}); }
-    if (0!=w0) { return new BoundedNatural(new int[] {w0,}); }
-    return ZERO; }
-
-  // TODO: fix lurking overflow issue
-  // probably only works as long as t is double significand
+    // at most 126 bits
+    final long lo = t0*t1;
+    final long hi = unsignedMultiplyHigh(t0,t1);
+    if ((0L==hi) && (0L<=lo)) { return valueOf(lo); }
+    return new BoundedNatural(lo,hi); }
 
   public static final BoundedNatural fromSquare (final long t) {
     assert 0L<=t;
-    //if (0L==t) { return zero(); }
-    final long hi = hiWord(t);
-    final long lo = loWord(t);
-    final long lolo = lo*lo;
-    final long hilo2 = ((hi*lo)<<1);
-    //final long hilo2 = Math.multiplyExact(2,hi*lo);
-    final long hihi = hi*hi;
-    long sum = lolo;
-    final int w0 = (int) sum;
-    sum = hiWord(sum) + hilo2;
-    final int w1 = (int) sum;
-    sum = hiWord(sum) + hihi ;
-    final int w2 = (int) sum;
-    final int w3 = (int) hiWord(sum);
-
-    if (0!=w3) { return new BoundedNatural(new int[] { w0,w1,w2,w3,}); }
-    if (0!=w2) { return new BoundedNatural(new int[] { w0,w1,w2, }); }
-    if (0!=w1) { return new BoundedNatural(new int[] {w0,w1}); }
-    if (0!=w0) { return new BoundedNatural(new int[] {w0}); }
-    return ZERO; }
+    // at most 126 bits
+    final long lo = t*t;
+    final long hi = unsignedMultiplyHigh(t,t);
+    if ((0L==hi) && (0L<=lo)) { return valueOf(lo); }
+    return new BoundedNatural(lo,hi); }
 
   //--------------------------------------------------------------
   // add (non-negative) longs
@@ -307,6 +342,7 @@ implements Ringlike<BoundedNatural> {
   public final BoundedNatural add (final long u) {
     assert 0L<u;
     //if (0L==u) { return this; }
+    if (null==_words) { return add(_lo,_hi,u,0L); }
     final int nt = hiInt();
     //if (0==nt) { return valueOf(u); }
     final long uhi = hiWord(u);
@@ -448,6 +484,7 @@ implements Ringlike<BoundedNatural> {
     assert 0L<=u;
     assert 0<=compareTo(u);
     //if (0L==u) { return this; }
+    if (null==_words) { return subtract(_lo,_hi,u,0L); }
     final int nt = hiInt();
     final int[] tt = words();
     final int[] vv = new int[nt];
@@ -741,8 +778,25 @@ implements Ringlike<BoundedNatural> {
   //--------------------------------------------------------------
   // no int arithmetic overflow checks
 
+  /** 128 bit sum, promoted to an array on overflow. */
+
+  private static final BoundedNatural add (final long lo0,
+                                           final long hi0,
+                                           final long lo1,
+                                           final long hi1) {
+    final long lo = lo0 + lo1;
+    final long h = hi0 + hi1 + ((Long.compareUnsigned(lo,lo0)<0) ? 1L : 0L);
+    // carry out of the high word
+    if ((Long.compareUnsigned(h,hi0)<0)
+      || ((h==hi0) && (0L!=hi1))) {
+      return unsafe(new int[] {
+        (int) lo,(int) hiWord(lo),(int) h,(int) hiWord(h),1, }); }
+    return new BoundedNatural(lo,h); }
+
   @Override
   public final BoundedNatural add (final BoundedNatural u) {
+    if ((null==_words) && (null==u._words)) {
+      return add(_lo,_hi,u._lo,u._hi); }
     return unsafe(NaturalAdd.add(words(),hiInt(),
                                  u.words(),u.hiInt())); }
 
@@ -772,9 +826,20 @@ implements Ringlike<BoundedNatural> {
 //
   //--------------------------------------------------------------
 
+  /** 128 bit difference, assumed non-negative. */
+
+  private static final BoundedNatural subtract (final long lo0,
+                                                final long hi0,
+                                                final long lo1,
+                                                final long hi1) {
+    final long borrow = (Long.compareUnsigned(lo0,lo1)<0) ? 1L : 0L;
+    return new BoundedNatural(lo0-lo1,hi0-hi1-borrow); }
+
   @Override
   public final BoundedNatural subtract (final BoundedNatural u) {
     assert 0<=compareTo(u);
+    if ((null==_words) && (null==u._words)) {
+      return subtract(_lo,_hi,u._lo,u._hi); }
     final int nu = u.hiInt();
     if (0>=nu) { return this; }
     return unsafe(NaturalAdd.subtract(words(),hiInt(),u.words(),nu)); }
@@ -820,30 +885,50 @@ implements Ringlike<BoundedNatural> {
   //--------------------------------------------------------------
   // TODO: singleton class for one() and zero()?
 
-  public static final BoundedNatural ONE =
-    new BoundedNatural(new int[] {1});
+  public static final BoundedNatural ONE = NaturalCache.valueOf(1L);
 
   @Override
   public final BoundedNatural one () { return ONE; }
 
+  /** <code>2<sup>32n</sup>-1</code>, shared for small
+   * <code>n</code>.
+   */
+
   public static final BoundedNatural ones (final int n) {
+    final BoundedNatural c = NaturalCache.ones(n);
+    if (null!=c) { return c; }
     final int[] vv = new int[n];
     Arrays.fill(vv, -1);
     return unsafe(vv); }
 
   @Override
   public final boolean isOne () {
-    return (1 == hiInt()) && (1 == words()[0]); }
+    if (null==_words) { return (1L==_lo) && (0L==_hi); }
+    return (1 == hiInt()) && (1 == _words[0]); }
 
   //--------------------------------------------------------------
   // square
   //--------------------------------------------------------------
 
-  private static final int KARATSUBA_SQUARE_THRESHOLD = 128;
-  private static final int TOOM_COOK_SQUARE_THRESHOLD = 216;
+  /** Defaults, overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  private static final int KARATSUBA_SQUARE_THRESHOLD =
+    NaturalThresholds.get("BoundedNatural.KARATSUBA_SQUARE_THRESHOLD",128,8);
+  private static final int TOOM_COOK_SQUARE_THRESHOLD =
+    NaturalThresholds.get("BoundedNatural.TOOM_COOK_SQUARE_THRESHOLD",216,16);
+  // one forward transform instead of two, so NTT overtakes
+  // Toom-Cook 3 earlier than for multiply, around 1024 words
+  // on x86-64, see NaturalCalibration
+  private static final int NTT_SQUARE_THRESHOLD =
+    NaturalThresholds.get("BoundedNatural.NTT_SQUARE_THRESHOLD",1024,16);
 
   @Override
   public final BoundedNatural square () {
+    if ((null==_words) && (0L==_hi)) {
+      return new BoundedNatural(
+        _lo*_lo,unsignedMultiplyHigh(_lo,_lo)); }
     if (isZero()) { return zero(); }
     if (isOne()) { return one(); }
     final int n = hiInt();
@@ -852,7 +937,10 @@ implements Ringlike<BoundedNatural> {
     if (n < TOOM_COOK_SQUARE_THRESHOLD) {
       return NaturalMultiply.squareKaratsuba(this); }
     // For a discussion of overflow detection see multiply()
-    return NaturalMultiply.squareToomCook3(this); }
+    if ((n < NTT_SQUARE_THRESHOLD)
+      || (! NaturalMultiply.fitsNTT(n,n))) {
+      return NaturalMultiply.squareToomCook3(this); }
+    return NaturalMultiply.squareNTT(this); }
 
   //--------------------------------------------------------------
   // multiply
@@ -860,14 +948,117 @@ implements Ringlike<BoundedNatural> {
 
   @Override
   public final BoundedNatural multiply (final BoundedNatural v) {
-
+    if ((null==_words) && (null==v._words)
+      && (0L==_hi) && (0L==v._hi)) {
+      return new BoundedNatural(
+        _lo*v._lo,unsignedMultiplyHigh(_lo,v._lo)); }
     return NaturalMultiply.multiply(v,this); }
 
+  //--------------------------------------------------------------
+  // fused multiply-add
+  //--------------------------------------------------------------
+  /** <code>this*u+v</code>, with the product accumulated
+   * directly into the result, rather than allocated and then
+   * added, unless it is large enough for the fast multiply
+   * algorithms.
+   */
+
+  public final BoundedNatural multiplyAdd (final BoundedNatural u,
+                                           final BoundedNatural v) {
+    return NaturalMultiply.multiplyAdd(this,u,v); }
+
+  /** <code>this*u+v</code>, <code>0&le;u</code>. */
+
+  public final BoundedNatural multiplyAdd (final long u,
+                                           final BoundedNatural v) {
+    return NaturalMultiply.multiplyAdd(this,u,v); }
+
+  /** <code>this*u+v</code>, <code>0&le;u,v</code>. */
+
+  public final BoundedNatural multiplyAdd (final long u,
+                                           final long v) {
+    return NaturalMultiply.multiplyAdd(this,u,v); }
+
+  /** <code>this*u-v</code>, which must be non-negative.
+   * Computed in the product's array, like
+   * {@link #multiplyAdd(BoundedNatural,BoundedNatural)}.
+   */
+
+  public final BoundedNatural multiplySubtract (final BoundedNatural u,
+                                                final BoundedNatural v) {
+    assert 0<=NaturalMultiply.multiply(this,u).compareTo(v);
+    return NaturalMultiply.multiplySubtract(this,u,v); }
+
+  /** <code>this*u-v</code>, <code>0&le;u</code>,
+   * which must be non-negative.
+   */
+
+  public final BoundedNatural multiplySubtract (final long u,
+                                                final BoundedNatural v) {
+    assert 0<=NaturalMultiply.multiply(this,u).compareTo(v);
+    return NaturalMultiply.multiplySubtract(this,u,v); }
+
+  /** <code>this-t*u</code>, which must be non-negative.
+   * Computed in a copy of <code>this</code>, without
+   * allocating the product.
+   */
+
+  public final BoundedNatural subtractProduct (final BoundedNatural t,
+                                               final BoundedNatural u) {
+    assert 0<=compareTo(NaturalMultiply.multiply(t,u));
+    return NaturalMultiply.subtractProduct(this,t,u); }
+
+  /** <code>this-t*u</code>, <code>0&le;u</code>,
+   * which must be non-negative.
+   */
+
+  public final BoundedNatural subtractProduct (final BoundedNatural t,
+                                               final long u) {
+    assert 0<=compareTo(NaturalMultiply.multiply(t,u));
+    return NaturalMultiply.subtractProduct(this,t,u); }
+
+  //--------------------------------------------------------------
+  /** The pool used to fork the independent sub-products of
+   * large Karatsuba, Toom-Cook 3 and NTT multiplies and squares,
+   * or <code>null</code> if parallel multiplication is off.
+   * Defaults to {@link ForkJoinPool#commonPool()}.
+   */
+
+  public static final ForkJoinPool multiplyPool () {
+    return NaturalMultiply.parallelPool(); }
+
+  /** Use <code>pool</code> for large multiplies and squares;
+   * <code>null</code> turns parallel multiplication off.
+   */
+
+  public static final void setMultiplyPool (final ForkJoinPool pool) {
+    NaturalMultiply.parallelPool(pool); }
+
+  /** Sub-products are only forked when both operands have at
+   * least this many words.
+   */
+
+  public static final int parallelMultiplyThreshold () {
+    return NaturalMultiply.parallelThreshold(); }
+
+  public static final void
+  setParallelMultiplyThreshold (final int nwords) {
+    if (0>=nwords) {
+      throw new IllegalArgumentException(
+        "parallel multiply threshold must be positive: " + nwords); }
+    NaturalMultiply.parallelThreshold(nwords); }
+
   //--------------------------------------------------------------
   // divide
   //--------------------------------------------------------------
-  static final int BURNIKEL_ZIEGLER_THRESHOLD = 80;
-  private static final int BURNIKEL_ZIEGLER_OFFSET = 40;
+  /** Defaults, overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  static final int BURNIKEL_ZIEGLER_THRESHOLD =
+    NaturalThresholds.get("BoundedNatural.BURNIKEL_ZIEGLER_THRESHOLD",80,8);
+  private static final int BURNIKEL_ZIEGLER_OFFSET =
+    NaturalThresholds.get("BoundedNatural.BURNIKEL_ZIEGLER_OFFSET",40,0);
   private static boolean useKnuthDivision (final BoundedNatural u,
                                            final BoundedNatural v) {
     final int nn = u.hiInt();
@@ -912,6 +1103,18 @@ implements Ringlike<BoundedNatural> {
 
     return BurnikelZieglerDivision.divideAndRemainder(this,v); }
 
+  /** for testing, not meant to be called in normal code. */
+  public final BoundedNatural[]
+  divideAndRemainderNewton (final BoundedNatural v) {
+    if (v.isOne()) { return new BoundedNatural[] { this,zero(), }; }
+    if (isZero()) { return new BoundedNatural[] { zero(),zero(), }; }
+
+    final int cmp = compareTo(v);
+    if (0==cmp) { return new BoundedNatural[] { one(),zero(), }; }
+    if (0>cmp) { return new BoundedNatural[] { zero(),this, }; }
+
+    return NewtonDivision.divideAndRemainder(this,v); }
+
 //--------------------------------------------------------------
 
   @Override
@@ -936,8 +1139,32 @@ implements Ringlike<BoundedNatural> {
         BoundedNatural.unsafe(qr[0]),
         BoundedNatural.unsafe(qr[1]), }; }
 
+    if (NewtonDivision.useNewtonDivision(this,v,1)) {
+      return NewtonDivision.divideAndRemainder(this,v); }
+
     return divideAndRemainderBurnikelZiegler(v); }
 
+  //--------------------------------------------------------------
+  /** Exact quotients <code>u[i]/d</code>, sharing one Newton
+   * reciprocal of <code>d</code> when that pays off.
+   */
+
+  static final BoundedNatural[] divideAll (final BoundedNatural d,
+                                           final BoundedNatural... u) {
+    final int n = u.length;
+    final BoundedNatural[] q = new BoundedNatural[n];
+    boolean newton = (1<n);
+    for (final BoundedNatural ui : u) {
+      newton = newton && NewtonDivision.useNewtonDivision(ui,d,n); }
+    if (newton) {
+      final NewtonDivision.Reciprocal r =
+        NewtonDivision.reciprocal(d,u);
+      for (int i=0;i<n;i++) {
+        q[i] = NewtonDivision.divideAndRemainder(u[i],r)[0]; } }
+    else {
+      for (int i=0;i<n;i++) { q[i] = u[i].divide(d); } }
+    return q; }
+
   //--------------------------------------------------------------
 
   @Override
@@ -962,6 +1189,62 @@ implements Ringlike<BoundedNatural> {
     //assert u.isValid();
     return NaturalGCD.gcd(this,u); }
 
+  /** Returns <code>{g,x,y}</code>, where
+   * <code>g=gcd(this,u)</code>
+   * and <code>g = x*this - y*u</code>,
+   * with <code>x&lt;=u/g</code> and <code>y&lt;=this/g</code>.
+   * <code>this</code> must be positive.
+   */
+
+  public final BoundedNatural[] extendedGcd (final BoundedNatural u) {
+    return NaturalGCD.extendedGcd(this,u); }
+
+  //--------------------------------------------------------------
+  // roots
+  //--------------------------------------------------------------
+  /** <code>floor(sqrt(this))</code>. */
+
+  public final BoundedNatural sqrt () {
+    return NaturalRoot.sqrtAndRemainder(this)[0]; }
+
+  /** Returns <code>{s,r}</code>, where
+   * <code>s=floor(sqrt(this))</code>
+   * and <code>r=this-s<sup>2</sup></code>.
+   */
+
+  public final BoundedNatural[] sqrtAndRemainder () {
+    return NaturalRoot.sqrtAndRemainder(this); }
+
+  /** <code>floor(this<sup>1/k</sup>)</code>,
+   * for <code>k&gt;0</code>.
+   */
+
+  public final BoundedNatural root (final int k) {
+    if (0>=k) {
+      throw new IllegalArgumentException(
+        "root must be positive: " + k); }
+    return NaturalRoot.root(this,k); }
+
+  //--------------------------------------------------------------
+  // modular arithmetic
+  //--------------------------------------------------------------
+  /** <code>this<sup>exponent</sup> mod m</code>.
+   * Use {@link NaturalModulus} directly to reuse the
+   * per-modulus state over many calls.
+   */
+
+  public final BoundedNatural modPow (final BoundedNatural exponent,
+                                      final BoundedNatural m) {
+    return NaturalModulus.make(m).pow(this,exponent); }
+
+  /** <code>x</code> with <code>this x = 1 mod m</code>.
+   * @throws ArithmeticException if <code>this</code> and
+   * <code>m</code> aren't relatively prime.
+   */
+
+  public final BoundedNatural modInverse (final BoundedNatural m) {
+    return NaturalModulus.make(m).inverse(this); }
+
   //--------------------------------------------------------------
 
   @Override
@@ -976,9 +1259,7 @@ implements Ringlike<BoundedNatural> {
       if (n.isOne()) { return new BoundedNatural[] { one(),d, }; }
       final BoundedNatural g = NaturalGCD.gcd(n,d);
       if (g.compareTo(n.one()) > 0) {
-        final BoundedNatural ng = n.divide(g);
-        final BoundedNatural dg = d.divide(g);
-        return new BoundedNatural[] {ng,dg,}; }
+        return divideAll(g,n,d); }
       return new BoundedNatural[] {n,d,}; }
 
   //--------------------------------------------------------------
@@ -987,6 +1268,13 @@ implements Ringlike<BoundedNatural> {
 
   public final BoundedNatural shiftDown (final int downShift) {
     if (0==downShift) { return this; }
+    if (null==_words) {
+      if (128<=downShift) { return ZERO; }
+      if (64<=downShift) {
+        return new BoundedNatural(_hi>>>(downShift-64),0L); }
+      return new BoundedNatural(
+        (_lo>>>downShift)|(_hi<<(64-downShift)),
+        _hi>>>downShift); }
     return new BoundedNatural(
       NaturalInts.shiftDown(words(), downShift)); }
 
@@ -996,15 +1284,92 @@ implements Ringlike<BoundedNatural> {
     assert 0<=upShift;
     if (0==upShift) { return this; }
     if (isZero()) { return this; }
+    if ((null==_words) && (upShift<=(128-hiBit()))) {
+      if (64<=upShift) {
+        return new BoundedNatural(0L,_lo<<(upShift-64)); }
+      return new BoundedNatural(
+        _lo<<upShift,(_hi<<upShift)|(_lo>>>(64-upShift))); }
     return new BoundedNatural(
       NaturalInts.shiftUp(words(), upShift)); }
 
-//  public final BoundedNatural setBit (final int i) {
-//    assert 0<=i;
-//    final int iw = (i>>>5);
-//    final int w = word(iw);
-//    final int ib = (i&0x1F);
-//    return setWord(iw,(w|(1<<ib))); }
+  //--------------------------------------------------------------
+  // bits
+  //--------------------------------------------------------------
+  // Word by word, on the words or the inline longs,
+  // for using naturals as (large) bit sets.
+
+  public final BoundedNatural and (final BoundedNatural u) {
+    if ((null==_words) && (null==u._words)) {
+      return new BoundedNatural(_lo&u._lo,_hi&u._hi); }
+    return unsafe(NaturalBits.and(words(),hiInt(),u.words(),u.hiInt())); }
+
+  public final BoundedNatural or (final BoundedNatural u) {
+    if ((null==_words) && (null==u._words)) {
+      return new BoundedNatural(_lo|u._lo,_hi|u._hi); }
+    return unsafe(NaturalBits.or(words(),hiInt(),u.words(),u.hiInt())); }
+
+  public final BoundedNatural xor (final BoundedNatural u) {
+    if ((null==_words) && (null==u._words)) {
+      return new BoundedNatural(_lo^u._lo,_hi^u._hi); }
+    return unsafe(NaturalBits.xor(words(),hiInt(),u.words(),u.hiInt())); }
+
+  /** <code>this &amp; ~u</code>. */
+
+  public final BoundedNatural andNot (final BoundedNatural u) {
+    if ((null==_words) && (null==u._words)) {
+      return new BoundedNatural(_lo&~u._lo,_hi&~u._hi); }
+    return unsafe(
+      NaturalBits.andNot(words(),hiInt(),u.words(),u.hiInt())); }
+
+  public final boolean testBit (final int i) {
+    assert 0<=i : "Negative bit index: " + i;
+    if (null==_words) {
+      if (64>i) { return 0L!=(_lo&(1L<<i)); }
+      if (128>i) { return 0L!=(_hi&(1L<<(i-64))); }
+      return false; }
+    return NaturalBits.testBit(_words,hiInt(),i); }
+
+  /** <code>this</code> with bit <code>i</code> inverted. */
+
+  public final BoundedNatural flipBit (final int i) {
+    assert 0<=i : "Negative bit index: " + i;
+    if ((null==_words) && (128>i)) {
+      if (64>i) { return new BoundedNatural(_lo^(1L<<i),_hi); }
+      return new BoundedNatural(_lo,_hi^(1L<<(i-64))); }
+    return unsafe(NaturalBits.flipBit(words(),hiInt(),i)); }
+
+  public final BoundedNatural setBit (final int i) {
+    if (testBit(i)) { return this; }
+    return flipBit(i); }
+
+  public final BoundedNatural clearBit (final int i) {
+    if (! testBit(i)) { return this; }
+    return flipBit(i); }
+
+  /** Number of 1 bits. */
+
+  public final int bitCount () {
+    if (null==_words) { return Long.bitCount(_lo)+Long.bitCount(_hi); }
+    return NaturalBits.bitCount(_words,hiInt()); }
+
+  /** Bits <code>[i0,i1)</code>, ie
+   * <code>floor(this/2<sup>i0</sup>) mod 2<sup>i1-i0</sup></code>.
+   */
+
+  public final BoundedNatural bits (final int i0,
+                                    final int i1) {
+    assert 0<=i0 : "Negative bit index: " + i0;
+    assert i0<=i1 : "Empty bit range: [" + i0 + "," + i1 + ")";
+    final int n = i1-i0;
+    if ((0==n) || (hiBit()<=i0)) { return ZERO; }
+    if (null==_words) {
+      final BoundedNatural u = shiftDown(i0);
+      if (128<=n) { return u; }
+      if (64<=n) {
+        return new BoundedNatural(u._lo,u._hi&((1L<<(n-64))-1L)); }
+      return new BoundedNatural(u._lo&((1L<<n)-1L),0L); }
+    return unsafe(
+      NaturalBits.bits(_words,hiInt(),i0,Math.min(i1,hiBit()))); }
 
   //--------------------------------------------------------------
   // 'Number' methods
@@ -1015,7 +1380,7 @@ implements Ringlike<BoundedNatural> {
     // TODO: handle 'negative' words correctly!
     return switch (hiInt()) {
       case 0 -> 0;
-      case 1 -> _words[0];
+      case 1 -> word(0);
       default -> throw new UnsupportedOperationException(
         "Too large for int:" + this); }; }
 
@@ -1023,8 +1388,8 @@ implements Ringlike<BoundedNatural> {
   public final long longValue () {
     return switch (hiInt()) {
       case 0 -> 0;
-      case 1 -> unsigned(_words[0]);
-      case 2 -> (unsigned(_words[1]) << 32) | unsigned(_words[0]);
+      case 1 -> uword(0);
+      case 2 -> (uword(1) << 32) | uword(0);
       default -> throw new UnsupportedOperationException(
         "Too large for long:" + this); }; }
 
@@ -1052,19 +1417,21 @@ implements Ringlike<BoundedNatural> {
   @Override
   public final int hashCode () {
     int hashCode = 0;
-    for (int i=0; i<hiInt(); i++) {
-      hashCode = ((31 * hashCode) + _words[i]); }
+    final int n = hiInt();
+    for (int i=0; i<n; i++) {
+      hashCode = ((31 * hashCode) + word(i)); }
     return hashCode; }
 
   @Override
   public final boolean equals (final Object x) {
     if (x==this) { return true; }
     if (!(x instanceof final BoundedNatural u)) { return false; }
+    if ((null==_words) && (null==u._words)) {
+      return (_lo==u._lo) && (_hi==u._hi); }
     final int nt = hiInt();
     if (nt!=u.hiInt()) { return false; }
-    for (int i=0; i<nt; i++) {
-      if (_words[i]!=u._words[i]) { return false; } }
-    return true; }
+    // intrinsic, vectorized mismatch
+    return Arrays.equals(words(),0,nt,u.words(),0,nt); }
 
   public final String toHexString () {
     final StringBuilder b = new StringBuilder();
@@ -1077,6 +1444,14 @@ implements Ringlike<BoundedNatural> {
         b.append(String.format("%08x",uword(i))); } }
     return b.toString(); }
 
+  /** Digits in the given <code>radix</code>, from 2 to 36,
+   * without a prefix. Subquadratic for large numbers.
+   */
+
+  public final String toString (final int radix) {
+    if (0x10==radix) { return toHexString(); }
+    return NaturalRadix.toString(this,radix); }
+
   /** hex string. */
   @Override
   public final String toString () { return toHexString(); }
@@ -1100,9 +1475,33 @@ implements Ringlike<BoundedNatural> {
    * <code>loInt</code> or <code>hiInt</code.
    */
 
+  /** Arrays of at most {@link #INLINE_WORDS} words are
+   * unpacked, and dropped.
+   */
+
   private BoundedNatural (final int[] words) {
-    NaturalInts.checkOverflow(words.length);
-    _words = words; }
+    final int n = words.length;
+    NaturalInts.checkOverflow(n);
+    if (n<=INLINE_WORDS) {
+      _words = null;
+      _lo = ((0<n) ? unsigned(words[0]) : 0L)
+        | ((1<n) ? (unsigned(words[1])<<32) : 0L);
+      _hi = ((2<n) ? unsigned(words[2]) : 0L)
+        | ((3<n) ? (unsigned(words[3])<<32) : 0L); }
+    else {
+      _words = words;
+      _lo = 0L;
+      _hi = 0L; } }
+
+  /** Inline value <code>hi*2<sup>64</sup>+lo</code>,
+   * both unsigned.
+   */
+
+  private BoundedNatural (final long lo,
+                          final long hi) {
+    _words = null;
+    _lo = lo;
+    _hi = hi; }
 
   /** Doesn't copy <code>words</code> or check <code>loInt</code>
    * or <code>hiInt</code>.
@@ -1111,10 +1510,24 @@ implements Ringlike<BoundedNatural> {
   static final BoundedNatural unsafe (final int[] words) {
     return new BoundedNatural(words); }
 
+  /** For {@link NaturalCache}, which can't go through
+   * {@link #valueOf(long)} while this class is being
+   * initialized.
+   */
+
+  static final BoundedNatural inline (final long lo,
+                                      final long hi) {
+    return new BoundedNatural(lo,hi); }
+
   /** Copy <code>words</code>, stripping leading zeros.
+   * Small values are the shared instances.
    */
   public static final BoundedNatural make (final int[] words) {
     final int end = NaturalInts.hiInt(words);
+    if (end<=2) {
+      final long u = ((0<end) ? unsigned(words[0]) : 0L)
+        | ((1<end) ? (unsigned(words[1])<<32) : 0L);
+      if (0L<=u) { return valueOf(u); } }
     return new BoundedNatural(Arrays.copyOf(words,end)); }
 
   //--------------------------------------------------------------
@@ -1153,9 +1566,13 @@ implements Ringlike<BoundedNatural> {
 
   //-------------------------------------------------------------
 
+  /** Parse digits in the given <code>radix</code>, from 2 to 36.
+   * Subquadratic for long strings.
+   */
+
   public static final BoundedNatural valueOf (final String s,
                                               final int radix) {
-    return make(Ints.littleEndian(s,radix)); }
+    return NaturalRadix.parse(s,radix); }
 
   public static final BoundedNatural valueOf (final String s) {
     return valueOf(s,0x10); }
@@ -1164,13 +1581,32 @@ implements Ringlike<BoundedNatural> {
 
   public static final BoundedNatural valueOf (final long u) {
     assert 0L<=u;
-    //if (0L==u) { return zero(); }
-    final int lo = (int) u;
-    final int hi = (int) hiWord(u);
-    if (0==hi) {
-      if (0==lo) { return new BoundedNatural(new int[0]); }
-      return new BoundedNatural(new int[] {lo}); }
-    return new BoundedNatural(new int[] { lo,hi }); }
+    final BoundedNatural c = NaturalCache.valueOf(u);
+    if (null!=c) { return c; }
+    return new BoundedNatural(u,0L); }
+
+  /** <code>2<sup>k</sup></code>, shared for small
+   * <code>k</code>.
+   */
+
+  public static final BoundedNatural powerOfTwo (final int k) {
+    assert 0<=k;
+    final BoundedNatural c = NaturalCache.powerOfTwo(k);
+    if (null!=c) { return c; }
+    return ONE.shiftUp(k); }
+
+  /** <code>10<sup>k</sup></code>, shared for small
+   * <code>k</code>, otherwise by repeated squaring.
+   */
+
+  public static final BoundedNatural powerOfTen (final int k) {
+    assert 0<=k;
+    final BoundedNatural c = NaturalCache.powerOfTen(k);
+    if (null!=c) { return c; }
+    if (0==k) { return ONE; }
+    final BoundedNatural h = powerOfTen(k>>>1).square();
+    if (0==(k&1)) { return h; }
+    return h.multiply(valueOf(10L)); }
 
   public static final BoundedNatural valueOf (final long u,
                                               final int upShift) {
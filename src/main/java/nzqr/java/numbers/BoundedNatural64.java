@@ -0,0 +1,689 @@
+package nzqr.java.numbers;
+
+import static java.lang.Long.compareUnsigned;
+import static nzqr.java.numbers.Numbers.unsigned;
+import static nzqr.java.numbers.Numbers.unsignedMultiplyHigh;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/** Immutable non-negative integers (natural numbers)
+ * with the same bounds as {@link BoundedNatural},
+ * represented by a little-endian <code>long[]</code> of
+ * unsigned 64 bit limbs, rather than 32 bit words.
+ * <br>
+ * Each step of an inner loop handles twice as many bits:
+ * products of limbs are split with
+ * {@link Numbers#unsignedMultiplyHigh(long,long)},
+ * carries are computed from the top bits, without branches,
+ * and quotient digits are estimated by dividing a two limb
+ * number by a limb, in 32 bit halves.
+ * <br>
+ * Multiplication and division use schoolbook and Karatsuba
+ * algorithms on limbs; larger operands are converted to
+ * {@link BoundedNatural}, which is linear in the size,
+ * to use the Toom-Cook, NTT, Burnikel-Ziegler and Newton
+ * algorithms there.
+ * <br>
+ * Limb arrays never have leading zeros.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class BoundedNatural64
+implements Ringlike<BoundedNatural64> {
+
+  //--------------------------------------------------------------
+  // fields
+  //--------------------------------------------------------------
+  /** This array is never modified, and never has leading
+   * zeros.
+   */
+
+  private final long[] _limbs;
+
+  final long[] limbs () { return _limbs; }
+
+  /** The number of limbs. */
+
+  public final int hiLimb () { return _limbs.length; }
+
+  public final long limb (final int i) {
+    assert 0<=i : "Negative index: " + i;
+    if (_limbs.length<=i) { return 0L; }
+    return _limbs[i]; }
+
+  public final int hiBit () {
+    final int n = _limbs.length;
+    if (0==n) { return 0; }
+    return (n<<6) - Long.numberOfLeadingZeros(_limbs[n-1]); }
+
+  public final int loBit () {
+    for (int i=0;i<_limbs.length;i++) {
+      final long li = _limbs[i];
+      if (0L!=li) { return (i<<6) + Long.numberOfTrailingZeros(li); } }
+    return 0; }
+
+  /** Singleton. */
+
+  static final BoundedNatural64 ZERO = new BoundedNatural64(new long[0]);
+
+  @Override
+  public final boolean isZero () { return 0==_limbs.length; }
+
+  @Override
+  public final BoundedNatural64 zero () { return ZERO; }
+
+  public static final BoundedNatural64 ONE =
+    new BoundedNatural64(new long[] { 1L, });
+
+  @Override
+  public final BoundedNatural64 one () { return ONE; }
+
+  @Override
+  public final boolean isOne () {
+    return (1==_limbs.length) && (1L==_limbs[0]); }
+
+  //--------------------------------------------------------------
+  // limb arrays
+  //--------------------------------------------------------------
+  /** Number of limbs up to the highest non-zero one. */
+
+  private static final int hiLimb (final long[] x,
+                                   final int n) {
+    int i = n;
+    while ((0<i) && (0L==x[i-1])) { i--; }
+    return i; }
+
+  /** Copy of <code>[0,n)</code>, without leading zeros. */
+
+  private static final BoundedNatural64 trimmed (final long[] x,
+                                                 final int n) {
+    final int m = hiLimb(x,n);
+    if (0==m) { return ZERO; }
+    if (m==x.length) { return new BoundedNatural64(x); }
+    return new BoundedNatural64(Arrays.copyOf(x,m)); }
+
+  /** Limbs <code>[i0,i1)</code>. */
+
+  private final BoundedNatural64 limbs (final int i0,
+                                        final int i1) {
+    final int j1 = Math.min(i1,_limbs.length);
+    if (j1<=i0) { return ZERO; }
+    return trimmed(Arrays.copyOfRange(_limbs,i0,j1),j1-i0); }
+
+  private static final void checkOverflow (final int nlimbs) {
+    NaturalInts.checkOverflow(2*nlimbs); }
+
+  //--------------------------------------------------------------
+  // carries
+  //--------------------------------------------------------------
+  /** Carry out of <code>s = a + b (+ 1)</code>,
+   * from the top bits, without branches, which would be
+   * mispredicted about half the time.
+   */
+
+  private static final long carry (final long a,
+                                   final long b,
+                                   final long s) {
+    return ((a & b) | ((a | b) & ~s)) >>> 63; }
+
+  /** Borrow out of <code>d = a - b (- 1)</code>. */
+
+  private static final long borrow (final long a,
+                                    final long b,
+                                    final long d) {
+    return ((~a & b) | ((~a | b) & d)) >>> 63; }
+
+  //--------------------------------------------------------------
+  // ordering
+  //--------------------------------------------------------------
+
+  @Override
+  public final int compareTo (final BoundedNatural64 u) {
+    final long[] a = _limbs;
+    final long[] b = u._limbs;
+    final int n = a.length;
+    if (n!=b.length) { return Integer.compare(n,b.length); }
+    for (int i=n-1;i>=0;i--) {
+      final int c = compareUnsigned(a[i],b[i]);
+      if (0!=c) { return c; } }
+    return 0; }
+
+  //--------------------------------------------------------------
+  // add, subtract
+  //--------------------------------------------------------------
+
+  @Override
+  public final BoundedNatural64 add (final BoundedNatural64 u) {
+    if (isZero()) { return u; }
+    if (u.isZero()) { return this; }
+    final long[] a;
+    final long[] b;
+    if (_limbs.length>=u._limbs.length) { a = _limbs; b = u._limbs; }
+    else { a = u._limbs; b = _limbs; }
+    final int na = a.length;
+    final int nb = b.length;
+    final long[] s = new long[na+1];
+    long carry = 0L;
+    int i = 0;
+    for (;i<nb;i++) {
+      final long ai = a[i];
+      final long bi = b[i];
+      final long si = ai + bi + carry;
+      carry = carry(ai,bi,si);
+      s[i] = si; }
+    for (;(0L!=carry)&&(i<na);i++) {
+      final long si = a[i] + 1L;
+      carry = (0L==si) ? 1L : 0L;
+      s[i] = si; }
+    if (i<na) { System.arraycopy(a,i,s,i,na-i); }
+    s[na] = carry;
+    checkOverflow(na+(int) carry);
+    return trimmed(s,na+1); }
+
+  /** <code>this - u</code>, which must not be negative. */
+
+  @Override
+  public final BoundedNatural64 subtract (final BoundedNatural64 u) {
+    assert 0<=compareTo(u);
+    if (u.isZero()) { return this; }
+    final long[] a = _limbs;
+    final long[] b = u._limbs;
+    final int na = a.length;
+    final int nb = b.length;
+    final long[] d = new long[na];
+    long borrow = 0L;
+    int i = 0;
+    for (;i<nb;i++) {
+      final long ai = a[i];
+      final long bi = b[i];
+      final long di = ai - bi - borrow;
+      borrow = borrow(ai,bi,di);
+      d[i] = di; }
+    for (;(0L!=borrow)&&(i<na);i++) {
+      final long ai = a[i];
+      d[i] = ai - 1L;
+      borrow = (0L==ai) ? 1L : 0L; }
+    if (i<na) { System.arraycopy(a,i,d,i,na-i); }
+    assert 0L==borrow;
+    return trimmed(d,na); }
+
+  @Override
+  public final BoundedNatural64 abs () { return this; }
+
+  @Override
+  public final BoundedNatural64 absDiff (final BoundedNatural64 u) {
+    final int c = compareTo(u);
+    if (0==c) { return ZERO; }
+    if (0<c) { return subtract(u); }
+    return u.subtract(this); }
+
+  //--------------------------------------------------------------
+  // shifts
+  //--------------------------------------------------------------
+
+  public final BoundedNatural64 shiftUp (final int upShift) {
+    assert 0<=upShift;
+    if ((0==upShift) || isZero()) { return this; }
+    final int iShift = (upShift>>>6);
+    final int bShift = (upShift&0x3F);
+    final int n = _limbs.length;
+    final int m = n+iShift+1;
+    checkOverflow(m-1);
+    final long[] w = new long[m];
+    if (0==bShift) { System.arraycopy(_limbs,0,w,iShift,n); }
+    else {
+      final int rShift = 64-bShift;
+      w[m-1] = (_limbs[n-1]>>>rShift);
+      for (int i=n-1,j=m-2;i>0;i--,j--) {
+        w[j] = (_limbs[i]<<bShift) | (_limbs[i-1]>>>rShift); }
+      w[iShift] = (_limbs[0]<<bShift); }
+    return trimmed(w,m); }
+
+  public final BoundedNatural64 shiftDown (final int downShift) {
+    assert 0<=downShift;
+    if ((0==downShift) || isZero()) { return this; }
+    final int iShift = (downShift>>>6);
+    final int bShift = (downShift&0x3F);
+    final int n = _limbs.length;
+    if (n<=iShift) { return ZERO; }
+    final int m = n-iShift;
+    final long[] w = new long[m];
+    if (0==bShift) { System.arraycopy(_limbs,iShift,w,0,m); }
+    else {
+      final int rShift = 64-bShift;
+      for (int i=0,j=iShift;i<m;i++,j++) {
+        final long hi = ((j+1)<n) ? (_limbs[j+1]<<rShift) : 0L;
+        w[i] = hi | (_limbs[j]>>>bShift); } }
+    return trimmed(w,m); }
+
+  /** <code>this*2<sup>64k</sup></code>. */
+
+  private final BoundedNatural64 shiftUpLimbs (final int k) {
+    if ((0==k) || isZero()) { return this; }
+    final int n = _limbs.length;
+    checkOverflow(n+k);
+    final long[] w = new long[n+k];
+    System.arraycopy(_limbs,0,w,k,n);
+    return new BoundedNatural64(w); }
+
+  //--------------------------------------------------------------
+  // multiply
+  //--------------------------------------------------------------
+  /** Thresholds in limbs, half the corresponding word
+   * thresholds in {@link NaturalMultiply} and
+   * {@link BoundedNatural}.
+   */
+
+  private static final int KARATSUBA_THRESHOLD = 40;
+  private static final int KARATSUBA_SQUARE_THRESHOLD = 64;
+
+  /** Products with both operands at least this long are
+   * computed as {@link BoundedNatural}, which has the Toom-Cook
+   * and NTT algorithms.
+   */
+
+  private static final int BOUNDED_NATURAL_THRESHOLD = 120;
+
+  /** <code>w[offset,offset+nb+1) += a*b</code>,
+   * where <code>w[offset+nb]</code> is zero on entry.
+   */
+
+  private static final void multiplyAdd (final long[] b,
+                                         final int nb,
+                                         final long a,
+                                         final long[] w,
+                                         final int offset) {
+    long carry = 0L;
+    for (int j=0,k=offset;j<nb;j++,k++) {
+      final long bj = b[j];
+      final long lo = a*bj;
+      // a*bj + w[k] + carry < 2^128, so hi can't overflow
+      final long hi = unsignedMultiplyHigh(a,bj);
+      final long wk = w[k];
+      final long s0 = lo + wk;
+      final long s1 = s0 + carry;
+      w[k] = s1;
+      carry = hi + carry(lo,wk,s0) + carry(s0,carry,s1); }
+    w[offset+nb] = carry; }
+
+  private static final BoundedNatural64 multiplySimple (final long[] a,
+                                                        final long[] b) {
+    final int na = a.length;
+    final int nb = b.length;
+    final long[] w = new long[na+nb];
+    for (int i=0;i<na;i++) { multiplyAdd(b,nb,a[i],w,i); }
+    return trimmed(w,na+nb); }
+
+  /** Cross products once, doubled, plus the diagonal. */
+
+  private static final BoundedNatural64 squareSimple (final long[] a) {
+    final int n = a.length;
+    final long[] w = new long[2*n];
+    for (int i=0;i<(n-1);i++) {
+      // w[2i+1,i+n] is still zero above i+n-1
+      final long ai = a[i];
+      long carry = 0L;
+      for (int j=i+1,k=(2*i)+1;j<n;j++,k++) {
+        final long aj = a[j];
+        final long lo = ai*aj;
+        final long hi = unsignedMultiplyHigh(ai,aj);
+        final long wk = w[k];
+        final long s0 = lo + wk;
+        final long s1 = s0 + carry;
+        w[k] = s1;
+        carry = hi + carry(lo,wk,s0) + carry(s0,carry,s1); }
+      w[i+n] = carry; }
+    // double and add the diagonal
+    long top = 0L;
+    long carry = 0L;
+    for (int i=0;i<n;i++) {
+      final long ai = a[i];
+      final long dlo = ai*ai;
+      final long dhi = unsignedMultiplyHigh(ai,ai);
+      final long w0 = w[2*i];
+      final long w1 = w[(2*i)+1];
+      final long x0 = (w0<<1) | top;
+      final long x1 = (w1<<1) | (w0>>>63);
+      top = (w1>>>63);
+      final long s0 = x0 + dlo + carry;
+      final long c0 = carry(x0,dlo,s0);
+      final long s1 = x1 + dhi + c0;
+      w[2*i] = s0;
+      w[(2*i)+1] = s1;
+      carry = carry(x1,dhi,s1); }
+    assert (0L==carry) && (0L==top);
+    return trimmed(w,2*n); }
+
+  /** Split both at half the longer length;
+   * <code>(x1 B + x0)(y1 B + y0) =
+   * z2 B<sup>2</sup> + z1 B + z0</code>,
+   * <code>z1 = (x0+x1)(y0+y1) - z0 - z2</code>.
+   */
+
+  private static final BoundedNatural64
+  multiplyKaratsuba (final BoundedNatural64 x,
+                     final BoundedNatural64 y) {
+    final int h = (Math.max(x.hiLimb(),y.hiLimb())+1)/2;
+    final BoundedNatural64 x0 = x.limbs(0,h);
+    final BoundedNatural64 x1 = x.limbs(h,x.hiLimb());
+    final BoundedNatural64 y0 = y.limbs(0,h);
+    final BoundedNatural64 y1 = y.limbs(h,y.hiLimb());
+    final BoundedNatural64 z0 = x0.multiply(y0);
+    final BoundedNatural64 z2 = x1.multiply(y1);
+    final BoundedNatural64 z1 =
+      x0.add(x1).multiply(y0.add(y1)).subtract(z0).subtract(z2);
+    return z2.shiftUpLimbs(2*h).add(z1.shiftUpLimbs(h)).add(z0); }
+
+  private static final BoundedNatural64
+  squareKaratsuba (final BoundedNatural64 x) {
+    final int h = (x.hiLimb()+1)/2;
+    final BoundedNatural64 x0 = x.limbs(0,h);
+    final BoundedNatural64 x1 = x.limbs(h,x.hiLimb());
+    final BoundedNatural64 z0 = x0.square();
+    final BoundedNatural64 z2 = x1.square();
+    final BoundedNatural64 z1 = x0.add(x1).square().subtract(z0).subtract(z2);
+    return z2.shiftUpLimbs(2*h).add(z1.shiftUpLimbs(h)).add(z0); }
+
+  @Override
+  public final BoundedNatural64 multiply (final BoundedNatural64 u) {
+    if (isZero() || u.isZero()) { return ZERO; }
+    if (isOne()) { return u; }
+    if (u.isOne()) { return this; }
+    final int n = Math.min(hiLimb(),u.hiLimb());
+    checkOverflow(hiLimb()+u.hiLimb()-1);
+    if (n<KARATSUBA_THRESHOLD) { return multiplySimple(_limbs,u._limbs); }
+    if (n<BOUNDED_NATURAL_THRESHOLD) { return multiplyKaratsuba(this,u); }
+    return valueOf(toBoundedNatural().multiply(u.toBoundedNatural())); }
+
+  @Override
+  public final BoundedNatural64 square () {
+    if (isZero() || isOne()) { return this; }
+    final int n = hiLimb();
+    checkOverflow((2*n)-1);
+    if (n<KARATSUBA_SQUARE_THRESHOLD) { return squareSimple(_limbs); }
+    if (n<BOUNDED_NATURAL_THRESHOLD) { return squareKaratsuba(this); }
+    return valueOf(toBoundedNatural().square()); }
+
+  //--------------------------------------------------------------
+  // divide
+  //--------------------------------------------------------------
+  /** Divisors with at least this many limbs are divided as
+   * {@link BoundedNatural}, which has the Burnikel-Ziegler and
+   * Newton algorithms.
+   */
+
+  private static final int BURNIKEL_ZIEGLER_THRESHOLD = 40;
+
+  private static final long LO32 = 0xFFFFFFFFL;
+
+  /** <code>floor((u1 2<sup>64</sup> + u0)/v)</code>,
+   * for <code>u1 &lt; v</code>, unsigned,
+   * by dividing 32 bit halves (Hacker's Delight,
+   * <code>divlu</code>).
+   * The remainder is <code>u0-q*v</code>, modulo
+   * <code>2<sup>64</sup></code>.
+   */
+
+  static final long divide (final long u1,
+                            final long u0,
+                            final long v0) {
+    assert compareUnsigned(u1,v0)<0;
+    final int s = Long.numberOfLeadingZeros(v0);
+    final long v = (v0<<s);
+    final long vn1 = (v>>>32);
+    final long vn0 = (v&LO32);
+    final long un32 = (0==s) ? u1 : ((u1<<s) | (u0>>>(64-s)));
+    final long un10 = (u0<<s);
+    final long un1 = (un10>>>32);
+    final long un0 = (un10&LO32);
+    long q1 = Long.divideUnsigned(un32,vn1);
+    long rhat = un32 - (q1*vn1);
+    while ((compareUnsigned(q1,LO32)>0)
+      || (compareUnsigned(q1*vn0,(rhat<<32)|un1)>0)) {
+      q1--;
+      rhat += vn1;
+      if (compareUnsigned(rhat,LO32)>0) { break; } }
+    final long un21 = ((un32<<32)|un1) - (q1*v);
+    long q0 = Long.divideUnsigned(un21,vn1);
+    rhat = un21 - (q0*vn1);
+    while ((compareUnsigned(q0,LO32)>0)
+      || (compareUnsigned(q0*vn0,(rhat<<32)|un0)>0)) {
+      q0--;
+      rhat += vn1;
+      if (compareUnsigned(rhat,LO32)>0) { break; } }
+    return (q1<<32) | q0; }
+
+  private final BoundedNatural64[] divideAndRemainder (final long v) {
+    final long[] u = _limbs;
+    final int n = u.length;
+    final long[] q = new long[n];
+    long r = 0L;
+    for (int i=n-1;i>=0;i--) {
+      final long qi = divide(r,u[i],v);
+      r = u[i] - (qi*v);
+      q[i] = qi; }
+    return new BoundedNatural64[] {
+      trimmed(q,n),
+      (0L==r) ? ZERO : new BoundedNatural64(new long[] { r, }), }; }
+
+  /** Knuth, Algorithm D, section 4.3.1, on limbs. */
+
+  private final BoundedNatural64[]
+  divideAndRemainderKnuth (final BoundedNatural64 d) {
+    final long[] u = _limbs;
+    final long[] v = d._limbs;
+    final int m = u.length;
+    final int n = v.length;
+    // D1: normalize so the divisor's top bit is set
+    final int s = Long.numberOfLeadingZeros(v[n-1]);
+    final long[] vn = new long[n];
+    final long[] un = new long[m+1];
+    if (0==s) {
+      System.arraycopy(v,0,vn,0,n);
+      System.arraycopy(u,0,un,0,m); }
+    else {
+      final int rs = 64-s;
+      for (int i=n-1;i>0;i--) { vn[i] = (v[i]<<s) | (v[i-1]>>>rs); }
+      vn[0] = (v[0]<<s);
+      un[m] = (u[m-1]>>>rs);
+      for (int i=m-1;i>0;i--) { un[i] = (u[i]<<s) | (u[i-1]>>>rs); }
+      un[0] = (u[0]<<s); }
+    final long vh = vn[n-1];
+    final long vl = vn[n-2];
+    final long[] q = new long[(m-n)+1];
+    for (int j=m-n;j>=0;j--) {
+      // D3: estimate, at most 2 too large after the correction
+      final long ujn = un[j+n];
+      final long ujn1 = un[j+n-1];
+      long qhat;
+      long rhat;
+      boolean correct;
+      if (ujn==vh) {
+        qhat = -1L;
+        rhat = ujn1 + vh;
+        correct = (compareUnsigned(rhat,ujn1)>=0); }
+      else {
+        qhat = divide(ujn,ujn1,vh);
+        rhat = ujn1 - (qhat*vh);
+        correct = true; }
+      final long ujn2 = un[j+n-2];
+      while (correct) {
+        final long plo = qhat*vl;
+        final long phi = unsignedMultiplyHigh(qhat,vl);
+        final int c = compareUnsigned(phi,rhat);
+        if ((0>c) || ((0==c) && (compareUnsigned(plo,ujn2)<=0))) { break; }
+        qhat--;
+        final long r2 = rhat + vh;
+        correct = (compareUnsigned(r2,rhat)>=0);
+        rhat = r2; }
+      // D4: multiply and subtract
+      long carry = 0L;
+      for (int i=0,k=j;i<n;i++,k++) {
+        final long vi = vn[i];
+        final long p0 = qhat*vi;
+        final long plo = p0 + carry;
+        final long phi =
+          unsignedMultiplyHigh(qhat,vi) + carry(p0,carry,plo);
+        final long uk = un[k];
+        final long dk = uk - plo;
+        un[k] = dk;
+        carry = phi + borrow(uk,plo,dk); }
+      final long ujn0 = un[j+n];
+      un[j+n] = ujn0 - carry;
+      // D5, D6: add back, rarely
+      if (compareUnsigned(ujn0,carry)<0) {
+        qhat--;
+        long c = 0L;
+        for (int i=0,k=j;i<n;i++,k++) {
+          final long uk = un[k];
+          final long vi = vn[i];
+          final long sk = uk + vi + c;
+          c = carry(uk,vi,sk);
+          un[k] = sk; }
+        un[j+n] += c; }
+      q[j] = qhat; }
+    // D8: unnormalize the remainder
+    final long[] r = new long[n];
+    if (0==s) { System.arraycopy(un,0,r,0,n); }
+    else {
+      final int rs = 64-s;
+      for (int i=0;i<(n-1);i++) { r[i] = (un[i]>>>s) | (un[i+1]<<rs); }
+      r[n-1] = (un[n-1]>>>s); }
+    return new BoundedNatural64[] { trimmed(q,q.length), trimmed(r,n), }; }
+
+  @Override
+  public final BoundedNatural64[] divideAndRemainder (final BoundedNatural64 v) {
+    if (v.isZero()) { throw new ArithmeticException("divide by zero"); }
+    if (v.isOne()) { return new BoundedNatural64[] { this, ZERO, }; }
+    final int c = compareTo(v);
+    if (0==c) { return new BoundedNatural64[] { ONE, ZERO, }; }
+    if (0>c) { return new BoundedNatural64[] { ZERO, this, }; }
+    final int n = v.hiLimb();
+    if (1==n) { return divideAndRemainder(v._limbs[0]); }
+    if ((n<BURNIKEL_ZIEGLER_THRESHOLD)
+      || ((hiLimb()-n)<BURNIKEL_ZIEGLER_THRESHOLD)) {
+      return divideAndRemainderKnuth(v); }
+    final BoundedNatural[] qr =
+      toBoundedNatural().divideAndRemainder(v.toBoundedNatural());
+    return new BoundedNatural64[] { valueOf(qr[0]), valueOf(qr[1]), }; }
+
+  @Override
+  public final BoundedNatural64 divide (final BoundedNatural64 v) {
+    return divideAndRemainder(v)[0]; }
+
+  @Override
+  public final BoundedNatural64 remainder (final BoundedNatural64 v) {
+    return divideAndRemainder(v)[1]; }
+
+  @Override
+  public final BoundedNatural64 gcd (final BoundedNatural64 u) {
+    return valueOf(toBoundedNatural().gcd(u.toBoundedNatural())); }
+
+  //--------------------------------------------------------------
+  // 'Number' methods
+  //--------------------------------------------------------------
+
+  @Override
+  public final int intValue () {
+    if ((1<hiLimb()) || (0L!=(limb(0)>>>32))) {
+      throw new UnsupportedOperationException(
+        "Too large for int:" + this); }
+    return (int) limb(0); }
+
+  /** Unsigned 64 bits; negative if the high bit is set. */
+
+  @Override
+  public final long longValue () {
+    if (1<hiLimb()) {
+      throw new UnsupportedOperationException(
+        "Too large for long:" + this); }
+    return limb(0); }
+
+  //--------------------------------------------------------------
+  // conversion
+  //--------------------------------------------------------------
+  /** Pairs of words, low word first. */
+
+  public static final BoundedNatural64 valueOf (final BoundedNatural u) {
+    final int[] w = u.words();
+    final int nw = u.hiInt();
+    final int n = (nw+1)>>>1;
+    final long[] x = new long[n];
+    for (int i=0,j=0;i<n;i++,j+=2) {
+      final long hi = ((j+1)<nw) ? (((long) w[j+1])<<32) : 0L;
+      x[i] = hi | unsigned(w[j]); }
+    return trimmed(x,n); }
+
+  public final BoundedNatural toBoundedNatural () {
+    final int n = _limbs.length;
+    if (0==n) { return BoundedNatural.ZERO; }
+    final int[] w = new int[2*n];
+    for (int i=0,j=0;i<n;i++,j+=2) {
+      final long li = _limbs[i];
+      w[j] = (int) li;
+      w[j+1] = (int) (li>>>32); }
+    return BoundedNatural.unsafe(w); }
+
+  /** Unsigned 64 bits, like {@link #longValue()}, so
+   * negative <code>u</code> is at least
+   * <code>2<sup>63</sup></code>.
+   */
+
+  public static final BoundedNatural64 valueOf (final long u) {
+    if (0L==u) { return ZERO; }
+    return new BoundedNatural64(new long[] { u, }); }
+
+  public static final BoundedNatural64 valueOf (final BigInteger u) {
+    return valueOf(BoundedNatural.valueOf(u)); }
+
+  public final BigInteger toBigInteger () {
+    return toBoundedNatural().toBigInteger(); }
+
+  /** Copy <code>limbs</code>, stripping leading zeros. */
+
+  public static final BoundedNatural64 make (final long[] limbs) {
+    final int n = hiLimb(limbs,limbs.length);
+    checkOverflow(n);
+    return new BoundedNatural64(Arrays.copyOf(limbs,n)); }
+
+  //--------------------------------------------------------------
+  // Object methods
+  //--------------------------------------------------------------
+
+  @Override
+  public final int hashCode () { return Arrays.hashCode(_limbs); }
+
+  @Override
+  public final boolean equals (final Object x) {
+    if (x==this) { return true; }
+    if (!(x instanceof final BoundedNatural64 u)) { return false; }
+    return Arrays.equals(_limbs,u._limbs); }
+
+  /** hex string. */
+
+  @Override
+  public final String toString () {
+    final int n = _limbs.length;
+    if (0==n) { return "0"; }
+    final StringBuilder b = new StringBuilder();
+    b.append(Long.toHexString(_limbs[n-1]));
+    for (int i=n-2;i>=0;i--) { b.append(String.format("%016x",_limbs[i])); }
+    return b.toString(); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+  /** UNSAFE: doesn't copy <code>limbs</code>; it must have no
+   * leading zeros.
+   */
+
+  private BoundedNatural64 (final long[] limbs) {
+    assert (0==limbs.length) || (0L!=limbs[limbs.length-1]);
+    _limbs = limbs; }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -6,7 +6,7 @@ package nzqr.java.numbers;
  * dependencies.
  * <br>
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-02
+ * @version 2026-10-17
  */
 
 //@SuppressWarnings("unchecked")
@@ -33,41 +33,46 @@ final class BurnikelZieglerDivision {
 
     // step 1: view this as [a1,a2,a3] where each ai is n ints
     // or less; let a12=[a1,a2]
-    BoundedNatural a12 = a.shiftDown(32*n);
+    final BoundedNatural a12 = a.shiftDown(32*n);
 
     // step 2: view b as [b1,b2] where each bi is n ints or less
-    BoundedNatural b1 = b.shiftDown(n*32);
+    final BoundedNatural b1 = b.shiftDown(n*32);
     final BoundedNatural b2 = b.words(0, n);
-    BoundedNatural r;
-    BoundedNatural d;
+    final MutableNatural r;
+    final BoundedNatural d;
     BoundedNatural q;
-    // TODO: word shift or shifted comparison
-    if (a.compareTo(b.shiftUp(32*n)) < 0) {
+    // a < b*beta^n exactly when a12 < b
+    if (a12.compareTo(b) < 0) {
       // step 3a: if a1<b1, let quotient=a12/b1 and r=a12%b1
       // Doesn't need modified a12
       final BoundedNatural[] qr = divide2n1n(a12,b1);
       q = qr[0];
-      r = qr[1];
+      r = MutableNatural.copy(qr[1],(3*n)+2);
       // step 4: d=quotient*b2
       d = q.multiply(b2); }
     else {
       // step 3b: if a1>=b1, let quotient=beta^n-1
       //and r=a12-b1*2^n+b1
       q = BoundedNatural.ones(n);
-      a12 = a12.add(b1);
-      b1 = b1.shiftUp(32*n);
-      r = a12.subtract(b1);
+      r = MutableNatural.copy(a12,(3*n)+2);
+      r.add(b1,0);
+      r.subtract(b1,32*n);
       // step 4: d=quotient*b2=(b2 << 32*n) - b2
-      d = b2.shiftUp(32*n).subtract(b2); }
+      final MutableNatural dm = new MutableNatural((2*n)+1);
+      dm.set(b2.words(),b2.hiInt(),32*n);
+      dm.subtract(b2,0);
+      d = dm.freeze(); }
     // step 5: r = r*beta^n + a3 - d (paper says a4)
     // However, don't subtract d until after the while loop
     // so r doesn't become negative
-    r = r.shiftUp(n<<5).add(a.words(0,n));
+    r.shiftUp(n<<5);
+    r.add(a.words(),Math.min(n,a.hiInt()),0);
     // step 6: add b until r>=d
     while (r.compareTo(d) < 0) {
-      r = r.add(b);
+      r.add(b,0);
       q = q.subtract(a.one()); }
-    return new BoundedNatural[] { q, r.subtract(d), }; }
+    r.subtract(d,0);
+    return new BoundedNatural[] { q, r.freeze(), }; }
 
   /** This method implements algorithm 1 from pg. 4 of the
    * Burnikel-Ziegler paper. It divides a 2n-digit number by an
@@ -94,15 +99,17 @@ final class BurnikelZieglerDivision {
     // where each ai is n/2 ints or less
     // aUpper = [a1,a2,a3]
     final BoundedNatural aUpper = a.shiftDown(32*(n/2));
-    BoundedNatural aa = a.words(0,n/2); // this = a4
 
     // step 3: q1=aUpper/b, r1=aUpper%b
     final BoundedNatural[] qr1 = divide3n2n(aUpper,b);
 
     // step 4: quotient=[r1,this]/b, r2=[r1,this]%b
-    aa = aa.add(qr1[1],32*(n/2));   // this = [r1,this]
+    // this = [r1,a4]
+    final MutableNatural aa = new MutableNatural(n+(n/2)+1);
+    aa.set(a.words(),Math.min(n/2,a.hiInt()),0);
+    aa.add(qr1[1],32*(n/2));
 
-    final BoundedNatural[] qr2 = divide3n2n(aa,b);
+    final BoundedNatural[] qr2 = divide3n2n(aa.freeze(),b);
     // step 5: let quotient=[q1,quotient] and return r2
     final BoundedNatural q2 = qr2[0].add(qr1[0], 32*(n/2));
     return new BoundedNatural[] { q2,qr2[1], }; }
@@ -166,7 +173,8 @@ final class BurnikelZieglerDivision {
     z = z.add(a1,32*n);   // z[t-2]
 
     // schoolbook division on blocks, dividing 2-block by 1-block
-    BoundedNatural q = u.zero();
+    // quotient blocks don't overlap, so are just copied into q
+    final MutableNatural q = new MutableNatural(((t-1)*n)+1);
     for (int i=t-2;i>0;i--) {
       // step 8a: compute (qi,ri) such that z=b*qi+ri
       // Doesn't need modified z
@@ -175,7 +183,7 @@ final class BurnikelZieglerDivision {
       z = getBlock(aShifted,i-1, t, n);   // a[i-1]
       z = z.add(qri[1], 32*n);
       // update q (part of step 9)
-      q = q.add(qri[0],(i*n)<<5); }
+      q.add(qri[0],(i*n)<<5); }
     // final iteration of step 8: do the loop one more time
     // for i=0 but leave z unchanged
     //assert z.isValid();
@@ -183,8 +191,9 @@ final class BurnikelZieglerDivision {
     final BoundedNatural[] qri = divide2n1n(z,bShifted);
 
     // step 9: a and b were shifted, so shift back
+    q.add(qri[0],0);
     return new BoundedNatural[] {
-      q.add(qri[0]),
+      q.freeze(),
       qri[1].shiftDown(sigma), }; }
 
   //--------------------------------------------------------------
@@ -0,0 +1,474 @@
+package nzqr.java.numbers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/** Exact dense linear algebra over {@link RationalFloat},
+ * by fraction-free (Bareiss) elimination.
+ * <br>
+ * Each row (or, for symmetric matrices, the whole matrix) is
+ * first scaled to integers, by the lcm of its denominators and
+ * a power of 2. Elimination then works on signed
+ * {@link BoundedNatural} integers, where every intermediate
+ * entry is a minor of the scaled matrix, divided exactly by the
+ * previous pivot, so entries grow linearly with the step,
+ * rather than exponentially, and no gcds are needed until the
+ * final results are reduced.
+ * <br>
+ * The elimination step updates each row below the pivot
+ * independently; the <code>ForkJoinPool</code> versions
+ * compute the rows of each step in parallel.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class FractionFree {
+
+  //--------------------------------------------------------------
+  // signed integers
+  //--------------------------------------------------------------
+
+  private static final class Z {
+    final boolean p;
+    final BoundedNatural m;
+    final boolean isZero () { return m.isZero(); }
+    Z (final boolean p0, final BoundedNatural m0) {
+      p = p0 || m0.isZero(); m = m0; } }
+
+  private static final Z ZERO = new Z(true,BoundedNatural.ZERO);
+
+  private static final Z ONE = new Z(true,BoundedNatural.ONE);
+
+  private static final Z multiply (final Z a, final Z b) {
+    return new Z(a.p==b.p,a.m.multiply(b.m)); }
+
+  private static final Z subtract (final Z a, final Z b) {
+    if (b.isZero()) { return a; }
+    if (a.isZero()) { return new Z(!b.p,b.m); }
+    if (a.p!=b.p) { return new Z(a.p,a.m.add(b.m)); }
+    final int c = a.m.compareTo(b.m);
+    if (0<=c) { return new Z(a.p,a.m.subtract(b.m)); }
+    return new Z(!a.p,b.m.subtract(a.m)); }
+
+  /** <code>a/b</code>, which must be an integer. */
+
+  private static final Z divideExact (final Z a, final Z b) {
+    if (b.m.isOne()) { return (b.p ? a : new Z(!a.p,a.m)); }
+    return new Z(a.p==b.p,a.m.divide(b.m)); }
+
+  /** <code>(a*b - c*d)/e</code>, which must be an integer. */
+
+  private static final Z cross (final Z a, final Z b,
+                                final Z c, final Z d,
+                                final Z e) {
+    final Z ab = (a.isZero() || b.isZero()) ? ZERO : multiply(a,b);
+    final Z cd = (c.isZero() || d.isZero()) ? ZERO : multiply(c,d);
+    return divideExact(subtract(ab,cd),e); }
+
+  /** <code>(y/d)*2<sup>e</sup>/l</code>, in lowest terms. */
+
+  private static final RationalFloat ratio (final Z y,
+                                            final Z d,
+                                            final BoundedNatural l,
+                                            final int e) {
+    if (y.isZero()) { return RationalFloat.ZERO; }
+    return RationalFloat.valueOf(
+      y.p==d.p,y.m,d.m.multiply(l),e).reduce(); }
+
+  //--------------------------------------------------------------
+  // scaling to integers
+  //--------------------------------------------------------------
+
+  private static final BoundedNatural lcm (final BoundedNatural a,
+                                           final BoundedNatural b) {
+    if (a.isOne()) { return b; }
+    if (b.isOne() || a.equals(b)) { return a; }
+    return a.divide(a.gcd(b)).multiply(b); }
+
+  /** Integers <code>z[j] = q[j]*l*2<sup>-e</sup></code>, where
+   * <code>l</code>, returned in <code>lcm[i]</code>,
+   * is the lcm of the denominators, and <code>e</code>,
+   * returned in <code>emin[i]</code>, is the least exponent,
+   * over the non-zero elements.
+   */
+
+  private static final Z[] integers (final RationalFloat[] q,
+                                     final BoundedNatural[] lcm,
+                                     final int[] emin,
+                                     final int i) {
+    final int n = q.length;
+    BoundedNatural l = BoundedNatural.ONE;
+    int e = Integer.MAX_VALUE;
+    for (final RationalFloat qj : q) {
+      if (qj.isZero()) { continue; }
+      l = lcm(l,qj.denominator());
+      e = Math.min(e,qj.exponent()); }
+    if (Integer.MAX_VALUE==e) { e = 0; }
+    final Z[] z = new Z[n];
+    for (int j=0;j<n;j++) {
+      final RationalFloat qj = q[j];
+      if (qj.isZero()) { z[j] = ZERO; continue; }
+      final BoundedNatural dj = qj.denominator();
+      final BoundedNatural f = dj.isOne() ? l : l.divide(dj);
+      final BoundedNatural nj =
+        f.isOne() ? qj.numerator() : qj.numerator().multiply(f);
+      z[j] = new Z(qj.nonNegative(),nj.shiftUp(qj.exponent()-e)); }
+    lcm[i] = l;
+    emin[i] = e;
+    return z; }
+
+  /** Rows of <code>a</code>, with <code>b[i]</code> appended,
+   * if <code>b</code> isn't <code>null</code>.
+   */
+
+  private static final RationalFloat[] row (final RationalFloat[][] a,
+                                            final RationalFloat[] b,
+                                            final int i) {
+    if (null==b) { return a[i]; }
+    final int n = a[i].length;
+    final RationalFloat[] r = new RationalFloat[n+1];
+    System.arraycopy(a[i],0,r,0,n);
+    r[n] = b[i];
+    return r; }
+
+  /** Each row scaled separately. */
+
+  private static final Z[][] scaleRows (final RationalFloat[][] a,
+                                        final RationalFloat[] b,
+                                        final BoundedNatural[] lcm,
+                                        final int[] emin) {
+    final int n = a.length;
+    final Z[][] z = new Z[n][];
+    for (int i=0;i<n;i++) { z[i] = integers(row(a,b,i),lcm,emin,i); }
+    return z; }
+
+  /** All rows scaled by the same factor, preserving symmetry;
+   * the factor is returned in <code>lcm[0]</code> and
+   * <code>emin[0]</code>.
+   */
+
+  private static final Z[][] scaleAll (final RationalFloat[][] a,
+                                       final RationalFloat[] b,
+                                       final BoundedNatural[] lcm,
+                                       final int[] emin) {
+    final int n = a.length;
+    final int m = (null==b) ? n : n+1;
+    final RationalFloat[] all = new RationalFloat[n*m];
+    for (int i=0;i<n;i++) {
+      System.arraycopy(row(a,b,i),0,all,i*m,m); }
+    final Z[] flat = integers(all,lcm,emin,0);
+    final Z[][] z = new Z[n][m];
+    for (int i=0;i<n;i++) { System.arraycopy(flat,i*m,z[i],0,m); }
+    return z; }
+
+  //--------------------------------------------------------------
+  // argument checks
+  //--------------------------------------------------------------
+
+  private static final void checkSquare (final RationalFloat[][] a) {
+    final int n = a.length;
+    if (0==n) {
+      throw new IllegalArgumentException("empty matrix"); }
+    for (final RationalFloat[] ai : a) {
+      if (n!=ai.length) {
+        throw new IllegalArgumentException(
+          "not square: " + n + " rows, row length " + ai.length); } } }
+
+  private static final void checkRhs (final RationalFloat[][] a,
+                                      final RationalFloat[] b) {
+    if (a.length!=b.length) {
+      throw new IllegalArgumentException(
+        "right hand side length " + b.length
+        + " doesn't match " + a.length + " rows"); } }
+
+  private static final void checkSymmetric (final RationalFloat[][] a) {
+    final int n = a.length;
+    for (int i=0;i<n;i++) {
+      for (int j=i+1;j<n;j++) {
+        if (0!=a[i][j].compareTo(a[j][i])) {
+          throw new IllegalArgumentException(
+            "not symmetric at " + i + "," + j); } } } }
+
+  //--------------------------------------------------------------
+  // elimination
+  //--------------------------------------------------------------
+  /** One Bareiss step on rows <code>[i0,i1)</code>, below
+   * pivot row <code>k</code>:
+   * <code>z[i][j] = (z[k][k]*z[i][j] - z[i][k]*z[k][j])/prev</code>.
+   * <br>
+   * If <code>symmetric</code>, only the upper triangle (and any
+   * right hand side column) is updated, with
+   * <code>z[k][i]</code> standing in for <code>z[i][k]</code>.
+   */
+
+  private static final void step (final Z[][] z,
+                                  final int k,
+                                  final Z prev,
+                                  final boolean symmetric,
+                                  final int i0,
+                                  final int i1) {
+    final Z[] zk = z[k];
+    final Z pk = zk[k];
+    for (int i=i0;i<i1;i++) {
+      final Z[] zi = z[i];
+      final int m = zi.length;
+      final Z zik = symmetric ? zk[i] : zi[k];
+      for (int j=(symmetric ? i : k+1);j<m;j++) {
+        zi[j] = cross(pk,zi[j],zik,zk[j],prev); }
+      if (! symmetric) { zi[k] = ZERO; } } }
+
+  /** Rows of one elimination step, split in halves. */
+
+  private static final class Step extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private final transient Z[][] z;
+    private final int k;
+    private final transient Z prev;
+    private final boolean symmetric;
+    private final int i0;
+    private final int i1;
+    @Override
+    protected final void compute () {
+      if (1>=(i1-i0)) { step(z,k,prev,symmetric,i0,i1); return; }
+      final int im = (i0+i1)>>>1;
+      invokeAll(
+        new Step(z,k,prev,symmetric,i0,im),
+        new Step(z,k,prev,symmetric,im,i1)); }
+    Step (final Z[][] z0,
+          final int k0,
+          final Z prev0,
+          final boolean symmetric0,
+          final int start,
+          final int end) {
+      z = z0; k = k0; prev = prev0; symmetric = symmetric0;
+      i0 = start; i1 = end; } }
+
+  /** Update the rows below pivot <code>k</code>, in
+   * <code>pool</code>, unless it is <code>null</code>.
+   */
+
+  private static final void step (final Z[][] z,
+                                  final int k,
+                                  final Z prev,
+                                  final boolean symmetric,
+                                  final ForkJoinPool pool) {
+    final int n = z.length;
+    if ((null==pool) || (1>=pool.getParallelism()) || (2>(n-k-1))) {
+      step(z,k,prev,symmetric,k+1,n);
+      return; }
+    final Step task = new Step(z,k,prev,symmetric,k+1,n);
+    if (ForkJoinTask.getPool()==pool) { task.invoke(); }
+    else { pool.invoke(task); } }
+
+  /** Bareiss elimination with row pivoting, choosing the
+   * non-zero candidate pivot with the fewest bits.
+   * Afterwards the upper triangle of <code>z</code> holds
+   * <code>U</code>, and <code>z[n-1][n-1]</code> is the
+   * determinant of the row permuted matrix.
+   * @return the sign of the row permutation, or 0 if the
+   * matrix is singular.
+   */
+
+  private static final int eliminate (final Z[][] z,
+                                      final ForkJoinPool pool) {
+    final int n = z.length;
+    int sign = 1;
+    Z prev = ONE;
+    for (int k=0;k<n;k++) {
+      int ip = -1;
+      for (int i=k;i<n;i++) {
+        final Z zik = z[i][k];
+        if (zik.isZero()) { continue; }
+        if ((0>ip) || (zik.m.hiBit()<z[ip][k].m.hiBit())) { ip = i; } }
+      if (0>ip) { return 0; }
+      if (ip!=k) {
+        final Z[] t = z[ip]; z[ip] = z[k]; z[k] = t;
+        sign = -sign; }
+      step(z,k,prev,false,pool);
+      prev = z[k][k]; }
+    return sign; }
+
+  /** Symmetric Bareiss elimination, without pivoting, updating
+   * only the upper triangle.
+   * @throws ArithmeticException if a pivot is zero.
+   */
+
+  private static final void eliminateSymmetric (final Z[][] z,
+                                                final ForkJoinPool pool) {
+    final int n = z.length;
+    Z prev = ONE;
+    for (int k=0;k<n;k++) {
+      if (z[k][k].isZero()) {
+        throw new ArithmeticException(
+          "zero pivot at " + k + ", symmetric elimination needs "
+          + "non-singular leading minors"); }
+      step(z,k,prev,true,pool);
+      prev = z[k][k]; } }
+
+  /** Fraction-free back substitution in the eliminated
+   * <code>z</code>, with the right hand side in column
+   * <code>n</code>:
+   * <code>y[i] = (det*b[i] - sum<sub>j&gt;i</sub> z[i][j]*y[j])/z[i][i]</code>,
+   * so that <code>x[i] = y[i]/det</code>, with
+   * <code>det = z[n-1][n-1]</code>.
+   */
+
+  private static final Z[] backSubstitute (final Z[][] z) {
+    final int n = z.length;
+    final Z det = z[n-1][n-1];
+    final Z[] y = new Z[n];
+    for (int i=n-1;i>=0;i--) {
+      final Z[] zi = z[i];
+      Z s = multiply(det,zi[n]);
+      for (int j=i+1;j<n;j++) {
+        if (y[j].isZero() || zi[j].isZero()) { continue; }
+        s = subtract(s,multiply(zi[j],y[j])); }
+      y[i] = divideExact(s,zi[i]); }
+    return y; }
+
+  //--------------------------------------------------------------
+  // determinant
+  //--------------------------------------------------------------
+  /** Exact determinant of the square matrix <code>a</code>,
+   * in lowest terms, with the elimination steps computed in
+   * <code>pool</code>, unless it is <code>null</code>.
+   */
+
+  public static final RationalFloat determinant (final RationalFloat[][] a,
+                                                 final ForkJoinPool pool) {
+    checkSquare(a);
+    final int n = a.length;
+    final BoundedNatural[] lcm = new BoundedNatural[n];
+    final int[] emin = new int[n];
+    final Z[][] z = scaleRows(a,null,lcm,emin);
+    final int sign = eliminate(z,pool);
+    if (0==sign) { return RationalFloat.ZERO; }
+    // det(a) = det(z) / prod(lcm[i]*2^-emin[i])
+    long e = 0L;
+    for (final int ei : emin) { e += ei; }
+    final Z det = z[n-1][n-1];
+    return ratio(
+      new Z((0<sign)==det.p,det.m),ONE,
+      Naturals.product(lcm),Math.toIntExact(e)); }
+
+  /** Exact determinant of the square matrix <code>a</code>,
+   * in lowest terms.
+   */
+
+  public static final RationalFloat determinant (final RationalFloat[][] a) {
+    return determinant(a,null); }
+
+  //--------------------------------------------------------------
+  // solve
+  //--------------------------------------------------------------
+
+  private static final RationalFloat[] solution (final Z[] y,
+                                                 final Z det) {
+    final int n = y.length;
+    final RationalFloat[] x = new RationalFloat[n];
+    for (int i=0;i<n;i++) { x[i] = ratio(y[i],det,BoundedNatural.ONE,0); }
+    return x; }
+
+  /** Exact solution of <code>a*x=b</code>, in lowest terms,
+   * with the elimination steps computed in <code>pool</code>,
+   * unless it is <code>null</code>.
+   * @throws ArithmeticException if <code>a</code> is singular.
+   */
+
+  public static final RationalFloat[] solve (final RationalFloat[][] a,
+                                             final RationalFloat[] b,
+                                             final ForkJoinPool pool) {
+    checkSquare(a);
+    checkRhs(a,b);
+    final int n = a.length;
+    final Z[][] z = scaleRows(a,b,new BoundedNatural[n],new int[n]);
+    if (0==eliminate(z,pool)) {
+      throw new ArithmeticException("singular matrix"); }
+    return solution(backSubstitute(z),z[n-1][n-1]); }
+
+  /** Exact solution of <code>a*x=b</code>, in lowest terms.
+   * @throws ArithmeticException if <code>a</code> is singular.
+   */
+
+  public static final RationalFloat[] solve (final RationalFloat[][] a,
+                                             final RationalFloat[] b) {
+    return solve(a,b,null); }
+
+  /** Exact solution of <code>a*x=b</code>, for symmetric
+   * <code>a</code> with non-singular leading minors
+   * (eg positive definite), updating only the upper triangle,
+   * about half the work of {@link #solve}.
+   * @throws ArithmeticException if a leading minor is zero.
+   */
+
+  public static final RationalFloat[]
+  solveSymmetric (final RationalFloat[][] a,
+                  final RationalFloat[] b,
+                  final ForkJoinPool pool) {
+    checkSquare(a);
+    checkRhs(a,b);
+    checkSymmetric(a);
+    final Z[][] z = scaleAll(a,b,new BoundedNatural[1],new int[1]);
+    eliminateSymmetric(z,pool);
+    return solution(backSubstitute(z),z[a.length-1][a.length-1]); }
+
+  public static final RationalFloat[]
+  solveSymmetric (final RationalFloat[][] a,
+                  final RationalFloat[] b) {
+    return solveSymmetric(a,b,null); }
+
+  //--------------------------------------------------------------
+  // LDL^T
+  //--------------------------------------------------------------
+  /** Exact <code>a = L*D*L<sup>T</sup></code>, for symmetric
+   * <code>a</code> with non-singular leading minors,
+   * returned in compact form: the unit lower triangular
+   * <code>L</code> below the diagonal, the diagonal
+   * <code>D</code> on it, and zeros above.
+   * <br>
+   * With <code>U</code> the fraction-free upper triangle
+   * of the scaled matrix <code>s*a</code>, and
+   * <code>p<sub>k</sub> = U[k][k]</code>,
+   * <code>L[i][k] = U[k][i]/p<sub>k</sub></code> and
+   * <code>D[k] = p<sub>k</sub>/(s*p<sub>k-1</sub>)</code>.
+   * @throws ArithmeticException if a leading minor is zero.
+   */
+
+  public static final RationalFloat[][] ldlt (final RationalFloat[][] a,
+                                              final ForkJoinPool pool) {
+    checkSquare(a);
+    checkSymmetric(a);
+    final int n = a.length;
+    final BoundedNatural[] lcm = new BoundedNatural[1];
+    final int[] emin = new int[1];
+    final Z[][] z = scaleAll(a,null,lcm,emin);
+    eliminateSymmetric(z,pool);
+    final RationalFloat[][] ld = new RationalFloat[n][n];
+    Z prev = ONE;
+    for (int k=0;k<n;k++) {
+      final Z pk = z[k][k];
+      ld[k][k] = ratio(pk,prev,lcm[0],emin[0]);
+      for (int i=k+1;i<n;i++) {
+        ld[i][k] = ratio(z[k][i],pk,BoundedNatural.ONE,0);
+        ld[k][i] = RationalFloat.ZERO; }
+      prev = pk; }
+    return ld; }
+
+  public static final RationalFloat[][] ldlt (final RationalFloat[][] a) {
+    return ldlt(a,null); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private FractionFree () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
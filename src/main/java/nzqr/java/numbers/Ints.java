@@ -20,7 +20,7 @@ import nzqr.java.prng.Generators;
 /** Utilities for <code>int</code>, <code>int[]</code>.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-08-07
+ * @version 2026-10-17
  */
 
 public final class Ints implements Set {
@@ -151,11 +151,11 @@ public final class Ints implements Set {
     4498, 4567, 4633, 4696, 4756, 4814, 4870, 4923, 4975, 5025,
     5074, 5120, 5166, 5210, 5253, 5295 };
 
-  private static final int[] digitsPerInt =
+  static final int[] digitsPerInt =
   { 0, 0, 30, 19, 15, 13, 11, 11, 10, 9, 9, 8, 8, 8, 8, 7, 7, 7,
     7, 7, 7, 7, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 6, 5 };
 
-  private static final int[] intRadix =
+  static final int[] intRadix =
   { 0, 0, 0x40000000, 0x4546b3db, 0x40000000, 0x48c27395,
     0x159fd800, 0x75db9c97, 0x40000000, 0x17179149, 0x3b9aca00,
     0xcc6db61, 0x19a10000, 0x309f1021, 0x57f6c100, 0xa2f1b6f,
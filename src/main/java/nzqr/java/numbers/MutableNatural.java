@@ -0,0 +1,364 @@
+package nzqr.java.numbers;
+
+import static nzqr.java.numbers.Numbers.hiWord;
+import static nzqr.java.numbers.Numbers.loWord;
+import static nzqr.java.numbers.Numbers.unsigned;
+
+import java.util.Arrays;
+
+/** A natural number in a growable, little-endian
+ * <code>int[]</code> buffer, updated in place.
+ * <br>
+ * For the inner loops of gcd, division and exact accumulation,
+ * which would otherwise allocate a new {@link BoundedNatural}
+ * at every step.
+ * The result is frozen into a {@link BoundedNatural} once,
+ * at the end.
+ * <br>
+ * Operands are passed as bare <code>int[]</code> words,
+ * a word count, and an up shift in bits, so shifted operands
+ * are never materialized.
+ * <br>
+ * DANGER: mutable and not thread safe; only for use local to
+ * one computation.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class MutableNatural {
+
+  //--------------------------------------------------------------
+  // fields
+  //--------------------------------------------------------------
+  /** Words at and above <code>_n</code> are always zero. */
+
+  private int[] _words;
+
+  /** Number of words in use, with no leading zeros. */
+
+  private int _n;
+
+  final int hiInt () { return _n; }
+
+  final boolean isZero () { return 0==_n; }
+
+  final int word (final int i) {
+    assert 0<=i;
+    if (_n<=i) { return 0; }
+    return _words[i]; }
+
+  final int hiBit () {
+    if (0==_n) { return 0; }
+    return (_n<<5) - Integer.numberOfLeadingZeros(_words[_n-1]); }
+
+  final int loBit () {
+    for (int i=0;i<_n;i++) {
+      final int wi = _words[i];
+      if (0!=wi) { return (i<<5) + Integer.numberOfTrailingZeros(wi); } }
+    return 0; }
+
+  //--------------------------------------------------------------
+
+  private final void ensureCapacity (final int n) {
+    if (n <= _words.length) { return; }
+    NaturalInts.checkOverflow(n);
+    _words =
+      Arrays.copyOf(
+        _words,
+        (int) Math.min(NaturalInts.MAX_WORDS,Math.max(n,2L*_words.length))); }
+
+  /** Drop leading zeros, starting from word <code>n-1</code>. */
+
+  private final void normalize (final int n) {
+    int i = n;
+    while ((0<i) && (0==_words[i-1])) { i--; }
+    _n = i; }
+
+  final void setWord (final int i,
+                      final int w) {
+    ensureCapacity(i+1);
+    _words[i] = w;
+    normalize(Math.max(_n,i+1)); }
+
+  final void setZero () {
+    Arrays.fill(_words,0,_n,0);
+    _n = 0; }
+
+  /** <code>this = v*2<sup>shift</sup></code>. */
+
+  final void set (final int[] v,
+                  final int nv,
+                  final int shift) {
+    setZero();
+    add(v,nv,shift); }
+
+  //--------------------------------------------------------------
+  // shifted operands
+  //--------------------------------------------------------------
+  /** Number of words in <code>v*2<sup>shift</sup></code>,
+   * possibly including a leading zero.
+   */
+
+  private static final int shiftedLength (final int nv,
+                                          final int shift) {
+    if (0==nv) { return 0; }
+    return nv + (shift>>>5) + ((0==(shift&0x1F)) ? 0 : 1); }
+
+  /** Word <code>k</code> of <code>v*2<sup>shift</sup></code>. */
+
+  private static final int shiftedWord (final int[] v,
+                                        final int nv,
+                                        final int shift,
+                                        final int k) {
+    final int j = k-(shift>>>5);
+    final int bShift = (shift&0x1F);
+    if (0==bShift) { return ((0<=j) && (j<nv)) ? v[j] : 0; }
+    final int lo = ((0<=j) && (j<nv)) ? (v[j]<<bShift) : 0;
+    final int hi = ((0<j) && (j<=nv)) ? (v[j-1]>>>(32-bShift)) : 0;
+    return lo|hi; }
+
+  //--------------------------------------------------------------
+  // ordering
+  //--------------------------------------------------------------
+
+  final int compareTo (final int[] v,
+                       final int nv,
+                       final int shift) {
+    int k = shiftedLength(nv,shift);
+    while ((0<k) && (0==shiftedWord(v,nv,shift,k-1))) { k--; }
+    if (_n<k) { return -1; }
+    if (_n>k) { return 1; }
+    for (int i=k-1;i>=0;i--) {
+      final int c =
+        Integer.compareUnsigned(_words[i],shiftedWord(v,nv,shift,i));
+      if (0!=c) { return c; } }
+    return 0; }
+
+  final int compareTo (final BoundedNatural v) {
+    return compareTo(v.words(),v.hiInt(),0); }
+
+  final int compareTo (final MutableNatural v) {
+    return compareTo(v._words,v._n,0); }
+
+  //--------------------------------------------------------------
+  // add
+  //--------------------------------------------------------------
+  /** <code>this += v*2<sup>shift</sup></code>. */
+
+  final void add (final int[] v,
+                  final int nv,
+                  final int shift) {
+    final int ns = shiftedLength(nv,shift);
+    if (0==ns) { return; }
+    final int n = Math.max(_n,ns);
+    ensureCapacity(n+1);
+    long sum = 0L;
+    int k = (shift>>>5);
+    for (;k<ns;k++) {
+      sum += unsigned(_words[k]) + unsigned(shiftedWord(v,nv,shift,k));
+      _words[k] = (int) sum;
+      sum = hiWord(sum); }
+    for (;(0L!=sum) && (k<n);k++) {
+      sum += unsigned(_words[k]);
+      _words[k] = (int) sum;
+      sum = hiWord(sum); }
+    if (0L!=sum) { _words[n] = 1; normalize(n+1); }
+    else { normalize(n); } }
+
+  final void add (final BoundedNatural v,
+                  final int shift) {
+    add(v.words(),v.hiInt(),shift); }
+
+  final void add (final MutableNatural v) {
+    add(v._words,v._n,0); }
+
+  //--------------------------------------------------------------
+  // subtract
+  //--------------------------------------------------------------
+  /** <code>this -= v*2<sup>shift</sup></code>, which must not be
+   * larger than <code>this</code>.
+   */
+
+  final void subtract (final int[] v,
+                       final int nv,
+                       final int shift) {
+    final int ns = shiftedLength(nv,shift);
+    if (0==ns) { return; }
+    assert 0<=compareTo(v,nv,shift);
+    long dif = 0L;
+    int k = (shift>>>5);
+    final int m = Math.min(ns,_n);
+    for (;k<m;k++) {
+      dif += unsigned(_words[k]) - unsigned(shiftedWord(v,nv,shift,k));
+      _words[k] = (int) dif;
+      dif = (dif>>32); }
+    for (;(0L!=dif) && (k<_n);k++) {
+      dif += unsigned(_words[k]);
+      _words[k] = (int) dif;
+      dif = (dif>>32); }
+    assert 0L==dif;
+    normalize(_n); }
+
+  final void subtract (final BoundedNatural v,
+                       final int shift) {
+    subtract(v.words(),v.hiInt(),shift); }
+
+  final void subtract (final MutableNatural v) {
+    subtract(v._words,v._n,0); }
+
+  /** <code>this = v*2<sup>shift</sup> - this</code>,
+   * which must not be negative.
+   */
+
+  final void subtractFrom (final int[] v,
+                           final int nv,
+                           final int shift) {
+    assert 0>=compareTo(v,nv,shift);
+    final int ns = shiftedLength(nv,shift);
+    ensureCapacity(ns);
+    long dif = 0L;
+    for (int k=0;k<ns;k++) {
+      dif += unsigned(shiftedWord(v,nv,shift,k)) - unsigned(_words[k]);
+      _words[k] = (int) dif;
+      dif = (dif>>32); }
+    assert 0L==dif;
+    normalize(ns); }
+
+  //--------------------------------------------------------------
+  // multiply-accumulate
+  //--------------------------------------------------------------
+  /** Subtract <code>x*v</code>, <code>0 &lt;= x &lt;
+   * 2<sup>32</sup></code>, from the words
+   * <code>[offset,offset+nv)</code>, returning the borrow out of
+   * the top word, which the caller must account for.
+   * Higher words are untouched.
+   */
+
+  final long multiplySubtract (final int[] v,
+                               final int nv,
+                               final long x,
+                               final int offset) {
+    assert (0L<=x) && (0L==hiWord(x));
+    final int n = Math.max(_n,offset+nv);
+    ensureCapacity(n);
+    long carry = 0L;
+    for (int j=0,i=offset;j<nv;j++,i++) {
+      final long prod = (unsigned(v[j])*x) + carry;
+      final long dif = unsigned(_words[i]) - loWord(prod);
+      _words[i] = (int) dif;
+      carry = hiWord(prod) + (dif>>>63); }
+    normalize(n);
+    return carry; }
+
+  /** Add <code>x*v</code>, <code>0 &lt;= x &lt;
+   * 2<sup>32</sup></code>, to the words
+   * <code>[offset,offset+nv)</code>, returning the carry out of
+   * the top word, which the caller must account for.
+   * Higher words are untouched.
+   */
+
+  final long multiplyAdd (final int[] v,
+                          final int nv,
+                          final long x,
+                          final int offset) {
+    assert (0L<=x) && (0L==hiWord(x));
+    final int n = Math.max(_n,offset+nv);
+    ensureCapacity(n);
+    long carry = 0L;
+    for (int j=0,i=offset;j<nv;j++,i++) {
+      // at most 2^64-1, so no unsigned overflow
+      final long sum = (unsigned(v[j])*x) + unsigned(_words[i]) + carry;
+      _words[i] = (int) sum;
+      carry = hiWord(sum); }
+    normalize(n);
+    return carry; }
+
+  //--------------------------------------------------------------
+  // shifts
+  //--------------------------------------------------------------
+
+  final void shiftDown (final int downShift) {
+    assert 0<=downShift;
+    if ((0==downShift) || (0==_n)) { return; }
+    final int iShift = (downShift>>>5);
+    final int bShift = (downShift&0x1F);
+    final int n = _n;
+    if (n<=iShift) { setZero(); return; }
+    final int m = n-iShift;
+    if (0==bShift) {
+      System.arraycopy(_words,iShift,_words,0,m); }
+    else {
+      final int rShift = 32-bShift;
+      for (int i=0,j=iShift;i<m;i++,j++) {
+        final int hi = ((j+1)<n) ? (_words[j+1]<<rShift) : 0;
+        _words[i] = hi | (_words[j]>>>bShift); } }
+    Arrays.fill(_words,m,n,0);
+    normalize(m); }
+
+  final void shiftUp (final int upShift) {
+    assert 0<=upShift;
+    if ((0==upShift) || (0==_n)) { return; }
+    final int iShift = (upShift>>>5);
+    final int bShift = (upShift&0x1F);
+    final int n = _n;
+    final int m = n+iShift+1;
+    ensureCapacity(m);
+    if (0==bShift) {
+      System.arraycopy(_words,0,_words,iShift,n); }
+    else {
+      final int rShift = 32-bShift;
+      _words[m-1] = (_words[n-1]>>>rShift);
+      for (int i=n-1,j=m-2;i>0;i--,j--) {
+        _words[j] = (_words[i]<<bShift) | (_words[i-1]>>>rShift); }
+      _words[iShift] = (_words[0]<<bShift); }
+    Arrays.fill(_words,0,iShift,0);
+    normalize(m); }
+
+  //--------------------------------------------------------------
+  // freezing
+  //--------------------------------------------------------------
+  /** Hand over the buffer to a new {@link BoundedNatural},
+   * without copying.
+   * <code>this</code> can't be used afterwards.
+   */
+
+  final BoundedNatural freeze () {
+    final BoundedNatural u =
+      (0==_n) ? BoundedNatural.ZERO : BoundedNatural.unsafe(_words);
+    _words = null;
+    _n = 0;
+    return u; }
+
+  /** A copy of the current value. */
+
+  final BoundedNatural toBoundedNatural () {
+    if (0==_n) { return BoundedNatural.ZERO; }
+    return BoundedNatural.unsafe(Arrays.copyOf(_words,_n)); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  MutableNatural (final int capacity) {
+    _words = new int[Math.max(1,capacity)];
+    _n = 0; }
+
+  /** A copy of <code>u</code>, with room for
+   * <code>capacity</code> words.
+   */
+
+  static final MutableNatural copy (final BoundedNatural u,
+                                    final int capacity) {
+    final int n = u.hiInt();
+    final MutableNatural m = new MutableNatural(Math.max(n,capacity));
+    System.arraycopy(u.words(),0,m._words,0,n);
+    m._n = n;
+    return m; }
+
+  static final MutableNatural copy (final BoundedNatural u) {
+    return copy(u,u.hiInt()+1); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
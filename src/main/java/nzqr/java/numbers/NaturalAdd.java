@@ -9,10 +9,13 @@ import static nzqr.java.numbers.Numbers.unsigned;
  * make addition/subtraction of BoundedNatural faster,
  * but I don't pretend to understand why.
  * <br>
+ * Long enough operands go to the SIMD versions in
+ * {@link NaturalVector}, when available.
+ * <br>
  * Non-instantiable.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-22
+ * @version 2026-10-17
  */
 
 final class NaturalAdd {
@@ -22,6 +25,8 @@ final class NaturalAdd {
   static final int[] add (final int[] tt, final int nt,
                           final int[] uu, final int nu) {
     if (nt<nu) { return add(uu,nu,tt,nt); }
+    if (NaturalInts.vectorize(nu)) {
+      return NaturalVector.add(tt,nt,uu,nu); }
     final int[] vv = new int[nt+1];
     long sum = 0L;
     int i=0;
@@ -42,6 +47,8 @@ final class NaturalAdd {
   // TODO: what happens if dif is negative?
    static final int[] subtract (final int[] tt, final int nt,
                                 final int[] uu, final int nu) {
+    if (NaturalInts.vectorize(nu)) {
+      return NaturalVector.subtract(tt,nt,uu,nu); }
     final int[] vv = new int[nt];
     long dif = 0L;
     int i=0;
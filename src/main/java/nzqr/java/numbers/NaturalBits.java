@@ -0,0 +1,120 @@
+package nzqr.java.numbers;
+
+import java.util.Arrays;
+
+/** Bitwise operations on the little endian <code>int[]</code>
+ * words of {@link BoundedNatural}, a word at a time,
+ * treating a natural number as a finite set of bit indexes.
+ * <br>
+ * The word loops are simple enough for the JIT to vectorize.
+ * Results may have leading zero words.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalBits {
+
+  //--------------------------------------------------------------
+  // set operations
+  //--------------------------------------------------------------
+
+  static final int[] and (final int[] tt, final int nt,
+                          final int[] uu, final int nu) {
+    final int n = Math.min(nt,nu);
+    final int[] vv = new int[n];
+    for (int i=0;i<n;i++) { vv[i] = tt[i] & uu[i]; }
+    return vv; }
+
+  static final int[] or (final int[] tt, final int nt,
+                         final int[] uu, final int nu) {
+    if (nt<nu) { return or(uu,nu,tt,nt); }
+    final int[] vv = Arrays.copyOf(tt,nt);
+    for (int i=0;i<nu;i++) { vv[i] |= uu[i]; }
+    return vv; }
+
+  static final int[] xor (final int[] tt, final int nt,
+                          final int[] uu, final int nu) {
+    if (nt<nu) { return xor(uu,nu,tt,nt); }
+    final int[] vv = Arrays.copyOf(tt,nt);
+    for (int i=0;i<nu;i++) { vv[i] ^= uu[i]; }
+    return vv; }
+
+  /** <code>t &amp; ~u</code>. */
+
+  static final int[] andNot (final int[] tt, final int nt,
+                             final int[] uu, final int nu) {
+    final int[] vv = Arrays.copyOf(tt,nt);
+    final int n = Math.min(nt,nu);
+    for (int i=0;i<n;i++) { vv[i] &= ~uu[i]; }
+    return vv; }
+
+  //--------------------------------------------------------------
+  // single bits
+  //--------------------------------------------------------------
+
+  static final boolean testBit (final int[] tt, final int nt,
+                                final int i) {
+    final int iw = (i>>>5);
+    if (nt<=iw) { return false; }
+    return 0!=(tt[iw] & (1<<(i&0x1F))); }
+
+  /** Copy of <code>tt</code>, long enough for bit
+   * <code>i</code>, with that bit xored with 1.
+   */
+
+  static final int[] flipBit (final int[] tt, final int nt,
+                              final int i) {
+    final int iw = (i>>>5);
+    NaturalInts.checkOverflow(iw+1);
+    final int[] vv = Arrays.copyOf(tt,Math.max(nt,iw+1));
+    vv[iw] ^= (1<<(i&0x1F));
+    return vv; }
+
+  static final int bitCount (final int[] tt, final int nt) {
+    int c = 0;
+    for (int i=0;i<nt;i++) { c += Integer.bitCount(tt[i]); }
+    return c; }
+
+  //--------------------------------------------------------------
+  // ranges
+  //--------------------------------------------------------------
+  /** Bits <code>[i0,i1)</code> of <code>tt</code>, as the low
+   * bits of the result.
+   */
+
+  static final int[] bits (final int[] tt, final int nt,
+                           final int i0, final int i1) {
+    assert 0<=i0;
+    assert i0<=i1;
+    final int n = ((i1-i0)+31)>>>5;
+    final int[] vv = new int[n];
+    final int iShift = (i0>>>5);
+    final int bShift = (i0&0x1F);
+    if (0==bShift) {
+      final int m = Math.max(0,Math.min(n,nt-iShift));
+      if (0<m) { System.arraycopy(tt,iShift,vv,0,m); } }
+    else {
+      final int rShift = 32-bShift;
+      for (int i=0;i<n;i++) {
+        final int j = iShift+i;
+        if (nt<=j) { break; }
+        final int hi = ((j+1)<nt) ? (tt[j+1]<<rShift) : 0;
+        vv[i] = (tt[j]>>>bShift) | hi; } }
+    final int top = ((i1-i0)&0x1F);
+    if ((0<n) && (0!=top)) { vv[n-1] &= ((1<<top)-1); }
+    return vv; }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalBits () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
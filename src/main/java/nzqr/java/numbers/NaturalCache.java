@@ -0,0 +1,143 @@
+package nzqr.java.numbers;
+
+import java.util.Arrays;
+
+/** Canonical, shared instances of frequently used
+ * {@link BoundedNatural} values:
+ * small values <code>0&le;u&lt;SMALL</code>,
+ * powers of two <code>2<sup>k</sup></code>,
+ * <code>k&lt;POWERS_OF_TWO</code>,
+ * powers of ten <code>10<sup>k</sup></code>,
+ * <code>k&lt;POWERS_OF_TEN</code>,
+ * and all-ones words, <code>n&lt;ONES</code>.
+ * <br>
+ * The sizes are bounded, and can be changed in the tuning
+ * profile (see {@link NaturalThresholds}), with keys
+ * <code>NaturalCache.SMALL</code>,
+ * <code>NaturalCache.POWERS_OF_TWO</code>,
+ * <code>NaturalCache.POWERS_OF_TEN</code> and
+ * <code>NaturalCache.ONES</code>.
+ * <br>
+ * Only used via {@link BoundedNatural}, which is always
+ * initialized first, and takes its <code>ZERO</code> and
+ * <code>ONE</code> from here.
+ * Small values and powers of two are built eagerly, without
+ * arithmetic, so they are safe to create while
+ * {@link BoundedNatural} is being initialized;
+ * powers of ten are computed when first needed.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalCache {
+
+  //--------------------------------------------------------------
+  // sizes
+  //--------------------------------------------------------------
+
+  static final int SMALL =
+    NaturalThresholds.get("NaturalCache.SMALL",1024,2);
+
+  static final int POWERS_OF_TWO =
+    NaturalThresholds.get("NaturalCache.POWERS_OF_TWO",512,0);
+
+  static final int POWERS_OF_TEN =
+    NaturalThresholds.get("NaturalCache.POWERS_OF_TEN",64,0);
+
+  static final int ONES =
+    NaturalThresholds.get("NaturalCache.ONES",32,0);
+
+  //--------------------------------------------------------------
+  // tables
+  //--------------------------------------------------------------
+
+  private static final BoundedNatural[] SMALL_VALUES =
+    new BoundedNatural[SMALL];
+
+  private static final BoundedNatural[] TWOS =
+    new BoundedNatural[POWERS_OF_TWO];
+
+  private static final BoundedNatural[] ALL_ONES =
+    new BoundedNatural[ONES];
+
+  static {
+    for (int i=0;i<SMALL;i++) {
+      SMALL_VALUES[i] = BoundedNatural.inline(i,0L); }
+    for (int k=0;k<POWERS_OF_TWO;k++) {
+      if (k<Long.SIZE) {
+        TWOS[k] = ((k<Long.SIZE-1) && ((1L<<k)<SMALL))
+          ? SMALL_VALUES[(int) (1L<<k)]
+          : BoundedNatural.inline(1L<<k,0L); }
+      else if (k<2*Long.SIZE) {
+        TWOS[k] = BoundedNatural.inline(0L,1L<<(k-Long.SIZE)); }
+      else {
+        final int[] vv = new int[(k>>>5)+1];
+        vv[k>>>5] = (1<<(k&0x1f));
+        TWOS[k] = BoundedNatural.unsafe(vv); } }
+    if (0<ONES) { ALL_ONES[0] = SMALL_VALUES[0]; }
+    for (int n=1;n<ONES;n++) {
+      final int[] vv = new int[n];
+      Arrays.fill(vv,-1);
+      ALL_ONES[n] = BoundedNatural.unsafe(vv); } }
+
+  /** Computed on first use. */
+
+  private static final class PowersOfTen {
+    static final BoundedNatural[] TENS =
+      new BoundedNatural[POWERS_OF_TEN];
+    static {
+      long p = 1L;
+      for (int k=0;k<POWERS_OF_TEN;k++) {
+        if (k<19) {
+          TENS[k] = BoundedNatural.valueOf(p);
+          p *= 10L; }
+        else {
+          TENS[k] = TENS[k-1].multiply(TENS[1]); } } } }
+
+  //--------------------------------------------------------------
+  // lookup
+  //--------------------------------------------------------------
+  /** The cached instance, or <code>null</code>. */
+
+  static final BoundedNatural valueOf (final long u) {
+    assert 0L<=u;
+    if (u<SMALL) { return SMALL_VALUES[(int) u]; }
+    if (0L==(u&(u-1L))) {
+      return powerOfTwo(Long.numberOfTrailingZeros(u)); }
+    return null; }
+
+  /** The cached instance, or <code>null</code>. */
+
+  static final BoundedNatural powerOfTwo (final int k) {
+    assert 0<=k;
+    if (k<POWERS_OF_TWO) { return TWOS[k]; }
+    return null; }
+
+  /** The cached instance, or <code>null</code>. */
+
+  static final BoundedNatural powerOfTen (final int k) {
+    assert 0<=k;
+    if (k<POWERS_OF_TEN) { return PowersOfTen.TENS[k]; }
+    return null; }
+
+  /** The cached instance, or <code>null</code>. */
+
+  static final BoundedNatural ones (final int n) {
+    assert 0<=n;
+    if (n<ONES) { return ALL_ONES[n]; }
+    return null; }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalCache () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
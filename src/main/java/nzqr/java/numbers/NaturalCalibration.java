@@ -0,0 +1,361 @@
+package nzqr.java.numbers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+
+import org.apache.commons.rng.UniformRandomProvider;
+
+import nzqr.java.prng.PRNG;
+
+/** Measure algorithm crossovers for natural number multiply,
+ * square, divide and gcd on the current machine, and write a tuning
+ * profile for {@link NaturalThresholds}.
+ * <br>
+ * Each threshold is found by timing the algorithms on either
+ * side of it, called directly, on random operands of
+ * increasing size, and taking the first size at which the
+ * asymptotically faster one wins twice in a row.
+ * Sub-products use the thresholds in effect for this run,
+ * so a second run, with the first profile loaded, can refine
+ * the results.
+ * <pre>
+ * java -cp ... nzqr.java.numbers.NaturalCalibration nzqr-thresholds.properties
+ * java -Dnzqr.thresholds=nzqr-thresholds.properties -cp ... ...
+ * </pre>
+ * Takes several minutes. Run on an otherwise idle machine.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class NaturalCalibration {
+
+  //--------------------------------------------------------------
+  // timing
+  //--------------------------------------------------------------
+  /** Operand pairs per size, so timings aren't specific to
+   * one operand.
+   */
+
+  private static final int NOPERANDS = 8;
+
+  /** Each timing runs for at least this long. */
+
+  private static final long MIN_NANOS = 2L*1000L*1000L;
+
+  /** Best of this many timings. */
+
+  private static final int TRIALS = 5;
+
+  private static final UniformRandomProvider URP =
+    PRNG.well44497b("seeds/Well44497b-2019-01-05.txt");
+
+  /** Random, with exactly <code>n</code> words. */
+
+  private static final int[] randomWords (final int n) {
+    final int[] w = new int[n];
+    for (int i=0;i<n;i++) { w[i] = URP.nextInt(); }
+    w[n-1] |= 0x80000000;
+    return w; }
+
+  private static final BoundedNatural random (final int n) {
+    return BoundedNatural.unsafe(randomWords(n)); }
+
+  /** Something computed, so the JIT can't drop it. */
+
+  @SuppressWarnings("unused")
+  private static long SINK = 0L;
+
+  /** Nanoseconds per call of <code>op</code> on operand
+   * <code>i</code>, for <code>i</code> in
+   * <code>[0,NOPERANDS)</code>; best of {@link #TRIALS}.
+   */
+
+  private static final double time (final IntFunction<Object> op) {
+    // warm up, and find the number of repetitions
+    int reps = 1;
+    while (true) {
+      final long t0 = System.nanoTime();
+      for (int r=0;r<reps;r++) {
+        for (int i=0;i<NOPERANDS;i++) { SINK += op.apply(i).hashCode(); } }
+      if ((System.nanoTime()-t0) >= MIN_NANOS) { break; }
+      reps *= 2; }
+    double best = Double.POSITIVE_INFINITY;
+    for (int k=0;k<TRIALS;k++) {
+      final long t0 = System.nanoTime();
+      for (int r=0;r<reps;r++) {
+        for (int i=0;i<NOPERANDS;i++) { SINK += op.apply(i).hashCode(); } }
+      best = Math.min(best,(System.nanoTime()-t0)/(double) (reps*NOPERANDS)); }
+    return best; }
+
+  //--------------------------------------------------------------
+  // crossovers
+  //--------------------------------------------------------------
+  /** Timings of the algorithm below the threshold, and the one
+   * above it, at size <code>n</code>.
+   */
+
+  private interface Race { double[] times (int n); }
+
+  /** The first size in <code>[lo,hi]</code>, stepping by
+   * about 10%, where the second algorithm is faster at that
+   * size and the next; <code>hi</code> if there isn't one.
+   */
+
+  private static final int crossover (final String key,
+                                      final int lo,
+                                      final int hi,
+                                      final Race race) {
+    System.out.println(key);
+    // warm up, so the first sizes aren't timed in the interpreter
+    race.times(lo);
+    int candidate = -1;
+    for (int n=lo;n<=hi;n=Math.max(n+1,(n*11)/10)) {
+      final double[] t = race.times(n);
+      System.out.printf("  %6d %12.0f %12.0f%n",
+        Integer.valueOf(n),Double.valueOf(t[0]),Double.valueOf(t[1]));
+      if (t[1] < t[0]) {
+        if (0<=candidate) {
+          System.out.println("  -> " + candidate);
+          return candidate; }
+        candidate = n; }
+      else { candidate = -1; } }
+    System.out.println("  -> " + hi);
+    return hi; }
+
+  /** Race two binary operations on random operands with
+   * <code>n0</code> and <code>n1</code> words.
+   */
+
+  private static final double[] race (final int n0,
+                                       final int n1,
+                                       final BinaryOperator<Object> below,
+                                       final BinaryOperator<Object> above) {
+    final BoundedNatural[] u = new BoundedNatural[NOPERANDS];
+    final BoundedNatural[] v = new BoundedNatural[NOPERANDS];
+    for (int i=0;i<NOPERANDS;i++) { u[i] = random(n0); v[i] = random(n1); }
+    return new double[] {
+      time((i) -> below.apply(u[i],v[i])),
+      time((i) -> above.apply(u[i],v[i])), }; }
+
+  private static final BoundedNatural bn (final Object x) {
+    return (BoundedNatural) x; }
+
+  //--------------------------------------------------------------
+  // multiply and square
+  //--------------------------------------------------------------
+
+  private static final int karatsuba () {
+    return crossover("NaturalMultiply.KARATSUBA_THRESHOLD",16,400,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.multiplySimple(bn(u),bn(v)),
+        (u,v) -> NaturalMultiply.multiplyKaratsuba(bn(u),bn(v)))); }
+
+  private static final int toomCook (final int karatsuba) {
+    return crossover("NaturalMultiply.TOOM_COOK_THRESHOLD",
+      Math.max(24,karatsuba),1200,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.multiplyKaratsuba(bn(u),bn(v)),
+        (u,v) -> NaturalMultiply.multiplyToomCook3(bn(u),bn(v)))); }
+
+  /** Squaring pays once it saves more than the
+   * <code>equals</code> test costs.
+   */
+
+  private static final int multiplySquare () {
+    return crossover("NaturalMultiply.MULTIPLY_SQUARE_THRESHOLD",2,200,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.multiplySimple(bn(u),bn(u)),
+        (u,v) -> NaturalMultiply.squareSimple(bn(u)))); }
+
+  private static final int karatsubaSquare () {
+    return crossover("BoundedNatural.KARATSUBA_SQUARE_THRESHOLD",16,600,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.squareSimple(bn(u)),
+        (u,v) -> NaturalMultiply.squareKaratsuba(bn(u)))); }
+
+  private static final int toomCookSquare (final int karatsuba) {
+    return crossover("BoundedNatural.TOOM_COOK_SQUARE_THRESHOLD",
+      Math.max(24,karatsuba),1200,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.squareKaratsuba(bn(u)),
+        (u,v) -> NaturalMultiply.squareToomCook3(bn(u)))); }
+
+  /** Operands that don't fit the NTT moduli never use it, so
+   * the search stops well below that.
+   */
+
+  private static final int ntt (final int toomCook) {
+    return crossover("NaturalMultiply.NTT_THRESHOLD",
+      Math.max(256,toomCook),16384,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.multiplyToomCook3(bn(u),bn(v)),
+        (u,v) -> NaturalMultiply.multiplyNTT(bn(u),bn(v)))); }
+
+  private static final int nttSquare (final int toomCook) {
+    return crossover("BoundedNatural.NTT_SQUARE_THRESHOLD",
+      Math.max(256,toomCook),16384,
+      (n) -> race(n,n,
+        (u,v) -> NaturalMultiply.squareToomCook3(bn(u)),
+        (u,v) -> NaturalMultiply.squareNTT(bn(u)))); }
+
+  //--------------------------------------------------------------
+  // divide
+  //--------------------------------------------------------------
+
+  /** Divisors of <code>n</code> words, with twice as long
+   * dividends.
+   */
+
+  private static final int burnikelZiegler () {
+    return crossover("BoundedNatural.BURNIKEL_ZIEGLER_THRESHOLD",16,400,
+      (n) -> race(2*n,n,
+        (u,v) -> bn(u).divideAndRemainderKnuth(bn(v)),
+        (u,v) -> bn(u).divideAndRemainderBurnikelZiegler(bn(v)))); }
+
+  /** Divisors of <code>2*threshold</code> words, with
+   * quotients of <code>n</code> words.
+   */
+
+  private static final int burnikelZieglerOffset (final int threshold) {
+    final int nd = 2*threshold;
+    return crossover("BoundedNatural.BURNIKEL_ZIEGLER_OFFSET",1,4*nd,
+      (n) -> race(nd+n,nd,
+        (u,v) -> bn(u).divideAndRemainderKnuth(bn(v)),
+        (u,v) -> bn(u).divideAndRemainderBurnikelZiegler(bn(v)))); }
+
+  /** Race Knuth division of <code>u 2<sup>z</sup></code> by
+   * <code>v 2<sup>z</sup></code> with cancelling the common
+   * power of 2 first, <code>z</code> a multiple of 32.
+   */
+
+  private static final double[] racePow2 (final int nu,
+                                          final int nv,
+                                          final int z) {
+    final int[][] u = new int[NOPERANDS][];
+    final int[][] v = new int[NOPERANDS][];
+    for (int i=0;i<NOPERANDS;i++) {
+      final int[] u0 = randomWords(nu);
+      final int[] v0 = randomWords(nv);
+      u0[0] |= 1;
+      u[i] = NaturalInts.shiftUp(u0,z);
+      v[i] = NaturalInts.shiftUp(v0,z); }
+    return new double[] {
+      time((i) -> KnuthDivision.knuthDivision(u[i],v[i])[1]),
+      time((i) -> KnuthDivision.divideAndRemainderPow2(u[i],v[i],z)[1]), }; }
+
+  /** Common zero bits, for dividends of 16 words, so at most
+   * 15 zero words, leaving at least one nonzero word in each
+   * operand.
+   */
+
+  private static final int pow2Zeros () {
+    return 32*crossover("KnuthDivision.KNUTH_POW2_THRESH_ZEROS / 32",1,15,
+      (n) -> racePow2(16-n,8-(n/2),32*n)); }
+
+  /** Dividend words, including <code>zeros</code> zero bits. */
+
+  private static final int pow2Length (final int zeros) {
+    final int nz = (zeros+31)/32;
+    return crossover("KnuthDivision.KNUTH_POW2_THRESH_LEN",nz+3,nz+64,
+      (n) -> racePow2(n-nz,Math.max(2,(n-nz)/2),zeros)); }
+
+  //--------------------------------------------------------------
+  // gcd
+  //--------------------------------------------------------------
+  /** Euclid and Knuth against Lehmer all the way down. */
+
+  private static final int lehmer () {
+    return crossover("NaturalGCD.LEHMER_THRESHOLD",2,256,
+      (n) -> race(n,n,
+        (u,v) -> NaturalGCD.gcd(bn(u),bn(v),
+          n+1,Integer.MAX_VALUE,Integer.MAX_VALUE),
+        (u,v) -> NaturalGCD.gcd(bn(u),bn(v),
+          2,Integer.MAX_VALUE,Integer.MAX_VALUE))); }
+
+  /** Lehmer against half-gcd, recursing down to
+   * <code>base</code> words. Half-gcd only recurses on numbers
+   * longer than twice its base.
+   * The base is not measured: one level of recursion only pays
+   * on much larger numbers than several levels do, so racing
+   * at the base overestimates it.
+   */
+
+  private static final int halfGcd (final int lehmer,
+                                    final int base) {
+    return crossover("NaturalGCD.HALF_GCD_THRESHOLD",
+      Math.max(64,2*base),16384,
+      (n) -> race(n,n,
+        (u,v) -> NaturalGCD.gcd(bn(u),bn(v),
+          lehmer,Integer.MAX_VALUE,base),
+        (u,v) -> NaturalGCD.gcd(bn(u),bn(v),lehmer,n,base))); }
+
+  //--------------------------------------------------------------
+  /** Measure all the thresholds, and write them to
+   * <code>args[0]</code>, default
+   * {@link NaturalThresholds#RESOURCE}.
+   */
+
+  public static final void main (final String[] args)
+    throws IOException {
+    final Path out = Path.of((0<args.length) ? args[0] : NaturalThresholds.RESOURCE);
+    System.out.println("starting from: " + NaturalThresholds.source());
+    final Properties p = new Properties();
+    final int k = karatsuba();
+    p.setProperty("NaturalMultiply.KARATSUBA_THRESHOLD",Integer.toString(k));
+    final int tc = toomCook(k);
+    p.setProperty("NaturalMultiply.TOOM_COOK_THRESHOLD",Integer.toString(tc));
+    p.setProperty("NaturalMultiply.NTT_THRESHOLD",Integer.toString(ntt(tc)));
+    p.setProperty("NaturalMultiply.MULTIPLY_SQUARE_THRESHOLD",
+      Integer.toString(multiplySquare()));
+    final int ks = karatsubaSquare();
+    p.setProperty("BoundedNatural.KARATSUBA_SQUARE_THRESHOLD",Integer.toString(ks));
+    final int tcs = toomCookSquare(ks);
+    p.setProperty("BoundedNatural.TOOM_COOK_SQUARE_THRESHOLD",
+      Integer.toString(tcs));
+    p.setProperty("BoundedNatural.NTT_SQUARE_THRESHOLD",
+      Integer.toString(nttSquare(tcs)));
+    final int bz = burnikelZiegler();
+    p.setProperty("BoundedNatural.BURNIKEL_ZIEGLER_THRESHOLD",Integer.toString(bz));
+    p.setProperty("BoundedNatural.BURNIKEL_ZIEGLER_OFFSET",
+      Integer.toString(burnikelZieglerOffset(bz)));
+    final int zeros = pow2Zeros();
+    p.setProperty("KnuthDivision.KNUTH_POW2_THRESH_ZEROS",Integer.toString(zeros));
+    p.setProperty("KnuthDivision.KNUTH_POW2_THRESH_LEN",
+      Integer.toString(pow2Length(zeros)));
+    final int lehmer = lehmer();
+    p.setProperty("NaturalGCD.LEHMER_THRESHOLD",Integer.toString(lehmer));
+    final int base = NaturalGCD.HALF_GCD_BASE_THRESHOLD;
+    p.setProperty("NaturalGCD.HALF_GCD_BASE_THRESHOLD",Integer.toString(base));
+    p.setProperty("NaturalGCD.HALF_GCD_THRESHOLD",
+      Integer.toString(halfGcd(lehmer,base)));
+    try (Writer w = Files.newBufferedWriter(out,StandardCharsets.UTF_8)) {
+      p.store(w,
+        "nzqr thresholds, " + LocalDateTime.now()
+        + "\n" + System.getProperty("os.arch")
+        + " " + Runtime.getRuntime().availableProcessors() + " cpus"
+        + ", java " + System.getProperty("java.version")
+        + " " + System.getProperty("java.vm.name")); }
+    System.out.println("wrote " + out.toAbsolutePath());
+    System.out.println("load with -D" + NaturalThresholds.PROPERTY + "="
+      + out.toAbsolutePath()); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalCalibration () {
+    throw new
+    UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
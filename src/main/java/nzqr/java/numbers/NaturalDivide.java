@@ -7,7 +7,7 @@ import static nzqr.java.numbers.Numbers.unsigned;
  * Non-instantiable.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-02
+ * @version 2026-10-17
  */
 
 final class NaturalDivide {
@@ -23,13 +23,13 @@ final class NaturalDivide {
     final long dd = unsigned(d);
     if (1==nu) {
       final long nn = u.uword(0);
-      final int q = (int) (nn/dd);
-      final int r = (int) (nn-(q*dd));
+      // unsigned, so q and r may not fit in an int
+      final long q = nn/dd;
+      final long r = nn-(q*dd);
       return new BoundedNatural[] { BoundedNatural.valueOf(q),
                                     BoundedNatural.valueOf(r), }; }
 
     BoundedNatural qq = u;
-    final int shift = Integer.numberOfLeadingZeros(d);
     int r = u.word(u.hiInt()-1);
     long rr = unsigned(r);
     if (rr < dd) {
@@ -53,9 +53,8 @@ final class NaturalDivide {
         r = (int) Numbers.hiWord(tmp); }
       qq = qq.setWord(xlen-1,q);
       rr = unsigned(r); }
-    if (shift > 0) {
-      return new BoundedNatural[] { qq, BoundedNatural.valueOf(r%d), }; }
-    return new BoundedNatural[] { qq, BoundedNatural.valueOf(r),}; }
+    // rr < dd, the unsigned remainder
+    return new BoundedNatural[] { qq, BoundedNatural.valueOf(rr),}; }
 
 
   //--------------------------------------------------------------
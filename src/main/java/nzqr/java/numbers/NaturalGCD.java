@@ -5,56 +5,50 @@ package nzqr.java.numbers;
  * Non-instantiable.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-01
+ * @version 2026-10-17
  */
 
 public final class NaturalGCD {
 
 
-  /** Algorithm B from Knuth section 4.5.2 */
+  /** Algorithm B from Knuth section 4.5.2, updating
+   * <code>a</code> and <code>b</code> in place.
+   */
 
   private static final BoundedNatural gcdKnuth (final BoundedNatural u,
                                                 final BoundedNatural v) {
-    BoundedNatural a = u;
-    BoundedNatural b = v;
+    final MutableNatural a = MutableNatural.copy(u);
+    final MutableNatural b = MutableNatural.copy(v);
     // B1
     final int sa = a.loBit();
     final int s = Math.min(sa,b.loBit());
-    if (s!=0) { a = a.shiftDown(s); b = b.shiftDown(s); }
+    if (s!=0) { a.shiftDown(s); b.shiftDown(s); }
     // B2
     int tsign = (s==sa) ? -1 : 1;
-    BoundedNatural t = (0<tsign) ? a : b;
-    for (int lb=t.loBit();lb>=0;lb=t.loBit()) {
-      // B3 and B4
-      t = t.shiftDown(lb);
-      // step B5
-      if (0<tsign) { a = t; } else { b = t; }
-      final int an = a.hiInt();
-      final int bn = b.hiInt();
-      if ((an<2) && (bn<2)) {
-        final int x = a.word(an-1);
-        final int y = b.word(bn-1);
-        BoundedNatural r = BoundedNatural.valueOf(
-          Ints.unsignedGcd(x, y));
-        if (s > 0) { r = r.shiftUp(s); }
+    MutableNatural t = (0<tsign) ? a : b;
+    while (true) {
+      // B3 and B4, and B5, since t is a or b
+      t.shiftDown(t.loBit());
+      if ((a.hiInt()<2) && (b.hiInt()<2)) {
+        final BoundedNatural r = BoundedNatural.valueOf(
+          Numbers.unsigned(Ints.unsignedGcd(a.word(0),b.word(0))));
+        if (s > 0) { return r.shiftUp(s); }
         return r; }
       // B6
       tsign = a.compareTo(b);
-      if (0==tsign) {
-        break; }
-      else if (0<tsign) { a = a.subtract(b); t = a;  }
-      else { b = b.subtract(a); t = b; }
-    }
-    if (s > 0) { a = a.shiftUp(s); }
-    return a; }
+      if (0==tsign) { break; }
+      else if (0<tsign) { a.subtract(b); t = a;  }
+      else { b.subtract(a); t = b; } }
+    if (s > 0) { a.shiftUp(s); }
+    return a.freeze(); }
 
   //--------------------------------------------------------------
   /** Use Euclid until the numbers are approximately the
    * same length, then use the Knuth algorithm.
    */
 
-  static final BoundedNatural gcd (final BoundedNatural u,
-                                           final BoundedNatural v) {
+  private static final BoundedNatural gcdEuclidKnuth (final BoundedNatural u,
+                                                      final BoundedNatural v) {
     BoundedNatural a = u;
     BoundedNatural b = v;
     while (!b.isZero()) {
@@ -64,6 +58,413 @@ public final class NaturalGCD {
       b = qr[1]; }
     return a; }
 
+  //--------------------------------------------------------------
+  // reductions
+  //--------------------------------------------------------------
+  /** A pair <code>(alpha,beta)</code> and a matrix
+   * <code>M</code> with non-negative entries and determinant 1,
+   * such that <code>(a,b) = M (alpha,beta)</code> for the pair
+   * <code>(a,b)</code> the reduction started from.
+   * Since <code>M</code> is unimodular,
+   * <code>gcd(a,b) = gcd(alpha,beta)</code>, and
+   * <code>alpha = m11*a - m01*b</code>,
+   * <code>beta = m00*b - m10*a</code>.
+   * <br>
+   * The matrix is only tracked when needed: <code>m00</code>
+   * is <code>null</code> otherwise.
+   * <br>
+   * Mutable, local to one computation.
+   */
+
+  private static final class Reduction {
+    BoundedNatural alpha;
+    BoundedNatural beta;
+    BoundedNatural m00;
+    BoundedNatural m01;
+    BoundedNatural m10;
+    BoundedNatural m11;
+
+    final boolean tracking () { return null!=m00; }
+
+    final boolean isIdentity () {
+      return m01.isZero() && m10.isZero(); }
+
+    /** <code>M = M (n00 n01; n10 n11)</code>. */
+
+    final void multiply (final BoundedNatural n00,
+                         final BoundedNatural n01,
+                         final BoundedNatural n10,
+                         final BoundedNatural n11) {
+      final BoundedNatural r00 = m00.multiply(n00).add(m01.multiply(n10));
+      final BoundedNatural r01 = m00.multiply(n01).add(m01.multiply(n11));
+      final BoundedNatural r10 = m10.multiply(n00).add(m11.multiply(n10));
+      final BoundedNatural r11 = m10.multiply(n01).add(m11.multiply(n11));
+      m00 = r00; m01 = r01; m10 = r10; m11 = r11; }
+
+    /** <code>alpha -= q*beta</code>,
+     * <code>M = M (1 q; 0 1)</code>.
+     */
+
+    final void reduceAlpha (final BoundedNatural q,
+                            final BoundedNatural r) {
+      alpha = r;
+      if (tracking()) {
+        m01 = m01.add(q.multiply(m00));
+        m11 = m11.add(q.multiply(m10)); } }
+
+    /** <code>beta -= q*alpha</code>,
+     * <code>M = M (1 0; q 1)</code>.
+     */
+
+    final void reduceBeta (final BoundedNatural q,
+                           final BoundedNatural r) {
+      beta = r;
+      if (tracking()) {
+        m00 = m00.add(q.multiply(m01));
+        m10 = m10.add(q.multiply(m11)); } }
+
+    Reduction (final BoundedNatural a,
+               final BoundedNatural b,
+               final boolean track) {
+      alpha = a;
+      beta = b;
+      if (track) {
+        m00 = BoundedNatural.ONE;
+        m01 = BoundedNatural.ZERO;
+        m10 = BoundedNatural.ZERO;
+        m11 = BoundedNatural.ONE; } } }
+
+  //--------------------------------------------------------------
+  /** <code>x*a - y*b</code>, which must be non-negative,
+   * for <code>0 &lt;= x,y &lt; 2<sup>31</sup></code>,
+   * in one pass.
+   */
+
+  private static final BoundedNatural combine (final BoundedNatural a,
+                                               final long x,
+                                               final BoundedNatural b,
+                                               final long y) {
+    final int na = a.hiInt();
+    final int nb = b.hiInt();
+    final int[] aa = a.words();
+    final int[] bb = b.words();
+    final int n = Math.max(na,nb);
+    final int[] ww = new int[n+1];
+    long carry = 0L;
+    for (int i=0;i<n;i++) {
+      final long ai = (i<na) ? Numbers.unsigned(aa[i]) : 0L;
+      final long bi = (i<nb) ? Numbers.unsigned(bb[i]) : 0L;
+      // |x*ai - y*bi| < 2^62, so no overflow
+      final long t = ((x*ai)-(y*bi)) + carry;
+      ww[i] = (int) t;
+      carry = (t>>32); }
+    ww[n] = (int) carry;
+    assert 0L<=carry;
+    return BoundedNatural.unsafe(ww); }
+
+  //--------------------------------------------------------------
+  /** Lehmer step on leading bits: reduce <code>(a,b)</code>,
+   * <code>0 &lt; a,b &lt; 2<sup>62</sup></code>,
+   * by Euclid steps (including a final partial quotient)
+   * that keep both at least <code>2<sup>t</sup></code>.
+   * Returns <code>{m00,m01,m10,m11,a',b'}</code> with
+   * <code>(a,b) = M (a',b')</code>,
+   * or <code>null</code> if no step is possible.
+   */
+
+  private static final long[] lehmerMatrix (final long a0,
+                                            final long b0,
+                                            final int t) {
+    final long lo = 1L<<t;
+    // cofactor bounds need both at least 2^t to start with
+    if ((a0<lo) || (b0<lo)) { return null; }
+    long a = a0;
+    long b = b0;
+    long m00 = 1L; long m01 = 0L; long m10 = 0L; long m11 = 1L;
+    boolean progress = false;
+    while (true) {
+      if (a>=b) {
+        if ((a-lo) < b) { break; }
+        final long q = (a-lo)/b;
+        a -= q*b;
+        m01 += q*m00;
+        m11 += q*m10; }
+      else {
+        if ((b-lo) < a) { break; }
+        final long q = (b-lo)/a;
+        b -= q*a;
+        m00 += q*m01;
+        m10 += q*m11; }
+      progress = true; }
+    if (! progress) { return null; }
+    return new long[] { m00, m01, m10, m11, a, b, }; }
+
+  /** The 62 bits of <code>u</code> starting at bit
+   * <code>p</code>.
+   */
+
+  private static final long bits62 (final BoundedNatural u,
+                                    final int p) {
+    final int i = p>>>5;
+    final int shift = p&0x1f;
+    final long w0 = u.uword(i);
+    final long w1 = u.uword(i+1);
+    final long w2 = u.uword(i+2);
+    final long x = (w0>>>shift) | (w1<<(32-shift)) | ((0==shift) ? 0L : (w2<<(64-shift)));
+    return x & 0x3FFFFFFFFFFFFFFFL; }
+
+  /** Largest number of bits in the leading parts used for Lehmer
+   * steps; cofactors then fit in 30 bits.
+   */
+
+  private static final int LEHMER_BITS = 62;
+
+  /** Euclid step, with partial quotient, keeping both at least
+   * <code>2<sup>s</sup></code>.
+   * Returns <code>false</code> if no step is possible.
+   */
+
+  private static final boolean euclidStep (final Reduction r,
+                                           final int s) {
+    final BoundedNatural lo = BoundedNatural.ONE.shiftUp(s);
+    if (0<=r.alpha.compareTo(r.beta)) {
+      if (0>r.alpha.compareTo(r.beta.add(lo))) { return false; }
+      final BoundedNatural q = r.alpha.subtract(lo).divide(r.beta);
+      r.reduceAlpha(q,r.alpha.subtract(q.multiply(r.beta))); }
+    else {
+      if (0>r.beta.compareTo(r.alpha.add(lo))) { return false; }
+      final BoundedNatural q = r.beta.subtract(lo).divide(r.alpha);
+      r.reduceBeta(q,r.beta.subtract(q.multiply(r.alpha))); }
+    return true; }
+
+  /** Lehmer's algorithm: reduce with matrices computed from the
+   * leading 62 bits, applied to the whole numbers in one pass,
+   * keeping both at least <code>2<sup>s</sup></code>.
+   * <br>
+   * If the leading parts <code>(a1,b1)</code>, starting at bit
+   * <code>p</code>, are reduced to
+   * <code>a1',b1' &gt;= 2<sup>t</sup></code>,
+   * with <code>t &gt;= 32</code>, the cofactors are less than
+   * <code>2<sup>62-t</sup> &lt;= 2<sup>t-1</sup></code>,
+   * and the whole numbers are reduced to at least
+   * <code>2<sup>p</sup>(2<sup>t</sup>-2<sup>62-t</sup>)
+   * &gt;= 2<sup>p+t-1</sup></code>.
+   */
+
+  private static final void lehmer (final Reduction r,
+                                    final int s) {
+    while ((r.alpha.hiBit() > s) && (r.beta.hiBit() > s)) {
+      final int n = Math.max(r.alpha.hiBit(),r.beta.hiBit());
+      final int p = Math.max(0,n-LEHMER_BITS);
+      final int t = (0==p) ? s : Math.max((s-p)+1,32);
+      final long[] m =
+        (t<LEHMER_BITS-1)
+        ? lehmerMatrix(bits62(r.alpha,p),bits62(r.beta,p),t)
+        : null;
+      if (null==m) {
+        if (! euclidStep(r,s)) { return; } }
+      else {
+        if (0==p) {
+          // exact, cofactors may need all 62 bits
+          r.alpha = BoundedNatural.valueOf(m[4]);
+          r.beta = BoundedNatural.valueOf(m[5]); }
+        else {
+          final BoundedNatural a = r.alpha;
+          final BoundedNatural b = r.beta;
+          r.alpha = combine(a,m[3],b,m[1]);
+          r.beta = combine(b,m[0],a,m[2]); }
+        if (r.tracking()) {
+          r.multiply(
+            BoundedNatural.valueOf(m[0]),BoundedNatural.valueOf(m[1]),
+            BoundedNatural.valueOf(m[2]),BoundedNatural.valueOf(m[3])); } } } }
+
+  //--------------------------------------------------------------
+  /** Reduce the parts of <code>(r.alpha,r.beta)</code> above bit
+   * <code>p</code> recursively, and apply the resulting matrix
+   * to the whole numbers, which stay at least
+   * <code>2<sup>s</sup></code>.
+   * <br>
+   * If the leading parts, with <code>tb</code> bits,
+   * are reduced to at least <code>2<sup>t</sup></code>,
+   * with <code>t &gt; tb/2</code>
+   * the matrix entries are less than
+   * <code>2<sup>tb-t</sup> &lt;= 2<sup>t-1</sup></code>,
+   * so the whole numbers are reduced to at least
+   * <code>2<sup>p+t-1</sup> &gt;= 2<sup>s</sup></code>,
+   * when <code>t &gt; s-p</code>.
+   */
+
+  private static final void halfGcdTop (final Reduction r,
+                                        final int s,
+                                        final int p,
+                                        final int base) {
+    final BoundedNatural a = r.alpha;
+    final BoundedNatural b = r.beta;
+    final BoundedNatural a1 = a.shiftDown(p);
+    final BoundedNatural b1 = b.shiftDown(p);
+    final int tb = Math.max(a1.hiBit(),b1.hiBit());
+    final int t = Math.max((s-p)+1,(tb/2)+1);
+    final Reduction r1 = new Reduction(a1,b1,true);
+    halfGcd(r1,t,base);
+    if (r1.isIdentity()) { return; }
+    r.alpha = r1.m11.multiply(a).subtract(r1.m01.multiply(b));
+    r.beta = r1.m00.multiply(b).subtract(r1.m10.multiply(a));
+    if (r.tracking()) { r.multiply(r1.m00,r1.m01,r1.m10,r1.m11); } }
+
+  /** Schönhage's recursive half-gcd, in the form given by
+   * Möller: reduce <code>(r.alpha,r.beta)</code>, keeping both
+   * at least <code>2<sup>s</sup></code>,
+   * using two recursive calls on half-size leading parts,
+   * with a Euclid step between them.
+   * Falls back to Lehmer's algorithm when the part above
+   * <code>s</code> has at most <code>base</code> bits.
+   */
+
+  private static final void halfGcd (final Reduction r,
+                                     final int s,
+                                     final int base) {
+    if ((r.alpha.hiBit() <= s) || (r.beta.hiBit() <= s)) { return; }
+    final int n = Math.max(r.alpha.hiBit(),r.beta.hiBit());
+    if ((n-s) <= base) { lehmer(r,s); return; }
+    // reduce by about half of the bits above s
+    halfGcdTop(r,s,s,base);
+    // Euclid steps until at most 3/4 of the bits above s are left,
+    // usually just one, so the second call is on a smaller problem
+    final int m = n-s;
+    int n2;
+    do {
+      if ((r.alpha.hiBit() <= s) || (r.beta.hiBit() <= s)) { return; }
+      if (! euclidStep(r,s)) { return; }
+      n2 = Math.max(r.alpha.hiBit(),r.beta.hiBit()); }
+    while (4*(n2-s) > 3*m);
+    if ((r.alpha.hiBit() <= s) || (r.beta.hiBit() <= s)) { return; }
+    // reduce the rest
+    halfGcdTop(r,s,Math.max(0,(2*s)-n2),base); }
+
+  //--------------------------------------------------------------
+  // gcd
+  //--------------------------------------------------------------
+  /** Numbers with fewer words than this use Euclid and
+   * Knuth's binary algorithm.
+   * Default overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  private static final int LEHMER_THRESHOLD =
+    NaturalThresholds.get("NaturalGCD.LEHMER_THRESHOLD",4,2);
+
+  /** Numbers with at least this many words use half-gcd;
+   * between the thresholds use Lehmer.
+   * Default overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  private static final int HALF_GCD_THRESHOLD =
+    NaturalThresholds.get("NaturalGCD.HALF_GCD_THRESHOLD",8192,16);
+
+  /** Half-gcd uses Lehmer once at most this many words are
+   * left above the target size.
+   * Default overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  static final int HALF_GCD_BASE_THRESHOLD =
+    NaturalThresholds.get("NaturalGCD.HALF_GCD_BASE_THRESHOLD",512,8);
+
+  /** Reduce until small, or until <code>beta</code> divides
+   * <code>alpha</code>, in which case <code>alpha</code> is the
+   * gcd and <code>beta</code> is set to zero.
+   * Sub-quadratic for numbers of at least <code>halfGcd</code>
+   * words, recursing down to <code>base</code> words,
+   * Lehmer for medium.
+   */
+
+  private static final void reduce (final Reduction r,
+                                    final int small,
+                                    final int halfGcd,
+                                    final int base) {
+    while (true) {
+      final BoundedNatural a = r.alpha;
+      final BoundedNatural b = r.beta;
+      final int na = a.hiInt();
+      final int nb = b.hiInt();
+      final int n = Math.max(na,nb);
+      if (n<small) { return; }
+      if (Math.abs(na-nb) < 2) {
+        if (halfGcd <= n) { halfGcd(r,(32*n)/2,32*base); }
+        else { lehmer(r,Math.max(0,32*(small-1))); } }
+      // plain Euclid step
+      if (0<=r.alpha.compareTo(r.beta)) {
+        final BoundedNatural[] qr = r.alpha.divideAndRemainder(r.beta);
+        if (qr[1].isZero()) {
+          // beta is the gcd: make it alpha
+          if (r.tracking()) {
+            r.reduceAlpha(
+              qr[0].subtract(BoundedNatural.ONE),r.beta); }
+          r.alpha = r.beta;
+          r.beta = BoundedNatural.ZERO;
+          return; }
+        r.reduceAlpha(qr[0],qr[1]); }
+      else {
+        final BoundedNatural[] qr = r.beta.divideAndRemainder(r.alpha);
+        if (qr[1].isZero()) {
+          r.beta = BoundedNatural.ZERO;
+          return; }
+        r.reduceBeta(qr[0],qr[1]); } } }
+
+  /** Knuth's binary algorithm for small numbers,
+   * Lehmer for medium, and Schönhage-Möller half-gcd for
+   * large.
+   */
+
+  static final BoundedNatural gcd (final BoundedNatural u,
+                                   final BoundedNatural v) {
+    return gcd(u,v,
+      LEHMER_THRESHOLD,HALF_GCD_THRESHOLD,HALF_GCD_BASE_THRESHOLD); }
+
+  /** {@link #gcd(BoundedNatural,BoundedNatural)} with the given
+   * thresholds, for calibration and testing.
+   */
+
+  static final BoundedNatural gcd (final BoundedNatural u,
+                                   final BoundedNatural v,
+                                   final int lehmer,
+                                   final int halfGcd,
+                                   final int base) {
+    if (u.isZero()) { return v; }
+    if (v.isZero()) { return u; }
+    final Reduction r = new Reduction(u,v,false);
+    reduce(r,lehmer,halfGcd,base);
+    if (r.beta.isZero()) { return r.alpha; }
+    return gcdEuclidKnuth(r.alpha,r.beta); }
+
+  /** Returns <code>{g,x,y}</code>, where <code>g=gcd(u,v)</code>
+   * and <code>g = x*u - y*v</code>,
+   * with <code>x&lt;=v/g</code> and <code>y&lt;=u/g</code>.
+   * <code>u</code> must be positive.
+   */
+
+  static final BoundedNatural[] extendedGcd (final BoundedNatural u,
+                                             final BoundedNatural v) {
+    return extendedGcd(u,v,HALF_GCD_THRESHOLD,HALF_GCD_BASE_THRESHOLD); }
+
+  /** {@link #extendedGcd(BoundedNatural,BoundedNatural)} with
+   * the given half-gcd thresholds, for testing.
+   */
+
+  static final BoundedNatural[] extendedGcd (final BoundedNatural u,
+                                             final BoundedNatural v,
+                                             final int halfGcd,
+                                             final int base) {
+    assert ! u.isZero();
+    if (v.isZero()) {
+      return new BoundedNatural[] { u, BoundedNatural.ONE, v, }; }
+    final Reduction r = new Reduction(u,v,true);
+    reduce(r,0,halfGcd,base);
+    assert r.beta.isZero();
+    // g = alpha = m11*u - m01*v
+    return new BoundedNatural[] { r.alpha, r.m11, r.m01, }; }
+
   //--------------------------------------------------------------
   // disable constructor
   //--------------------------------------------------------------
@@ -6,7 +6,7 @@ import java.util.Arrays;
  *  related to {@link BoundedNatural}.
  *  <br>
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-01
+ * @version 2026-10-17
  */
 
 //@SuppressWarnings("unchecked")
@@ -29,6 +29,38 @@ public final class NaturalInts {
 
     public static final int MAX_BITS = (MAX_WORDS << 5);
 
+  //--------------------------------------------------------------
+  // SIMD
+  //--------------------------------------------------------------
+    /** Whether the Vector API kernels in {@link NaturalVector}
+     * can be used: the <code>jdk.incubator.vector</code> module
+     * is in the boot layer
+     * (<code>--add-modules jdk.incubator.vector</code>),
+     * vectors hold at least 4 ints,
+     * and <code>-Dnzqr.vector=false</code> isn't set.
+     * Otherwise the scalar loops are used.
+     */
+
+    static final boolean VECTOR = vectorAvailable();
+
+    /** Below this many words, the scalar loops win. */
+
+    static final int VECTOR_THRESHOLD =
+      NaturalThresholds.get("NaturalInts.VECTOR_THRESHOLD",64,1);
+
+    private static final boolean vectorAvailable () {
+      if (! Boolean.parseBoolean(
+        System.getProperty("nzqr.vector","true"))) {
+        return false; }
+      if (ModuleLayer.boot()
+        .findModule("jdk.incubator.vector").isEmpty()) {
+        return false; }
+      try { return 4<=NaturalVector.lanes(); }
+      catch (final LinkageError e) { return false; } }
+
+    static final boolean vectorize (final int n) {
+      return VECTOR && (VECTOR_THRESHOLD<=n); }
+
   //--------------------------------------------------------------
   // manipulating word arrays
   //--------------------------------------------------------------
@@ -65,9 +97,11 @@ public final class NaturalInts {
 
         final int[] vv = new int[nv];
         final int rShift = 32-bShift;
-        int w0 = w[iShift];
         int i = 0;
-        int j = iShift+1;
+        if (vectorize(nv)) {
+          i = NaturalVector.shiftDownByBits(w,nt,vv,iShift,bShift); }
+        int w0 = w[iShift+i];
+        int j = iShift+i+1;
         while (j<nt) {
             final int w1 = w[j];
             final int wi = ((w1<<rShift) | (w0>>>bShift));
@@ -99,12 +133,16 @@ public final class NaturalInts {
                                               final int iShift,
                                               final int bShift) {
         final int nt = hiInt(tt);
+        if (0==nt) { return new int[0]; }
         final int nv = nt+iShift;
         final int rShift = 32-bShift;
         final int[] vv = new int[nv+1];
-        int w0 = tt[0];
-        vv[iShift] = (w0<<bShift);
-        for (int i = 1,j = iShift+1;i<nt;i++,j++) {
+        vv[iShift] = (tt[0]<<bShift);
+        int i0 = 1;
+        if (vectorize(nt)) {
+          i0 = NaturalVector.shiftUpByBits(tt,nt,vv,iShift,bShift); }
+        int w0 = tt[i0-1];
+        for (int i = i0,j = iShift+i0;i<nt;i++,j++) {
             final int w1 = tt[i];
             final int wj = ((w1<<bShift)|(w0>>>rShift));
             w0 = w1;
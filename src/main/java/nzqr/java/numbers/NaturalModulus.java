@@ -0,0 +1,515 @@
+package nzqr.java.numbers;
+
+import static nzqr.java.numbers.Numbers.unsigned;
+
+import java.util.Arrays;
+
+/** Arithmetic modulo a fixed natural number <code>m</code>,
+ * with the per-modulus state computed once, so one instance
+ * can be reused for any number of operations.
+ * <br>
+ * Odd moduli use Montgomery form:
+ * <code>x</code> is represented by <code>x R mod m</code>,
+ * with <code>R=2<sup>32n</sup></code> for an <code>n</code>
+ * word modulus, so reduction is by multiplies and shifts
+ * rather than division.
+ * Small moduli reduce a word at a time;
+ * large ones reduce a whole product with two more
+ * multiplies, so the fast multiply algorithms apply.
+ * <br>
+ * Even moduli reduce by division, sharing a Newton reciprocal
+ * of the modulus when that pays off.
+ * <br>
+ * {@link #pow(BoundedNatural,BoundedNatural)} uses left-to-right
+ * sliding window exponentiation over precomputed odd powers.
+ * <br>
+ * Immutable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class NaturalModulus {
+
+  //--------------------------------------------------------------
+  // thresholds
+  //--------------------------------------------------------------
+  /** Moduli with at least this many words reduce a full
+   * product with multiplies, rather than word by word.
+   * Whole product reduction costs two more multiplies,
+   * so only pays off well above the Karatsuba threshold.
+   */
+
+  private static final int MONTGOMERY_MULTIPLY_THRESHOLD = 400;
+
+  //--------------------------------------------------------------
+  // fields
+  //--------------------------------------------------------------
+
+  private final BoundedNatural _modulus;
+
+  public final BoundedNatural modulus () { return _modulus; }
+
+  /** Words in the modulus. */
+
+  private final int _n;
+
+  /** The modulus, exactly <code>_n</code> words. */
+
+  private final int[] _m;
+
+  /** <code>-m<sup>-1</sup> mod 2<sup>32</sup></code>,
+   * for odd moduli.
+   */
+
+  private final int _mInv;
+
+  /** <code>-m<sup>-1</sup> mod R</code>, for large odd moduli,
+   * otherwise <code>null</code>.
+   */
+
+  private final BoundedNatural _mInvR;
+
+  /** <code>R<sup>2</sup> mod m</code>, for odd moduli,
+   * otherwise <code>null</code>.
+   */
+
+  private final BoundedNatural _r2;
+
+  /** For dividing by even moduli, when Newton division
+   * pays off, otherwise <code>null</code>.
+   */
+
+  private final NewtonDivision.Reciprocal _reciprocal;
+
+  public final boolean isOdd () { return 0!=(_m[0]&1); }
+
+  //--------------------------------------------------------------
+  // reduction
+  //--------------------------------------------------------------
+  /** <code>u mod m</code>. */
+
+  public final BoundedNatural mod (final BoundedNatural u) {
+    if (0>u.compareTo(_modulus)) { return u; }
+    if ((null!=_reciprocal)
+      && (u.hiBit() < (_modulus.hiBit()+_reciprocal.precision()))) {
+      return NewtonDivision.divideAndRemainder(u,_reciprocal)[1]; }
+    return u.remainder(_modulus); }
+
+  /** The low <code>n</code> words of <code>u</code>,
+   * padded with zeros if necessary.
+   */
+
+  private static final int[] words (final BoundedNatural u,
+                                    final int n) {
+    return Arrays.copyOf(u.words(),n); }
+
+  /** <code>u mod 2<sup>32n</sup></code>. */
+
+  private static final BoundedNatural lowWords (final BoundedNatural u,
+                                                final int n) {
+    if (u.hiInt()<=n) { return u; }
+    return BoundedNatural.unsafe(words(u,n)); }
+
+  //--------------------------------------------------------------
+  // Montgomery form
+  //--------------------------------------------------------------
+
+  private final void checkOdd () {
+    if (! isOdd()) {
+      throw new ArithmeticException(
+        "Montgomery form needs an odd modulus: " + _modulus); } }
+
+  /** <code>a b R<sup>-1</sup> mod m</code>,
+   * for <code>a,b &lt; m</code>,
+   * interleaving the multiply and reduction a word at a time
+   * (coarsely integrated operand scanning).
+   */
+
+  private final int[] montgomeryMultiplyWords (final int[] a,
+                                               final int[] b) {
+    final int n = _n;
+    final int[] m = _m;
+    final int mInv = _mInv;
+    // t < 2m, at most one bit more than m
+    final int[] t = new int[n+2];
+    for (int i=0;i<n;i++) {
+      // t += a[i] b
+      final long ai = unsigned(a[i]);
+      long c = 0L;
+      for (int j=0;j<n;j++) {
+        // at most 2^64-1, so no unsigned overflow
+        final long s = (ai*unsigned(b[j])) + unsigned(t[j]) + c;
+        t[j] = (int) s;
+        c = (s>>>32); }
+      long s = unsigned(t[n]) + c;
+      t[n] = (int) s;
+      t[n+1] = (int) (s>>>32);
+      // t = (t + q m)/2^32, with q chosen to zero the low word
+      final long q = unsigned(t[0]*mInv);
+      s = (q*unsigned(m[0])) + unsigned(t[0]);
+      c = (s>>>32);
+      for (int j=1;j<n;j++) {
+        s = (q*unsigned(m[j])) + unsigned(t[j]) + c;
+        t[j-1] = (int) s;
+        c = (s>>>32); }
+      s = unsigned(t[n]) + c;
+      t[n-1] = (int) s;
+      t[n] = t[n+1] + (int) (s>>>32);
+      t[n+1] = 0; }
+    if ((0!=t[n]) || (0<=compareWords(t,m,n))) { subtractWords(t,m,n); }
+    return Arrays.copyOf(t,n); }
+
+  /** <code>a<sup>2</sup> R<sup>-1</sup> mod m</code>,
+   * for <code>a &lt; m</code>,
+   * squaring first, computing each cross product once,
+   * and then reducing (separated operand scanning).
+   */
+
+  private final int[] montgomerySquareWords (final int[] a) {
+    final int n = _n;
+    final int[] t = new int[(2*n)+1];
+    // off diagonal
+    for (int i=0;i<n;i++) {
+      final long ai = unsigned(a[i]);
+      long c = 0L;
+      for (int j=i+1,k=(2*i)+1;j<n;j++,k++) {
+        final long s = (ai*unsigned(a[j])) + unsigned(t[k]) + c;
+        t[k] = (int) s;
+        c = (s>>>32); }
+      t[i+n] = (int) c; }
+    // double and add the diagonal
+    int hi = 0;
+    long c = 0L;
+    for (int i=0;i<n;i++) {
+      final long ai = unsigned(a[i]);
+      final long d = ai*ai;
+      final int t0 = t[2*i];
+      final int t1 = t[(2*i)+1];
+      long s = unsigned((t0<<1)|hi) + (d&0xFFFFFFFFL) + c;
+      t[2*i] = (int) s;
+      s = unsigned((t1<<1)|(t0>>>31)) + (d>>>32) + (s>>>32);
+      t[(2*i)+1] = (int) s;
+      c = (s>>>32);
+      hi = (t1>>>31); }
+    assert (0L==c) && (0==hi);
+    return reduceWords(t); }
+
+  /** <code>t R<sup>-1</sup> mod m</code>, for
+   * <code>t &lt; m R</code> in the low <code>2n</code> of
+   * <code>2n+1</code> words, adding multiples of
+   * <code>m</code> to zero the low words a word at a time.
+   * Overwrites <code>t</code>.
+   */
+
+  private final int[] reduceWords (final int[] t) {
+    final int n = _n;
+    final int[] m = _m;
+    final int mInv = _mInv;
+    for (int i=0;i<n;i++) {
+      final long q = unsigned(t[i]*mInv);
+      long c = 0L;
+      for (int j=0,k=i;j<n;j++,k++) {
+        final long s = (q*unsigned(m[j])) + unsigned(t[k]) + c;
+        t[k] = (int) s;
+        c = (s>>>32); }
+      for (int k=i+n;0L!=c;k++) {
+        final long s = unsigned(t[k]) + c;
+        t[k] = (int) s;
+        c = (s>>>32); } }
+    // t/R < 2m
+    final int[] u = Arrays.copyOfRange(t,n,(2*n)+1);
+    if ((0!=u[n]) || (0<=compareWords(u,m,n))) { subtractWords(u,m,n); }
+    return Arrays.copyOf(u,n); }
+
+  /** Compare the low <code>n</code> words, unsigned. */
+
+  private static final int compareWords (final int[] a,
+                                         final int[] b,
+                                         final int n) {
+    for (int i=n-1;i>=0;i--) {
+      final int c = Integer.compareUnsigned(a[i],b[i]);
+      if (0!=c) { return c; } }
+    return 0; }
+
+  /** <code>a -= b</code> in the low <code>n+1</code> words of
+   * <code>a</code>, which must not go negative.
+   */
+
+  private static final void subtractWords (final int[] a,
+                                           final int[] b,
+                                           final int n) {
+    long dif = 0L;
+    for (int i=0;i<n;i++) {
+      dif += unsigned(a[i]) - unsigned(b[i]);
+      a[i] = (int) dif;
+      dif = (dif>>32); }
+    a[n] += (int) dif; }
+
+  /** <code>t R<sup>-1</sup> mod m</code>,
+   * for <code>t &lt; m R</code>, using whole multiplies.
+   */
+
+  private final BoundedNatural redc (final BoundedNatural t) {
+    final BoundedNatural q =
+      lowWords(lowWords(t,_n).multiply(_mInvR),_n);
+    final BoundedNatural u = t.add(q.multiply(_modulus)).shiftDown(32*_n);
+    if (0<=u.compareTo(_modulus)) { return u.subtract(_modulus); }
+    return u; }
+
+  /** <code>a b R<sup>-1</sup> mod m</code>, on words. */
+
+  private final int[] montgomeryMultiply (final int[] a,
+                                          final int[] b) {
+    if (_n < MONTGOMERY_MULTIPLY_THRESHOLD) {
+      if (a==b) { return montgomerySquareWords(a); }
+      return montgomeryMultiplyWords(a,b); }
+    final BoundedNatural ua = BoundedNatural.unsafe(a);
+    final BoundedNatural t =
+      (a==b) ? ua.square() : ua.multiply(BoundedNatural.unsafe(b));
+    return words(redc(t),_n); }
+
+  /** <code>a b R<sup>-1</sup> mod m</code>,
+   * for <code>a,b</code> in Montgomery form.
+   */
+
+  public final BoundedNatural montgomeryMultiply (final BoundedNatural a,
+                                                  final BoundedNatural b) {
+    checkOdd();
+    return BoundedNatural.unsafe(
+      montgomeryMultiply(words(mod(a),_n),words(mod(b),_n))); }
+
+  /** <code>t R<sup>-1</sup> mod m</code>,
+   * for <code>t &lt; m R</code>.
+   */
+
+  public final BoundedNatural montgomeryReduce (final BoundedNatural t) {
+    checkOdd();
+    assert 0 > t.compareTo(_modulus.shiftUp(32*_n));
+    if (_n < MONTGOMERY_MULTIPLY_THRESHOLD) {
+      // t R^-1 = (t mod m) R^-1, and t mod m = (t mod m) 1
+      final int[] one = new int[_n];
+      one[0] = 1;
+      return BoundedNatural.unsafe(
+        montgomeryMultiplyWords(words(mod(t),_n),one)); }
+    return redc(t); }
+
+  /** <code>a R mod m</code>. */
+
+  public final BoundedNatural toMontgomery (final BoundedNatural a) {
+    checkOdd();
+    return BoundedNatural.unsafe(
+      montgomeryMultiply(words(mod(a),_n),words(_r2,_n))); }
+
+  /** <code>x R<sup>-1</sup> mod m</code>. */
+
+  public final BoundedNatural fromMontgomery (final BoundedNatural x) {
+    return montgomeryReduce(mod(x)); }
+
+  //--------------------------------------------------------------
+  // arithmetic
+  //--------------------------------------------------------------
+
+  public final BoundedNatural add (final BoundedNatural a,
+                                   final BoundedNatural b) {
+    final BoundedNatural s = mod(a).add(mod(b));
+    if (0<=s.compareTo(_modulus)) { return s.subtract(_modulus); }
+    return s; }
+
+  public final BoundedNatural subtract (final BoundedNatural a,
+                                        final BoundedNatural b) {
+    final BoundedNatural ma = mod(a);
+    final BoundedNatural mb = mod(b);
+    if (0<=ma.compareTo(mb)) { return ma.subtract(mb); }
+    return ma.add(_modulus).subtract(mb); }
+
+  public final BoundedNatural multiply (final BoundedNatural a,
+                                        final BoundedNatural b) {
+    return mod(mod(a).multiply(mod(b))); }
+
+  public final BoundedNatural square (final BoundedNatural a) {
+    return mod(mod(a).square()); }
+
+  //--------------------------------------------------------------
+  // inverse
+  //--------------------------------------------------------------
+  /** <code>x</code> with <code>a x = 1 mod m</code>.
+   * @throws ArithmeticException if <code>a</code> and
+   * <code>m</code> aren't relatively prime.
+   */
+
+  public final BoundedNatural inverse (final BoundedNatural a) {
+    if (_modulus.isOne()) { return BoundedNatural.ZERO; }
+    final BoundedNatural ma = mod(a);
+    if (! ma.isZero()) {
+      // g = x a - y m
+      final BoundedNatural[] gxy = ma.extendedGcd(_modulus);
+      if (gxy[0].isOne()) { return mod(gxy[1]); } }
+    throw new ArithmeticException(
+      a + " not invertible modulo " + _modulus); }
+
+  //--------------------------------------------------------------
+  // exponentiation
+  //--------------------------------------------------------------
+  /** Exponents with more than <code>WINDOW_BITS[w-1]</code>
+   * bits use windows of <code>w+1</code> bits.
+   */
+
+  private static final int[] WINDOW_BITS =
+  { 7, 25, 81, 241, 673, 1793, Integer.MAX_VALUE, };
+
+  private static final int windowSize (final int ebits) {
+    int w = 1;
+    while (ebits > WINDOW_BITS[w-1]) { w++; }
+    return w; }
+
+  private static final boolean testBit (final BoundedNatural e,
+                                        final int i) {
+    return 0!=((e.word(i>>>5)>>>(i&0x1F))&1); }
+
+  /** The bits <code>[j,i]</code> of <code>e</code>. */
+
+  private static final int bits (final BoundedNatural e,
+                                 final int i,
+                                 final int j) {
+    int v = 0;
+    for (int k=i;k>=j;k--) { v = (v<<1) | (testBit(e,k) ? 1 : 0); }
+    return v; }
+
+  /** <code>base<sup>exponent</sup> mod m</code>. */
+
+  public final BoundedNatural pow (final BoundedNatural base,
+                                   final BoundedNatural exponent) {
+    if (exponent.isZero()) { return mod(BoundedNatural.ONE); }
+    final BoundedNatural b = mod(base);
+    if (b.isZero() || b.isOne()) { return b; }
+    return isOdd() ? powMontgomery(b,exponent) : powDivide(b,exponent); }
+
+  /** Sliding window exponentiation, in Montgomery form. */
+
+  private final BoundedNatural powMontgomery (final BoundedNatural b,
+                                              final BoundedNatural e) {
+    final int nbits = e.hiBit();
+    final int w = windowSize(nbits);
+    // odd powers b^1, b^3, ..., b^(2^w-1)
+    final int[][] table = new int[1<<(w-1)][];
+    table[0] = montgomeryMultiply(words(b,_n),words(_r2,_n));
+    if (1<w) {
+      final int[] b2 = montgomeryMultiply(table[0],table[0]);
+      for (int i=1;i<table.length;i++) {
+        table[i] = montgomeryMultiply(table[i-1],b2); } }
+    int[] x = null;
+    int i = nbits-1;
+    while (0<=i) {
+      if (! testBit(e,i)) {
+        x = montgomeryMultiply(x,x);
+        i--;
+        continue; }
+      // longest window of at most w bits ending in a 1
+      int j = Math.max(0,(i-w)+1);
+      while (! testBit(e,j)) { j++; }
+      final int[] p = table[bits(e,i,j)>>>1];
+      if (null==x) { x = p; }
+      else {
+        for (int k=i;k>=j;k--) { x = montgomeryMultiply(x,x); }
+        x = montgomeryMultiply(x,p); }
+      i = j-1; }
+    return montgomeryReduce(BoundedNatural.unsafe(x)); }
+
+  /** Sliding window exponentiation, reducing by division. */
+
+  private final BoundedNatural powDivide (final BoundedNatural b,
+                                          final BoundedNatural e) {
+    final int nbits = e.hiBit();
+    final int w = windowSize(nbits);
+    final BoundedNatural[] table = new BoundedNatural[1<<(w-1)];
+    table[0] = b;
+    if (1<w) {
+      final BoundedNatural b2 = square(b);
+      for (int i=1;i<table.length;i++) {
+        table[i] = multiply(table[i-1],b2); } }
+    BoundedNatural x = null;
+    int i = nbits-1;
+    while (0<=i) {
+      if (! testBit(e,i)) {
+        x = square(x);
+        i--;
+        continue; }
+      int j = Math.max(0,(i-w)+1);
+      while (! testBit(e,j)) { j++; }
+      final BoundedNatural p = table[bits(e,i,j)>>>1];
+      if (null==x) { x = p; }
+      else {
+        for (int k=i;k>=j;k--) { x = square(x); }
+        x = multiply(x,p); }
+      i = j-1; }
+    return x; }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+  /** <code>-m<sup>-1</sup> mod 2<sup>32</sup></code>,
+   * for odd <code>m0</code>, by Newton iteration, each step
+   * doubling the correct bits, starting from 3.
+   */
+
+  private static final int negativeInverse (final int m0) {
+    assert 0!=(m0&1);
+    int x = m0;
+    for (int i=0;i<4;i++) { x *= 2 - (m0*x); }
+    return -x; }
+
+  /** <code>-m<sup>-1</sup> mod 2<sup>32n</sup></code>,
+   * lifting the inverse mod <code>2<sup>32</sup></code>
+   * (Hensel), doubling the words each step.
+   */
+
+  private static final BoundedNatural
+  negativeInverse (final BoundedNatural m,
+                   final int n) {
+    BoundedNatural x =
+      BoundedNatural.valueOf(unsigned(-negativeInverse(m.word(0))));
+    for (int k=2;;k*=2) {
+      final int nk = Math.min(k,n);
+      // x = x (2 - m x) mod 2^(32nk), and m x = 1 mod 2^(32k/2)
+      final BoundedNatural mx = lowWords(lowWords(m,nk).multiply(x),nk);
+      final BoundedNatural t =
+        BoundedNatural.ONE.shiftUp(32*nk).add(2L).subtract(mx);
+      x = lowWords(x.multiply(t),nk);
+      if (nk==n) { break; } }
+    return BoundedNatural.ONE.shiftUp(32*n).subtract(x); }
+
+  private NaturalModulus (final BoundedNatural m) {
+    _n = m.hiInt();
+    _m = words(m,_n);
+    _modulus = BoundedNatural.unsafe(_m);
+    if (isOdd()) {
+      _mInv = negativeInverse(_m[0]);
+      _mInvR =
+        (_n < MONTGOMERY_MULTIPLY_THRESHOLD)
+        ? null : negativeInverse(_modulus,_n);
+      _r2 = BoundedNatural.ONE.shiftUp(64*_n).remainder(_modulus);
+      _reciprocal = null; }
+    else {
+      _mInv = 0;
+      _mInvR = null;
+      _r2 = null;
+      // products of reduced numbers, by the same modulus
+      final BoundedNatural m2 = _modulus.square();
+      _reciprocal =
+        NewtonDivision.useNewtonDivision(m2,_modulus,2)
+        ? new NewtonDivision.Reciprocal(_modulus,_modulus.hiBit()+1)
+          : null; } }
+
+  /** A modular arithmetic context for <code>m</code>,
+   * which must be positive.
+   */
+
+  public static final NaturalModulus make (final BoundedNatural m) {
+    if (m.isZero()) {
+      throw new ArithmeticException("zero modulus"); }
+    return new NaturalModulus(m); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -3,12 +3,16 @@ package nzqr.java.numbers;
 import static nzqr.java.numbers.Numbers.*;
 import static nzqr.java.numbers.Numbers.hiWord;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
 /** Multiplication of natural numbers.
  * <br>
  * Non-instantiable.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-17
+ * @version 2026-10-17
  */
 
 final class NaturalMultiply {
@@ -35,7 +39,7 @@ final class NaturalMultiply {
       final int i2 = iu+nv;
       ww[i2] = (int) carry; } }
 
-  private static final BoundedNatural multiplySimple (final BoundedNatural u,
+  static final BoundedNatural multiplySimple (final BoundedNatural u,
                                                       final BoundedNatural v) {
     // the equivalent method in BigInteger is marked @IntrinsicCandidate
     // it may not be possible to get the same performance with
@@ -95,20 +99,118 @@ final class NaturalMultiply {
 //    if (t.isZero()) { return t; }
 //    return t.multiply(BoundedNatural.valueOf(u,upShift)); }
 
+  //--------------------------------------------------------------
+  // fork/join
+  //--------------------------------------------------------------
+  /** Pool for the independent sub-products of Karatsuba,
+   * Toom-Cook 3, and the 3 NTT convolutions.
+   * <code>null</code> means always sequential.
+   */
+
+  private static volatile ForkJoinPool parallelPool =
+    ForkJoinPool.commonPool();
+
+  /** Sub-products are forked only when both operands have
+   * at least this many words.
+   */
+
+  private static volatile int parallelThreshold = 512;
+
+  static final ForkJoinPool parallelPool () { return parallelPool; }
+
+  static final void parallelPool (final ForkJoinPool pool) {
+    parallelPool = pool; }
+
+  static final int parallelThreshold () { return parallelThreshold; }
+
+  static final void parallelThreshold (final int nwords) {
+    assert 0<nwords;
+    parallelThreshold = nwords; }
+
+  private static final ForkJoinPool pool (final int n0,
+                                          final int n1) {
+    final ForkJoinPool pool = parallelPool;
+    if ((null==pool) || (1>=pool.getParallelism())) { return null; }
+    final int threshold = parallelThreshold;
+    if ((n0<threshold) || (n1<threshold)) { return null; }
+    return pool; }
+
+  /** <code>uu[i]*vv[i]</code>, or <code>uu[i]<sup>2</sup></code>
+   * if <code>vv</code> is <code>null</code>.
+   */
+
+  private static final class Product
+  extends RecursiveTask<BoundedNatural> {
+    private static final long serialVersionUID = 1L;
+    private final transient BoundedNatural u;
+    private final transient BoundedNatural v;
+    @Override
+    protected final BoundedNatural compute () {
+      return (null==v) ? u.square() : u.multiply(v); }
+    Product (final BoundedNatural u0, final BoundedNatural v0) {
+      u = u0; v = v0; } }
+
+  /** Run the tasks in <code>pool</code>, computing the first on
+   * the current thread if it is already a worker in that pool.
+   */
+
+  private static final <T> void
+  invokeAll (final ForkJoinPool pool,
+             final ForkJoinTask<T>[] tasks) {
+    if (ForkJoinTask.getPool()==pool) {
+      ForkJoinTask.invokeAll(tasks); }
+    else {
+      pool.invoke(new RecursiveTask<Void>() {
+        private static final long serialVersionUID = 1L;
+        @Override
+        protected final Void compute () {
+          ForkJoinTask.invokeAll(tasks);
+          return null; } }); } }
+
+  /** <code>uu[i]*vv[i]</code>, or <code>uu[i]<sup>2</sup></code>
+   * if <code>vv</code> is <code>null</code>, forked in
+   * <code>pool</code> unless it is <code>null</code>.
+   */
+
+  private static final BoundedNatural[]
+  products (final ForkJoinPool pool,
+            final BoundedNatural[] uu,
+            final BoundedNatural[] vv) {
+    final int n = uu.length;
+    final BoundedNatural[] ww = new BoundedNatural[n];
+    if (null==pool) {
+      for (int i=0;i<n;i++) {
+        ww[i] = (null==vv) ? uu[i].square() : uu[i].multiply(vv[i]); }
+      return ww; }
+    final Product[] tasks = new Product[n];
+    for (int i=0;i<n;i++) {
+      tasks[i] = new Product(uu[i],(null==vv) ? null : vv[i]); }
+    invokeAll(pool,tasks);
+    for (int i=0;i<n;i++) { ww[i] = tasks[i].join(); }
+    return ww; }
+
   //--------------------------------------------------------------
 
-  private static final BoundedNatural multiplyKaratsuba (final BoundedNatural u,
+  static final BoundedNatural multiplyKaratsuba (final BoundedNatural u,
                                                          final BoundedNatural v) {
     final int n0 = u.hiInt();
     final int n1 = v.hiInt();
     final int half = (Math.max(n0,n1)+1) / 2;
     final BoundedNatural xl = u.words(0,half);
-    final BoundedNatural xh = u.words(half,u.hiInt());
+    // unbalanced operands may have no high half
+    final BoundedNatural xh =
+      (half<n0) ? u.words(half,n0) : u.zero();
     final BoundedNatural yl = v.words(0,half);
-    final BoundedNatural yh = v.words(half,v.hiInt());
-    final BoundedNatural p1 = xh.multiply(yh);
-    final BoundedNatural p2 = xl.multiply(yl);
-    final BoundedNatural p3 = xh.add(xl).multiply(yh.add(yl));
+    final BoundedNatural yh =
+      (half<n1) ? v.words(half,n1) : v.zero();
+    final BoundedNatural[] p =
+      products(
+        pool(n0,n1),
+        new BoundedNatural[] { xh, xl, xh.add(xl), },
+        new BoundedNatural[] { yh, yl, yh.add(yl), });
+    final BoundedNatural p1 = p[0];
+    final BoundedNatural p2 = p[1];
+    final BoundedNatural p3 = p[2];
     final int h32 = half*32;
     final BoundedNatural p4 = p1.shiftUp(h32);
     final BoundedNatural p5 = p4.add(p3.subtract(p1).subtract(p2))
@@ -165,7 +267,7 @@ final class NaturalMultiply {
 
   //--------------------------------------------------------------
 
-  private static final BoundedNatural multiplyToomCook3 (final BoundedNatural u,
+  static final BoundedNatural multiplyToomCook3 (final BoundedNatural u,
                                                          final BoundedNatural v) {
     final int n0 = u.hiInt();
     final int n1 = v.hiInt();
@@ -184,9 +286,8 @@ final class NaturalMultiply {
     final BoundedNatural b2 = getToomSlice(v,k,r,0,largest);
     final BoundedNatural b1 = getToomSlice(v,k,r,1,largest);
     final BoundedNatural b0 = getToomSlice(v,k,r,2,largest);
-    final BoundedNatural v0 = a0.multiply(b0);
-    BoundedNatural da1 = a2.add(a0);
-    BoundedNatural db1 = b2.add(b0);
+    final BoundedNatural da1 = a2.add(a0);
+    final BoundedNatural db1 = b2.add(b0);
 
     // might be negative
     final BoundedNatural da1_a1;
@@ -199,17 +300,31 @@ final class NaturalMultiply {
     if (0 < cb) { db1_b1 = db1.subtract(b1); }
     else { db1_b1 = b1.subtract(db1); }
     final int cv = ca * cb;
-    final BoundedNatural vm1 = da1_a1.multiply(db1_b1);
 
-    da1 = da1.add(a1);
-    db1 = db1.add(b1);
-    final BoundedNatural v1 = da1.multiply(db1);
-    final BoundedNatural v2 =
-      da1.add(a2).shiftUp(1).subtract(a0)
-         .multiply(
-           db1.add(b2).shiftUp(1).subtract(b0));
+    final BoundedNatural da2 = da1.add(a1);
+    final BoundedNatural db2 = db1.add(b1);
 
-    final BoundedNatural vinf = a2.multiply(b2);
+    // the 5 sub-products are independent
+    final BoundedNatural[] p =
+      products(
+        pool(n0,n1),
+        new BoundedNatural[] {
+          a0,
+          da1_a1,
+          da2,
+          da2.add(a2).shiftUp(1).subtract(a0),
+          a2, },
+        new BoundedNatural[] {
+          b0,
+          db1_b1,
+          db2,
+          db2.add(b2).shiftUp(1).subtract(b0),
+          b2, });
+    final BoundedNatural v0 = p[0];
+    final BoundedNatural vm1 = p[1];
+    final BoundedNatural v1 = p[2];
+    final BoundedNatural v2 = p[3];
+    final BoundedNatural vinf = p[4];
 
     // The algorithm requires two divisions by 2 and one by 3.
     // All divisions are known to be exact, that is, they do not
@@ -245,9 +360,328 @@ final class NaturalMultiply {
           .add(tm1).shiftUp(ss)
           .add(v0); }
 
-  private static final int MULTIPLY_SQUARE_THRESHOLD = 20;
-  private static final int KARATSUBA_THRESHOLD = 80;
-  private static final int TOOM_COOK_THRESHOLD = 240;
+  //--------------------------------------------------------------
+  // three-prime number-theoretic transform
+  //--------------------------------------------------------------
+  /** Multiplication via number-theoretic transforms (NTT)
+   * modulo three primes of the form <code>c*2<sup>k</sup>+1</code>,
+   * using full 32-bit words as coefficients,
+   * with the exact convolution recovered by the
+   * Chinese remainder theorem (Garner's algorithm).
+   * <p>
+   * Each convolution coefficient is at most
+   * <code>min(nu,nv)*(2<sup>32</sup>-1)<sup>2</sup></code>,
+   * which is less than the product of the 3 primes
+   * (about <code>2<sup>86.02</sup></code>)
+   * as long as the transform length is at most
+   * <code>2<sup>23</sup></code>, the largest power of 2
+   * dividing <code>P0-1</code>.
+   * Larger products are split by Toom-Cook 3 until the pieces
+   * fit.
+   * <p>
+   * Forward transforms are decimation in frequency
+   * (natural order in, bit-reversed order out),
+   * inverse transforms decimation in time
+   * (bit-reversed in, natural out), so no bit-reversal
+   * permutation is needed.
+   */
+
+  private static final int P0 = 998244353; // 119*2^23+1
+  private static final int P1 = 469762049; //   7*2^26+1
+  private static final int P2 = 167772161; //   5*2^25+1
+  private static final int[] PRIMES = { P0, P1, P2, };
+  // 3 is a primitive root for all 3 primes.
+  private static final int GENERATOR = 3;
+
+  /** Largest transform length usable with all 3 primes. */
+  private static final int NTT_MAX_LENGTH = 1 << 23;
+
+  private static final long modPow (final long b,
+                                    final long e,
+                                    final long p) {
+    long r = 1L;
+    long bb = b % p;
+    long ee = e;
+    while (0L<ee) {
+      if (0L!=(ee&1L)) { r = (r*bb) % p; }
+      bb = (bb*bb) % p;
+      ee >>>= 1; }
+    return r; }
+
+  private static final long modInverse (final long a,
+                                        final long p) {
+    return modPow(a,p-2,p); }
+
+  /** Twiddle factors for one prime, in a stacked layout:
+   * <code>w[h+j] = r<sub>2h</sub><sup>j</sup></code>,
+   * for <code>h</code> a power of 2 and <code>0&lt;=j&lt;h</code>,
+   * where <code>r<sub>2h</sub></code> is a primitive
+   * <code>2h</code>-th root of unity.
+   * <code>ws</code> holds the Shoup precomputed quotients
+   * <code>floor(w*2<sup>32</sup>/p)</code>.
+   * The table for length <code>n</code> is a prefix of the
+   * table for any longer length, so one table, grown as needed,
+   * serves all transforms.
+   * The inverse roots aren't stored, since
+   * <code>r<sub>2h</sub><sup>-j</sup> =
+   * -r<sub>2h</sub><sup>h-j</sup></code>.
+   */
+
+  private static final class Twiddles {
+    final int length;
+    final int[] w;
+    final int[] ws;
+
+    private Twiddles (final int p, final int n) {
+      length = n;
+      w = new int[n];
+      ws = new int[n];
+      final long pl = p;
+      for (int h=1;h<n;h<<=1) {
+        final long r = modPow(GENERATOR,(pl-1)/(2L*h),pl);
+        long x = 1L;
+        for (int j=0;j<h;j++) {
+          w[h+j] = (int) x;
+          ws[h+j] = (int) ((x<<32)/pl);
+          x = (x*r) % pl; } } } }
+
+  private static final Twiddles[] TWIDDLES = new Twiddles[3];
+
+  private static final Twiddles twiddles (final int prime,
+                                          final int n) {
+    synchronized (TWIDDLES) {
+      final Twiddles t = TWIDDLES[prime];
+      if ((null!=t) && (n<=t.length)) { return t; }
+      final Twiddles t1 = new Twiddles(PRIMES[prime],n);
+      TWIDDLES[prime] = t1;
+      return t1; } }
+
+  /** Shoup modular multiply: <code>a*w mod p</code>, given
+   * <code>0&lt;=a,w&lt;p</code> and
+   * <code>ws=floor(w*2<sup>32</sup>/p)</code>.
+   */
+
+  private static final long mulShoup (final long a,
+                                      final long w,
+                                      final long ws,
+                                      final long p) {
+    final long q = (a*ws)>>>32;
+    final long r = (a*w) - (q*p);
+    return (r>=p) ? r-p : r; }
+
+  private static final void forwardNTT (final int[] a,
+                                        final int n,
+                                        final Twiddles t,
+                                        final long p) {
+    final int[] w = t.w;
+    final int[] ws = t.ws;
+    for (int h=n>>>1;h>=1;h>>>=1) {
+      for (int s=0;s<n;s+=(h<<1)) {
+        for (int j=0;j<h;j++) {
+          final int i0 = s+j;
+          final int i1 = i0+h;
+          final long u = a[i0];
+          final long v = a[i1];
+          final long sum = u+v;
+          a[i0] = (int) ((sum>=p) ? sum-p : sum);
+          final long dif = u-v;
+          a[i1] = (int) mulShoup(
+            (dif<0L) ? dif+p : dif,
+            w[h+j],unsigned(ws[h+j]),p); } } } }
+
+  private static final void inverseNTT (final int[] a,
+                                        final int n,
+                                        final Twiddles t,
+                                        final long p) {
+    final int[] w = t.w;
+    final int[] ws = t.ws;
+    for (int h=1;h<n;h<<=1) {
+      final int h2 = h<<1;
+      for (int s=0;s<n;s+=h2) {
+        for (int j=0;j<h;j++) {
+          final int i0 = s+j;
+          final int i1 = i0+h;
+          final long u = a[i0];
+          final long v;
+          if (0==j) { v = a[i1]; }
+          else {
+            // a[i1] * r^-j = - a[i1] * r^(h-j)
+            final long x =
+              mulShoup(a[i1],w[h2-j],unsigned(ws[h2-j]),p);
+            v = (0L==x) ? 0L : p-x; }
+          final long sum = u+v;
+          a[i0] = (int) ((sum>=p) ? sum-p : sum);
+          final long dif = u-v;
+          a[i1] = (int) ((dif<0L) ? dif+p : dif); } } }
+    final long ni = modInverse(n,p);
+    final long nis = (ni<<32)/p;
+    for (int i=0;i<n;i++) { a[i] = (int) mulShoup(a[i],ni,nis,p); } }
+
+  /** Words of <code>uu[0,nu)</code>, reduced mod <code>p</code>,
+   * zero padded to length <code>n</code>.
+   */
+
+  private static final int[] residues (final int[] uu,
+                                       final int nu,
+                                       final int n,
+                                       final long p) {
+    final int[] a = new int[n];
+    for (int i=0;i<nu;i++) { a[i] = (int) (unsigned(uu[i]) % p); }
+    return a; }
+
+  /** Cyclic convolution of <code>uu[0,nu)</code> and
+   * <code>vv[0,nv)</code> modulo one prime.
+   * <code>vv==null</code> means square <code>uu</code>.
+   */
+
+  private static final int[] convolution (final int prime,
+                                          final int[] uu,
+                                          final int nu,
+                                          final int[] vv,
+                                          final int nv,
+                                          final int n) {
+    final long p = PRIMES[prime];
+    final Twiddles t = twiddles(prime,n);
+    final int[] a = residues(uu,nu,n,p);
+    forwardNTT(a,n,t,p);
+    if (null==vv) {
+      for (int i=0;i<n;i++) {
+        final long ai = a[i];
+        a[i] = (int) ((ai*ai) % p); } }
+    else {
+      final int[] b = residues(vv,nv,n,p);
+      forwardNTT(b,n,t,p);
+      for (int i=0;i<n;i++) {
+        a[i] = (int) ((((long) a[i])*b[i]) % p); } }
+    inverseNTT(a,n,t,p);
+    return a; }
+
+  // Garner constants
+  private static final long P0_INV_P1 = modInverse(P0,P1);
+  private static final long P01_INV_P2 =
+    modInverse((((long) P0)*P1) % P2,P2);
+  private static final long P0_MOD_P2 = P0 % P2;
+
+  /** Recombine the 3 residue convolutions into the exact
+   * product, propagating carries between 32-bit words.
+   */
+
+  private static final int[] chineseRemainder (final int[] c0,
+                                               final int[] c1,
+                                               final int[] c2,
+                                               final int nw) {
+    final int[] ww = new int[nw];
+    final int nc = Math.min(nw,c0.length);
+    long carry = 0L;
+    for (int i=0;i<nw;i++) {
+      long lo = carry;
+      long hi = 0L;
+      if (i<nc) {
+        final long r0 = c0[i];
+        final long r1 = c1[i];
+        final long r2 = c2[i];
+        // x = r0 + P0*(t1 + P1*t2), 0 <= t1 < P1, 0 <= t2 < P2
+        long t1 = ((r1-r0)*P0_INV_P1) % P1;
+        if (t1<0L) { t1 += P1; }
+        long x02 = (r0 + ((P0_MOD_P2*t1) % P2)) % P2;
+        long t2 = ((r2-x02)*P01_INV_P2) % P2;
+        if (t2<0L) { t2 += P2; }
+        final long b = t1 + (((long) P1)*t2);
+        final long plo = P0*b;
+        final long phi = Math.multiplyHigh(P0,b);
+        final long xlo = plo + r0;
+        final long xhi =
+          phi + ((Long.compareUnsigned(xlo,plo)<0) ? 1L : 0L);
+        lo = xlo + carry;
+        hi = xhi + ((Long.compareUnsigned(lo,xlo)<0) ? 1L : 0L); }
+      ww[i] = (int) lo;
+      carry = (lo>>>32) | (hi<<32); }
+    assert 0L==carry;
+    return ww; }
+
+  private static final int nttLength (final int nw) {
+    return Integer.highestOneBit(Math.max(1,nw-1))<<1; }
+
+  /** Can <code>u*v</code> be computed with one set of
+   * transforms?
+   */
+
+  static final boolean fitsNTT (final int nu,
+                                final int nv) {
+    return (nu+nv) <= NTT_MAX_LENGTH; }
+
+  private static final class Convolution
+  extends RecursiveTask<int[]> {
+    private static final long serialVersionUID = 1L;
+    private final int prime;
+    private final int[] uu;
+    private final int nu;
+    private final int[] vv;
+    private final int nv;
+    private final int n;
+    @Override
+    protected final int[] compute () {
+      return convolution(prime,uu,nu,vv,nv,n); }
+    Convolution (final int prime0,
+                 final int[] uu0, final int nu0,
+                 final int[] vv0, final int nv0,
+                 final int n0) {
+      prime = prime0; uu = uu0; nu = nu0; vv = vv0; nv = nv0;
+      n = n0; } }
+
+  /** One convolution per prime, forked in <code>pool</code>
+   * unless it is <code>null</code>.
+   */
+
+  private static final int[] multiplyNTT (final ForkJoinPool pool,
+                                          final int[] uu,
+                                          final int nu,
+                                          final int[] vv,
+                                          final int nv,
+                                          final int nw) {
+    assert nw <= NTT_MAX_LENGTH;
+    final int n = nttLength(nw);
+    if (null==pool) {
+      final int[] c0 = convolution(0,uu,nu,vv,nv,n);
+      final int[] c1 = convolution(1,uu,nu,vv,nv,n);
+      final int[] c2 = convolution(2,uu,nu,vv,nv,n);
+      return chineseRemainder(c0,c1,c2,nw); }
+    final Convolution[] tasks = new Convolution[3];
+    for (int i=0;i<3;i++) {
+      tasks[i] = new Convolution(i,uu,nu,vv,nv,n); }
+    invokeAll(pool,tasks);
+    return chineseRemainder(
+      tasks[0].join(),tasks[1].join(),tasks[2].join(),nw); }
+
+  static final BoundedNatural multiplyNTT (final BoundedNatural u,
+                                           final BoundedNatural v) {
+    final int nu = u.hiInt();
+    final int nv = v.hiInt();
+    return BoundedNatural.unsafe(
+      multiplyNTT(pool(nu,nv),u.words(),nu,v.words(),nv,nu+nv)); }
+
+  static final BoundedNatural squareNTT (final BoundedNatural u) {
+    final int nu = u.hiInt();
+    return BoundedNatural.unsafe(
+      multiplyNTT(pool(nu,nu),u.words(),nu,null,0,2*nu)); }
+
+  //--------------------------------------------------------------
+
+  /** Defaults, overridden by the tuning profile,
+   * see {@link NaturalThresholds}.
+   */
+
+  private static final int MULTIPLY_SQUARE_THRESHOLD =
+    NaturalThresholds.get("NaturalMultiply.MULTIPLY_SQUARE_THRESHOLD",20,1);
+  private static final int KARATSUBA_THRESHOLD =
+    NaturalThresholds.get("NaturalMultiply.KARATSUBA_THRESHOLD",80,8);
+  private static final int TOOM_COOK_THRESHOLD =
+    NaturalThresholds.get("NaturalMultiply.TOOM_COOK_THRESHOLD",240,16);
+  // NTT cost steps up with its power of 2 transform length;
+  // on x86-64 it overtakes Toom-Cook 3 between 1792 and 2048
+  // words, see NaturalCalibration
+  static final int NTT_THRESHOLD =
+    NaturalThresholds.get("NaturalMultiply.NTT_THRESHOLD",1792,16);
 
   public static final BoundedNatural multiply (final BoundedNatural u,
                                                final BoundedNatural v) {
@@ -262,7 +696,209 @@ final class NaturalMultiply {
       return NaturalMultiply.multiplySimple(u,v); }
     if ((n0<TOOM_COOK_THRESHOLD) && (n1<TOOM_COOK_THRESHOLD)) {
       return multiplyKaratsuba(v,u); }
-    return multiplyToomCook3(v,u); }
+    if ((n0<NTT_THRESHOLD) || (n1<NTT_THRESHOLD)
+      || (! fitsNTT(n0,n1))) {
+      return multiplyToomCook3(v,u); }
+    return multiplyNTT(v,u); }
+
+  //--------------------------------------------------------------
+  // fused multiply-add
+  //--------------------------------------------------------------
+  // Products with both operands at least KARATSUBA_THRESHOLD
+  // words long go through multiply(), which needs its own
+  // workspace anyway. Shorter products are accumulated, a row at
+  // a time, straight into the one array holding the result.
+
+  /** <code>ww[k..] += tt[0..nt)*m</code>, for an unsigned 32 bit
+   * <code>m</code>, carrying as far as needed.
+   * <code>ww</code> must be long enough for the sum.
+   * UNSAFE: modifies contents of ww.
+   */
+
+  private static final void addRow (final int[] tt,
+                                    final int nt,
+                                    final long m,
+                                    final int[] ww,
+                                    final int k) {
+    if (0L==m) { return; }
+    long carry = 0L;
+    for (int i=0;i<nt;i++) {
+      final int j = k+i;
+      final long s = (unsigned(tt[i])*m) + unsigned(ww[j]) + carry;
+      ww[j] = (int) s;
+      carry = (s>>>32); }
+    for (int j=k+nt;0L!=carry;j++) {
+      final long s = unsigned(ww[j]) + carry;
+      ww[j] = (int) s;
+      carry = (s>>>32); } }
+
+  /** <code>ww[k..] -= tt[0..nt)*m</code>, for an unsigned 32 bit
+   * <code>m</code>, borrowing as far as needed.
+   * The difference must be non-negative.
+   * UNSAFE: modifies contents of ww.
+   */
+
+  private static final void subtractRow (final int[] tt,
+                                         final int nt,
+                                         final long m,
+                                         final int[] ww,
+                                         final int k) {
+    if (0L==m) { return; }
+    long borrow = 0L;
+    for (int i=0;i<nt;i++) {
+      final int j = k+i;
+      final long p = (unsigned(tt[i])*m) + borrow;
+      final long w = unsigned(ww[j]);
+      final long plo = loWord(p);
+      ww[j] = (int) (w-plo);
+      borrow = (p>>>32) + ((w<plo) ? 1L : 0L); }
+    for (int j=k+nt;0L!=borrow;j++) {
+      assert j<ww.length : "negative difference";
+      final long w = unsigned(ww[j]);
+      ww[j] = (int) (w-borrow);
+      borrow = ((w<borrow) ? 1L : 0L); } }
+
+  /** The words of <code>v</code>, zero padded to
+   * <code>n</code>.
+   */
+
+  private static final int[] copy (final BoundedNatural v,
+                                   final int n) {
+    final int[] ww = new int[n];
+    final int nv = v.hiInt();
+    if (v.isInline()) { for (int i=0;i<nv;i++) { ww[i] = v.word(i); } }
+    else { System.arraycopy(v.words(),0,ww,0,nv); }
+    return ww; }
+
+  /** <code>ww -= v</code>. The difference must be non-negative.
+   * UNSAFE: modifies contents of ww.
+   */
+
+  private static final void subtract (final int[] ww,
+                                      final BoundedNatural v) {
+    final int nv = v.hiInt();
+    long dif = 0L;
+    int i=0;
+    for (;i<nv;i++) {
+      dif += unsigned(ww[i]) - v.uword(i);
+      ww[i] = (int) dif;
+      dif = (dif>>32); }
+    for (;0L!=dif;i++) {
+      assert i<ww.length : "negative difference";
+      dif += unsigned(ww[i]);
+      ww[i] = (int) dif;
+      dif = (dif>>32); } }
+
+  private static final boolean small (final int nt,
+                                      final int nu) {
+    return (nt<KARATSUBA_THRESHOLD) || (nu<KARATSUBA_THRESHOLD); }
+
+  //--------------------------------------------------------------
+  /** <code>t*u+v</code>. */
+
+  static final BoundedNatural multiplyAdd (final BoundedNatural t,
+                                           final BoundedNatural u,
+                                           final BoundedNatural v) {
+    final int nt = t.hiInt();
+    final int nu = u.hiInt();
+    if ((0==nt) || (0==nu)) { return v; }
+    if (nt<nu) { return multiplyAdd(u,t,v); }
+    if (! small(nt,nu)) { return multiply(t,u).add(v); }
+    final int[] ww = copy(v,Math.max(nt+nu,v.hiInt())+1);
+    final int[] tt = t.words();
+    for (int j=0;j<nu;j++) { addRow(tt,nt,u.uword(j),ww,j); }
+    return BoundedNatural.unsafe(ww); }
+
+  /** <code>t*u+v</code>. */
+
+  static final BoundedNatural multiplyAdd (final BoundedNatural t,
+                                           final long u,
+                                           final BoundedNatural v) {
+    assert 0L<=u;
+    final int nt = t.hiInt();
+    if ((0==nt) || (0L==u)) { return v; }
+    final int[] ww = copy(v,Math.max(nt+2,v.hiInt())+1);
+    final int[] tt = t.words();
+    addRow(tt,nt,loWord(u),ww,0);
+    addRow(tt,nt,hiWord(u),ww,1);
+    return BoundedNatural.unsafe(ww); }
+
+  /** <code>t*u+v</code>. */
+
+  static final BoundedNatural multiplyAdd (final BoundedNatural t,
+                                           final long u,
+                                           final long v) {
+    assert 0L<=u;
+    assert 0L<=v;
+    final int nt = t.hiInt();
+    final int[] ww = new int[Math.max(nt+2,2)+1];
+    ww[0] = (int) v;
+    ww[1] = (int) hiWord(v);
+    if ((0<nt) && (0L!=u)) {
+      final int[] tt = t.words();
+      addRow(tt,nt,loWord(u),ww,0);
+      addRow(tt,nt,hiWord(u),ww,1); }
+    return BoundedNatural.unsafe(ww); }
+
+  //--------------------------------------------------------------
+  /** <code>t*u-v</code>, which must be non-negative. */
+
+  static final BoundedNatural multiplySubtract (final BoundedNatural t,
+                                                final BoundedNatural u,
+                                                final BoundedNatural v) {
+    final int nt = t.hiInt();
+    final int nu = u.hiInt();
+    if (nt<nu) { return multiplySubtract(u,t,v); }
+    if (! small(nt,nu)) { return multiply(t,u).subtract(v); }
+    final int[] ww = new int[nt+nu];
+    final int[] tt = t.words();
+    for (int j=0;j<nu;j++) { addRow(tt,nt,u.uword(j),ww,j); }
+    subtract(ww,v);
+    return BoundedNatural.unsafe(ww); }
+
+  /** <code>t*u-v</code>, which must be non-negative. */
+
+  static final BoundedNatural multiplySubtract (final BoundedNatural t,
+                                                final long u,
+                                                final BoundedNatural v) {
+    assert 0L<=u;
+    final int nt = t.hiInt();
+    final int[] ww = new int[nt+2];
+    final int[] tt = t.words();
+    addRow(tt,nt,loWord(u),ww,0);
+    addRow(tt,nt,hiWord(u),ww,1);
+    subtract(ww,v);
+    return BoundedNatural.unsafe(ww); }
+
+  //--------------------------------------------------------------
+  /** <code>s-t*u</code>, which must be non-negative. */
+
+  static final BoundedNatural subtractProduct (final BoundedNatural s,
+                                               final BoundedNatural t,
+                                               final BoundedNatural u) {
+    final int nt = t.hiInt();
+    final int nu = u.hiInt();
+    if ((0==nt) || (0==nu)) { return s; }
+    if (nt<nu) { return subtractProduct(s,u,t); }
+    if (! small(nt,nu)) { return s.subtract(multiply(t,u)); }
+    final int[] ww = copy(s,s.hiInt());
+    final int[] tt = t.words();
+    for (int j=0;j<nu;j++) { subtractRow(tt,nt,u.uword(j),ww,j); }
+    return BoundedNatural.unsafe(ww); }
+
+  /** <code>s-t*u</code>, which must be non-negative. */
+
+  static final BoundedNatural subtractProduct (final BoundedNatural s,
+                                               final BoundedNatural t,
+                                               final long u) {
+    assert 0L<=u;
+    final int nt = t.hiInt();
+    if ((0==nt) || (0L==u)) { return s; }
+    final int[] ww = copy(s,s.hiInt());
+    final int[] tt = t.words();
+    subtractRow(tt,nt,loWord(u),ww,0);
+    subtractRow(tt,nt,hiWord(u),ww,1);
+    return BoundedNatural.unsafe(ww); }
 
   //--------------------------------------------------------------
   // square
@@ -352,14 +988,19 @@ final class NaturalMultiply {
     final int half = (n+1)/2;
     final BoundedNatural xl = u.words(0,half);
     final BoundedNatural xh = u.words(half,n);
-    final BoundedNatural xhs = xh.square();
-    final BoundedNatural xls = xl.square();
+    final BoundedNatural[] p =
+      products(
+        pool(n,n),
+        new BoundedNatural[] { xh, xl, xl.add(xh), },
+        null);
+    final BoundedNatural xhs = p[0];
+    final BoundedNatural xls = p[1];
     // (xh^2<<64) + (((xl+xh)^2-(xh^2+xl^2))<<32) + xl^2
     final int h32 = half*32;
     return
       xhs.shiftUp(h32)
       .add(
-        xl.add(xh).square().subtract(xhs.add(xls)))
+        p[2].subtract(xhs.add(xls)))
       .shiftUp(h32)
       .add(xls); }
 
@@ -376,14 +1017,25 @@ final class NaturalMultiply {
     final BoundedNatural a2 = getToomSlice(u,k,r,0,n);
     final BoundedNatural a1 = getToomSlice(u,k,r,1,n);
     final BoundedNatural a0 = getToomSlice(u,k,r,2,n);
-    final BoundedNatural v0 = a0.square();
     final BoundedNatural da0 = a2.add(a0);
-    // subtract here causes errors due to negative answer
-    final BoundedNatural vm1 = da0.absDiff(a1).square();
     final BoundedNatural da1 = da0.add(a1);
-    final BoundedNatural v1 = da1.square();
-    final BoundedNatural vinf = a2.square();
-    final BoundedNatural v2 = da1.add(a2).shiftUp(1).subtract(a0).square();
+    // the 5 sub-squares are independent
+    final BoundedNatural[] p =
+      products(
+        pool(n,n),
+        new BoundedNatural[] {
+          a0,
+          // subtract here causes errors due to negative answer
+          da0.absDiff(a1),
+          da1,
+          a2,
+          da1.add(a2).shiftUp(1).subtract(a0), },
+        null);
+    final BoundedNatural v0 = p[0];
+    final BoundedNatural vm1 = p[1];
+    final BoundedNatural v1 = p[2];
+    final BoundedNatural vinf = p[3];
+    final BoundedNatural v2 = p[4];
 
     // The algorithm requires two divisions by 2 and one by 3.
     // All divisions are known to be exact, that is, they do not
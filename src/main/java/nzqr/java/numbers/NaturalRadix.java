@@ -0,0 +1,229 @@
+package nzqr.java.numbers;
+
+import static nzqr.java.numbers.Numbers.unsigned;
+
+import java.util.Arrays;
+
+/** Conversion of natural numbers to and from digit strings
+ * in any radix from 2 to 36.
+ * <br>
+ * Small numbers are converted a word-sized group of digits at
+ * a time, which is quadratic.
+ * Large numbers are split in half at a power
+ * <code>B<sup>2<sup>k</sup></sup></code>
+ * of the largest power <code>B</code> of the radix that fits in
+ * an <code>int</code>, recursively, so the cost is dominated
+ * by a few multiplies (parsing) or divides (printing) of
+ * each size, using the fast algorithms.
+ * <br>
+ * The powers are computed on demand and cached, per radix,
+ * along with reciprocals for Newton division by the large ones.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalRadix {
+
+  //--------------------------------------------------------------
+  // thresholds
+  //--------------------------------------------------------------
+  /** Strings with fewer digits than this number of words'
+   * worth are parsed directly.
+   */
+
+  private static final int PARSE_THRESHOLD = 40;
+
+  /** Numbers with fewer words than this are printed directly.
+   */
+
+  private static final int PRINT_THRESHOLD = 40;
+
+  //--------------------------------------------------------------
+  // power tree
+  //--------------------------------------------------------------
+  /** <code>powers[k] = B<sup>2<sup>k</sup></sup></code>,
+   * where <code>B=Ints.intRadix[radix]</code>,
+   * and reciprocals of them, computed when first needed.
+   * Replaced by a longer one when needed.
+   */
+
+  private static final class Powers {
+    final BoundedNatural[] powers;
+    final NewtonDivision.Reciprocal[] reciprocals;
+
+    private Powers (final BoundedNatural[] p,
+                    final NewtonDivision.Reciprocal[] r) {
+      powers = p;
+      reciprocals = r; } }
+
+  private static final Powers[] POWERS =
+    new Powers[Character.MAX_RADIX+1];
+
+  /** Powers up to at least
+   * <code>B<sup>2<sup>k</sup></sup></code>.
+   */
+
+  private static final Powers powers (final int radix,
+                                      final int k) {
+    synchronized (POWERS) {
+      final Powers p = POWERS[radix];
+      if ((null!=p) && (k<p.powers.length)) { return p; }
+      final BoundedNatural[] pp;
+      final NewtonDivision.Reciprocal[] rr;
+      final int n0;
+      if (null==p) {
+        pp = new BoundedNatural[k+1];
+        rr = new NewtonDivision.Reciprocal[k+1];
+        pp[0] = BoundedNatural.valueOf(unsigned(Ints.intRadix[radix]));
+        n0 = 1; }
+      else {
+        pp = Arrays.copyOf(p.powers,k+1);
+        rr = Arrays.copyOf(p.reciprocals,k+1);
+        n0 = p.powers.length; }
+      for (int i=n0;i<=k;i++) { pp[i] = pp[i-1].square(); }
+      final Powers p1 = new Powers(pp,rr);
+      POWERS[radix] = p1;
+      return p1; } }
+
+  /** A reciprocal of <code>B<sup>2<sup>k</sup></sup></code>,
+   * good for dividends up to its square.
+   */
+
+  private static final NewtonDivision.Reciprocal
+  reciprocal (final int radix,
+              final int k) {
+    final Powers p = powers(radix,k);
+    synchronized (POWERS) {
+      NewtonDivision.Reciprocal r = p.reciprocals[k];
+      if (null==r) {
+        final BoundedNatural pk = p.powers[k];
+        r = new NewtonDivision.Reciprocal(pk,pk.hiBit()+1);
+        p.reciprocals[k] = r; }
+      return r; } }
+
+  //--------------------------------------------------------------
+  // parsing
+  //--------------------------------------------------------------
+  /** The digits in <code>[start,end)</code>. */
+
+  private static final BoundedNatural parse (final String s,
+                                             final int start,
+                                             final int end,
+                                             final int radix) {
+    final int g = Ints.digitsPerInt[radix];
+    final int n = end-start;
+    if (n <= (g*PARSE_THRESHOLD)) {
+      return BoundedNatural.make(
+        Ints.littleEndian(s.substring(start,end),radix)); }
+    // the low part has g*2^k digits, at least half of them
+    final int k = 31-Integer.numberOfLeadingZeros((n-1)/g);
+    final int split = end-(g<<k);
+    final BoundedNatural hi = parse(s,start,split,radix);
+    final BoundedNatural lo = parse(s,split,end,radix);
+    return hi.multiply(powers(radix,k).powers[k]).add(lo); }
+
+  static final BoundedNatural parse (final String s,
+                                     final int radix) {
+    assert Character.MIN_RADIX <= radix;
+    assert radix <= Character.MAX_RADIX;
+    return parse(s,0,s.length(),radix); }
+
+  //--------------------------------------------------------------
+  // printing
+  //--------------------------------------------------------------
+  /** Append the digits of <code>u</code> to <code>b</code>,
+   * dividing by <code>B</code> a word at a time,
+   * padded with leading zeros to <code>ndigits</code>.
+   */
+
+  private static final void printSmall (final BoundedNatural u,
+                                        final int ndigits,
+                                        final int radix,
+                                        final StringBuilder b) {
+    final int g = Ints.digitsPerInt[radix];
+    final long base = unsigned(Ints.intRadix[radix]);
+    final int n = u.hiInt();
+    final int[] x = Arrays.copyOf(u.words(),n);
+    // digit groups, least significant first
+    final int[] groups = new int[((n*32)/(g-1))+2];
+    int ng = 0;
+    for (int m=n;0<m;) {
+      long r = 0L;
+      for (int i=m-1;i>=0;i--) {
+        final long xi = (r<<32) | unsigned(x[i]);
+        x[i] = (int) Long.divideUnsigned(xi,base);
+        r = Long.remainderUnsigned(xi,base); }
+      groups[ng++] = (int) r;
+      while ((0<m) && (0==x[m-1])) { m--; } }
+    final int len = b.length();
+    if (0==ng) { if (0==ndigits) { b.append('0'); } }
+    else {
+      b.append(Long.toString(unsigned(groups[ng-1]),radix));
+      for (int i=ng-2;i>=0;i--) {
+        final String d = Long.toString(unsigned(groups[i]),radix);
+        for (int j=d.length();j<g;j++) { b.append('0'); }
+        b.append(d); } }
+    final int pad = ndigits-(b.length()-len);
+    if (0<pad) {
+      final char[] zeros = new char[pad];
+      Arrays.fill(zeros,'0');
+      b.insert(len,zeros); } }
+
+  /** Append the digits of <code>u</code> to <code>b</code>,
+   * padded with leading zeros to <code>ndigits</code>,
+   * if that is not zero.
+   */
+
+  private static final void print (final BoundedNatural u,
+                                   final int ndigits,
+                                   final int radix,
+                                   final StringBuilder b) {
+    final int n = u.hiInt();
+    if (n < PRINT_THRESHOLD) {
+      printSmall(u,ndigits,radix,b);
+      return; }
+    // power nearest the square root, on a log scale:
+    // 2^k*base.hiBit() nearest u.hiBit()/2,
+    // using 181/256 ~ sqrt(2)/2
+    final int g = Ints.digitsPerInt[radix];
+    final BoundedNatural base = powers(radix,0).powers[0];
+    final int k =
+      31-Integer.numberOfLeadingZeros(
+        Math.max(1,(int) ((181L*u.hiBit())/(256L*base.hiBit()))));
+    final BoundedNatural pk = powers(radix,k).powers[k];
+    // many numbers are divided by the same power,
+    // so share a reciprocal
+    final BoundedNatural[] qr =
+      NewtonDivision.useNewtonDivision(u,pk,2)
+      ? NewtonDivision.divideAndRemainder(u,reciprocal(radix,k))
+      : u.divideAndRemainder(pk);
+    final int nlo = (g<<k);
+    if (qr[0].isZero()) {
+      print(qr[1],ndigits,radix,b);
+      return; }
+    print(qr[0],(0==ndigits) ? 0 : (ndigits-nlo),radix,b);
+    print(qr[1],nlo,radix,b); }
+
+  static final String toString (final BoundedNatural u,
+                                final int radix) {
+    assert Character.MIN_RADIX <= radix;
+    assert radix <= Character.MAX_RADIX;
+    final StringBuilder b = new StringBuilder();
+    print(u,0,radix,b);
+    return b.toString(); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalRadix () {
+    throw new
+    UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
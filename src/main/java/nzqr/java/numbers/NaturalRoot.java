@@ -0,0 +1,204 @@
+package nzqr.java.numbers;
+
+import java.util.Arrays;
+
+/** Integer square and k-th roots of natural numbers.
+ * <br>
+ * Square roots use Zimmermann's recursive
+ * ("Karatsuba") square root, which costs about as much as one
+ * division of the same size.
+ * k-th roots use Newton iteration, from above, starting with
+ * an estimate from the leading bits.
+ * <br>
+ * Isolated into a pure static (no instances) class with minimal
+ * dependencies.
+ * <br>
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalRoot {
+
+  //--------------------------------------------------------------
+  // square root
+  //--------------------------------------------------------------
+  /** Numbers with at most this many bits are handled with
+   * <code>long</code> arithmetic.
+   */
+
+  private static final int BASE_BITS = 62;
+
+  /** <code>{s,r}</code> with <code>s=floor(sqrt(a))</code>,
+   * <code>r=a-s<sup>2</sup></code>,
+   * for <code>a &lt; 2<sup>62</sup></code>.
+   */
+
+  private static final BoundedNatural[] sqrtAndRemainder (final long a) {
+    assert 0L<=a;
+    long s = (long) Math.sqrt(a);
+    while ((s*s) > a) { s--; }
+    while (((s+1)*(s+1)) <= a) { s++; }
+    return new BoundedNatural[] {
+      BoundedNatural.valueOf(s), BoundedNatural.valueOf(a-(s*s)), }; }
+
+  /** Zimmermann's recursive step, for <code>a</code> with
+   * <code>4k-1</code> or <code>4k</code> bits, so the
+   * leading quarter is at least <code>2<sup>k-2</sup></code>.
+   * <br>
+   * Split <code>a = a3 b<sup>3</sup> + a2 b<sup>2</sup> +
+   * a1 b + a0</code>, with <code>b=2<sup>k</sup></code>;
+   * take the square root <code>s'</code> and remainder
+   * <code>r'</code> of the leading half recursively;
+   * the next <code>k</code> bits of the root are
+   * <code>q = (r' b + a1)/(2s')</code>, one too large at most.
+   */
+
+  private static final BoundedNatural[] sqrtAndRemainder (final BoundedNatural a,
+                                                          final int k) {
+    final BoundedNatural[] sr = sqrtAndRemainder(a.shiftDown(2*k));
+    final BoundedNatural s1 = sr[0];
+    final BoundedNatural r1 = sr[1];
+    final BoundedNatural a1 = lowBits(a.shiftDown(k),k);
+    final BoundedNatural a0 = lowBits(a,k);
+    final BoundedNatural[] qu =
+      r1.shiftUp(k).add(a1).divideAndRemainder(s1.shiftUp(1));
+    final BoundedNatural q = qu[0];
+    final BoundedNatural s = s1.shiftUp(k).add(q);
+    final BoundedNatural t = qu[1].shiftUp(k).add(a0);
+    final BoundedNatural q2 = q.square();
+    if (0<=t.compareTo(q2)) {
+      return new BoundedNatural[] { s, t.subtract(q2), }; }
+    // s one too large: r = t + 2s - 1 - q^2
+    return new BoundedNatural[] {
+      s.subtract(BoundedNatural.ONE),
+      t.add(s.shiftUp(1)).subtract(BoundedNatural.ONE).subtract(q2), }; }
+
+  /** The low <code>k</code> bits of <code>u</code>. */
+
+  private static final BoundedNatural lowBits (final BoundedNatural u,
+                                               final int k) {
+    if (u.hiBit()<=k) { return u; }
+    final int n = (k+31)>>>5;
+    final int[] w = Arrays.copyOf(u.words(),n);
+    final int r = (k&0x1F);
+    if (0!=r) { w[n-1] &= ((1<<r)-1); }
+    return BoundedNatural.unsafe(w); }
+
+  /** <code>{s,r}</code> with <code>s=floor(sqrt(a))</code>,
+   * <code>r=a-s<sup>2</sup></code>.
+   * <br>
+   * Shifts <code>a</code> up by <code>2c</code> bits, if
+   * needed, so the bit length is <code>4k-1</code> or
+   * <code>4k</code>, and shifts the root back down.
+   */
+
+  static final BoundedNatural[] sqrtAndRemainder (final BoundedNatural a) {
+    final int n = a.hiBit();
+    if (n<=BASE_BITS) { return sqrtAndRemainder(a.longValue()); }
+    final int k = (n+3)>>>2;
+    final int c = ((4*k)-n)>>>1;
+    if (0==c) { return sqrtAndRemainder(a,k); }
+    // a 4^c = s'^2 + r', s' = s 2^c + s0, s0 < 2^c,
+    // so a - s^2 = (r' + s 2^(c+1) s0 + s0^2) / 4^c
+    final BoundedNatural[] sr = sqrtAndRemainder(a.shiftUp(2*c),k);
+    final BoundedNatural s1 = sr[0];
+    final long s0 = s1.uword(0) & ((1L<<c)-1);
+    final BoundedNatural s = s1.shiftDown(c);
+    if (0L==s0) {
+      return new BoundedNatural[] { s, sr[1].shiftDown(2*c), }; }
+    final BoundedNatural r =
+      sr[1]
+      .add(NaturalMultiply.multiply(s,s0).shiftUp(c+1))
+      .add(BoundedNatural.valueOf(s0*s0))
+      .shiftDown(2*c);
+    return new BoundedNatural[] { s, r, }; }
+
+  //--------------------------------------------------------------
+  // k-th root
+  //--------------------------------------------------------------
+  /** <code>u<sup>k</sup></code>, by repeated squaring. */
+
+  private static final BoundedNatural pow (final BoundedNatural u,
+                                           final int k) {
+    assert 0<=k;
+    BoundedNatural p = BoundedNatural.ONE;
+    for (int i=31-Integer.numberOfLeadingZeros(k);i>=0;i--) {
+      p = p.square();
+      if (0!=(k&(1<<i))) { p = p.multiply(u); } }
+    return p; }
+
+  /** An estimate at least <code>a<sup>1/k</sup></code>,
+   * and within a few parts in 2<sup>16</sup>,
+   * from <code>log2(a)/k</code>, computed from the leading
+   * 62 bits of <code>a</code>.
+   * <br>
+   * The error in the computed log is at most about
+   * 2<sup>-21</sup>, for any <code>a</code> with fewer than
+   * 2<sup>31</sup> bits, which the 2<sup>-16</sup> margin
+   * covers.
+   */
+
+  private static final BoundedNatural rootEstimate (final BoundedNatural a,
+                                                    final int k) {
+    final int shift = Math.max(0,a.hiBit()-BASE_BITS);
+    final double m = a.shiftDown(shift).longValue();
+    final double lg = ((Math.log(m)/Math.log(2.0)) + shift)/k;
+    final int i = (int) Math.floor(lg);
+    final double t = Math.pow(2.0,lg-i)*(1.0+0x1.0p-16);
+    if (i <= 52) {
+      return BoundedNatural.valueOf(((long) Math.ceil(Math.scalb(t,i)))+1L); }
+    return BoundedNatural.valueOf(((long) Math.ceil(Math.scalb(t,52)))+1L)
+      .shiftUp(i-52); }
+
+  /** Roots with at most this many bits start Newton iteration
+   * from {@link #rootEstimate}; longer ones from the root of
+   * the leading part, computed recursively.
+   */
+
+  private static final int ROOT_ESTIMATE_BITS = 2*BASE_BITS;
+
+  /** <code>floor(a<sup>1/k</sup>)</code>, <code>k&gt;0</code>,
+   * by Newton iteration from above, which decreases until
+   * it reaches the root.
+   * <br>
+   * For long roots, the iteration starts from
+   * <code>(floor((a/2<sup>kh</sup>)<sup>1/k</sup>)+1)
+   * 2<sup>h</sup></code>, which is at least the root and
+   * correct to about half the bits, so only a couple of full
+   * size steps are needed.
+   */
+
+  static final BoundedNatural root (final BoundedNatural a,
+                                    final int k) {
+    assert 0<k;
+    if (1==k) { return a; }
+    if (2==k) { return sqrtAndRemainder(a)[0]; }
+    final int n = a.hiBit();
+    if (n<=k) { return a.isZero() ? a : BoundedNatural.ONE; }
+    final BoundedNatural k1 = BoundedNatural.valueOf(k-1);
+    final BoundedNatural kk = BoundedNatural.valueOf(k);
+    final int rbits = n/k;
+    BoundedNatural x;
+    if (rbits <= ROOT_ESTIMATE_BITS) { x = rootEstimate(a,k); }
+    else {
+      final int h = rbits/2;
+      x = root(a.shiftDown(k*h),k).add(BoundedNatural.ONE).shiftUp(h); }
+    while (true) {
+      // y = ((k-1) x + a / x^(k-1)) / k
+      final BoundedNatural y =
+        x.multiply(k1).add(a.divide(pow(x,k-1))).divide(kk);
+      if (0<=y.compareTo(x)) { return x; }
+      x = y; } }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalRoot () {
+    throw new
+    UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,125 @@
+package nzqr.java.numbers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/** Algorithm crossover thresholds, from a per-machine tuning
+ * profile written by {@link NaturalCalibration}, falling back
+ * to built-in defaults.
+ * <br>
+ * The profile is a {@link Properties} file, read once, when
+ * the first class that uses a threshold is initialized, from
+ * the file named by the system property
+ * <code>nzqr.thresholds</code>, if set, otherwise from the
+ * classpath resource <code>nzqr-thresholds.properties</code>,
+ * if there is one.
+ * Keys are the names of the constants they replace,
+ * eg <code>NaturalMultiply.KARATSUBA_THRESHOLD</code>.
+ * <br>
+ * Thresholds are read into <code>static final</code> fields,
+ * so they are constants as far as the JIT is concerned;
+ * changing the profile requires a restart.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalThresholds {
+
+  /** System property naming a profile file. */
+
+  static final String PROPERTY = "nzqr.thresholds";
+
+  /** Classpath resource used if the property isn't set. */
+
+  static final String RESOURCE = "nzqr-thresholds.properties";
+
+  private static final Properties PROFILE = new Properties();
+
+  /** Read the profile into <code>p</code>, from
+   * <code>file</code>, or from {@link #RESOURCE} if
+   * <code>file</code> is <code>null</code>, returning where it
+   * came from. A missing, unreadable or malformed profile
+   * shouldn't stop the library from working, so failures leave
+   * <code>p</code> empty, and are only reported in the
+   * returned description.
+   */
+
+  static final String load (final Properties p,
+                            final String file) {
+    try {
+      if (null!=file) {
+        try (Reader r = Files.newBufferedReader(
+          Path.of(file),StandardCharsets.UTF_8)) {
+          p.load(r); }
+        return file; }
+      try (InputStream in =
+        NaturalThresholds.class.getClassLoader()
+        .getResourceAsStream(RESOURCE)) {
+        if (null!=in) {
+          p.load(in);
+          return RESOURCE; } }
+      return "defaults"; }
+    // InvalidPathException from Path.of, and
+    // IllegalArgumentException from a malformed unicode escape
+    catch (final IOException | RuntimeException e) {
+      p.clear();
+      return
+        "defaults, can't read "
+        + ((null!=file) ? file : RESOURCE) + ": " + e; } }
+
+  private static final String SOURCE =
+    load(PROFILE,System.getProperty(PROPERTY));
+
+  /** Where the thresholds came from, for diagnostics. */
+
+  static final String source () { return SOURCE; }
+
+  //--------------------------------------------------------------
+  /** The value for <code>key</code> in <code>p</code>, if
+   * there is one, and it is an integer at least
+   * <code>min</code>, otherwise <code>defaultValue</code>.
+   * Malformed or out of range entries are ignored, like
+   * missing ones.
+   */
+
+  static final int get (final Properties p,
+                        final String key,
+                        final int defaultValue,
+                        final int min) {
+    final String s = p.getProperty(key);
+    if (null==s) { return defaultValue; }
+    try {
+      final int v = Integer.parseInt(s.trim());
+      if (v>=min) { return v; } }
+    catch (final NumberFormatException e) { /* fall through */ }
+    return defaultValue; }
+
+  /** The value for <code>key</code> in the profile,
+   * see {@link #get(Properties,String,int,int)}.
+   */
+
+  static final int get (final String key,
+                        final int defaultValue,
+                        final int min) {
+    return get(PROFILE,key,defaultValue,min); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalThresholds () {
+    throw new
+    UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,213 @@
+package nzqr.java.numbers;
+
+import static nzqr.java.numbers.Numbers.hiWord;
+import static nzqr.java.numbers.Numbers.unsigned;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** SIMD versions of the linear word loops in
+ * {@link NaturalAdd} and {@link NaturalInts}, using the
+ * (incubating) Vector API.
+ * <br>
+ * Only loaded if {@link NaturalInts#VECTOR} is true, that is,
+ * the <code>jdk.incubator.vector</code> module was added to the
+ * boot layer, eg with
+ * <code>--add-modules jdk.incubator.vector</code>;
+ * callers fall back to the scalar loops otherwise.
+ * <br>
+ * Carries and borrows use carry-select across lanes:
+ * each lane computes its word assuming no carry in, plus
+ * a generate bit (carry out regardless) and a propagate bit
+ * (carry out only if carry in). Packing those into
+ * <code>long</code> bit masks, one bit per lane, the carry
+ * into every lane falls out of a single <code>long</code>
+ * addition, and a masked add of 1 fixes up the lanes that get
+ * one.
+ * <br>
+ * Non-instantiable.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NaturalVector {
+
+  private static final VectorSpecies<Integer> SPECIES =
+    IntVector.SPECIES_PREFERRED;
+
+  private static final int LANES = SPECIES.length();
+
+  private static final long LANE_MASK = (1L<<LANES)-1L;
+
+  /** Ints per vector, for deciding whether this is worth
+   * using at all.
+   */
+
+  static final int lanes () { return LANES; }
+
+  //--------------------------------------------------------------
+  // add, subtract
+  //--------------------------------------------------------------
+  /** Carry in to each lane, as the low {@link #LANES} bits,
+   * with the carry out of the vector in the next bit.
+   * <br>
+   * With generate <code>g</code> and propagate
+   * <code>p</code> disjoint, <code>(g|p)+g+c</code> is
+   * a binary addition whose per-bit generate and propagate are
+   * exactly <code>g</code> and <code>p</code>, so its internal
+   * carries, recovered by xoring out the operands, are the
+   * lane carries.
+   */
+
+  private static final long carries (final long g,
+                                     final long p,
+                                     final long c) {
+    final long s = (g|p) + g + c;
+    return (s ^ p) & LANE_MASK | (s & ~LANE_MASK); }
+
+  /** Same contract as {@link NaturalAdd#add}. */
+
+  static final int[] add (final int[] tt, final int nt,
+                          final int[] uu, final int nu) {
+    if (nt<nu) { return add(uu,nu,tt,nt); }
+    final int[] vv = new int[nt+1];
+    final int bound = SPECIES.loopBound(nu);
+    long carry = 0L;
+    int i=0;
+    for (;i<bound;i+=LANES) {
+      final IntVector a = IntVector.fromArray(SPECIES,tt,i);
+      final IntVector b = IntVector.fromArray(SPECIES,uu,i);
+      final IntVector s = a.add(b);
+      final long g = s.compare(VectorOperators.UNSIGNED_LT,a).toLong();
+      final long p = s.compare(VectorOperators.EQ,-1).toLong();
+      final long c = carries(g,p,carry);
+      s.add(1,VectorMask.fromLong(SPECIES,c&LANE_MASK)).intoArray(vv,i);
+      carry = (c>>>LANES); }
+    long sum = carry;
+    for (;i<nu;i++) {
+      sum += unsigned(tt[i]) + unsigned(uu[i]);
+      vv[i] = (int) sum;
+      sum = hiWord(sum);}
+    for (;(0L!=sum) && (i<nt);i++) {
+      sum += unsigned(tt[i]);
+      vv[i] = (int) sum;
+      sum = hiWord(sum);}
+    if (i<nt) { System.arraycopy(tt,i,vv,i,nt-i); }
+    else if (0L!=sum) { vv[nt] = 1; }
+    return vv; }
+
+  /** Same contract as {@link NaturalAdd#subtract}. */
+
+  static final int[] subtract (final int[] tt, final int nt,
+                               final int[] uu, final int nu) {
+    final int[] vv = new int[nt];
+    final int bound = SPECIES.loopBound(nu);
+    long borrow = 0L;
+    int i=0;
+    for (;i<bound;i+=LANES) {
+      final IntVector a = IntVector.fromArray(SPECIES,tt,i);
+      final IntVector b = IntVector.fromArray(SPECIES,uu,i);
+      final IntVector d = a.sub(b);
+      final long g = a.compare(VectorOperators.UNSIGNED_LT,b).toLong();
+      final long p = d.compare(VectorOperators.EQ,0).toLong();
+      final long c = carries(g,p,borrow);
+      d.sub(1,VectorMask.fromLong(SPECIES,c&LANE_MASK)).intoArray(vv,i);
+      borrow = (c>>>LANES); }
+    long dif = -borrow;
+    for (;i<nu;i++) {
+      dif += unsigned(tt[i])-unsigned(uu[i]);
+      vv[i] = (int) dif;
+      dif= (dif>>32); }
+    for (;(0L!=dif) && (i<nt);i++) {
+      dif += unsigned(tt[i]);
+      vv[i] = (int) dif;
+      dif = (dif>>32); }
+    if (i<nt) { System.arraycopy(tt,i,vv,i,nt-i); }
+    return vv; }
+
+  //--------------------------------------------------------------
+  // shifts
+  //--------------------------------------------------------------
+  /** Fill <code>vv[iShift+i]</code> with
+   * <code>(tt[i]&lt;&lt;bShift)|(tt[i-1]&gt;&gt;&gt;(32-bShift))</code>,
+   * for <code>i</code> from 1, a vector at a time, while whole
+   * vectors fit below <code>nt</code>.
+   * @return the first <code>i</code> not filled.
+   */
+
+  static final int shiftUpByBits (final int[] tt,
+                                  final int nt,
+                                  final int[] vv,
+                                  final int iShift,
+                                  final int bShift) {
+    final int rShift = 32-bShift;
+    int i = 1;
+    for (;i+LANES<=nt;i+=LANES) {
+      final IntVector w1 = IntVector.fromArray(SPECIES,tt,i);
+      final IntVector w0 = IntVector.fromArray(SPECIES,tt,i-1);
+      w1.lanewise(VectorOperators.LSHL,bShift)
+      .or(w0.lanewise(VectorOperators.LSHR,rShift))
+      .intoArray(vv,iShift+i); }
+    return i; }
+
+  /** Fill <code>vv[i]</code> with
+   * <code>(w[j+1]&lt;&lt;(32-bShift))|(w[j]&gt;&gt;&gt;bShift)</code>,
+   * <code>j=iShift+i</code>, for <code>i</code> from 0, a
+   * vector at a time, while whole vectors fit below
+   * <code>nt</code>.
+   * @return the first <code>i</code> not filled.
+   */
+
+  static final int shiftDownByBits (final int[] w,
+                                    final int nt,
+                                    final int[] vv,
+                                    final int iShift,
+                                    final int bShift) {
+    final int rShift = 32-bShift;
+    int i = 0;
+    for (;iShift+i+1+LANES<=nt;i+=LANES) {
+      final int j = iShift+i;
+      final IntVector w1 = IntVector.fromArray(SPECIES,w,j+1);
+      final IntVector w0 = IntVector.fromArray(SPECIES,w,j);
+      w1.lanewise(VectorOperators.LSHL,rShift)
+      .or(w0.lanewise(VectorOperators.LSHR,bShift))
+      .intoArray(vv,i); }
+    return i; }
+
+  //--------------------------------------------------------------
+  // ordering
+  //--------------------------------------------------------------
+  /** Unsigned comparison of the low <code>n</code> words of
+   * <code>a</code> and <code>b</code>, most significant first.
+   */
+
+  static final int compare (final int[] a,
+                            final int[] b,
+                            final int n) {
+    int i = n;
+    for (;i>=LANES;i-=LANES) {
+      final IntVector va = IntVector.fromArray(SPECIES,a,i-LANES);
+      final IntVector vb = IntVector.fromArray(SPECIES,b,i-LANES);
+      final VectorMask<Integer> ne =
+        va.compare(VectorOperators.NE,vb);
+      if (ne.anyTrue()) {
+        final int k = i-LANES+ne.lastTrue();
+        return Integer.compareUnsigned(a[k],b[k]); } }
+    for (i--;i>=0;i--) {
+      if (a[i]!=b[i]) { return Integer.compareUnsigned(a[i],b[i]); } }
+    return 0; }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NaturalVector () {
+    throw new UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
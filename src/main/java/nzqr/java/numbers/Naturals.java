@@ -10,8 +10,12 @@ import org.apache.commons.rng.UniformRandomProvider;
 import org.apache.commons.rng.sampling.CollectionSampler;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BiPredicate;
 import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
@@ -349,6 +353,188 @@ public final class Naturals implements Set {
                                  final Object x1) {
         return Naturals.this.divideAndRemainder(x0,x1); } }; }
 
+  //--------------------------------------------------------------
+  // product trees
+  //--------------------------------------------------------------
+  /** <code>ff[i0]*...*ff[i1-1]</code>, halving the range,
+   * so the large multiplies have operands of similar size.
+   */
+
+  private static final BoundedNatural tree (final BoundedNatural[] ff,
+                                            final int i0,
+                                            final int i1) {
+    final int n = i1-i0;
+    if (1==n) { return ff[i0]; }
+    if (2==n) { return ff[i0].multiply(ff[i0+1]); }
+    final int m = (i0+i1)>>>1;
+    return tree(ff,i0,m).multiply(tree(ff,m,i1)); }
+
+  /** <code>factors[start]*...*factors[end-1]</code>,
+   * <code>1</code> if the range is empty.
+   * <br>
+   * Multiplied as a balanced binary tree, rather than a left
+   * fold, so most of the work is in a few multiplies of large,
+   * similar size operands, which use Karatsuba, Toom-Cook 3
+   * or NTT. In a left fold every multiply has one small
+   * operand, and the total cost is quadratic.
+   */
+
+  public static final BoundedNatural
+  product (final BoundedNatural[] factors,
+           final int start,
+           final int end) {
+    if ((0>start) || (start>end) || (end>factors.length)) {
+      throw new IllegalArgumentException(
+        "bad range [" + start + "," + end + ") for "
+        + factors.length + " factors"); }
+    if (start==end) { return BoundedNatural.ONE; }
+    return tree(factors,start,end); }
+
+  public static final BoundedNatural
+  product (final BoundedNatural[] factors) {
+    return product(factors,0,factors.length); }
+
+  //--------------------------------------------------------------
+  /** Forks the two halves of the tree while the factors in a
+   * range have, in total, at least twice the parallel multiply
+   * threshold, in words.
+   * <code>words[i]</code> is the total size of the first
+   * <code>i</code> factors.
+   */
+
+  private static final class ProductTree
+  extends RecursiveTask<BoundedNatural> {
+    private static final long serialVersionUID = 1L;
+    private final transient BoundedNatural[] ff;
+    private final long[] words;
+    private final long threshold;
+    private final int i0;
+    private final int i1;
+    @Override
+    protected final BoundedNatural compute () {
+      if (((i1-i0)<=2) || ((words[i1]-words[i0])<threshold)) {
+        return tree(ff,i0,i1); }
+      final int m = (i0+i1)>>>1;
+      final ProductTree lo = new ProductTree(ff,words,threshold,i0,m);
+      final ProductTree hi = new ProductTree(ff,words,threshold,m,i1);
+      lo.fork();
+      final BoundedNatural p1 = hi.compute();
+      return lo.join().multiply(p1); }
+    ProductTree (final BoundedNatural[] ff0,
+                 final long[] words0,
+                 final long threshold0,
+                 final int start,
+                 final int end) {
+      ff = ff0; words = words0; threshold = threshold0;
+      i0 = start; i1 = end; } }
+
+  /** Same as {@link #product(BoundedNatural[])}, with the
+   * sub-trees computed in <code>pool</code>.
+   * Sequential if <code>pool</code> is <code>null</code> or
+   * has parallelism 1.
+   */
+
+  public static final BoundedNatural
+  parallelProduct (final BoundedNatural[] factors,
+                   final ForkJoinPool pool) {
+    final int n = factors.length;
+    if ((null==pool) || (1>=pool.getParallelism()) || (2>=n)) {
+      return product(factors); }
+    final long[] words = new long[n+1];
+    for (int i=0;i<n;i++) { words[i+1] = words[i] + factors[i].hiInt(); }
+    final ProductTree task =
+      new ProductTree(
+        factors,words,2L*BoundedNatural.parallelMultiplyThreshold(),0,n);
+    if (ForkJoinTask.getPool()==pool) { return task.invoke(); }
+    return pool.invoke(task); }
+
+  /** Uses {@link BoundedNatural#multiplyPool()}. */
+
+  public static final BoundedNatural
+  parallelProduct (final BoundedNatural[] factors) {
+    return parallelProduct(factors,BoundedNatural.multiplyPool()); }
+
+  //--------------------------------------------------------------
+  /** The integers (or their odd parts) from <code>lo</code> to
+   * <code>hi</code>, packed into as few <code>long</code>
+   * leaves as possible.
+   * Needs <code>lo&lt;=hi</code>; stops at <code>hi</code>
+   * rather than past it, so <code>hi</code> may be
+   * {@link Long#MAX_VALUE}.
+   */
+
+  private static final BoundedNatural[] leaves (final long lo,
+                                                final long hi,
+                                                final boolean odd) {
+    assert lo<=hi;
+    final List<BoundedNatural> ff = new ArrayList<>();
+    long p = 1L;
+    for (long i=lo;;i++) {
+      final long f = odd ? (i>>>Long.numberOfTrailingZeros(i)) : i;
+      final long pf = p*f;
+      if ((0L!=Math.multiplyHigh(p,f)) || (0L>pf)) {
+        ff.add(BoundedNatural.valueOf(p));
+        p = f; }
+      else { p = pf; }
+      if (hi==i) { break; } }
+    ff.add(BoundedNatural.valueOf(p));
+    return ff.toArray(new BoundedNatural[0]); }
+
+  /** <code>lo*(lo+1)*...*hi</code>, <code>1</code> if
+   * <code>hi&lt;lo</code>.
+   */
+
+  public static final BoundedNatural rangeProduct (final long lo,
+                                                   final long hi) {
+    if (0L>lo) {
+      throw new IllegalArgumentException(
+        "negative factor: " + lo); }
+    if (hi<lo) { return BoundedNatural.ONE; }
+    if (0L==lo) { return BoundedNatural.valueOf(0L); }
+    return product(leaves(lo,hi,false)); }
+
+  /** Sum of the exponents of 2 in <code>lo..hi</code>. */
+
+  private static final long twos (final long lo,
+                                  final long hi) {
+    // v2(m!) = m - popcount(m)
+    final long l = lo-1L;
+    return (hi-Long.bitCount(hi)) - (l-Long.bitCount(l)); }
+
+  /** <code>n!</code>, multiplying the odd parts of the
+   * factors in a tree, and shifting in the twos at the end.
+   */
+
+  public static final BoundedNatural factorial (final int n) {
+    if (0>n) {
+      throw new IllegalArgumentException(
+        "negative factorial: " + n); }
+    if (1>=n) { return BoundedNatural.ONE; }
+    return product(leaves(1L,n,true))
+      .shiftUp((int) twos(1L,n)); }
+
+  /** <code>n</code> choose <code>k</code>, <code>0</code>
+   * if <code>k</code> is out of <code>[0,n]</code>.
+   * <br>
+   * One exact division of the odd parts of
+   * <code>(n-k+1)*...*n</code> and <code>k!</code>, each a
+   * product tree.
+   */
+
+  public static final BoundedNatural binomial (final int n,
+                                               final int k) {
+    if (0>n) {
+      throw new IllegalArgumentException(
+        "negative binomial: " + n); }
+    if ((0>k) || (k>n)) { return BoundedNatural.valueOf(0L); }
+    final int k0 = Math.min(k,n-k);
+    if (0==k0) { return BoundedNatural.ONE; }
+    final long lo = (long) n-k0+1L;
+    final BoundedNatural num = product(leaves(lo,n,true));
+    final BoundedNatural den = product(leaves(1L,k0,true));
+    final BoundedNatural q = (den.isOne()) ? num : num.divide(den);
+    return q.shiftUp((int) (twos(lo,n)-twos(1L,k0))); }
+
   //--------------------------------------------------------------
   // Set methods
   //--------------------------------------------------------------
@@ -0,0 +1,242 @@
+package nzqr.java.numbers;
+
+/** Division of natural numbers by multiplying with a
+ * fixed-point reciprocal of the divisor, computed by Newton
+ * iteration.
+ * <br>
+ * For a divisor <code>d</code> with <code>k</code> bits,
+ * a {@link Reciprocal} of precision <code>p</code> holds
+ * an approximation to <code>2<sup>k+p</sup>/d</code>,
+ * which is good for dividends with up to <code>k+p-1</code>
+ * bits, and can be reused for any number of them.
+ * <br>
+ * The reciprocal is only approximate (within a few units);
+ * quotients are estimated Barrett-style and then corrected
+ * with a few additions or subtractions of the divisor.
+ * <br>
+ * Isolated into a pure static (no instances) class with minimal
+ * dependencies.
+ * <br>
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+final class NewtonDivision {
+
+  //--------------------------------------------------------------
+  // thresholds
+  //--------------------------------------------------------------
+  /** Newton division pays off once the products it does are
+   * well into the transform-based multiply range, so the
+   * thresholds are multiples of the NTT threshold rather than
+   * tuned separately.
+   * <br>
+   * Divisor and quotient must both have at least this many
+   * words to compute a reciprocal for a single division.
+   */
+
+  static final int NEWTON_THRESHOLD = 8*NaturalMultiply.NTT_THRESHOLD;
+
+  /** Divisor and quotients must all have at least this many
+   * words to compute a reciprocal shared by several divisions.
+   */
+
+  static final int NEWTON_SHARED_THRESHOLD =
+    4*NaturalMultiply.NTT_THRESHOLD;
+
+  /** Should <code>u/d</code> use Newton division,
+   * when the reciprocal of <code>d</code> is shared by
+   * <code>ndividends</code> divisions?
+   * Quotients much longer than the divisor are left to
+   * Burnikel-Ziegler, which works a divisor-length block at
+   * a time.
+   */
+
+  static final boolean useNewtonDivision (final BoundedNatural u,
+                                          final BoundedNatural d,
+                                          final int ndividends) {
+    final int nd = d.hiInt();
+    final int nq = (u.hiInt()-nd)+1;
+    final int threshold =
+      (1 < ndividends) ? NEWTON_SHARED_THRESHOLD : NEWTON_THRESHOLD;
+    return (threshold <= nd) && (threshold <= nq) && (nq <= 2*nd); }
+
+  //--------------------------------------------------------------
+  // reciprocal
+  //--------------------------------------------------------------
+  /** Extra bits of the divisor kept below the precision
+   * when truncating it.
+   */
+
+  private static final int GUARD = 32;
+
+  /** Below this precision (in bits), reciprocals are computed
+   * by ordinary division.
+   */
+
+  private static final int BASE_BITS = 32*32;
+
+  /** Approximately <code>2<sup>k+p</sup>/d</code>,
+   * where <code>k=d.hiBit()</code>,
+   * within a few units.
+   * <br>
+   * Only the leading <code>p+GUARD</code> bits of
+   * <code>d</code> are used.
+   * Each Newton step doubles the precision of the one below;
+   * the precision below is chosen so the quadratic error term
+   * is at most a quarter unit, which keeps the error bounded
+   * by a small constant at every level.
+   */
+
+  private static final BoundedNatural
+  approximateReciprocal (final BoundedNatural d,
+                         final int p) {
+    final int k = d.hiBit();
+    final int t = p + GUARD;
+    final BoundedNatural dt = (k>t) ? d.shiftDown(k-t) : d;
+    final int kt = dt.hiBit();
+    if (p <= BASE_BITS) {
+      // small enough to never come back here
+      return BoundedNatural.ONE.shiftUp(kt+p).divide(dt); }
+    final int h = (p+5)/2;
+    // x approximately 2^(kt+h)/dt
+    final BoundedNatural x = approximateReciprocal(dt,h);
+    // eps = 2^(kt+h) - dt*x, which may be negative
+    final BoundedNatural dx = dt.multiply(x);
+    final BoundedNatural pow = BoundedNatural.ONE.shiftUp(kt+h);
+    final int c = pow.compareTo(dx);
+    final BoundedNatural eps =
+      (0<=c) ? pow.subtract(dx) : dx.subtract(pow);
+    // x*2^(p-h) + eps*x/2^(kt+2h-p),
+    // dropping low bits of eps that can't affect the result
+    final int s = (kt+(2*h))-p;
+    final int j = Math.max(0,s-h-3);
+    final BoundedNatural ex =
+      eps.shiftDown(j).multiply(x).shiftDown(s-j);
+    final BoundedNatural x0 = x.shiftUp(p-h);
+    return (0<=c) ? x0.add(ex) : x0.subtract(ex); }
+
+  //--------------------------------------------------------------
+  /** An approximate fixed-point reciprocal of a divisor,
+   * for dividing many dividends by the same divisor.
+   * Immutable, apart from a cached more precise reciprocal of
+   * the same divisor.
+   */
+
+  static final class Reciprocal {
+
+    private final BoundedNatural _divisor;
+    private final int _divisorBits;
+    private final int _precision;
+    private final BoundedNatural _mu;
+
+    /** The last reciprocal made by {@link #withPrecision},
+     * so dividends longer than this one was made for compute
+     * a more precise reciprocal once, rather than on every
+     * division.
+     * A benign race: threads may both compute one, and either
+     * may be kept, since both are good for the same dividends.
+     */
+
+    private volatile Reciprocal _wider = null;
+
+    final BoundedNatural divisor () { return _divisor; }
+
+    /** Good for dividends of up to
+     * <code>divisor().hiBit()+precision()-1</code> bits.
+     */
+
+    final int precision () { return _precision; }
+
+    /** Approximately
+     * <code>2<sup>divisor().hiBit()+p</sup>/divisor()</code>,
+     * exact up to a few units.
+     */
+
+    private final BoundedNatural mu (final int p) {
+      assert p<=_precision;
+      return _mu.shiftDown(_precision-p); }
+
+    /** Same divisor, at least precision <code>p</code>.
+     * At least doubles the precision, so a run of slowly
+     * growing dividends recomputes it only a few times.
+     */
+
+    final Reciprocal withPrecision (final int p) {
+      if (p<=_precision) { return this; }
+      final Reciprocal w = _wider;
+      if ((null!=w) && (p<=w._precision)) { return w; }
+      final int q = (null==w) ? _precision : w._precision;
+      final Reciprocal w1 =
+        new Reciprocal(_divisor,
+          (int) Math.max(p,Math.min(Integer.MAX_VALUE,2L*q)));
+      _wider = w1;
+      return w1; }
+
+    Reciprocal (final BoundedNatural d,
+                final int p) {
+      assert ! d.isZero();
+      assert 0<p;
+      _divisor = d;
+      _divisorBits = d.hiBit();
+      _precision = p;
+      _mu = approximateReciprocal(d,p); } }
+
+  /** A reciprocal of <code>d</code>
+   * good for all the <code>dividends</code>.
+   */
+
+  static final Reciprocal reciprocal (final BoundedNatural d,
+                                      final BoundedNatural... dividends) {
+    final int k = d.hiBit();
+    int p = 1;
+    for (final BoundedNatural u : dividends) {
+      p = Math.max(p,(u.hiBit()-k)+1); }
+    return new Reciprocal(d,p); }
+
+  //--------------------------------------------------------------
+  // divide
+  //--------------------------------------------------------------
+  /** Barrett-style quotient estimate from the leading bits of
+   * <code>u</code> and the reciprocal, corrected to the exact
+   * quotient and remainder.
+   */
+
+  static final BoundedNatural[]
+  divideAndRemainder (final BoundedNatural u,
+                      final Reciprocal r) {
+    final BoundedNatural d = r.divisor();
+    if (0>u.compareTo(d)) {
+      return new BoundedNatural[] { u.zero(), u, }; }
+    final int k = r._divisorBits;
+    final int p = (u.hiBit()-k)+1;
+    final BoundedNatural mu = r.withPrecision(p).mu(p);
+    // u < 2^(k+p-1), so the estimate is off by a few units
+    BoundedNatural q = u.shiftDown(k-1).multiply(mu).shiftDown(p+1);
+    BoundedNatural qd = q.multiply(d);
+    while (0<qd.compareTo(u)) {
+      q = q.subtract(BoundedNatural.ONE);
+      qd = qd.subtract(d); }
+    BoundedNatural rem = u.subtract(qd);
+    while (0<=rem.compareTo(d)) {
+      q = q.add(BoundedNatural.ONE);
+      rem = rem.subtract(d); }
+    return new BoundedNatural[] { q, rem, }; }
+
+  static final BoundedNatural[]
+  divideAndRemainder (final BoundedNatural u,
+                      final BoundedNatural d) {
+    return divideAndRemainder(u,reciprocal(d,u)); }
+
+  //--------------------------------------------------------------
+  // disable constructor
+  //--------------------------------------------------------------
+
+  private NewtonDivision () {
+    throw new
+    UnsupportedOperationException(
+      "can't instantiate " + getClass().getCanonicalName()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -33,6 +33,15 @@ public final class Numbers implements Set {
 
   static final long hiWord (final long i) { return i >>> 32; }
 
+  /** High 64 bits of the unsigned 128 bit product;
+   * same as <code>Math.unsignedMultiplyHigh</code>,
+   * which isn't available in Java 17.
+   */
+
+  static final long unsignedMultiplyHigh (final long a,
+                                          final long b) {
+    return Math.multiplyHigh(a,b) + ((a>>63)&b) + ((b>>63)&a); }
+
   //--------------------------------------------------------------
 //  /** Like {@link Arrays#toString(double[])}. */
 //
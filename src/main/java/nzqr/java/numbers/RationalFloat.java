@@ -16,7 +16,7 @@ import static nzqr.java.numbers.Numbers.hiBit;
  * arithmetic on them faster.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2021-06-07
+ * @version 2026-10-17
  */
 
 @SuppressWarnings("unchecked")
@@ -39,6 +39,81 @@ implements Ringlike<RationalFloat> {
   private final int _exponent;
   public final int exponent () { return _exponent; }
 
+  /** Known to be in lowest terms. */
+  private final boolean _reduced;
+
+  private final long _unreducedBits;
+
+  /** An upper bound on the bits, counted in numerator and
+   * denominator together, of any common factor reducing to
+   * lowest terms would remove. 0 if this is known to be
+   * reduced, or the denominator is 1.
+   * <br>
+   * Arithmetic carries the count forward: a result's count is
+   * its operands' counts plus what the operation itself might
+   * have added, never more than twice the shorter of its
+   * numerator and denominator. Values from elsewhere start at
+   * that limit. {@link #reduce()} resets it to 0.
+   */
+
+  public final long unreducedBits () { return _unreducedBits; }
+
+  /** Twice the bits of the shorter of <code>n</code> and
+   * <code>d</code>, a bound on their common factor in both;
+   * all of <code>d</code> when <code>n</code> is 0.
+   */
+
+  private static final long unreducedLimit (final BoundedNatural n,
+                                            final BoundedNatural d) {
+    if (d.isOne()) { return 0L; }
+    if (n.isZero()) { return d.hiBit(); }
+    return 2L*Math.min(n.hiBit(),d.hiBit()); }
+
+  /** Bound on the bits of <code>gcd(a,b)</code>. */
+
+  private static final long commonBits (final BoundedNatural a,
+                                        final BoundedNatural b) {
+    if (a.isOne() || b.isOne()) { return 0L; }
+    return Math.min(a.hiBit(),b.hiBit()); }
+
+  /** <code>r</code>, with the count lowered to
+   * <code>bits</code>, if that's smaller. Only non-dyadic
+   * results, with a count tighter than their limit, are
+   * copied.
+   */
+
+  private static final RationalFloat
+  withUnreducedBits (final RationalFloat r,
+                     final long bits) {
+    if (r._unreducedBits<=bits) { return r; }
+    return new RationalFloat(
+      r.nonNegative(),r.numerator(),r.denominator(),r.exponent(),
+      bits); }
+
+  /** Common factors in a sum: those of the terms, plus, for
+   * each prime dividing both denominators, at most twice its
+   * power in the smaller, plus powers of 2 from aligning
+   * exponents.
+   */
+
+  private static final long addBits (final RationalFloat x,
+                                     final RationalFloat y) {
+    final BoundedNatural d0 = x.denominator();
+    final BoundedNatural d1 = y.denominator();
+    return x._unreducedBits + y._unreducedBits
+      + (4L*commonBits(d0,d1))
+      + (2L*((long) d0.loBit() + d1.loBit())); }
+
+  /** Common factors in a product: those of the factors, plus
+   * any between each numerator and the other denominator.
+   */
+
+  private static final long multiplyBits (final RationalFloat x,
+                                          final RationalFloat y) {
+    return x._unreducedBits + y._unreducedBits
+      + (2L*(commonBits(x.numerator(),y.denominator())
+        + commonBits(y.numerator(),x.denominator()))); }
+
   //--------------------------------------------------------------
 
   @Override
@@ -52,14 +127,27 @@ implements Ringlike<RationalFloat> {
   public final boolean isOne () {
     return isOne(numerator(),denominator()); }
 
+  /** Is the denominator 1?
+   * <br>
+   * Sums, differences and products of <code>double</code>s,
+   * and of dyadic values, are dyadic, and are computed without
+   * any denominator multiplies, gcds, or divides, at the speed
+   * of {@link BigFloat}. Only {@link #reciprocal()}, or
+   * arithmetic with a non-dyadic value, leaves this mode.
+   */
+
+  public final boolean isDyadic () { return denominator().isOne(); }
+
   //--------------------------------------------------------------
 
   @Override
   public final RationalFloat negate () {
     if (isZero()) { return this; }
     return
-      valueOf(
-        !nonNegative(),numerator(),denominator(),exponent()); }
+      withUnreducedBits(
+        valueOf(
+          !nonNegative(),numerator(),denominator(),exponent()),
+        _unreducedBits); }
 
   @Override
   public final RationalFloat abs () {
@@ -68,11 +156,13 @@ implements Ringlike<RationalFloat> {
 
   public final RationalFloat reciprocal () {
     //assert !(numerator().isZero());
-    return valueOf(
-      nonNegative(),
-      denominator(),
-      numerator(),
-      -exponent()); }
+    return withUnreducedBits(
+      valueOf(
+        nonNegative(),
+        denominator(),
+        numerator(),
+        -exponent()),
+      _unreducedBits); }
 
   //--------------------------------------------------------------
 
@@ -106,6 +196,21 @@ implements Ringlike<RationalFloat> {
                                            final boolean p1,
                                            final BoundedNatural n1,
                                            final int e1) {
+    // the length bounds below need both terms nonzero
+    if (n1.isZero()) { return valueOf(p0,n0,d0,e0); }
+    if (n0.isZero()) { return valueOf(p1,n1,e1); }
+    // fused: n1*d0 goes straight into the sum's array,
+    // when the order of the terms is clear from their lengths
+    if (e0>=e1) {
+      final BoundedNatural a = (e0==e1) ? n0 : n0.shiftUp(e0-e1);
+      if (p0==p1) { return valueOf(p0,d0.multiplyAdd(n1,a),d0,e1); }
+      // bb-1 <= n1d0.hiBit() <= bb
+      final int ba = a.hiBit();
+      final int bb = d0.hiBit() + n1.hiBit();
+      if (ba>bb) { return valueOf(p0,a.subtractProduct(d0,n1),d0,e1); }
+      if (ba<(bb-1)) {
+        return valueOf(p1,d0.multiplySubtract(n1,a),d0,e1); } }
+
     final BoundedNatural n0d1 = n0;
     final BoundedNatural n1d0 = n1.multiply(d0);
 
@@ -220,9 +325,13 @@ implements Ringlike<RationalFloat> {
     final int e1 = that.exponent();
     if (d0.isOne()) {
       if (d1.isOne()) { return add6(p0,n0,e0,p1,n1,e1); }
-      return add7(p1,n1,d1,e1,p0,n0,e0); }
-    if (d1.isOne()) { return add7(p0,n0,d0,e0,p1,n1,e1); }
-    return add8(p0,n0,d0,e0,p1,n1,d1,e1); }
+      return withUnreducedBits(
+        add7(p1,n1,d1,e1,p0,n0,e0),addBits(this,that)); }
+    if (d1.isOne()) {
+      return withUnreducedBits(
+        add7(p0,n0,d0,e0,p1,n1,e1),addBits(this,that)); }
+    return withUnreducedBits(
+      add8(p0,n0,d0,e0,p1,n1,d1,e1),addBits(this,that)); }
 
   //--------------------------------------------------------------
 
@@ -234,6 +343,18 @@ implements Ringlike<RationalFloat> {
                                            final long n1,
                                            final int e1) {
     //if (d0.isOne()) { return add6(p0,n0,e0,p1,n1,e1); }
+    if (0L==n1) { return valueOf(p0,n0,d0,e0); }
+    if (n0.isZero()) { return valueOf(p1,n1,e1); }
+    // fused, as in the BoundedNatural n1 case
+    if (e0>=e1) {
+      final BoundedNatural a = (e0==e1) ? n0 : n0.shiftUp(e0-e1);
+      if (p0==p1) { return valueOf(p0,d0.multiplyAdd(n1,a),d0,e1); }
+      final int ba = a.hiBit();
+      final int bb = d0.hiBit() + Numbers.hiBit(n1);
+      if (ba>bb) { return valueOf(p0,a.subtractProduct(d0,n1),d0,e1); }
+      if (ba<(bb-1)) {
+        return valueOf(p1,d0.multiplySubtract(n1,a),d0,e1); } }
+
     final BoundedNatural n1d0 = NaturalMultiply.multiply(d0,n1);
 
     final BoundedNatural a;
@@ -339,10 +460,12 @@ implements Ringlike<RationalFloat> {
     //assert Double.isFinite(z);
     // escape on zero needed for add()
     if (0.0==z) { return this; }
-    return add3(
-      Doubles.nonNegative(z),
-      Doubles.significand(z),
-      Doubles.exponent(z));}
+    return withUnreducedBits(
+      add3(
+        Doubles.nonNegative(z),
+        Doubles.significand(z),
+        Doubles.exponent(z)),
+      addBits(this,ONE)); }
 
   public final RationalFloat
   addAll (final double[] z) {
@@ -374,11 +497,13 @@ implements Ringlike<RationalFloat> {
   public final RationalFloat subtract (final RationalFloat q) {
     if (isZero()) { return q.negate(); }
     if (q.isZero()) { return this; }
-    return add4(
-      ! q.nonNegative(),
-      q.numerator(),
-      q.denominator(),
-      q.exponent()); }
+    return withUnreducedBits(
+      add4(
+        ! q.nonNegative(),
+        q.numerator(),
+        q.denominator(),
+        q.exponent()),
+      addBits(this,q)); }
 
   public final RationalFloat subtract (final double z) {
     return add(-z); }
@@ -389,10 +514,18 @@ implements Ringlike<RationalFloat> {
                                         final BoundedNatural n,
                                         final BoundedNatural d,
                                         final int e) {
+    final BoundedNatural d0 = denominator();
+    // no multiplies by 1
+    if (d0.isOne()) {
+      if (d.isOne()) {
+        return valueOf(
+          !(nonNegative() ^ p),numerator().multiply(n),exponent() + e); }
+      return valueOf(
+        !(nonNegative() ^ p),numerator().multiply(n),d,exponent() + e); }
     return valueOf(
       !(nonNegative() ^ p),
       numerator().multiply(n),
-      denominator().multiply(d),
+      d.isOne() ? d0 : d0.multiply(d),
       exponent() + e); }
 
   @Override
@@ -401,11 +534,13 @@ implements Ringlike<RationalFloat> {
     //    if (q.isZero()) { return EMPTY; }
     //    if (q.isOne()) { return this; }
     //    if (isOne()) { return q; }
-    return multiply(
-      q.nonNegative(),
-      q.numerator(),
-      q.denominator(),
-      q.exponent()); }
+    return withUnreducedBits(
+      multiply(
+        q.nonNegative(),
+        q.numerator(),
+        q.denominator(),
+        q.exponent()),
+      multiplyBits(this,q)); }
 
   //--------------------------------------------------------------
 
@@ -449,8 +584,11 @@ implements Ringlike<RationalFloat> {
   public final RationalFloat square () {
     if (isZero() ) { return ZERO; }
     if (isOne()) { return this; }
-    return multiply(
-      nonNegative(),numerator(),denominator(),exponent()); }
+    // gcd(n^2,d^2) = gcd(n,d)^2
+    return withUnreducedBits(
+      multiply(
+        nonNegative(),numerator(),denominator(),exponent()),
+      2L*_unreducedBits); }
 
   //--------------------------------------------------------------
 
@@ -484,7 +622,7 @@ implements Ringlike<RationalFloat> {
 
   public final RationalFloat addProduct (final double z0,
                                          final double z1) {
-    if (BoundedNatural.ONE.equals(denominator())) {
+    if (isDyadic()) {
       final BigFloat sum =
         BigFloat.valueOf(
           nonNegative(),
@@ -498,9 +636,8 @@ implements Ringlike<RationalFloat> {
     //assert Double.isFinite(z1);
     final boolean p =
       ! (Doubles.nonNegative(z0) ^ Doubles.nonNegative(z1));
-    final BoundedNatural n = BoundedNatural.valueOf(
-      Doubles.significand(z0))
-      .multiply(BoundedNatural.valueOf(Doubles.significand(z1)));
+    final BoundedNatural n = BoundedNatural.product(
+      Doubles.significand(z0),Doubles.significand(z1));
     final int e = Doubles.exponent(z0) + Doubles.exponent(z1);
 
     final boolean p0 = nonNegative();
@@ -685,9 +822,93 @@ implements Ringlike<RationalFloat> {
   //    final BigInteger x = nd.bigIntegerValue();
   //    return (nonNegative() ? x : x.negate()); }
 
+  //--------------------------------------------------------------
+  // rounding from leading words
+  //--------------------------------------------------------------
+  /** Bits in the truncated numerator and denominator used to
+   * approximate the quotient.
+   */
+
+  private static final int TOP_N = 123;
+  private static final int TOP_D = 62;
+
+  /** <code>u</code> shifted so it has exactly <code>h</code>
+   * bits, truncating.
+   */
+
+  private static final BoundedNatural top (final BoundedNatural u,
+                                           final int hu,
+                                           final int h) {
+    if (hu>h) { return u.shiftDown(hu-h); }
+    return u.shiftUp(h-hu); }
+
+  /** The quotient of the top {@link #TOP_N} bits of
+   * <code>n</code> by the top {@link #TOP_D} bits of
+   * <code>d</code>, in <code>(2<sup>60</sup>,2<sup>62</sup>)</code>,
+   * so <code>q+2</code> doesn't overflow.
+   * <br>
+   * If the truncated numerator and denominator are
+   * <code>N</code> and <code>D</code>, then the exact scaled
+   * quotient is in <code>(N/(D+1),(N+1)/D)</code>, which is
+   * within <code>(q-4,q+2)</code> of the returned
+   * <code>q = floor(N/D)</code>, since
+   * <code>N/D - N/(D+1) = N/(D(D+1)) &lt; 2</code>.
+   */
+
+  private static final long topQuotient (final BoundedNatural n,
+                                         final int hn,
+                                         final BoundedNatural d,
+                                         final int hd) {
+    return top(n,hn,TOP_N).divide(top(d,hd,TOP_D)).longValue(); }
+
+  /** Exponent to apply to {@link #topQuotient}. */
+
+  private static final long topExponent (final int hn,
+                                         final int hd,
+                                         final int e) {
+    return ((long) hn - TOP_N) - ((long) hd - TOP_D) + e; }
+
+  /** Cases for {@link #range}. */
+
+  private static final int OVERFLOW = 0;
+  private static final int UNDERFLOW = 1;
+  private static final int FAST = 2;
+  private static final int EXACT = 3;
+
+  /** What to do with a quotient <code>q</code> from
+   * {@link #topQuotient}, scaled by <code>2<sup>e</sup></code>,
+   * given the exponent range of the target type:
+   * {@link #OVERFLOW} or {@link #UNDERFLOW} if every value in
+   * <code>(q-4,q+2)*2<sup>e</sup></code> rounds to infinity or
+   * to zero, {@link #FAST} if they are all comfortably normal,
+   * so rounding the ends of the interval is safe,
+   * otherwise {@link #EXACT}.
+   * <br>
+   * With <code>h = e + hiBit(q)</code>, the interval is within
+   * <code>(2<sup>h-2</sup>,2<sup>h+1</sup>)</code>.
+   */
+
+  private static final int range (final long q,
+                                  final long e,
+                                  final int minExponent,
+                                  final int maxExponent,
+                                  final int minSubnormalExponent) {
+    final long h = e + Numbers.hiBit(q);
+    // > 2^(maxExponent+1)
+    if ((h-2)>maxExponent) { return OVERFLOW; }
+    // < half the smallest subnormal
+    if ((h+1)<minSubnormalExponent) { return UNDERFLOW; }
+    if (((h-2)>=minExponent) && ((h+1)<=maxExponent)) { return FAST; }
+    return EXACT; }
+
   //--------------------------------------------------------------
   /** Half-even rounding from {@link BoundedNatural} ratio to
    * <code>float</code>.
+   * <br>
+   * Rounds a quotient of leading words, with an error bound,
+   * only dividing the full numerator and denominator when
+   * the error interval contains a rounding boundary, or is
+   * near the ends of the exponent range.
    * @return closest half-even rounded <code>float</code>.
    */
 
@@ -701,140 +922,100 @@ implements Ringlike<RationalFloat> {
     if (d0.isOne()) { return BigFloat.floatValue(p0,n0,e0); }
     if (n0.isZero()) { return (p0 ? 0.0F : -0.0F); }
 
-    // TODO: fix this hack or call Rational
-    final boolean large = (e0 >= 0);
-    final BoundedNatural n00 = (large ? n0.shiftUp(e0) : n0);
-    final BoundedNatural d00 = (large ? d0 : d0.shiftUp(-e0));
-
-    // choose exponent, and shift numerator and denominator so
-    // quotient has the right number of bits.
-    final int e1 = n00.hiBit() - d00.hiBit() - 1;
-    final boolean small = (e1 > 0);
-    final BoundedNatural n1 = (small ? n00 : n00.shiftUp(-e1));
-    final BoundedNatural d1 = (small ? d00.shiftUp(e1) : d00);
-
-    // ensure numerator is less than 2x denominator
-    final BoundedNatural d11 = d1.shiftUp(1);
-    final BoundedNatural d2;
-    final int e2;
-    if (n1.compareTo(d11) < 0) { d2 = d1; e2 = e1;}
-    else { d2 = d11; e2 = e1 + 1; }
-
-    // check for out of range
-    if (e2 > Float.MAX_EXPONENT) {
-      return (p0 ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY); }
-    if (e2 < Floats.MINIMUM_SUBNORMAL_EXPONENT) {
-      return (p0 ? 0.0F : -0.0F); }
-
-    // subnormal numbers need slightly different handling
-    final boolean sub = (e2 < Float.MIN_EXPONENT);
-    final int e3 = sub ? Float.MIN_EXPONENT : e2;
-    final BoundedNatural d3 = (sub ? d2.shiftUp(e3-e2) : d2);
-    final BoundedNatural n3 =
-      n1.shiftUp(Floats.STORED_SIGNIFICAND_BITS);
-
-    final int e4 = e3 - Floats.STORED_SIGNIFICAND_BITS;
-
-    //Debug.println("num=" + n3.toHexString());
-    //Debug.println("den=" + d3.toHexString());
-
-    final BoundedNatural[] qr = n3.divideAndRemainder(d3);
-
-    //Debug.println("quo=" + qr[0].toHexString());
-    //Debug.println("quo=" + Long.toHexString(qr[0].longValueExact()));
-    //Debug.println("rem=" + qr[1].toHexString());
-
-    // round down or up?
-    // want to know if remainder/denominator is more or less than 1/2
-    // comparing 2*remainder to denominator
-    // TODO: faster way to do this?
-    final int c = qr[1].shiftUp(1).compareTo(d3);
-    final int q4 = qr[0].intValue();
-    final boolean even = (0x0 == (q4 & 0x1));
-    final boolean down = (c < 0) || ((c == 0) && even);
-    final int q;
-    final int e;
-    if (down) {
-      q = q4;
-      e = (sub ? e4 - 1 : e4); }
-    else {
-      final int q5 = q4 + 1;
-      // handle carry if needed after round up
-      final boolean carry = (hiBit(q5) > Floats.SIGNIFICAND_BITS);
-      q = carry ? q5 >>> 1 : q5;
-    e = (sub ? (carry ? e4 : e4 - 1) : (carry ? e4 + 1 : e4)); }
-    return Floats.makeFloat(!p0,e,q); }
+    final int hn = n0.hiBit();
+    final int hd = d0.hiBit();
+    final long e = topExponent(hn,hd,e0);
+    final long q = topQuotient(n0,hn,d0,hd);
+    switch (range(q,e,Float.MIN_EXPONENT,Float.MAX_EXPONENT,
+      Floats.MINIMUM_SUBNORMAL_EXPONENT)) {
+      case OVERFLOW :
+        return (p0 ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY);
+      case UNDERFLOW : return (p0 ? 0.0F : -0.0F);
+      case FAST : {
+        final float lo = BigFloat.floatValue(
+          p0,BoundedNatural.valueOf(q-4L),(int) e);
+        final float hi = BigFloat.floatValue(
+          p0,BoundedNatural.valueOf(q+2L),(int) e);
+        // rounding is monotone, so everything in between rounds
+        // the same
+        if (lo==hi) { return lo; }
+        return exactFloatValue(p0,n0,d0,e0); }
+      default : return exactFloatValue(p0,n0,d0,e0); } }
+
+  /** The exact quotient <code>n0/d0</code>, with at least
+   * {@link Doubles#SIGNIFICAND_BITS}<code>+3</code> bits,
+   * shifted up one, with a sticky low bit set when the
+   * division isn't exact.
+   * Rounding that once, to <code>float</code> or
+   * <code>double</code>, normal or subnormal, gives the same
+   * result as rounding the exact value.
+   * The exponent to apply is
+   * <code>e0-</code>{@link #stickyShift}<code>-1</code>.
+   */
+
+  private static final BoundedNatural sticky (final BoundedNatural n0,
+                                              final BoundedNatural d0) {
+    final BoundedNatural[] qr =
+      n0.shiftUp(stickyShift(n0,d0)).divideAndRemainder(d0);
+    final BoundedNatural q = qr[0].shiftUp(1);
+    return qr[1].isZero() ? q : q.add(BoundedNatural.ONE); }
+
+  private static final int stickyShift (final BoundedNatural n0,
+                                        final BoundedNatural d0) {
+    return Math.max(0,
+      (d0.hiBit() - n0.hiBit()) + Doubles.SIGNIFICAND_BITS + 3); }
+
+  /** Half-even rounding from the exact quotient. */
+
+  private static final float exactFloatValue (final boolean p0,
+                                              final BoundedNatural n0,
+                                              final BoundedNatural d0,
+                                              final int e0) {
+    return BigFloat.floatValue(
+      p0,sticky(n0,d0),e0-stickyShift(n0,d0)-1); }
 
   //--------------------------------------------------------------
 
+  /** Half-even rounding of
+   * <code>(n0/d0)*2<sup>e0</sup></code> to <code>double</code>,
+   * from a quotient of leading words, falling back to exact
+   * division when that quotient is too close to a rounding
+   * boundary, or to the ends of the exponent range.
+   */
+
   public static final double doubleValue  (final boolean p0,
                                            final BoundedNatural n0,
                                            final BoundedNatural d0,
                                            final int e0) {
     if (n0.isZero()) { return (p0 ? 0.0 : -0.0); }
-
-    final boolean neg = !p0;
-
-    // TODO: fix this hack
-    final boolean large = (e0 >= 0);
-    final BoundedNatural n00 = (large ? n0.shiftUp(e0) : n0);
-    final BoundedNatural d00 = (large ? d0 : d0.shiftUp(-e0));
-
-    // choose exponent, and shift numerator and denominator so
-    // quotient has the right number of bits.
-    final int e1 = n00.hiBit()-d00.hiBit()-1;
-    final boolean small = (e1 > 0);
-    final BoundedNatural n1 = small ? n00 : n00.shiftUp(-e1);
-    final BoundedNatural d1 = small ? d00.shiftUp(e1) : d00;
-
-    // ensure numerator is less than 2x denominator
-    final BoundedNatural d11 = d1.shiftUp(1);
-    final BoundedNatural d2;
-    final int e2;
-    if (n1.compareTo(d11) < 0) { d2 = d1; e2 = e1;}
-    else { d2 = d11; e2 = e1 + 1; }
-
-    // check for out of range
-    if (e2 > Double.MAX_EXPONENT) {
-      return (neg
-        ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY); }
-    if (e2 < Doubles.MINIMUM_SUBNORMAL_EXPONENT) {
-      return (neg ? -0.0 : 0.0); }
-
-    // subnormal numbers need slightly different handling
-    final boolean sub = (e2 < Double.MIN_EXPONENT);
-    final int e3 = (sub ? Double.MIN_EXPONENT : e2);
-    final BoundedNatural d3 = sub ? d2.shiftUp(e3-e2) : d2;
-    final BoundedNatural n3 =
-      n1.shiftUp(Doubles.STORED_SIGNIFICAND_BITS);
-
-    final int e4 = e3 - Doubles.STORED_SIGNIFICAND_BITS;
-
-    final BoundedNatural[] qr = n3.divideAndRemainder(d3);
-    final BoundedNatural qr0 = qr[0];
-    final BoundedNatural qr1 = qr[1];
-
-    // round down or up?
-    // want to know if remainder/denominator is
-    // more or less than 1/2
-    // comparing 2*remainder to denominator
-    // TODO: faster way to do this?
-    final int c = - d3.compareTo(qr1.shiftUp(1));
-    final long q4 = qr0.longValue();
-    final boolean even = (0x0L == (q4 & 0x1L));
-    final boolean down = (c < 0) || ((c == 0) && even);
-    final long q;
-    final int e;
-    if (down) {
-      q = q4;
-      e = (sub ? e4-1 : e4); }
-    else {
-      final long q5 = q4+1;
-      // handle carry if needed after round up
-      final boolean carry = (hiBit(q5) > Doubles.SIGNIFICAND_BITS);
-      q = (carry ? q5 >>> 1 : q5);
-      e = (sub ? (carry ? e4 : e4 - 1) : (carry ? e4 + 1 : e4)); }
-    return Doubles.makeDouble(neg,q,e); }
+    final int hn = n0.hiBit();
+    final int hd = d0.hiBit();
+    final long e = topExponent(hn,hd,e0);
+    final long q = topQuotient(n0,hn,d0,hd);
+    switch (range(q,e,Double.MIN_EXPONENT,Double.MAX_EXPONENT,
+      Doubles.MINIMUM_SUBNORMAL_EXPONENT)) {
+      case OVERFLOW :
+        return (p0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+      case UNDERFLOW : return (p0 ? 0.0 : -0.0);
+      case FAST : {
+        final double lo = BigFloat.doubleValue(
+          p0,BoundedNatural.valueOf(q-4L),(int) e);
+        final double hi = BigFloat.doubleValue(
+          p0,BoundedNatural.valueOf(q+2L),(int) e);
+        // rounding is monotone, so everything in between rounds
+        // the same
+        if (lo==hi) { return lo; }
+        return exactDoubleValue(p0,n0,d0,e0); }
+      default : return exactDoubleValue(p0,n0,d0,e0); } }
+
+  /** Half-even rounding from the exact quotient. */
+
+  private static final double exactDoubleValue (final boolean p0,
+                                                final BoundedNatural n0,
+                                                final BoundedNatural d0,
+                                                final int e0) {
+    return BigFloat.doubleValue(
+      p0,sticky(n0,d0),e0-stickyShift(n0,d0)-1); }
 
   /** Half-even rounding to <code>double</code>.
    */
@@ -852,11 +1033,107 @@ implements Ringlike<RationalFloat> {
   // Comparable methods
   //--------------------------------------------------------------
 
+  /** The 64 bits of <code>u</code> starting at bit
+   * <code>i</code>.
+   */
+
+  private static final long bitsAt (final BoundedNatural u,
+                                    final int i) {
+    final int iw = (i>>>5);
+    final int b = (i&0x1F);
+    final long w = u.uword(iw) | (u.uword(iw+1)<<32);
+    if (0==b) { return w; }
+    return (w>>>b) | (u.uword(iw+2)<<(64-b)); }
+
+  /** The top 62 bits of <code>u</code>, as a value in
+   * <code>[2<sup>61</sup>,2<sup>62</sup>)</code>,
+   * exact if shifted up.
+   */
+
+  private static final long top62 (final BoundedNatural u,
+                                   final int h) {
+    if (62<=h) { return bitsAt(u,h-62); }
+    return bitsAt(u,0) << (62-h); }
+
+  /** Is <code>top62(u,h)</code> exactly <code>u</code>
+   * times a power of 2?
+   */
+
+  private static final boolean exact62 (final BoundedNatural u,
+                                        final int h) {
+    return (62>=h) || ((h-62)<=u.loBit()); }
+
+  /** Compare the magnitudes of two non-zero values without
+   * allocating, if possible, returning
+   * <code>Integer.MIN_VALUE</code> if undecided.
+   * <br>
+   * First by the bit lengths: <code>|q|</code> is in
+   * <code>(2<sup>a-1</sup>,2<sup>a+1</sup>)</code>,
+   * where <code>a = hiBit(n) - hiBit(d) + e</code>.
+   * Then by the 128 bit products of the top 62 bits of
+   * numerators and denominators, which are within
+   * <code>2<sup>64</sup>+2</code> of the scaled exact
+   * cross products.
+   */
+
+  private static final int compareMagnitudes (final RationalFloat q0,
+                                              final RationalFloat q1) {
+    final BoundedNatural n0 = q0.numerator();
+    final BoundedNatural d0 = q0.denominator();
+    final BoundedNatural n1 = q1.numerator();
+    final BoundedNatural d1 = q1.denominator();
+    final int hn0 = n0.hiBit();
+    final int hd0 = d0.hiBit();
+    final int hn1 = n1.hiBit();
+    final int hd1 = d1.hiBit();
+    final long a0 = ((long) hn0 - hd0) + q0.exponent();
+    final long a1 = ((long) hn1 - hd1) + q1.exponent();
+    final long da = a0 - a1;
+    if (1L<da) { return 1; }
+    if (-1L>da) { return -1; }
+    // n0*d1*2^da vs n1*d0, scaled by the same power of 2
+    final long tn0 = top62(n0,hn0);
+    final long td1 = top62(d1,hd1);
+    final long tn1 = top62(n1,hn1);
+    final long td0 = top62(d0,hd0);
+    long hi0 = Math.multiplyHigh(tn0,td1);
+    long lo0 = tn0*td1;
+    long hi1 = Math.multiplyHigh(tn1,td0);
+    long lo1 = tn1*td0;
+    if (1L==da) { hi0 = (hi0<<1)|(lo0>>>63); lo0 <<= 1; }
+    else if (-1L==da) { hi1 = (hi1<<1)|(lo1>>>63); lo1 <<= 1; }
+    // hi words are less than 2^61, errors less than 3*2^64
+    if (hi0>=(hi1+5L)) { return 1; }
+    if (hi1>=(hi0+5L)) { return -1; }
+    if (exact62(n0,hn0) && exact62(d1,hd1)
+      && exact62(n1,hn1) && exact62(d0,hd0)) {
+      if (hi0!=hi1) { return Long.compare(hi0,hi1); }
+      return Long.compareUnsigned(lo0,lo1); }
+    return Integer.MIN_VALUE; }
+
   @Override
   public final int compareTo (final RationalFloat q) {
+    if (this==q) { return 0; }
+    final boolean z0 = isZero();
+    final boolean z1 = q.isZero();
+    if (z0) {
+      if (z1) { return 0; }
+      return (q.nonNegative() ? -1 : 1); }
+    if (z1) { return (nonNegative() ? 1 : -1); }
     if (nonNegative() && (! q.nonNegative())) { return 1; }
     if ((! nonNegative()) && q.nonNegative()) { return -1; }
     // same signs
+    final int cm = compareMagnitudes(this,q);
+    if (Integer.MIN_VALUE!=cm) { return (nonNegative() ? cm : -cm); }
+    if (isDyadic() && q.isDyadic()) {
+      final int e0 = exponent();
+      final int e1 = q.exponent();
+      final int c;
+      if (e0 <= e1) {
+        c = numerator().compareTo(q.numerator().shiftUp(e1-e0)); }
+      else {
+        c = numerator().shiftUp(e0-e1).compareTo(q.numerator()); }
+      return (nonNegative() ? c : -c); }
     final BoundedNatural n0d1 = numerator().multiply(q.denominator());
     final BoundedNatural n1d0 = q.numerator().multiply(denominator());
     final int e0 = exponent();
@@ -919,11 +1196,32 @@ implements Ringlike<RationalFloat> {
   private RationalFloat (final boolean p,
                          final BoundedNatural n,
                          final BoundedNatural d,
-                         final int e) {
+                         final int e,
+                         final boolean reduced) {
     _nonNegative = p;
     _numerator = n;
     _denominator = d;
-    _exponent = e; }
+    _exponent = e;
+    _reduced = reduced;
+    _unreducedBits = reduced ? 0L : unreducedLimit(n,d); }
+
+  private RationalFloat (final boolean p,
+                         final BoundedNatural n,
+                         final BoundedNatural d,
+                         final int e,
+                         final long unreducedBits) {
+    _nonNegative = p;
+    _numerator = n;
+    _denominator = d;
+    _exponent = e;
+    _reduced = false;
+    _unreducedBits = unreducedBits; }
+
+  private RationalFloat (final boolean p,
+                         final BoundedNatural n,
+                         final BoundedNatural d,
+                         final int e) {
+    this(p,n,d,e,false); }
 
   //--------------------------------------------------------------
   /** optimize denominator == 1 case. */
@@ -936,12 +1234,12 @@ implements Ringlike<RationalFloat> {
     if (n.isZero()) { return ZERO; }
     if (n.isOne()) {
       return new RationalFloat(
-        p,BoundedNatural.ONE,BoundedNatural.ONE,e); }
+        p,BoundedNatural.ONE,BoundedNatural.ONE,e,true); }
     final int en = n.loBit();
     final BoundedNatural n0 =
       (en != 0) ? n.shiftDown(en) : n;
     final int e0 = (e + en);
-    return new RationalFloat(p,n0,BoundedNatural.ONE,e0); }
+    return new RationalFloat(p,n0,BoundedNatural.ONE,e0,true); }
 
   private static final RationalFloat
   reduce (final boolean p,
@@ -958,7 +1256,7 @@ implements Ringlike<RationalFloat> {
       final BoundedNatural d0 =
         (ed != 0) ? d.shiftDown(ed) : d;
       final int e0 = e - ed;
-      return new RationalFloat(p,BoundedNatural.ONE,d0,e0); }
+      return new RationalFloat(p,BoundedNatural.ONE,d0,e0,true); }
 
     final int en = n.loBit();
     final int ed = d.loBit();
@@ -972,28 +1270,65 @@ implements Ringlike<RationalFloat> {
     if (d0.isOne()) {
       if (n0.isOne()) {
         return new RationalFloat(
-          p,BoundedNatural.ONE,BoundedNatural.ONE,e0); }
-      return new RationalFloat(p,n0,BoundedNatural.ONE,e0); }
+          p,BoundedNatural.ONE,BoundedNatural.ONE,e0,true); }
+      return new RationalFloat(p,n0,BoundedNatural.ONE,e0,true); }
     if (n0.isOne()) {
-      return new RationalFloat(p,BoundedNatural.ONE,d0,e0); }
+      return new RationalFloat(p,BoundedNatural.ONE,d0,e0,true); }
 
     final BoundedNatural gcd = n0.gcd(d0);
-    final BoundedNatural n1 = n0.divide(gcd);
-    final BoundedNatural d1 = d0.divide(gcd);
-    return new RationalFloat(p,n1,d1,e0); }
+    // one reciprocal of gcd for both, when they're big enough
+    final BoundedNatural[] nd1 = BoundedNatural.divideAll(gcd,n0,d0);
+    return new RationalFloat(p,nd1[0],nd1[1],e0,true); }
+
+  /** This rational in lowest terms, with odd numerator and
+   * denominator.
+   */
 
-  private final RationalFloat reduce () {
+  public final RationalFloat reduce () {
+    if (_reduced) { return this; }
     return
       reduce(
         nonNegative(),numerator(),denominator(),exponent()); }
 
+  //--------------------------------------------------------------
+  // reduction policy
+  //--------------------------------------------------------------
+
+  private static volatile RationalFloatReduction reductionPolicy =
+    RationalFloatReduction.NEVER;
+
+  /** When arithmetic results are reduced to lowest terms.
+   * Defaults to {@link RationalFloatReduction#NEVER}.
+   */
+
+  public static final RationalFloatReduction reductionPolicy () {
+    return reductionPolicy; }
+
+  public static final void
+  setReductionPolicy (final RationalFloatReduction policy) {
+    if (null==policy) {
+      throw new IllegalArgumentException("null reduction policy"); }
+    reductionPolicy = policy; }
+
   //--------------------------------------------------------------
 
   public static final RationalFloat valueOf (final boolean p,
                                              final BoundedNatural n,
                                              final BoundedNatural d,
                                              final int e) {
-    //    return reduce(nonNegative,n,d,e); }
+    if ((! d.isOne()) && reductionPolicy.reduce(n,d)) {
+      return reduce(p,n,d,e); }
+    return new RationalFloat(p,n,d,e); }
+
+  /** Exactly <code>n/d</code>, as given, without consulting
+   * the reduction policy, for readers that must return what
+   * was written.
+   */
+
+  static final RationalFloat unreduced (final boolean p,
+                                        final BoundedNatural n,
+                                        final BoundedNatural d,
+                                        final int e) {
     return new RationalFloat(p,n,d,e); }
 
   public static final RationalFloat valueOf (final boolean p,
@@ -1119,10 +1454,10 @@ implements Ringlike<RationalFloat> {
   // Note: these need to be reduced.
 
   public static final RationalFloat ZERO =
-    new RationalFloat(true,BoundedNatural.ZERO,BoundedNatural.ONE,0);
+    new RationalFloat(true,BoundedNatural.ZERO,BoundedNatural.ONE,0,true);
 
   public static final RationalFloat ONE =
-    new RationalFloat(true,BoundedNatural.ONE,BoundedNatural.ONE,0);
+    new RationalFloat(true,BoundedNatural.ONE,BoundedNatural.ONE,0,true);
 
   //  public static final RationalFloat TWO =
   //    new RationalFloat(true,BoundedNatural.ONE,BoundedNatural.ONE,1);
@@ -0,0 +1,75 @@
+package nzqr.java.numbers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** When {@link RationalFloat} arithmetic should reduce its
+ * results to lowest terms.
+ * <br>
+ * Reducing costs a gcd and two divides; never reducing lets
+ * numerators and denominators grow without bound in long
+ * chains of operations. The policy is consulted every time a
+ * result with denominator other than 1 is created.
+ * Values that weren't reduced can always be reduced on demand,
+ * with {@link RationalFloat#reduce()}, and
+ * {@link RationalFloat#unreducedBits()} says how much
+ * they might shrink.
+ * <br>
+ * Set with {@link RationalFloat#setReductionPolicy}.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+@FunctionalInterface
+public interface RationalFloatReduction {
+
+  /** Should <code>n/d</code> be reduced now?
+   * <code>d</code> is not 1.
+   */
+
+  boolean reduce (BoundedNatural n, BoundedNatural d);
+
+  //--------------------------------------------------------------
+  // policies
+  //--------------------------------------------------------------
+
+  /** Leave everything to the caller; the default. */
+
+  RationalFloatReduction NEVER = (n,d) -> false;
+
+  /** Always reduce to lowest terms. */
+
+  RationalFloatReduction ALWAYS = (n,d) -> true;
+
+  /** Reduce when the combined bit length of numerator and
+   * denominator is more than <code>bits</code>.
+   */
+
+  static RationalFloatReduction bitLength (final int bits) {
+    if (0>bits) {
+      throw new IllegalArgumentException(
+        "negative bit length threshold: " + bits); }
+    return (n,d) -> (bits < (n.hiBit() + d.hiBit())); }
+
+  /** Reduce every <code>n</code>th result.
+   * <br>
+   * The count is shared by every result created while the
+   * policy is set, in any chain of operations and any thread,
+   * so there's no per-chain guarantee: a chain interleaved with
+   * others may go much longer than <code>n</code> steps without
+   * a reduction. Use {@link #bitLength(int)}, or
+   * {@link RationalFloat#unreducedBits()} and
+   * {@link RationalFloat#reduce()}, to bound a particular
+   * chain.
+   */
+
+  static RationalFloatReduction every (final int n) {
+    if (0>=n) {
+      throw new IllegalArgumentException(
+        "reduction period must be positive: " + n); }
+    final AtomicLong count = new AtomicLong();
+    return (t,d) -> (0L == (count.incrementAndGet() % n)); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -4,8 +4,12 @@ import static nzqr.java.numbers.Numbers.hiWord;
 import static nzqr.java.numbers.Numbers.unsigned;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.BinaryOperator;
 import java.util.function.Supplier;
 
@@ -19,89 +23,389 @@ import nzqr.java.prng.GeneratorBase;
 import nzqr.java.prng.Generators;
 
 /** A proof-of-concept implementation of unbounded natural
- * numbers. Only implementing a commutative monoid
- * (ie just addition) for now.
+ * numbers: addition, subtraction, shifts by <code>long</code>
+ * bit counts, multiplication and comparison.
  * <br>
  * This is in contrast to {@link BoundedNatural} and
  * {@link java.math.BigInteger}, which both have bounded ranges,
  * limited, for one thing, by the fact that bits are addressable
  * by <code>int</code>.
+ * <br>
+ * The words, least significant first, are held in fixed size
+ * <code>int[]</code> chunks of {@link #CHUNK_WORDS} words,
+ * indexed by <code>long</code>; only the last chunk is
+ * shorter, exactly as long as needed.
+ * That costs 4 bytes per word, plus one array header per
+ * chunk, where the earlier linked list of one node per word
+ * cost about 24 bytes per word.
+ * Operations stream through the chunks, low to high (or high to
+ * low for comparison), writing results a chunk at a time.
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2024-01-22
+ * @version 2026-10-17
  */
 
 @SuppressWarnings("unchecked")
 public final class UnboundedNatural
-implements Comparable<UnboundedNatural> {
+implements Ringlike<UnboundedNatural> {
 
   //--------------------------------------------------------------
-  // an unbounded immutable sequence of ints
+  // chunks
   //--------------------------------------------------------------
-  // TODO: Any value to implementing Iterator<Integer> or
-  // PrimitiveIterator.OfInt?
-  //
-  // TODO: What about zero-length sequences?
-  // Is there a better choice than just null?
-  //
-  // TODO: could do without this class; have the U.N. be the
-  // sequence. Then next/rest would be shifting down 32 bits?
-
-  private record Words (int word, Words next) { }
-
-  /** Will return <code>null</code> if <code>s</code> is
-   * <code>null</code>.
+
+  static final int CHUNK_BITS = 20;
+
+  /** Words per full chunk. */
+
+  public static final int CHUNK_WORDS = (1<<CHUNK_BITS);
+
+  private static final int CHUNK_MASK = CHUNK_WORDS-1;
+
+  private static final int chunk (final long i) {
+    return (int) (i>>>CHUNK_BITS); }
+
+  private static final int offset (final long i) {
+    return (int) (i&CHUNK_MASK); }
+
+  /** Number of chunks needed for <code>n</code> words. */
+
+  private static final int nChunks (final long n) {
+    final long k = (n+CHUNK_MASK)>>>CHUNK_BITS;
+    if (Integer.MAX_VALUE<k) {
+      throw new ArithmeticException(
+        "Attempting to create an instance of UnboundedNatural"
+        + " with too many words: " + n); }
+    return (int) k; }
+
+  /** Appends words, low to high, into chunks sized for at most
+   * <code>capacity</code> words, trimming leading zeros when
+   * done.
+   */
+
+  private static final class Builder {
+    private final int[][] chunks;
+    private final long capacity;
+    private long n = 0L;
+    /** Number of words up to and including the last
+     * non-zero one.
+     */
+    private long hi = 0L;
+    private int[] current = null;
+    private int pos = CHUNK_WORDS;
+
+    final void append (final int w) {
+      if (CHUNK_WORDS==pos) {
+        final int k = chunk(n);
+        current = new int[(int) Math.min(CHUNK_WORDS,capacity-n)];
+        chunks[k] = current;
+        pos = 0; }
+      current[pos++] = w;
+      n++;
+      if (0!=w) { hi = n; } }
+
+    final UnboundedNatural build () { return trimmed(chunks,hi); }
+
+    Builder (final long capacity0) {
+      capacity = capacity0;
+      chunks = new int[nChunks(capacity0)][]; } }
+
+  /** Drop chunks past <code>hi</code> words, and shorten the
+   * last one to fit exactly. <code>hi</code> counts up to the
+   * last non-zero word.
    */
-  private static final Words reverse (final Words s) {
-    if (null == s) { return null; }
-    Words out = new Words(s.word,null);
-    Words in = s.next;
-    while (null != in) {
-      out = new Words(in.word,out);
-      in = in.next; }
-    return out; }
+
+  private static final UnboundedNatural trimmed (final int[][] chunks,
+                                                 final long hi) {
+    if (0L==hi) { return ZERO; }
+    final int k = nChunks(hi);
+    final int[][] cc =
+      (k==chunks.length) ? chunks : Arrays.copyOf(chunks,k);
+    final int last = offset(hi-1L)+1;
+    if (cc[k-1].length!=last) {
+      cc[k-1] = Arrays.copyOf(cc[k-1],last); }
+    return new UnboundedNatural(cc,hi); }
 
   //--------------------------------------------------------------
   // fields
   //--------------------------------------------------------------
   /** Least significant word first. Never modified.
+   * Every chunk but the last has {@link #CHUNK_WORDS} words.
    */
 
-  private final Words words;
+  private final int[][] _chunks;
+
+  /** Number of words, the last non-zero. */
+
+  private final long _n;
 
   /** Singleton. */
   public static final UnboundedNatural ZERO =
-    new UnboundedNatural(null);
+    new UnboundedNatural(new int[0][],0L);
 
   /** Singleton. */
   public static final UnboundedNatural ONE =
-    new UnboundedNatural(new Words(1, null));
+    new UnboundedNatural(new int[][] { { 1, }, },1L);
+
+  //--------------------------------------------------------------
+  // words
+  //--------------------------------------------------------------
+  /** Number of words, with no leading zeros. */
+
+  public final long hiInt () { return _n; }
+
+  /** Index of the highest 1 bit, plus 1. */
+
+  public final long hiBit () {
+    if (0L==_n) { return 0L; }
+    return (32L*(_n-1L))
+      + (Integer.SIZE-Integer.numberOfLeadingZeros(word(_n-1L))); }
+
+  @Override
+  public final boolean isZero () { return 0L==_n; }
+
+  /** Word <code>i</code>, 0 if <code>hiInt()&lt;=i</code>. */
+
+  public final int word (final long i) {
+    assert 0L<=i : "Negative index: " + i;
+    if (_n<=i) { return 0; }
+    return _chunks[chunk(i)][offset(i)]; }
 
   //--------------------------------------------------------------
   // monoid operation
   //--------------------------------------------------------------
 
+  @Override
   public final UnboundedNatural add (final UnboundedNatural u) {
-    Words tt = words;
-    Words uu = u.words;
-    Words vv = null;
+    if (_n<u._n) { return u.add(this); }
+    if (0L==u._n) { return this; }
+    final Builder b = new Builder(_n+1L);
     long sum = 0L;
-    for (; (null!=tt) && (null!=uu); tt = tt.next, uu = uu.next) {
-      sum += unsigned(tt.word) + unsigned(uu.word);
-      vv = new Words((int) sum, vv);
-      sum = hiWord(sum); }
-    if (null==tt) {
-      for (;null!=uu;uu=uu.next) {
-        sum += unsigned(uu.word);
-        vv = new Words((int) sum, vv);
-        sum = hiWord(sum); } }
-    else {
-      for (;null!=tt;tt=tt.next) {
-        sum += unsigned(tt.word);
-        vv = new Words((int) sum,vv);
+    for (int k=0;k<_chunks.length;k++) {
+      final int[] tt = _chunks[k];
+      final int[] uu = (k<u._chunks.length) ? u._chunks[k] : null;
+      final int nu = (null==uu) ? 0 : uu.length;
+      int i=0;
+      for (;i<nu;i++) {
+        sum += unsigned(tt[i]) + unsigned(uu[i]);
+        b.append((int) sum);
+        sum = hiWord(sum); }
+      for (;i<tt.length;i++) {
+        sum += unsigned(tt[i]);
+        b.append((int) sum);
         sum = hiWord(sum); } }
-    if (0L!=sum) { vv = new Words(1,vv); }
-    return new UnboundedNatural(reverse(vv)); }
+    if (0L!=sum) { b.append(1); }
+    return b.build(); }
+
+  //--------------------------------------------------------------
+  /** <code>this*w</code>, for a single unsigned word
+   * <code>w</code>.
+   */
+
+  public final UnboundedNatural multiplyByWord (final int w) {
+    if ((0==w) || (0L==_n)) { return ZERO; }
+    if (1==w) { return this; }
+    final long m = unsigned(w);
+    final Builder b = new Builder(_n+1L);
+    long carry = 0L;
+    for (final int[] tt : _chunks) {
+      for (final int ti : tt) {
+        final long p = (unsigned(ti)*m) + carry;
+        b.append((int) p);
+        carry = (p>>>32); } }
+    if (0L!=carry) { b.append((int) carry); }
+    return b.build(); }
+
+  //--------------------------------------------------------------
+  // subtract
+  //--------------------------------------------------------------
+  /** <code>this-u</code>, which must be non-negative. */
+
+  @Override
+  public final UnboundedNatural subtract (final UnboundedNatural u) {
+    assert 0<=compareTo(u);
+    if (0L==u._n) { return this; }
+    final Builder b = new Builder(_n);
+    long dif = 0L;
+    for (int k=0;k<_chunks.length;k++) {
+      final int[] tt = _chunks[k];
+      final int[] uu = (k<u._chunks.length) ? u._chunks[k] : null;
+      final int nu = (null==uu) ? 0 : uu.length;
+      int i=0;
+      for (;i<nu;i++) {
+        dif += unsigned(tt[i]) - unsigned(uu[i]);
+        b.append((int) dif);
+        dif = (dif>>32); }
+      for (;i<tt.length;i++) {
+        dif += unsigned(tt[i]);
+        b.append((int) dif);
+        dif = (dif>>32); } }
+    assert 0L==dif;
+    return b.build(); }
+
+  //--------------------------------------------------------------
+  // shifts
+  //--------------------------------------------------------------
+
+  public final UnboundedNatural shiftUp (final long upShift) {
+    assert 0L<=upShift;
+    if ((0L==upShift) || (0L==_n)) { return this; }
+    final long iShift = (upShift>>>5);
+    final int bShift = (int) (upShift&0x1F);
+    final Builder b = new Builder(_n+iShift+1L);
+    for (long i=0;i<iShift;i++) { b.append(0); }
+    if (0==bShift) {
+      for (final int[] tt : _chunks) {
+        for (final int ti : tt) { b.append(ti); } }
+      return b.build(); }
+    final int rShift = 32-bShift;
+    int prev = 0;
+    for (final int[] tt : _chunks) {
+      for (final int ti : tt) {
+        b.append((ti<<bShift)|(prev>>>rShift));
+        prev = ti; } }
+    b.append(prev>>>rShift);
+    return b.build(); }
+
+  public final UnboundedNatural shiftDown (final long downShift) {
+    assert 0L<=downShift;
+    if (0L==downShift) { return this; }
+    final long iShift = (downShift>>>5);
+    if (_n<=iShift) { return ZERO; }
+    final int bShift = (int) (downShift&0x1F);
+    final long n = _n-iShift;
+    final Builder b = new Builder(n);
+    if (0==bShift) {
+      for (long i=0;i<n;i++) { b.append(word(iShift+i)); }
+      return b.build(); }
+    final int rShift = 32-bShift;
+    for (long i=0;i<n;i++) {
+      final long j = iShift+i;
+      b.append((word(j)>>>bShift)|(word(j+1)<<rShift)); }
+    return b.build(); }
+
+  //--------------------------------------------------------------
+  // multiply
+  //--------------------------------------------------------------
+  // Operands are split into blocks, one per chunk, each wrapped,
+  // without copying, as a BoundedNatural, so block products use
+  // whichever of the schoolbook, Karatsuba, Toom-Cook 3 and NTT
+  // algorithms suits their size.
+  // The block products on a diagonal i+j=s are summed, and the
+  // sum added in at word CHUNK_WORDS*s. Diagonals are computed in
+  // parallel in BoundedNatural.multiplyPool(), a few at a time, so
+  // only a few block sums are held at once.
+
+  private final int nBlocks () { return _chunks.length; }
+
+  private final BoundedNatural block (final int i) {
+    return BoundedNatural.unsafe(_chunks[i]); }
+
+  /** Sum of the block products on diagonal <code>s</code>,
+   * or of the squares and doubled cross products if
+   * <code>u</code> is <code>null</code>.
+   */
+
+  private static final BoundedNatural diagonal (final UnboundedNatural t,
+                                                final UnboundedNatural u,
+                                                final int s) {
+    BoundedNatural sum = BoundedNatural.valueOf(0L);
+    if (null==u) {
+      final int nt = t.nBlocks();
+      for (int i=Math.max(0,s-nt+1);(2*i)<s;i++) {
+        sum = t.block(i).multiplyAdd(t.block(s-i),sum); }
+      sum = sum.shiftUp(1);
+      if (0==(s&1)) { sum = sum.add(t.block(s>>>1).square()); }
+      return sum; }
+    final int nt = t.nBlocks();
+    final int nu = u.nBlocks();
+    for (int i=Math.max(0,s-nu+1);(i<nt)&&(i<=s);i++) {
+      sum = t.block(i).multiplyAdd(u.block(s-i),sum); }
+    return sum; }
+
+  private static final class Diagonal
+  extends RecursiveTask<BoundedNatural> {
+    private static final long serialVersionUID = 1L;
+    private final transient UnboundedNatural t;
+    private final transient UnboundedNatural u;
+    private final int s;
+    @Override
+    protected final BoundedNatural compute () { return diagonal(t,u,s); }
+    Diagonal (final UnboundedNatural t0,
+              final UnboundedNatural u0,
+              final int s0) {
+      t = t0; u = u0; s = s0; } }
+
+  /** <code>ww[k..] += v</code>, carrying as far as needed.
+   * UNSAFE: modifies contents of ww.
+   */
+
+  private static final void addAt (final int[][] ww,
+                                   final BoundedNatural v,
+                                   final long k) {
+    final int nv = v.hiInt();
+    if (0==nv) { return; }
+    final int[] vv = v.words();
+    long sum = 0L;
+    long j = k;
+    for (int i=0;i<nv;i++,j++) {
+      final int[] wc = ww[chunk(j)];
+      final int o = offset(j);
+      sum += unsigned(wc[o]) + unsigned(vv[i]);
+      wc[o] = (int) sum;
+      sum = hiWord(sum); }
+    for (;0L!=sum;j++) {
+      final int[] wc = ww[chunk(j)];
+      final int o = offset(j);
+      sum += unsigned(wc[o]);
+      wc[o] = (int) sum;
+      sum = hiWord(sum); } }
+
+  /** <code>t*u</code>, or <code>t<sup>2</sup></code> if
+   * <code>u</code> is <code>null</code>.
+   */
+
+  private static final UnboundedNatural product (final UnboundedNatural t,
+                                                 final UnboundedNatural u) {
+    final long n = t._n + ((null==u) ? t._n : u._n);
+    final int nd =
+      t.nBlocks() + ((null==u) ? t.nBlocks() : u.nBlocks()) - 1;
+    final int[][] ww = new int[nChunks(n)][];
+    for (int k=0;k<ww.length;k++) {
+      ww[k] = new int[(int) Math.min(CHUNK_WORDS,n-(((long) k)<<CHUNK_BITS))]; }
+    final ForkJoinPool pool = BoundedNatural.multiplyPool();
+    final int batch =
+      ((null==pool) || (1>=pool.getParallelism()))
+      ? 1 : pool.getParallelism();
+    for (int s0=0;s0<nd;s0+=batch) {
+      final int s1 = Math.min(nd,s0+batch);
+      if (1==(s1-s0)) {
+        addAt(ww,diagonal(t,u,s0),((long) s0)<<CHUNK_BITS);
+        continue; }
+      final Diagonal[] tasks = new Diagonal[s1-s0];
+      for (int s=s0;s<s1;s++) { tasks[s-s0] = new Diagonal(t,u,s); }
+      if (ForkJoinTask.getPool()==pool) { ForkJoinTask.invokeAll(tasks); }
+      else {
+        pool.invoke(new RecursiveTask<Void>() {
+          private static final long serialVersionUID = 1L;
+          @Override
+          protected final Void compute () {
+            ForkJoinTask.invokeAll(tasks);
+            return null; } }); }
+      for (int s=s0;s<s1;s++) {
+        addAt(ww,tasks[s-s0].join(),((long) s)<<CHUNK_BITS); } }
+    long hi = n;
+    while ((0L<hi) && (0==ww[chunk(hi-1L)][offset(hi-1L)])) { hi--; }
+    return trimmed(ww,hi); }
+
+  @Override
+  public final UnboundedNatural multiply (final UnboundedNatural u) {
+    if ((0L==_n) || (0L==u._n)) { return ZERO; }
+    return product(this,u); }
+
+  @Override
+  public final UnboundedNatural square () {
+    if (0L==_n) { return ZERO; }
+    return product(this,null); }
 
   //--------------------------------------------------------------
   // Comparable
@@ -109,20 +413,17 @@ implements Comparable<UnboundedNatural> {
 
   @Override
   public final int compareTo (final UnboundedNatural u) {
-    Words tt = words;
-    Words uu = u.words;
-    int result = 0;
-    for (;(null!=tt)&&(null!=uu); tt=tt.next,uu=uu.next) {
-      final int c = Integer.compareUnsigned(tt.word,uu.word);
-      if (c<0) { result = -1; }
-      else if (c>0) { result = 1; } }
-    if (null==tt) {
-      for (;null!=uu;uu=uu.next) {
-        if (0!=uu.word) { return -1; } } }
-    else {
-      for (;null!=tt;tt=tt.next) {
-        if (0!=tt.word) { return 1; } } }
-    return result; }
+    if (this==u) { return 0; }
+    if (_n<u._n) { return -1; }
+    if (_n>u._n) { return 1; }
+    // same chunk lengths; most significant first
+    for (int k=_chunks.length-1;k>=0;k--) {
+      final int[] tt = _chunks[k];
+      final int[] uu = u._chunks[k];
+      for (int i=tt.length-1;i>=0;i--) {
+        if (tt[i]!=uu[i]) {
+          return Integer.compareUnsigned(tt[i],uu[i]); } } }
+    return 0; }
 
   //--------------------------------------------------------------
   // Object methods
@@ -132,32 +433,18 @@ implements Comparable<UnboundedNatural> {
   public final int hashCode () {
     final int prime = 31;
     int c = 1;
-    Words tt = words;
-    while (null != tt) {
-      c = (int) ((prime * c) + unsigned(tt.word));
-      tt = tt.next; }
+    for (final int[] tt : _chunks) {
+      for (final int ti : tt) {
+        c = (int) ((prime * c) + unsigned(ti)); } }
     return c; }
 
   @Override
   public final boolean equals (final Object x) {
     if (x==this) { return true; }
     if (!(x instanceof final UnboundedNatural u)) { return false; }
-    Words tt = words;
-    Words uu = u.words;
-    while ((null!=tt)&&(null!=uu)) {
-      final int ti = tt.word;
-      final int ui = uu.word;
-      if (ti!=ui) { return false; }
-      tt = tt.next;
-      uu = uu.next; }
-    if (null==tt) {
-      while (null!=uu) {
-        if (0!=uu.word) { return false; }
-        uu = uu.next; } }
-    else {
-      while (null!=tt) {
-        if (0!=tt.word) { return false; }
-        tt = tt.next; } }
+    if (_n!=u._n) { return false; }
+    for (int k=0;k<_chunks.length;k++) {
+      if (! Arrays.equals(_chunks[k],u._chunks[k])) { return false; } }
     return true; }
 
   //--------------------------------------------------------------
@@ -175,9 +462,9 @@ implements Comparable<UnboundedNatural> {
     return new GeneratorBase ("UnboundedNaturalRandomBits:" + n) {
       @Override
       public final Object next () {
-        Words w = null;
-        for (long i=0;i<n;i++) { w = new Words(ig.nextInt(),w); }
-        return new UnboundedNatural(w); } }; }
+        final Builder b = new Builder(n);
+        for (long i=0;i<n;i++) { b.append(ig.nextInt()); }
+        return b.build(); } }; }
 
   /** Intended primarily for testing.
    * For now, just a relatively small number of random bits.
@@ -212,35 +499,52 @@ implements Comparable<UnboundedNatural> {
   // construction
   //-------------------------------------------------------------
 
-  private UnboundedNatural (final Words w) { words = w; }
+  private UnboundedNatural (final int[][] chunks,
+                            final long n) {
+    _chunks = chunks;
+    _n = n; }
 
   public static final UnboundedNatural
   valueOf (final BoundedNatural u) {
     final int n = u.hiInt();
-    Words r = null;
-    for (int i=0;i<n;i++) { r = new Words(u.word(i),r); }
-    return new UnboundedNatural(reverse(r)); }
-
-  private static final UnboundedNatural fromBigEndianBytes (final byte[] a) {
-    final int nBytes = a.length;
-    int keep = 0;
-    while ((keep<nBytes) && (0==a[keep])) { keep++; }
-    Words r = null;
-    final int nInts = ((nBytes-keep) + 3) >>> 2;
-    int b = nBytes-1;
-    for (int i = nInts - 1; i >= 0; i--) {
-      int ri = a[b--] & 0xff;
-      final int bytesRemaining = (b - keep) + 1;
-      final int bytesToTransfer = Math.min(3,bytesRemaining);
-      for (int j = 8; j <= (bytesToTransfer << 3); j += 8) {
-        ri |= ((a[b--] & 0xff) << j); }
-    r = new Words(ri,r); }
-    return new UnboundedNatural(reverse(r)); }
+    if (0==n) { return ZERO; }
+    final int[] words = u.words();
+    final int k = nChunks(n);
+    final int[][] cc = new int[k][];
+    for (int j=0;j<k;j++) {
+      final int i0 = j<<CHUNK_BITS;
+      cc[j] = Arrays.copyOfRange(words,i0,Math.min(n,i0+CHUNK_WORDS)); }
+    return new UnboundedNatural(cc,n); }
 
   public static final UnboundedNatural
   valueOf (final BigInteger u) {
     assert 0<=u.signum();
-    return fromBigEndianBytes(u.toByteArray()); }
+    return valueOf(BoundedNatural.valueOf(u)); }
+
+  //--------------------------------------------------------------
+  // conversion
+  //--------------------------------------------------------------
+  /** Copies the words into one array.
+   * @throws ArithmeticException if this has more than
+   * {@link NaturalInts#MAX_WORDS} words.
+   */
+
+  public final BoundedNatural toBoundedNatural () {
+    if (_n>NaturalInts.MAX_WORDS) {
+      throw new ArithmeticException(
+        "too large for BoundedNatural: " + _n + " words"); }
+    final int[] w = new int[(int) _n];
+    for (int k=0;k<_chunks.length;k++) {
+      System.arraycopy(
+        _chunks[k],0,w,k<<CHUNK_BITS,_chunks[k].length); }
+    return BoundedNatural.unsafe(w); }
+
+  /** @throws ArithmeticException if this has more than
+   * {@link NaturalInts#MAX_WORDS} words.
+   */
+
+  public final BigInteger toBigInteger () {
+    return toBoundedNatural().toBigInteger(); }
 
   //--------------------------------------------------------------
   // mathematical structures using NaiveUnboundedNatural
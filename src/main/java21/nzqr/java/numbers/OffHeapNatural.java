@@ -0,0 +1,489 @@
+package nzqr.java.numbers;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static nzqr.java.numbers.Numbers.hiWord;
+import static nzqr.java.numbers.Numbers.loWord;
+import static nzqr.java.numbers.Numbers.unsigned;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+
+/** Immutable natural numbers whose words live in a
+ * {@link MemorySegment}, usually off the Java heap, so very
+ * large values aren't limited to
+ * {@link NaturalInts#MAX_WORDS} and aren't copied by the
+ * garbage collector.
+ * <br>
+ * Same representation as {@link BoundedNatural}:
+ * little-endian unsigned 32 bit words, but indexed by
+ * <code>long</code>.
+ * <br>
+ * Each instance belongs to an {@link Arena}, the one its
+ * words were allocated in, and results of arithmetic
+ * on it are allocated in the same arena, unless another
+ * one is passed explicitly.
+ * Closing the arena frees all of them at once; using any of
+ * them afterwards throws {@link IllegalStateException}.
+ * Instances that wrap a heap <code>int[]</code>, from
+ * {@link #valueOf(BoundedNatural)}, have no arena;
+ * their results go in a new automatic arena, freed by the
+ * garbage collector.
+ * <br>
+ * Multiplication of long operands splits them into chunks of
+ * at most {@link #CHUNK_WORDS} words, multiplies the chunks
+ * as (short-lived) {@link BoundedNatural}s, with the
+ * subquadratic algorithms there, and accumulates the partial
+ * products in place.
+ * <br>
+ * Needs the Java 21 foreign memory API, so this is in a
+ * separate source set, <code>src/main/java21</code>, compiled
+ * only by the <code>java21</code> profile; the rest of the
+ * library stays on the Java 17 API.
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class OffHeapNatural
+implements Ringlike<OffHeapNatural> {
+
+  //--------------------------------------------------------------
+  // fields
+  //--------------------------------------------------------------
+  /** Little-endian unsigned ints, never modified after
+   * construction. May have leading zero words.
+   */
+
+  private final MemorySegment _words;
+
+  /** Number of words up to and including the highest
+   * non-zero one.
+   */
+
+  private final long _n;
+
+  /** Where results go; <code>null</code> means a new
+   * automatic arena.
+   */
+
+  private final Arena _arena;
+
+  /** Read-only view of the words, including any leading
+   * zeros; eg for writing to a file channel.
+   */
+
+  public final MemorySegment segment () {
+    return _words.asReadOnly(); }
+
+  /** Number of words, not counting leading zeros. */
+
+  public final long hiInt () { return _n; }
+
+  public final long hiBit () {
+    if (0L==_n) { return 0L; }
+    return (32L*_n)
+      - Integer.numberOfLeadingZeros(word(_words,_n-1)); }
+
+  //--------------------------------------------------------------
+  // word access
+  //--------------------------------------------------------------
+
+  private static final int word (final MemorySegment m,
+                                 final long i) {
+    return m.getAtIndex(JAVA_INT,i); }
+
+  private static final void setWord (final MemorySegment m,
+                                     final long i,
+                                     final int w) {
+    m.setAtIndex(JAVA_INT,i,w); }
+
+  private static final long hiInt (final MemorySegment m) {
+    long i = (m.byteSize()>>>2)-1L;
+    while ((0L<=i) && (0==word(m,i))) { i--; }
+    return i+1L; }
+
+  /** Not necessarily zeroed, depending on the arena. */
+
+  private static final MemorySegment allocate (final Arena arena,
+                                               final long nwords) {
+    return arena.allocate(4L*nwords,Integer.BYTES); }
+
+  private final Arena arena () {
+    return (null==_arena) ? Arena.ofAuto() : _arena; }
+
+  /** Words <code>[i,i+n)</code>, clipped to the significant
+   * ones, copied into a heap {@link BoundedNatural}.
+   */
+
+  private final BoundedNatural chunk (final long i,
+                                      final int n) {
+    final int m = (int) Math.min(n,_n-i);
+    final int[] w = new int[m];
+    MemorySegment.copy(_words,JAVA_INT,4L*i,w,0,m);
+    return BoundedNatural.unsafe(w); }
+
+  //--------------------------------------------------------------
+  // ordering
+  //--------------------------------------------------------------
+
+  @Override
+  public final int compareTo (final OffHeapNatural u) {
+    if (_n<u._n) { return -1; }
+    if (_n>u._n) { return 1; }
+    for (long i=_n-1;i>=0L;i--) {
+      final int ti = word(_words,i);
+      final int ui = word(u._words,i);
+      if (ti!=ui) { return Integer.compareUnsigned(ti,ui); } }
+    return 0; }
+
+  //--------------------------------------------------------------
+  // Ringlike
+  //--------------------------------------------------------------
+
+  @Override
+  public final boolean isZero () { return 0L==_n; }
+
+  @Override
+  public final OffHeapNatural zero () { return ZERO; }
+
+  @Override
+  public final boolean isOne () {
+    return (1L==_n) && (1==word(_words,0)); }
+
+  @Override
+  public final OffHeapNatural one () { return ONE; }
+
+  @Override
+  public final OffHeapNatural abs () { return this; }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final OffHeapNatural add (final OffHeapNatural u) {
+    return add(u,arena()); }
+
+  public final OffHeapNatural add (final OffHeapNatural u,
+                                   final Arena arena) {
+    if (_n<u._n) { return u.add(this,arena); }
+    final MemorySegment tt = _words;
+    final MemorySegment uu = u._words;
+    final long nt = _n;
+    final long nu = u._n;
+    final MemorySegment vv = allocate(arena,nt+1);
+    long sum = 0L;
+    long i = 0L;
+    for (;i<nu;i++) {
+      sum += unsigned(word(tt,i)) + unsigned(word(uu,i));
+      setWord(vv,i,(int) sum);
+      sum = hiWord(sum); }
+    for (;(0L!=sum) && (i<nt);i++) {
+      sum += unsigned(word(tt,i));
+      setWord(vv,i,(int) sum);
+      sum = hiWord(sum); }
+    if (i<nt) { MemorySegment.copy(tt,4L*i,vv,4L*i,4L*(nt-i)); }
+    setWord(vv,nt,(int) sum);
+    return new OffHeapNatural(vv,arena); }
+
+  //--------------------------------------------------------------
+
+  @Override
+  public final OffHeapNatural subtract (final OffHeapNatural u) {
+    return subtract(u,arena()); }
+
+  public final OffHeapNatural subtract (final OffHeapNatural u,
+                                        final Arena arena) {
+    assert 0<=compareTo(u);
+    final MemorySegment tt = _words;
+    final MemorySegment uu = u._words;
+    final long nt = _n;
+    final long nu = u._n;
+    final MemorySegment vv = allocate(arena,nt);
+    long dif = 0L;
+    long i = 0L;
+    for (;i<nu;i++) {
+      dif += unsigned(word(tt,i)) - unsigned(word(uu,i));
+      setWord(vv,i,(int) dif);
+      dif = (dif>>32); }
+    for (;(0L!=dif) && (i<nt);i++) {
+      dif += unsigned(word(tt,i));
+      setWord(vv,i,(int) dif);
+      dif = (dif>>32); }
+    if (i<nt) { MemorySegment.copy(tt,4L*i,vv,4L*i,4L*(nt-i)); }
+    return new OffHeapNatural(vv,arena); }
+
+  //--------------------------------------------------------------
+  /** Below this many words, in the shorter operand,
+   * multiply directly in the segments.
+   */
+
+  private static final int SCHOOLBOOK_WORDS = 64;
+
+  /** Chunk size for multiplying longer operands: big enough
+   * that the chunk products are well into the subquadratic
+   * algorithms, small enough that the heap temporaries are
+   * cheap to collect.
+   */
+
+  public static final int CHUNK_WORDS = 1<<20;
+
+  /** Add <code>p</code> into <code>vv</code>, starting at word
+   * <code>offset</code>, propagating the carry.
+   */
+
+  private static final void addAt (final MemorySegment vv,
+                                   final long offset,
+                                   final BoundedNatural p) {
+    final int[] pp = p.words();
+    final int np = p.hiInt();
+    long sum = 0L;
+    long i = offset;
+    for (int j=0;j<np;j++,i++) {
+      sum += unsigned(word(vv,i)) + unsigned(pp[j]);
+      setWord(vv,i,(int) sum);
+      sum = hiWord(sum); }
+    for (;0L!=sum;i++) {
+      sum += unsigned(word(vv,i));
+      setWord(vv,i,(int) sum);
+      sum = hiWord(sum); } }
+
+  @Override
+  public final OffHeapNatural multiply (final OffHeapNatural u) {
+    return multiply(u,arena()); }
+
+  public final OffHeapNatural multiply (final OffHeapNatural u,
+                                        final Arena arena) {
+    if (_n<u._n) { return u.multiply(this,arena); }
+    final long nt = _n;
+    final long nu = u._n;
+    final MemorySegment vv = allocate(arena,nt+nu);
+    vv.fill((byte) 0);
+    if (0L==nu) { return new OffHeapNatural(vv,arena); }
+    if (nu<=SCHOOLBOOK_WORDS) {
+      final MemorySegment tt = _words;
+      final MemorySegment uu = u._words;
+      for (long j=0;j<nu;j++) {
+        final long uj = unsigned(word(uu,j));
+        if (0L==uj) { continue; }
+        long carry = 0L;
+        for (long i=0;i<nt;i++) {
+          // fits: (2^32-1)^2 + 2*(2^32-1) = 2^64-1
+          final long p =
+            (unsigned(word(tt,i))*uj) + unsigned(word(vv,i+j)) + carry;
+          setWord(vv,i+j,(int) p);
+          carry = (p>>>32); }
+        setWord(vv,j+nt,(int) carry); } }
+    else {
+      for (long j=0;j<nu;j+=CHUNK_WORDS) {
+        final BoundedNatural uj = u.chunk(j,CHUNK_WORDS);
+        if (uj.isZero()) { continue; }
+        for (long i=0;i<nt;i+=CHUNK_WORDS) {
+          addAt(vv,i+j,chunk(i,CHUNK_WORDS).multiply(uj)); } } }
+    return new OffHeapNatural(vv,arena); }
+
+  /** Each off-diagonal product once, doubled, plus the
+   * diagonal squares: about half the word products of
+   * {@link #multiply(OffHeapNatural)}.
+   */
+
+  @Override
+  public final OffHeapNatural square () { return square(arena()); }
+
+  public final OffHeapNatural square (final Arena arena) {
+    final long nt = _n;
+    final MemorySegment vv = allocate(arena,2*nt);
+    vv.fill((byte) 0);
+    if (0L==nt) { return new OffHeapNatural(vv,arena); }
+    if (nt<=SCHOOLBOOK_WORDS) {
+      final MemorySegment tt = _words;
+      for (long j=0;j<nt-1;j++) {
+        final long tj = unsigned(word(tt,j));
+        if (0L==tj) { continue; }
+        long carry = 0L;
+        for (long i=j+1;i<nt;i++) {
+          final long p =
+            (unsigned(word(tt,i))*tj) + unsigned(word(vv,i+j)) + carry;
+          setWord(vv,i+j,(int) p);
+          carry = (p>>>32); }
+        setWord(vv,j+nt,(int) carry); }
+      // double, in place
+      int w0 = 0;
+      for (long i=0;i<2*nt;i++) {
+        final int w1 = word(vv,i);
+        setWord(vv,i,(w1<<1)|(w0>>>31));
+        w0 = w1; }
+      // add the diagonal
+      long sum = 0L;
+      for (long i=0;i<nt;i++) {
+        final long ti = unsigned(word(tt,i));
+        final long d = ti*ti;
+        sum += unsigned(word(vv,2*i)) + loWord(d);
+        setWord(vv,2*i,(int) sum);
+        sum = hiWord(sum);
+        sum += unsigned(word(vv,2*i+1)) + (d>>>32);
+        setWord(vv,2*i+1,(int) sum);
+        sum = hiWord(sum); }
+      assert 0L==sum; }
+    else {
+      for (long j=0;j<nt;j+=CHUNK_WORDS) {
+        final BoundedNatural tj = chunk(j,CHUNK_WORDS);
+        if (tj.isZero()) { continue; }
+        addAt(vv,2*j,tj.square());
+        for (long i=j+CHUNK_WORDS;i<nt;i+=CHUNK_WORDS) {
+          addAt(vv,i+j,chunk(i,CHUNK_WORDS).multiply(tj).shiftUp(1)); } } }
+    return new OffHeapNatural(vv,arena); }
+
+  //--------------------------------------------------------------
+  // shifts
+  //--------------------------------------------------------------
+
+  public final OffHeapNatural shiftUp (final long upShift) {
+    return shiftUp(upShift,arena()); }
+
+  public final OffHeapNatural shiftUp (final long upShift,
+                                       final Arena arena) {
+    assert 0L<=upShift;
+    if (0L==_n) { return this; }
+    final long iShift = (upShift>>>5);
+    final int bShift = (int) (upShift&0x1FL);
+    final long nt = _n;
+    final MemorySegment vv = allocate(arena,nt+iShift+1);
+    vv.asSlice(0L,4L*iShift).fill((byte) 0);
+    if (0==bShift) {
+      MemorySegment.copy(_words,0L,vv,4L*iShift,4L*nt);
+      setWord(vv,nt+iShift,0); }
+    else {
+      final int rShift = 32-bShift;
+      int w0 = 0;
+      for (long i=0;i<nt;i++) {
+        final int w1 = word(_words,i);
+        setWord(vv,i+iShift,(w1<<bShift)|(w0>>>rShift));
+        w0 = w1; }
+      setWord(vv,nt+iShift,w0>>>rShift); }
+    return new OffHeapNatural(vv,arena); }
+
+  public final OffHeapNatural shiftDown (final long downShift) {
+    return shiftDown(downShift,arena()); }
+
+  public final OffHeapNatural shiftDown (final long downShift,
+                                         final Arena arena) {
+    assert 0L<=downShift;
+    final long iShift = (downShift>>>5);
+    final int bShift = (int) (downShift&0x1FL);
+    if (iShift>=_n) { return ZERO; }
+    final long nv = _n-iShift;
+    final MemorySegment vv = allocate(arena,nv);
+    if (0==bShift) {
+      MemorySegment.copy(_words,4L*iShift,vv,0L,4L*nv); }
+    else {
+      final int rShift = 32-bShift;
+      for (long i=0;i<nv;i++) {
+        final long j = i+iShift;
+        final int w1 = (j+1<_n) ? word(_words,j+1) : 0;
+        setWord(vv,i,(w1<<rShift)|(word(_words,j)>>>bShift)); } }
+    return new OffHeapNatural(vv,arena); }
+
+  //--------------------------------------------------------------
+  // conversion
+  //--------------------------------------------------------------
+  /** Without copying, if this wraps a whole heap
+   * <code>int[]</code>.
+   * @throws ArithmeticException if this has more than
+   * {@link NaturalInts#MAX_WORDS} words.
+   */
+
+  public final BoundedNatural toBoundedNatural () {
+    if (_n>NaturalInts.MAX_WORDS) {
+      throw new ArithmeticException(
+        "too large for BoundedNatural: " + _n + " words"); }
+    if ((0L==_words.address())
+      && (_words.heapBase().orElse(null) instanceof final int[] w)
+      && ((4L*w.length)==_words.byteSize())) {
+      return BoundedNatural.unsafe(w); }
+    return chunk(0L,(int) _n); }
+
+  public final java.math.BigInteger toBigInteger () {
+    return toBoundedNatural().toBigInteger(); }
+
+  //--------------------------------------------------------------
+  // Object methods
+  //--------------------------------------------------------------
+  /** Same as {@link BoundedNatural#hashCode()}. */
+
+  @Override
+  public final int hashCode () {
+    int hashCode = 0;
+    for (long i=0; i<_n; i++) {
+      hashCode = ((31 * hashCode) + word(_words,i)); }
+    return hashCode; }
+
+  @Override
+  public final boolean equals (final Object x) {
+    if (x==this) { return true; }
+    if (!(x instanceof final OffHeapNatural u)) { return false; }
+    if (_n!=u._n) { return false; }
+    return -1L == MemorySegment.mismatch(
+      _words,0L,4L*_n,u._words,0L,4L*_n); }
+
+  public final String toHexString () {
+    final StringBuilder b = new StringBuilder();
+    final long n = _n-1;
+    if (0L>n) { b.append('0'); }
+    else {
+      b.append(Integer.toHexString(word(_words,n)));
+      for (long i=n-1;i>=0L;i--) {
+        b.append(String.format("%08x",
+          Long.valueOf(unsigned(word(_words,i))))); } }
+    return b.toString(); }
+
+  /** hex string. */
+  @Override
+  public final String toString () { return toHexString(); }
+
+  //--------------------------------------------------------------
+  // construction
+  //--------------------------------------------------------------
+
+  private OffHeapNatural (final MemorySegment words,
+                          final Arena arena) {
+    _words = words;
+    _n = hiInt(words);
+    _arena = arena; }
+
+  /** Wrap the words of <code>u</code>, without copying.
+   * Results of arithmetic on this go in new automatic arenas.
+   */
+
+  public static final OffHeapNatural valueOf (final BoundedNatural u) {
+    return new OffHeapNatural(
+      MemorySegment.ofArray(u.words()),null); }
+
+  /** Copy the words of <code>u</code> into <code>arena</code>.
+   */
+
+  public static final OffHeapNatural valueOf (final BoundedNatural u,
+                                              final Arena arena) {
+    final int n = u.hiInt();
+    final MemorySegment m = allocate(arena,n);
+    MemorySegment.copy(u.words(),0,m,JAVA_INT,0L,n);
+    return new OffHeapNatural(m,arena); }
+
+  /** Copy unsigned 32 bit words, least significant first, in
+   * native byte order, eg read from a
+   * memory mapped file, into <code>arena</code>.
+   */
+
+  public static final OffHeapNatural copyOf (final MemorySegment words,
+                                             final Arena arena) {
+    final MemorySegment m = allocate(arena,words.byteSize()>>>2);
+    MemorySegment.copy(words,0L,m,0L,m.byteSize());
+    return new OffHeapNatural(m,arena); }
+
+  public static final OffHeapNatural ZERO =
+    valueOf(BoundedNatural.ZERO);
+
+  public static final OffHeapNatural ONE =
+    valueOf(BoundedNatural.ONE);
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
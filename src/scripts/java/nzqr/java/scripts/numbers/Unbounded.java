@@ -27,6 +27,12 @@ public final class Unbounded {
    *  <tr> <td>1L+( 2L*MAX_WORDS)</td> <td> 30</td> </tr>
    *  <tr> <td>1L+( 4L*MAX_WORDS)</td> <td>OOM</td> </tr>
    * </table>
+   * With <code>int[]</code> chunks, rather than a linked list
+   * node per word, passes in a 4g JVM:
+   * <table>
+   *  <tr> <th>nwords</th>     <th>sec</th> </tr>
+   *  <tr> <td>1L+( 4L*MAX_WORDS)</td> <td>  5.5</td> </tr>
+   * </table>
    */
 
   private static final void noOverflow () {
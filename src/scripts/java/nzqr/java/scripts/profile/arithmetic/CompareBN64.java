@@ -0,0 +1,117 @@
+package nzqr.java.scripts.profile.arithmetic;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.function.BinaryOperator;
+
+import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.BoundedNatural64;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+
+//----------------------------------------------------------------
+/** Compare 32 bit word {@link BoundedNatural} and 64 bit limb
+ * {@link BoundedNatural64} arithmetic, across operand sizes.
+ * Prints nanoseconds per operation for each, and the ratio.
+ * <p>
+ * <pre>
+ * jy --enable-preview --source 21 src/scripts/java/nzqr/java/scripts/profile/arithmetic/CompareBN64.java
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class CompareBN64 {
+
+  /** Default operand sizes in 32 bit words;
+   * override with command line arguments.
+   */
+
+  private static final int[] NWORDS =
+  { 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 4096, };
+
+  /** About this many word operations per timing. */
+
+  private static final long WORK = 1L << 26;
+
+  private static final int ITERATIONS = 5;
+
+  private static final Generator generator (final int nwords) {
+    return Generators.bigIntegerGenerator(
+      4*nwords,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt")); }
+
+  /** Nanoseconds per operation, best of
+   * {@link #ITERATIONS}.
+   */
+
+  private static final <T> double time (final BinaryOperator<T> op,
+                                        final T[] x0,
+                                        final T[] x1,
+                                        final Object[] y) {
+    final int n = x0.length;
+    double best = Double.POSITIVE_INFINITY;
+    for (int k=0;k<ITERATIONS;k++) {
+      final long t0 = System.nanoTime();
+      for (int i=0;i<n;i++) { y[i] = op.apply(x0[i],x1[i]); }
+      best = Math.min(best,(System.nanoTime()-t0)/(double) n); }
+    return best; }
+
+  private static final void compare (final String name,
+                                     final int nwords,
+                                     final int nops,
+                                     final BinaryOperator<BoundedNatural> op32,
+                                     final BinaryOperator<BoundedNatural64> op64,
+                                     final boolean dividend) {
+    final Generator g = generator(nwords);
+    final BoundedNatural[] a0 = new BoundedNatural[nops];
+    final BoundedNatural[] a1 = new BoundedNatural[nops];
+    final BoundedNatural64[] b0 = new BoundedNatural64[nops];
+    final BoundedNatural64[] b1 = new BoundedNatural64[nops];
+    for (int i=0;i<nops;i++) {
+      BigInteger z0 = ((BigInteger) g.next()).abs();
+      final BigInteger z1 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      // twice as long as the divisor
+      if (dividend) { z0 = z0.multiply(z1); }
+      a0[i] = BoundedNatural.valueOf(z0);
+      a1[i] = BoundedNatural.valueOf(z1);
+      b0[i] = BoundedNatural64.valueOf(a0[i]);
+      b1[i] = BoundedNatural64.valueOf(a1[i]); }
+    final Object[] y = new Object[nops];
+    final double t32 = time(op32,a0,a1,y);
+    final double t64 = time(op64,b0,b1,y);
+    System.out.printf("%-10s %6d %14.1f %14.1f %8.2f%n",
+      name,Integer.valueOf(nwords),
+      Double.valueOf(t32),Double.valueOf(t64),
+      Double.valueOf(t32/t64)); }
+
+  //--------------------------------------------------------------
+
+  public static final void main (final String[] args) {
+    System.out.printf("%-10s %6s %14s %14s %8s%n",
+      "op","words","ns 32","ns 64","32/64");
+    final int[] nwords =
+      (0==args.length)
+      ? NWORDS
+        : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+    for (final int n : nwords) {
+      final int linear = (int) Math.max(16,Math.min(1<<16,WORK/n));
+      final int quadratic =
+        (int) Math.max(4,Math.min(1<<16,WORK/((long) n*n)));
+      compare("add",n,linear,
+        BoundedNatural::add,BoundedNatural64::add,false);
+      compare("multiply",n,quadratic,
+        BoundedNatural::multiply,BoundedNatural64::multiply,false);
+      compare("square",n,quadratic,
+        (x0,x1) -> x0.square(),(x0,x1) -> x0.square(),false);
+      compare("divide",n,quadratic,
+        BoundedNatural::divide,BoundedNatural64::divide,true);
+      compare("convert",n,linear,
+        (x0,x1) -> BoundedNatural64.valueOf(x0).toBoundedNatural(),
+        (x0,x1) -> BoundedNatural64.valueOf(x0.toBoundedNatural()),
+        false); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,74 @@
+package nzqr.java.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+
+//----------------------------------------------------------------
+/** Test gcd and extended gcd with small thresholds, so Lehmer
+ * and recursive half-gcd run on numbers of moderate size,
+ * below the default thresholds. In this package, because the
+ * threshold overloads are package-private.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/numbers/NaturalGCDTest test > NaturalGCDTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class NaturalGCDTest {
+
+  /** <code>{lehmer,halfGcd,base}</code>, in words. */
+
+  private static final int[][] THRESHOLDS = {
+    { 2, 16, 8, },
+    { 4, 24, 4, },
+    { 4, 64, 16, },
+    { 4, Integer.MAX_VALUE, Integer.MAX_VALUE, }, };
+
+  private static final void check (final BigInteger z0,
+                                   final BigInteger z1) {
+    final BigInteger g = z0.gcd(z1);
+    final BoundedNatural u = BoundedNatural.valueOf(z0);
+    final BoundedNatural v = BoundedNatural.valueOf(z1);
+    for (final int[] t : THRESHOLDS) {
+      assertEquals(g,
+        NaturalGCD.gcd(u,v,t[0],t[1],t[2]).toBigInteger());
+      final BoundedNatural[] gxy =
+        NaturalGCD.extendedGcd(u,v,t[1],t[2]);
+      final BigInteger x = gxy[1].toBigInteger();
+      final BigInteger y = gxy[2].toBigInteger();
+      assertEquals(g,gxy[0].toBigInteger());
+      assertEquals(g,x.multiply(z0).subtract(y.multiply(z1)));
+      assertTrue(0 >= x.compareTo(z1.divide(g)));
+      assertTrue(0 >= y.compareTo(z0.divide(g))); } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void smallThresholds () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*400,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    for (int i=0;i<16;i++) {
+      final BigInteger z0 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final BigInteger z1 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final BigInteger z2 =
+        ((BigInteger) g.next()).abs().shiftRight(32*((23*i)%400))
+        .add(BigInteger.ONE);
+      check(z0,z1);
+      check(z0.multiply(z2),z1.multiply(z2));
+      check(z0.multiply(z1),z1);
+      check(z0,z0.add(BigInteger.ONE)); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,99 @@
+package nzqr.java.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+//----------------------------------------------------------------
+/** Test loading threshold profiles, and falling back to
+ * defaults. In this package, because the loader is
+ * package-private.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/numbers/NaturalThresholdsTest test > NaturalThresholdsTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class NaturalThresholdsTest {
+
+  private static final String KEY =
+    "NaturalMultiply.KARATSUBA_THRESHOLD";
+
+  private static final Path profile (final String text)
+    throws IOException {
+    final Path f = Files.createTempFile("nzqr-thresholds",".properties");
+    f.toFile().deleteOnExit();
+    Files.writeString(f,text,StandardCharsets.UTF_8);
+    return f; }
+
+  /** Nothing read, and every key gets its default. */
+
+  private static final void assertFallback (final Properties p,
+                                            final String source,
+                                            final String file) {
+    assertTrue(
+      source.startsWith("defaults, can't read " + file),source);
+    assertTrue(p.isEmpty(),p::toString);
+    assertEquals(80,NaturalThresholds.get(p,KEY,80,8)); }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void override () throws IOException {
+    final Path f = profile(
+      KEY + "=96\n"
+      + "NaturalMultiply.TOOM_COOK_THRESHOLD = 300 \n"
+      + "NaturalMultiply.MULTIPLY_SQUARE_THRESHOLD=twenty\n"
+      + "BoundedNatural.KARATSUBA_SQUARE_THRESHOLD=4\n");
+    final Properties p = new Properties();
+    assertEquals(f.toString(),NaturalThresholds.load(p,f.toString()));
+    assertEquals(96,NaturalThresholds.get(p,KEY,80,8));
+    assertEquals(300,
+      NaturalThresholds.get(p,"NaturalMultiply.TOOM_COOK_THRESHOLD",240,16));
+    // malformed, below the minimum, or missing: default
+    assertEquals(20,
+      NaturalThresholds.get(p,"NaturalMultiply.MULTIPLY_SQUARE_THRESHOLD",20,1));
+    assertEquals(128,
+      NaturalThresholds.get(p,"BoundedNatural.KARATSUBA_SQUARE_THRESHOLD",128,8));
+    assertEquals(216,
+      NaturalThresholds.get(p,"BoundedNatural.TOOM_COOK_SQUARE_THRESHOLD",216,16)); }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void fallback () throws IOException {
+    // missing file
+    final Path dir = Files.createTempDirectory("nzqr-thresholds");
+    dir.toFile().deleteOnExit();
+    final String missing = dir.resolve("missing.properties").toString();
+    final Properties p0 = new Properties();
+    assertFallback(p0,NaturalThresholds.load(p0,missing),missing);
+
+    // not a path: InvalidPathException
+    final String bad = "bad\u0000path";
+    final Properties p1 = new Properties();
+    assertFallback(p1,NaturalThresholds.load(p1,bad),bad);
+
+    // malformed unicode escape, after a good entry:
+    // IllegalArgumentException, and nothing kept
+    final String malformed =
+      profile(KEY + "=96\nx=\\uZZZZ\n").toString();
+    final Properties p2 = new Properties();
+    assertFallback(p2,NaturalThresholds.load(p2,malformed),malformed);
+
+    // no file and no resource
+    final Properties p3 = new Properties();
+    assertEquals("defaults",NaturalThresholds.load(p3,null));
+    assertEquals(80,NaturalThresholds.get(p3,KEY,80,8)); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -0,0 +1,60 @@
+package nzqr.java.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+
+//----------------------------------------------------------------
+/** Test reusing a reciprocal for dividends longer than it was
+ * made for. In this package, because reciprocals are
+ * package-private.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/numbers/NewtonDivisionTest test > NewtonDivisionTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class NewtonDivisionTest {
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void widerReciprocal () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*200,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    final BigInteger z1 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+    final BoundedNatural d = BoundedNatural.valueOf(z1);
+    final NewtonDivision.Reciprocal r =
+      new NewtonDivision.Reciprocal(d,d.hiBit()+1);
+    final int p0 = r.precision();
+    assertSame(r,r.withPrecision(p0));
+    // computed once, then reused for anything it covers
+    final NewtonDivision.Reciprocal r1 = r.withPrecision(p0+1);
+    assertTrue(2*p0 <= r1.precision());
+    assertSame(r1,r.withPrecision(p0+1));
+    assertSame(r1,r.withPrecision(r1.precision()));
+    assertTrue(r1.precision() < r.withPrecision(r1.precision()+1).precision());
+    // dividends growing past each precision
+    BigInteger z0 = z1.multiply(z1).add(BigInteger.ONE);
+    for (int i=0;i<16;i++) {
+      final BigInteger[] qr = z0.divideAndRemainder(z1);
+      final BoundedNatural[] qr1 =
+        NewtonDivision.divideAndRemainder(BoundedNatural.valueOf(z0),r);
+      assertEquals(qr[0],qr1[0].toBigInteger());
+      assertEquals(qr[1],qr1[1].toBigInteger());
+      z0 = z0.shiftLeft(97*i).add((BigInteger) g.next()).abs(); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -28,7 +28,7 @@ import nzqr.java.prng.PRNG;
 /** Test utilities
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2022-11-07
+ * @version 2026-10-17
  */
 @SuppressWarnings("unchecked")
 public final class Common {
@@ -447,6 +447,46 @@ public final class Common {
       + "\n" + y2[1].toString()
       + "\n" + x3[1].toString(0x10) + "\n"); } }
 
+  public static final void
+  divideAndRemainderNewton (final Function<BigInteger,BoundedNatural> fromBI,
+                            final Function<BoundedNatural,BigInteger> toBI,
+                            final BigInteger x0,
+                            final BigInteger x1) {
+    if (0 != x1.signum()) {
+      final BoundedNatural y0 = fromBI.apply(x0);
+      final BoundedNatural y1 = fromBI.apply(x1);
+      final BigInteger[] x2 = x0.divideAndRemainder(x1);
+      final BoundedNatural[] y2 = y0.divideAndRemainderNewton(y1);
+      final BoundedNatural q = y2[0];
+      final BoundedNatural r = y2[1];
+      final BigInteger[] x3 = { toBI.apply(q), toBI.apply(r),};
+
+      Assertions.assertEquals(x2[0],x3[0],() ->
+      "\n" + x0.toString(0x10)
+      + "\n / "
+      + "\n" +  x1.toString(0x10)
+      + "\n -> "
+      + "\n" + x2[0].toString(0x10)
+      + "\n" + y0.toString()
+      + "\n / "
+      + "\n" +  y1.toString()
+      + "\n -> "
+      + "\n" + y2[0].toString()
+      + "\n" + x3[0].toString(0x10) + "\n");
+
+      Assertions.assertEquals(x2[1],x3[1],() ->
+      "\n" + x0.toString(0x10)
+      + "\n rem "
+      + "\n" +  x1.toString(0x10)
+      + "\n -> "
+      + "\n" + x2[1].toString(0x10)
+      + "\n" + y0.toString()
+      + "\n rem "
+      + "\n" +  y1.toString()
+      + "\n -> "
+      + "\n" + y2[1].toString()
+      + "\n" + x3[1].toString(0x10) + "\n"); } }
+
   public static final <T extends Ringlike<T>> void
   remainder (final Function<BigInteger,T> fromBI,
              final Function<T,BigInteger> toBI,
@@ -598,6 +638,8 @@ public final class Common {
     divideAndRemainderKnuth(fromBI,toBI,z0,z0);
     divideAndRemainderBurnikelZiegler(fromBI,toBI,z0,z1);
     divideAndRemainderBurnikelZiegler(fromBI,toBI,z0,z0);
+    divideAndRemainderNewton(fromBI,toBI,z0,z1);
+    divideAndRemainderNewton(fromBI,toBI,z0,z0);
     remainder(fromBI,toBI,z0,z1);
     remainder(fromBI,toBI,z0,z0);
     gcd(fromBI,toBI,z0,z1);
@@ -8,6 +8,8 @@ import org.junit.jupiter.api.Test;
 import nzqr.java.numbers.BigFloat;
 import nzqr.java.numbers.BigFloats;
 import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.Doubles;
+import nzqr.java.numbers.Floats;
 import nzqr.java.numbers.Numbers;
 import nzqr.java.prng.Generator;
 import nzqr.java.prng.PRNG;
@@ -80,6 +82,73 @@ public final class BigFloatTest {
       final BigFloat xx = x.multiply(x);
       Assertions.assertEquals(x2,xx); } }
 
+  private static final BigFloat bf (final boolean p,
+                                    final long t,
+                                    final int e) {
+    return BigFloat.valueOf(p,BoundedNatural.valueOf(t),e); }
+
+  /** Values at and near half the smallest subnormal, which
+   * round half-even, and so only exactly 1/2 goes to zero.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void subnormalHalfway () {
+    final int ed = -Doubles.MINIMUM_SUBNORMAL_EXPONENT;
+    final int ef = -Floats.MINIMUM_SUBNORMAL_EXPONENT;
+    for (final boolean p : new boolean[] { true, false, }) {
+      final double zd = (p ? 0.0 : -0.0);
+      final double md = (p ? Double.MIN_VALUE : -Double.MIN_VALUE);
+      Assertions.assertEquals(zd,bf(p,1L,-ed-2).doubleValue());
+      Assertions.assertEquals(zd,bf(p,1L,-ed-1).doubleValue());
+      Assertions.assertEquals(md,
+        bf(p,(1L<<40)+1L,-ed-41).doubleValue());
+      Assertions.assertEquals(md,bf(p,3L,-ed-2).doubleValue());
+      Assertions.assertEquals(md,
+        bf(p,(1L<<41)-1L,-ed-41).doubleValue());
+      Assertions.assertEquals(md,bf(p,1L,-ed).doubleValue());
+      Assertions.assertEquals(2*md,bf(p,3L,-ed-1).doubleValue());
+
+      final float zf = (p ? 0.0F : -0.0F);
+      final float mf = (p ? Float.MIN_VALUE : -Float.MIN_VALUE);
+      Assertions.assertEquals(zf,bf(p,1L,-ef-2).floatValue());
+      Assertions.assertEquals(zf,bf(p,1L,-ef-1).floatValue());
+      Assertions.assertEquals(mf,
+        bf(p,(1L<<40)+1L,-ef-41).floatValue());
+      Assertions.assertEquals(mf,bf(p,3L,-ef-2).floatValue());
+      Assertions.assertEquals(mf,
+        bf(p,(1L<<41)-1L,-ef-41).floatValue());
+      Assertions.assertEquals(mf,bf(p,1L,-ef).floatValue());
+      Assertions.assertEquals(2*mf,bf(p,3L,-ef-1).floatValue()); } }
+
+  /** Values at and near the largest finite values, which
+   * round to infinity, rather than throwing, at or above the
+   * midpoint to the next power of 2.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void overflow () {
+    for (final boolean p : new boolean[] { true, false, }) {
+      final double xd = (p ? Double.MAX_VALUE : -Double.MAX_VALUE);
+      final double id =
+        (p ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+      Assertions.assertEquals(xd,bf(p,(1L<<53)-1L,971).doubleValue());
+      Assertions.assertEquals(xd,bf(p,(1L<<55)-3L,969).doubleValue());
+      Assertions.assertEquals(id,bf(p,(1L<<54)-1L,970).doubleValue());
+      Assertions.assertEquals(id,bf(p,1L,1024).doubleValue());
+      Assertions.assertEquals(id,bf(p,1L,4000).doubleValue());
+
+      final float xf = (p ? Float.MAX_VALUE : -Float.MAX_VALUE);
+      final float jf =
+        (p ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY);
+      Assertions.assertEquals(xf,bf(p,(1L<<24)-1L,104).floatValue());
+      Assertions.assertEquals(xf,bf(p,(1L<<26)-3L,102).floatValue());
+      Assertions.assertEquals(jf,bf(p,(1L<<25)-1L,103).floatValue());
+      Assertions.assertEquals(jf,bf(p,1L,128).floatValue());
+      Assertions.assertEquals(jf,bf(p,1L,1000).floatValue());
+      Assertions.assertEquals(jf,bf(p,1L,4000).floatValue()); } }
+
   //--------------------------------------------------------------
 }
 //--------------------------------------------------------------
@@ -0,0 +1,123 @@
+package nzqr.java.test.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.BoundedNatural64;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+import nzqr.java.test.Common;
+
+//----------------------------------------------------------------
+/** Test 64 bit limb natural numbers against BigInteger.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/test/numbers/BoundedNatural64Test test > N64T.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class BoundedNatural64Test {
+
+  private static final void arithmetic (final BigInteger z0,
+                                        final BigInteger z1) {
+    Common.add(BoundedNatural64::valueOf,(z) -> z.toBigInteger(),z0,z1);
+    Common.absDiff(
+      BoundedNatural64::valueOf,(z) -> z.toBigInteger(),z0,z1);
+    Common.multiply(
+      BoundedNatural64::valueOf,(z) -> z.toBigInteger(),z0,z1);
+    Common.square(BoundedNatural64::valueOf,(z) -> z.toBigInteger(),z0);
+    Common.divideAndRemainder(
+      BoundedNatural64::valueOf,(z) -> z.toBigInteger(),z0,z1);
+    Common.divideAndRemainder(
+      BoundedNatural64::valueOf,(z) -> z.toBigInteger(),
+      z0.multiply(z1).add(z1.shiftRight(1)),z1); }
+
+  /** Operand sizes from one limb through the Karatsuba and
+   * delegated ranges.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void boundedNatural64 () {
+    final int[] nbytes = { 3, 8, 17, 8*30, 8*70, 8*150, };
+    for (final int n0 : nbytes) {
+      final Generator g0 =
+        Generators.bigIntegerGenerator(
+          n0,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+      for (final int n1 : nbytes) {
+        final Generator g1 =
+          Generators.bigIntegerGenerator(
+            n1,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+        for (int i=0;i<8;i++) {
+          final BigInteger z0 = ((BigInteger) g0.next()).abs();
+          final BigInteger z1 = ((BigInteger) g1.next()).abs();
+          arithmetic(z0,z1); } } } }
+
+  /** Leading limbs all ones, so quotient digit estimates
+   * overflow or need the add back step.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void leadingOnes () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        8*6,PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+    final BigInteger d0 =
+      BigInteger.ONE.shiftLeft(64*20).subtract(BigInteger.ONE);
+    final BigInteger q0 =
+      BigInteger.ONE.shiftLeft(64*28).subtract(BigInteger.ONE);
+    for (int i=0;i<16;i++) {
+      final BigInteger d = d0.subtract(((BigInteger) g.next()).abs());
+      final BigInteger q = q0.subtract(((BigInteger) g.next()).abs());
+      final BigInteger z0 = d.multiply(q).add(d.subtract(BigInteger.ONE));
+      arithmetic(z0,d);
+      arithmetic(z0.shiftLeft(i),d.shiftLeft(i)); } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void conversion () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*33,PRNG.well44497b("seeds/Well44497b-2019-01-11.txt"));
+    for (int i=0;i<64;i++) {
+      final BigInteger z = ((BigInteger) g.next()).abs().shiftRight(i);
+      final BoundedNatural u = BoundedNatural.valueOf(z);
+      final BoundedNatural64 v = BoundedNatural64.valueOf(u);
+      assertEquals(z,v.toBigInteger());
+      assertEquals(u,v.toBoundedNatural());
+      assertEquals(z.bitLength(),v.hiBit());
+      assertEquals(z.shiftLeft(i+61),v.shiftUp(i+61).toBigInteger());
+      assertEquals(z.shiftRight(i+61),v.shiftDown(i+61).toBigInteger());
+      assertEquals(z.gcd(z.shiftRight(7)),
+        v.gcd(v.shiftDown(7)).toBigInteger()); } }
+
+  /** <code>long</code>s are unsigned 64 bits both ways. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void unsignedLong () {
+    final BigInteger two64 = BigInteger.ONE.shiftLeft(64);
+    for (final long x : new long[] {
+      0L, 1L, Long.MAX_VALUE, Long.MIN_VALUE, -2L, -1L,
+      0x80000000L, 0xFFFFFFFF00000000L, }) {
+      final BigInteger z =
+        (0L<=x) ? BigInteger.valueOf(x) : BigInteger.valueOf(x).add(two64);
+      final BoundedNatural64 v = BoundedNatural64.valueOf(x);
+      assertEquals(z,v.toBigInteger());
+      assertEquals(z.bitLength(),v.hiBit());
+      assertEquals(x,v.longValue());
+      assertEquals(z.add(z),v.add(v).toBigInteger());
+      assertEquals(z.multiply(z),v.square().toBigInteger()); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
@@ -1,10 +1,21 @@
 package nzqr.java.test.numbers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.Test;
 
 import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.NaturalModulus;
+import nzqr.java.numbers.Naturals;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
 import nzqr.java.test.Common;
 
 //----------------------------------------------------------------
@@ -15,7 +26,7 @@ import nzqr.java.test.Common;
  * </pre>
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2022-10-30
+ * @version 2026-10-17
  */
 
 public final class BoundedNaturalTest {
@@ -53,6 +64,478 @@ public final class BoundedNaturalTest {
     //Debug.DEBUG=false;
   }
 
+  //--------------------------------------------------------------
+  /** Operands large enough to reach the transform-based
+   * multiply and square.
+   */
+
+  /** Single word divisors, with quotients and remainders that
+   * don't fit in a signed int.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void singleWordDivide () {
+    final BigInteger[] us = {
+      new BigInteger("ffffffff",0x10),
+      new BigInteger("fffffffe",0x10),
+      new BigInteger("80000001",0x10),
+      new BigInteger("7fffffff",0x10),
+      new BigInteger("ffffffff7fffffff",0x10),
+      new BigInteger("123456789abcdef0fedcba9876543210",0x10), };
+    final BigInteger[] ds = {
+      BigInteger.ONE, BigInteger.TWO, BigInteger.valueOf(3),
+      new BigInteger("7fffffff",0x10),
+      new BigInteger("80000000",0x10),
+      new BigInteger("fffffffe",0x10),
+      new BigInteger("ffffffff",0x10), };
+    for (final BigInteger u : us) {
+      for (final BigInteger d : ds) {
+        final BigInteger[] qr = u.divideAndRemainder(d);
+        final BoundedNatural[] qr1 =
+          BoundedNatural.valueOf(u).divideAndRemainder(
+            BoundedNatural.valueOf(d));
+        assertEquals(qr[0],qr1[0].toBigInteger(),() -> u + "/" + d);
+        assertEquals(qr[1],qr1[1].toBigInteger(),() -> u + "%" + d); } } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void largeMultiply () {
+    final int[] nbytes = { 4*1800, 4*2100, 4*4000, 4*9000, };
+    for (final int n0 : nbytes) {
+      final Generator g0 =
+        Generators.bigIntegerGenerator(
+          n0,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+      for (final int n1 : nbytes) {
+        final Generator g1 =
+          Generators.bigIntegerGenerator(
+            n1,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+        for (int i=0;i<3;i++) {
+          final BigInteger z0 = ((BigInteger) g0.next()).abs();
+          final BigInteger z1 = ((BigInteger) g1.next()).abs();
+          Common.multiply(
+            BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+          Common.square(
+            BoundedNatural::valueOf,(z) -> z.toBigInteger(),z1); } } } }
+
+  //--------------------------------------------------------------
+  /** Forked sub-products, with a low threshold so the parallel
+   * Karatsuba and Toom-Cook 3 paths are exercised.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void parallelMultiply () {
+    final ForkJoinPool pool0 = BoundedNatural.multiplyPool();
+    final int threshold0 = BoundedNatural.parallelMultiplyThreshold();
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      BoundedNatural.setMultiplyPool(pool);
+      BoundedNatural.setParallelMultiplyThreshold(64);
+      final int[] nbytes = { 4*100, 4*300, 4*1000, 4*2100, };
+      for (final int n0 : nbytes) {
+        final Generator g0 =
+          Generators.bigIntegerGenerator(
+            n0,PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+        for (final int n1 : nbytes) {
+          final Generator g1 =
+            Generators.bigIntegerGenerator(
+              n1,PRNG.well44497b("seeds/Well44497b-2019-01-11.txt"));
+          for (int i=0;i<3;i++) {
+            final BigInteger z0 = ((BigInteger) g0.next()).abs();
+            final BigInteger z1 = ((BigInteger) g1.next()).abs();
+            Common.multiply(
+              BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+            Common.square(
+              BoundedNatural::valueOf,(z) -> z.toBigInteger(),z1); } } } }
+    finally {
+      BoundedNatural.setMultiplyPool(pool0);
+      BoundedNatural.setParallelMultiplyThreshold(threshold0);
+      pool.shutdown(); } }
+
+  //--------------------------------------------------------------
+  /** Operands large enough to reach Newton division. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void largeDivide () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*15000,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    for (int i=0;i<2;i++) {
+      final BigInteger z1 = ((BigInteger) g.next()).abs();
+      final BigInteger z2 = ((BigInteger) g.next()).abs();
+      final BigInteger z0 = z1.multiply(z2).add(z2);
+      Common.divideAndRemainder(
+        BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+      Common.divideAndRemainderNewton(
+        BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1); } }
+
+  /** Carries and borrows running the whole length, and
+   * differences only in the lowest word, around the SIMD
+   * vector widths and thresholds.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void carryChains () {
+    for (final int n : new int[] { 15, 16, 17, 63, 64, 65, 129, 1000, }) {
+      final BigInteger ones =
+        BigInteger.ONE.shiftLeft(32*n).subtract(BigInteger.ONE);
+      final BigInteger pow2 = BigInteger.ONE.shiftLeft(32*(n-1));
+      final BigInteger[] zs = {
+        ones, pow2, ones.subtract(pow2), pow2.add(BigInteger.ONE),
+        ones.shiftRight(1), ones.subtract(BigInteger.ONE), };
+      for (final BigInteger z0 : zs) {
+        for (final BigInteger z1 : zs) {
+          Common.add(
+            BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+          Common.absDiff(
+            BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+          assertEquals(
+            z0.compareTo(z1),
+            BoundedNatural.valueOf(z0)
+            .compareTo(BoundedNatural.valueOf(z1))); }
+        for (final int shift : new int[] { 1, 31, 32, 33, 32*n-1, }) {
+          assertEquals(
+            z0.shiftLeft(shift),
+            BoundedNatural.valueOf(z0).shiftUp(shift).toBigInteger());
+          assertEquals(
+            z0.shiftRight(shift),
+            BoundedNatural.valueOf(z0).shiftDown(shift).toBigInteger()); } } } }
+
+  /** Values around the 64 and 128 bit inline limits, and
+   * small values padded out to longer arrays.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void inlineValues () {
+    final BigInteger b64 = BigInteger.ONE.shiftLeft(64);
+    final BigInteger b128 = BigInteger.ONE.shiftLeft(128);
+    final BigInteger[] zs = {
+      BigInteger.ZERO, BigInteger.ONE, BigInteger.valueOf(0xFFFFFFFFL),
+      BigInteger.valueOf(Long.MAX_VALUE), b64.subtract(BigInteger.ONE), b64,
+      b64.add(BigInteger.ONE), b128.subtract(BigInteger.ONE), b128,
+      b128.shiftRight(1).add(BigInteger.valueOf(12345)), };
+    for (final BigInteger z0 : zs) {
+      final BoundedNatural u0 = BoundedNatural.valueOf(z0);
+      final BoundedNatural padded = u0.words(0,8);
+      assertEquals(u0,padded);
+      assertEquals(padded,u0);
+      assertEquals(u0.hashCode(),padded.hashCode());
+      assertEquals(0,u0.compareTo(padded));
+      assertEquals(z0.bitLength(),u0.hiBit());
+      assertEquals(
+        (0==z0.signum()) ? 0 : z0.getLowestSetBit(),u0.loBit());
+      Common.square(BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0);
+      for (final BigInteger z1 : zs) {
+        Common.add(BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+        Common.absDiff(
+          BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+        Common.multiply(
+          BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+        assertEquals(z0.compareTo(z1),
+          u0.compareTo(BoundedNatural.valueOf(z1))); }
+      for (final int shift : new int[] { 1, 31, 32, 63, 64, 65, 127, 128, 129, }) {
+        assertEquals(z0.shiftLeft(shift),u0.shiftUp(shift).toBigInteger());
+        assertEquals(z0.shiftRight(shift),
+          u0.shiftDown(shift).toBigInteger()); } }
+    final long t = (1L<<53)-1L;
+    assertEquals(BigInteger.valueOf(t).pow(2),
+      BoundedNatural.fromSquare(t).toBigInteger());
+    assertEquals(BigInteger.valueOf(t).multiply(BigInteger.valueOf(Long.MAX_VALUE)),
+      BoundedNatural.product(t,Long.MAX_VALUE).toBigInteger()); }
+
+  /** Small values, powers of two and ten, and all-ones words
+   * are shared, whichever way they are made.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void constants () {
+    final BoundedNatural one = BoundedNatural.valueOf(1L);
+    assertSame(one,one.one());
+    assertSame(one.zero(),BoundedNatural.valueOf(0L));
+    assertSame(BoundedNatural.valueOf(255L),BoundedNatural.make(new int[] {255,0,0}));
+    assertSame(BoundedNatural.valueOf(12L),BoundedNatural.product(3L,4L));
+    assertSame(BoundedNatural.valueOf(16L),BoundedNatural.fromSquare(4L));
+    assertSame(BoundedNatural.valueOf(100L),BoundedNatural.valueOf("100",10));
+    assertSame(BoundedNatural.valueOf(1L<<40),BoundedNatural.powerOfTwo(40));
+    assertSame(BoundedNatural.ones(3),BoundedNatural.ones(3));
+    for (final int k : new int[] { 0, 1, 31, 32, 63, 64, 127, 128, 129, 1000, }) {
+      assertEquals(BigInteger.ONE.shiftLeft(k),
+        BoundedNatural.powerOfTwo(k).toBigInteger()); }
+    for (final int k : new int[] { 0, 1, 9, 18, 19, 20, 63, 64, 65, 300, }) {
+      assertEquals(BigInteger.TEN.pow(k),
+        BoundedNatural.powerOfTen(k).toBigInteger()); }
+    for (final int n : new int[] { 0, 1, 4, 5, 31, 32, 40, }) {
+      assertEquals(BigInteger.ONE.shiftLeft(32*n).subtract(BigInteger.ONE),
+        BoundedNatural.ones(n).toBigInteger()); }
+    final BoundedNatural u = BoundedNatural.powerOfTen(40);
+    assertEquals(0,u.compareTo(u));
+    assertEquals(u,u); }
+
+  /** Fused multiply-add and subtract agree with separate
+   * multiplies and adds, including products large enough for
+   * the fast algorithms.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void multiplyAdd () {
+    final int[] nbytes = { 1, 7, 8, 9, 17, 4*90, 4*300, };
+    for (final int n0 : nbytes) {
+      final Generator g0 =
+        Generators.bigIntegerGenerator(
+          n0,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+      for (final int n1 : nbytes) {
+        final Generator g1 =
+          Generators.bigIntegerGenerator(
+            n1,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+        for (int i=0;i<4;i++) {
+          final BigInteger z0 = ((BigInteger) g0.next()).abs();
+          final BigInteger z1 = ((BigInteger) g1.next()).abs();
+          final BigInteger z2 = ((BigInteger) g0.next()).abs();
+          final long l1 = z1.longValue() & Long.MAX_VALUE;
+          final long l2 = z2.longValue() & Long.MAX_VALUE;
+          final BigInteger b1 = BigInteger.valueOf(l1);
+          final BoundedNatural u0 = BoundedNatural.valueOf(z0);
+          final BoundedNatural u1 = BoundedNatural.valueOf(z1);
+          final BoundedNatural u2 = BoundedNatural.valueOf(z2);
+          final BigInteger p = z0.multiply(z1);
+          final BigInteger pl = z0.multiply(b1);
+          assertEquals(p.add(z2),u0.multiplyAdd(u1,u2).toBigInteger());
+          assertEquals(pl.add(z2),u0.multiplyAdd(l1,u2).toBigInteger());
+          assertEquals(pl.add(BigInteger.valueOf(l2)),
+            u0.multiplyAdd(l1,l2).toBigInteger());
+          if (0<=p.compareTo(z2)) {
+            assertEquals(p.subtract(z2),
+              u0.multiplySubtract(u1,u2).toBigInteger()); }
+          else {
+            assertEquals(z2.subtract(p),
+              u2.subtractProduct(u0,u1).toBigInteger()); }
+          if (0<=pl.compareTo(z2)) {
+            assertEquals(pl.subtract(z2),
+              u0.multiplySubtract(l1,u2).toBigInteger()); }
+          else {
+            assertEquals(z2.subtract(pl),
+              u2.subtractProduct(u0,l1).toBigInteger()); }
+          // exact cancellation, and borrows all the way up
+          final BoundedNatural up = u0.multiply(u1);
+          assertEquals(BigInteger.ZERO,
+            up.subtractProduct(u0,u1).toBigInteger());
+          assertEquals(z2,
+            up.add(u2).subtractProduct(u1,u0).toBigInteger());
+          assertEquals(BigInteger.ZERO,
+            u0.multiplySubtract(u1,up).toBigInteger()); } } } }
+
+  /** Bitwise operations agree with BigInteger. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void bits () {
+    final int[] nbytes = { 1, 8, 16, 17, 4*70, };
+    for (final int n0 : nbytes) {
+      final Generator g0 =
+        Generators.bigIntegerGenerator(
+          n0,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+      for (final int n1 : nbytes) {
+        final Generator g1 =
+          Generators.bigIntegerGenerator(
+            n1,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+        for (int i=0;i<4;i++) {
+          final BigInteger z0 = ((BigInteger) g0.next()).abs();
+          final BigInteger z1 = ((BigInteger) g1.next()).abs();
+          final BoundedNatural u0 = BoundedNatural.valueOf(z0);
+          final BoundedNatural u1 = BoundedNatural.valueOf(z1);
+          assertEquals(z0.and(z1),u0.and(u1).toBigInteger());
+          assertEquals(z0.or(z1),u0.or(u1).toBigInteger());
+          assertEquals(z0.xor(z1),u0.xor(u1).toBigInteger());
+          assertEquals(z0.andNot(z1),u0.andNot(u1).toBigInteger());
+          assertEquals(z0.bitCount(),u0.bitCount());
+          for (final int k : new int[] { 0, 1, 31, 32, 63, 64, 65, 127, 128, 129, 8*n0-1, 8*n0, 3000, }) {
+            assertEquals(z0.testBit(k),u0.testBit(k));
+            assertEquals(z0.setBit(k),u0.setBit(k).toBigInteger());
+            assertEquals(z0.clearBit(k),u0.clearBit(k).toBigInteger());
+            assertEquals(z0.flipBit(k),u0.flipBit(k).toBigInteger());
+            for (final int m : new int[] { 0, 1, 31, 32, 33, 64, 100, 128, 200, 5000, }) {
+              assertEquals(
+                z0.shiftRight(k).and(BigInteger.ONE.shiftLeft(m).subtract(BigInteger.ONE)),
+                u0.bits(k,k+m).toBigInteger()); } } } } } }
+
+  /** Product trees agree with a left fold. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void productTree () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*40,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    for (final int n : new int[] { 0, 1, 2, 3, 7, 64, 301, }) {
+      final BoundedNatural[] ff = new BoundedNatural[n];
+      BigInteger z = BigInteger.ONE;
+      for (int i=0;i<n;i++) {
+        final BigInteger zi = ((BigInteger) g.next()).abs().shiftRight(i%97);
+        ff[i] = BoundedNatural.valueOf(zi);
+        z = z.multiply(zi); }
+      assertEquals(z,Naturals.product(ff).toBigInteger());
+      final ForkJoinPool pool = new ForkJoinPool(4);
+      final int threshold0 = BoundedNatural.parallelMultiplyThreshold();
+      try {
+        BoundedNatural.setParallelMultiplyThreshold(8);
+        assertEquals(z,Naturals.parallelProduct(ff,pool).toBigInteger()); }
+      finally {
+        BoundedNatural.setParallelMultiplyThreshold(threshold0);
+        pool.shutdown(); }
+      assertEquals(z,Naturals.parallelProduct(ff,null).toBigInteger()); }
+    BigInteger f = BigInteger.ONE;
+    for (int n=0;n<=300;n++) {
+      if (0<n) { f = f.multiply(BigInteger.valueOf(n)); }
+      assertEquals(f,Naturals.factorial(n).toBigInteger()); }
+    assertEquals(BigInteger.valueOf(12L*13L*14L*15L),
+      Naturals.rangeProduct(12L,15L).toBigInteger());
+    // ends at Long.MAX_VALUE without wrapping around
+    final BigInteger m = BigInteger.valueOf(Long.MAX_VALUE);
+    assertEquals(m.subtract(BigInteger.TWO).multiply(m.subtract(BigInteger.ONE)).multiply(m),
+      Naturals.rangeProduct(Long.MAX_VALUE-2L,Long.MAX_VALUE).toBigInteger());
+    assertEquals(m,
+      Naturals.rangeProduct(Long.MAX_VALUE,Long.MAX_VALUE).toBigInteger());
+    final BigInteger f5000 = Naturals.factorial(5000).toBigInteger();
+    for (final int k : new int[] { -1, 0, 1, 2, 17, 2499, 2500, 4999, 5000, 5001, }) {
+      final BigInteger c = ((0>k) || (5000<k)) ? BigInteger.ZERO
+        : f5000.divide(Naturals.factorial(k).toBigInteger()
+          .multiply(Naturals.factorial(5000-k).toBigInteger()));
+      assertEquals(c,Naturals.binomial(5000,k).toBigInteger()); }
+    assertThrows(IllegalArgumentException.class,
+      () -> Naturals.factorial(-1)); }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void radixStrings () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*8000,PRNG.well44497b("seeds/Well44497b-2019-01-11.txt"));
+    for (final int radix : new int[] { 2, 3, 7, 10, 16, 36, }) {
+      for (final BigInteger z0 : new BigInteger[] {
+        ((BigInteger) g.next()).abs(),
+        BigInteger.valueOf(radix).pow(20000),
+        BigInteger.valueOf(radix).pow(20000).subtract(BigInteger.ONE),
+        BigInteger.ZERO, }) {
+        final BoundedNatural u = BoundedNatural.valueOf(z0);
+        final String s = z0.toString(radix);
+        assertEquals(s,u.toString(radix));
+        assertEquals(u,BoundedNatural.valueOf(s,radix));
+        assertEquals(u,BoundedNatural.valueOf("000"+s,radix)); } } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void roots () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*3000,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    for (int i=0;i<64;i++) {
+      final BigInteger z = ((BigInteger) g.next()).abs();
+      for (final BigInteger z0 : new BigInteger[] {
+        z, z.multiply(z), z.multiply(z).subtract(BigInteger.ONE), }) {
+        final BoundedNatural u = BoundedNatural.valueOf(z0);
+        final BigInteger[] sr = z0.sqrtAndRemainder();
+        final BoundedNatural[] sru = u.sqrtAndRemainder();
+        assertEquals(sr[0],sru[0].toBigInteger());
+        assertEquals(sr[1],sru[1].toBigInteger());
+        assertEquals(sr[0],u.sqrt().toBigInteger());
+        final int k = 1 + (i%9);
+        final BigInteger r = u.root(k).toBigInteger();
+        assertTrue(0 >= r.pow(k).compareTo(z0));
+        assertTrue(0 < r.add(BigInteger.ONE).pow(k).compareTo(z0)); } } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void modular () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*480,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    for (int i=0;i<16;i++) {
+      final BigInteger z = ((BigInteger) g.next()).abs();
+      final BigInteger e = ((BigInteger) g.next()).abs().shiftRight(32*460);
+      // odd and even, above and below the word-by-word
+      // Montgomery threshold
+      BigInteger m = ((BigInteger) g.next()).abs();
+      if (2>(i%4)) { m = m.shiftRight(32*470); }
+      if (0==(i%2)) { m = m.setBit(0); } else { m = m.clearBit(0); }
+      if (0==m.signum()) { m = BigInteger.ONE; }
+      final BoundedNatural mu = BoundedNatural.valueOf(m);
+      final NaturalModulus mod = NaturalModulus.make(mu);
+      final BoundedNatural u = BoundedNatural.valueOf(z);
+      final BoundedNatural v = BoundedNatural.valueOf(e);
+      assertEquals(z.modPow(e,m),mod.pow(u,v).toBigInteger());
+      assertEquals(z.modPow(e,m),u.modPow(v,mu).toBigInteger());
+      assertEquals(
+        z.modPow(BigInteger.valueOf(i),m),
+        mod.pow(u,BoundedNatural.valueOf(i)).toBigInteger());
+      assertEquals(
+        z.multiply(e).mod(m),mod.multiply(u,v).toBigInteger());
+      assertEquals(z.add(e).mod(m),mod.add(u,v).toBigInteger());
+      assertEquals(
+        z.subtract(e).mod(m),mod.subtract(u,v).toBigInteger());
+      if (m.testBit(0)) {
+        assertEquals(
+          z.multiply(e).mod(m),
+          mod.fromMontgomery(
+            mod.montgomeryMultiply(
+              mod.toMontgomery(u),mod.toMontgomery(v))).toBigInteger()); }
+      if (z.gcd(m).equals(BigInteger.ONE)) {
+        assertEquals(z.modInverse(m),mod.inverse(u).toBigInteger());
+        assertEquals(z.modInverse(m),u.modInverse(mu).toBigInteger()); }
+      else {
+        assertThrows(ArithmeticException.class,() -> mod.inverse(u)); } } }
+
+  /** Leading divisor and remainder words equal, so Knuth
+   * division's quotient estimate overflows.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void knuthLeadingOnes () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*12,PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+    final BigInteger d0 =
+      BigInteger.ONE.shiftLeft(32*44).subtract(BigInteger.ONE);
+    final BigInteger q0 =
+      BigInteger.ONE.shiftLeft(32*56).subtract(BigInteger.ONE);
+    for (int i=0;i<8;i++) {
+      final BigInteger d = d0.subtract(((BigInteger) g.next()).abs());
+      final BigInteger q = q0.subtract(((BigInteger) g.next()).abs());
+      final BigInteger z0 = d.multiply(q).add(d.subtract(BigInteger.ONE));
+      Common.divideAndRemainder(
+        BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,d);
+      Common.divideAndRemainderKnuth(
+        BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,d); } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void largeGcd () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*5000,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    for (int i=0;i<2;i++) {
+      final BigInteger z2 = ((BigInteger) g.next()).abs().shiftRight(8*(4000+i));
+      final BigInteger z0 = ((BigInteger) g.next()).abs().multiply(z2);
+      final BigInteger z1 = ((BigInteger) g.next()).abs().multiply(z2);
+      Common.gcd(
+        BoundedNatural::valueOf,(z) -> z.toBigInteger(),z0,z1);
+      final BoundedNatural u = BoundedNatural.valueOf(z0);
+      final BoundedNatural v = BoundedNatural.valueOf(z1);
+      final BoundedNatural[] gxy = u.extendedGcd(v);
+      final BigInteger gg = gxy[0].toBigInteger();
+      final BigInteger x = gxy[1].toBigInteger();
+      final BigInteger y = gxy[2].toBigInteger();
+      assertEquals(z0.gcd(z1),gg);
+      assertEquals(gg,x.multiply(z0).subtract(y.multiply(z1)));
+      assertTrue(0 >= x.compareTo(z1.divide(gg)));
+      assertTrue(0 >= y.compareTo(z0.divide(gg))); } }
+
   //--------------------------------------------------------------
 }
 //--------------------------------------------------------------
@@ -0,0 +1,175 @@
+package nzqr.java.test.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.numbers.FractionFree;
+import nzqr.java.numbers.RationalFloat;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+
+//----------------------------------------------------------------
+/** Test exact fraction-free linear algebra.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/test/numbers/FractionFreeTest test > FractionFreeTest.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class FractionFreeTest {
+
+  private static final RationalFloat[] multiply (final RationalFloat[][] a,
+                                                 final RationalFloat[] x) {
+    final int n = a.length;
+    final RationalFloat[] b = new RationalFloat[n];
+    for (int i=0;i<n;i++) {
+      RationalFloat s = RationalFloat.ZERO;
+      for (int j=0;j<n;j++) { s = s.add(a[i][j].multiply(x[j])); }
+      b[i] = s; }
+    return b; }
+
+  private static final void assertEqualValues (final RationalFloat[] x,
+                                               final RationalFloat[] y) {
+    assertEquals(x.length,y.length);
+    for (int i=0;i<x.length;i++) {
+      assertEquals(0,x[i].compareTo(y[i]),
+        () -> Arrays.toString(x) + " : " + Arrays.toString(y)); } }
+
+  /** Mix of doubles and non-dyadic rationals. */
+
+  private static final RationalFloat[][] random (final int n,
+                                                 final Generator g) {
+    final RationalFloat[][] a = new RationalFloat[n][n];
+    for (int i=0;i<n;i++) {
+      for (int j=0;j<n;j++) {
+        final BigInteger u = (BigInteger) g.next();
+        final BigInteger v = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+        a[i][j] = (0==((i+j)%3))
+          ? RationalFloat.valueOf(u.doubleValue()*Math.scalb(1.0,(i-j)*7))
+          : RationalFloat.valueOf(u,v); } }
+    return a; }
+
+  private static final RationalFloat[][] hilbert (final int n) {
+    final RationalFloat[][] a = new RationalFloat[n][n];
+    for (int i=0;i<n;i++) {
+      for (int j=0;j<n;j++) {
+        a[i][j] = RationalFloat.valueOf(
+          BigInteger.ONE,BigInteger.valueOf(i+j+1)); } }
+    return a; }
+
+  private static final RationalFloat[] column (final RationalFloat[][] a,
+                                               final int k) {
+    final RationalFloat[] c = new RationalFloat[a.length];
+    for (int i=0;i<a.length;i++) { c[i] = a[i][k]; }
+    return c; }
+
+  //--------------------------------------------------------------
+  /** <code>a*x=b</code>, and Cramer's rule relates the
+   * solution to determinants.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void solve () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        8,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (final int n : new int[] { 1, 2, 5, 9, }) {
+        final RationalFloat[][] a = random(n,g);
+        final RationalFloat[] b = random(n,g)[0];
+        final RationalFloat[] x = FractionFree.solve(a,b);
+        assertEqualValues(b,multiply(a,x));
+        assertEqualValues(x,FractionFree.solve(a,b,pool));
+        final RationalFloat det = FractionFree.determinant(a);
+        assertEquals(0,det.compareTo(FractionFree.determinant(a,pool)));
+        for (int k=0;k<n;k++) {
+          final RationalFloat[][] ak = new RationalFloat[n][];
+          for (int i=0;i<n;i++) {
+            ak[i] = a[i].clone();
+            ak[i][k] = b[i]; }
+          assertEquals(0,
+            x[k].multiply(det).compareTo(FractionFree.determinant(ak))); } } }
+    finally {
+      pool.shutdown(); } }
+
+  /** Singular and badly shaped systems. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void singular () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        8,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    final RationalFloat[][] a = random(4,g);
+    // row 3 = row 0 + row 1
+    for (int j=0;j<4;j++) { a[3][j] = a[0][j].add(a[1][j]); }
+    assertEquals(0,RationalFloat.ZERO.compareTo(FractionFree.determinant(a)));
+    assertThrows(ArithmeticException.class,
+      () -> FractionFree.solve(a,column(a,0)));
+    assertThrows(IllegalArgumentException.class,
+      () -> FractionFree.solve(a,new RationalFloat[3]));
+    assertThrows(IllegalArgumentException.class,
+      () -> FractionFree.determinant(new RationalFloat[][] {
+        { RationalFloat.ONE, RationalFloat.ONE }, }));
+    assertThrows(IllegalArgumentException.class,
+      () -> FractionFree.ldlt(random(3,g))); }
+
+  /** Hilbert matrices: symmetric, positive definite, and
+   * badly conditioned, with known determinants.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void symmetric () {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (final int n : new int[] { 1, 3, 8, 12, }) {
+        final RationalFloat[][] a = hilbert(n);
+        final RationalFloat[] b = column(a,n-1);
+        final RationalFloat[] x = FractionFree.solveSymmetric(a,b);
+        // b is the last column
+        for (int i=0;i<n;i++) {
+          assertEquals(
+            (i==(n-1)) ? RationalFloat.ONE : RationalFloat.ZERO,x[i]); }
+        assertEqualValues(x,FractionFree.solve(a,b));
+        assertEqualValues(x,FractionFree.solveSymmetric(a,b,pool));
+
+        final RationalFloat[][] ld = FractionFree.ldlt(a);
+        final RationalFloat[][] ldp = FractionFree.ldlt(a,pool);
+        for (int i=0;i<n;i++) { assertEqualValues(ld[i],ldp[i]); }
+        // a = L D L^T
+        for (int i=0;i<n;i++) {
+          for (int j=0;j<n;j++) {
+            RationalFloat s = RationalFloat.ZERO;
+            for (int k=0;k<=Math.min(i,j);k++) {
+              final RationalFloat lik = (i==k) ? RationalFloat.ONE : ld[i][k];
+              final RationalFloat ljk = (j==k) ? RationalFloat.ONE : ld[j][k];
+              s = s.add(lik.multiply(ld[k][k]).multiply(ljk)); }
+            assertEquals(0,a[i][j].compareTo(s)); } }
+        // det = product of D
+        RationalFloat det = RationalFloat.ONE;
+        for (int k=0;k<n;k++) { det = det.multiply(ld[k][k]); }
+        assertEquals(0,det.compareTo(FractionFree.determinant(a)));
+        // 1/det(H_n) is an integer
+        final RationalFloat r = det.reciprocal().reduce();
+        assertTrue(r.denominator().isOne(),r::toString);
+        assertEquals(det,FractionFree.determinant(a,pool)); } }
+    finally {
+      pool.shutdown(); } }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------
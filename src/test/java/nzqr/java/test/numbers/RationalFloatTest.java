@@ -1,12 +1,23 @@
 package nzqr.java.test.numbers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigInteger;
 import java.util.function.BinaryOperator;
 
 import org.junit.jupiter.api.Test;
 
 import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.Doubles;
+import nzqr.java.numbers.Floats;
 import nzqr.java.numbers.Numbers;
 import nzqr.java.numbers.RationalFloat;
+import nzqr.java.numbers.RationalFloatReduction;
+import nzqr.java.numbers.RationalFloats;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
 import nzqr.java.test.Common;
 
 //----------------------------------------------------------------
@@ -68,6 +79,396 @@ public final class RationalFloatTest {
       Common::compareTo, Common::compareTo);
   }
 
+  /** Tree product agrees with a chain of multiplies. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void product () {
+    final RationalFloat[] qs = new RationalFloat[50];
+    RationalFloat chain = RationalFloat.ONE;
+    // nonzero, alternating signs, every third one dyadic
+    for (int i=0;i<qs.length;i++) {
+      final int s = (0==(i%2)) ? 1 : -1;
+      qs[i] = (0==(i%3))
+        ? RationalFloat.valueOf(s*(i+0.375))
+        : RationalFloat.valueOf(
+          BigInteger.valueOf(s*(i+1)),BigInteger.valueOf(i+7));
+      chain = chain.multiply(qs[i]); }
+    assertEquals(-1,chain.compareTo(RationalFloat.ZERO));
+    assertEquals(0,chain.compareTo(RationalFloats.product(qs)));
+    assertEquals(0,RationalFloat.ONE.compareTo(
+      RationalFloats.product(new RationalFloat[0]))); }
+
+  private static final RationalFloat harmonic (final int n) {
+    RationalFloat h = RationalFloat.ZERO;
+    for (int k=1;k<=n;k++) {
+      h = h.add(RationalFloat.valueOf(
+        BigInteger.ONE,BigInteger.valueOf(k))); }
+    return h; }
+
+  /** Every reduction policy gives the same value; only the size
+   * of the representation changes.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void reduction () {
+    final RationalFloatReduction policy =
+      RationalFloat.reductionPolicy();
+    try {
+      final int n = 100;
+      RationalFloat.setReductionPolicy(RationalFloatReduction.NEVER);
+      final RationalFloat never = harmonic(n);
+      RationalFloat.setReductionPolicy(RationalFloatReduction.ALWAYS);
+      final RationalFloat always = harmonic(n);
+      RationalFloat.setReductionPolicy(
+        RationalFloatReduction.bitLength(512));
+      final RationalFloat bits = harmonic(n);
+      RationalFloat.setReductionPolicy(RationalFloatReduction.every(7));
+      final RationalFloat every = harmonic(n);
+
+      assertEquals(0,always.unreducedBits());
+      assertEquals(always.numerator(),never.reduce().numerator());
+      assertEquals(always.denominator(),never.reduce().denominator());
+      assertEquals(0,never.reduce().unreducedBits());
+      assertTrue(never.unreducedBits()
+        > (always.numerator().hiBit()+always.denominator().hiBit()));
+      assertTrue((bits.numerator().hiBit()+bits.denominator().hiBit())
+        <= (2*512)+64);
+      for (final RationalFloat q : new RationalFloat[] {never,bits,every}) {
+        assertEquals(0,always.compareTo(q));
+        assertEquals(always,q);
+        assertEquals(always.hashCode(),q.hashCode()); } }
+    finally {
+      RationalFloat.setReductionPolicy(policy); } }
+
+  /** Twice the bits of the common factor that reducing would
+   * remove, which the tracked count must not be below.
+   */
+
+  private static final void assertUnreducedBound (final RationalFloat q) {
+    final BigInteger g =
+      q.numerator().toBigInteger().gcd(q.denominator().toBigInteger());
+    assertTrue((2L*(g.bitLength()-1)) <= q.unreducedBits(),
+      () -> q + " : " + q.unreducedBits() + " < 2*log2(" + g + ")"); }
+
+  /** Unreduced bits carried through a chain of operations,
+   * with no reduction.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void unreducedBits () {
+    final RationalFloatReduction policy =
+      RationalFloat.reductionPolicy();
+    try {
+      RationalFloat.setReductionPolicy(RationalFloatReduction.NEVER);
+      final RationalFloat x =
+        RationalFloat.valueOf(BigInteger.valueOf(6L),BigInteger.valueOf(4L));
+      assertEquals(6L,x.unreducedBits());
+      assertEquals(0L,x.reduce().unreducedBits());
+      assertEquals(0L,RationalFloat.valueOf(0.375).unreducedBits());
+
+      // reduced, with an odd denominator: adding dyadic values
+      // can't add any common factor, however long the numerator
+      // gets
+      RationalFloat y = RationalFloat.valueOf(
+        BigInteger.ONE,BigInteger.valueOf(3L).pow(50)).reduce();
+      for (int i=1;i<=64;i++) {
+        y = y.add(Math.scalb(1.0+i,2*i))
+          .add(RationalFloat.valueOf(-1.0/i));
+        assertEquals(0L,y.unreducedBits()); }
+      assertTrue(64 < Math.min(y.numerator().hiBit(),y.denominator().hiBit()));
+
+      // (5/3)*(9/25) = 45/75, with common factor 15
+      final RationalFloat p = RationalFloat.valueOf(
+        BigInteger.valueOf(5L),BigInteger.valueOf(3L)).reduce()
+        .multiply(RationalFloat.valueOf(
+          BigInteger.valueOf(9L),BigInteger.valueOf(25L)).reduce());
+      assertEquals(75,p.denominator().intValue());
+      assertUnreducedBound(p);
+
+      // mixed chain of reduced operands: the count stays an
+      // upper bound
+      RationalFloat z = x.reduce();
+      for (int i=1;i<=40;i++) {
+        final RationalFloat q = RationalFloat.valueOf(
+          BigInteger.valueOf((i*i)+1L),BigInteger.valueOf((3L*i)+3L))
+          .reduce();
+        z = (0==(i%4)) ? z.multiply(q)
+          : (1==(i%4)) ? z.add(q)
+            : (2==(i%4)) ? z.subtract(q).square()
+              : z.add(0.125*i).negate().reciprocal();
+        assertUnreducedBound(z); }
+      assertEquals(0L,z.reduce().unreducedBits()); }
+    finally {
+      RationalFloat.setReductionPolicy(policy); } }
+
+  private static final int expectedCompare (final BigInteger n0,
+                                            final BigInteger d0,
+                                            final int e0,
+                                            final BigInteger n1,
+                                            final BigInteger d1,
+                                            final int e1) {
+    final int e = Math.min(e0,e1);
+    return Integer.signum(
+      n0.multiply(d1).shiftLeft(e0-e)
+      .compareTo(n1.multiply(d0).shiftLeft(e1-e))); }
+
+  private static final RationalFloat rf (final BigInteger n,
+                                         final BigInteger d,
+                                         final int e) {
+    return RationalFloat.valueOf(
+      true,BoundedNatural.valueOf(n),BoundedNatural.valueOf(d),e); }
+
+  /** Tiered comparison agrees with exact cross products,
+   * including values that are equal, or nearly so, with
+   * different representations.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void compare () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        48,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    for (int i=0;i<512;i++) {
+      final BigInteger n0 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final BigInteger d0 = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final BigInteger k = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final int e0 = (i%17)-8;
+      final BigInteger[][] nde = {
+        // equal, unreduced
+        { n0.multiply(k), d0.multiply(k), BigInteger.valueOf(e0) },
+        // equal, different exponent
+        { n0.shiftLeft(3), d0, BigInteger.valueOf(e0-3) },
+        // nearly equal
+        { n0.multiply(k).add(BigInteger.ONE), d0.multiply(k),
+          BigInteger.valueOf(e0) },
+        { n0.multiply(k).subtract(BigInteger.ONE), d0.multiply(k),
+          BigInteger.valueOf(e0) },
+        { n0.multiply(k), d0.multiply(k).add(BigInteger.ONE),
+          BigInteger.valueOf(e0+1) },
+        // unrelated
+        { k, d0, BigInteger.valueOf((i%5)-2) },
+        { BigInteger.ONE, BigInteger.ONE, BigInteger.valueOf(e0) }, };
+      final RationalFloat q0 = rf(n0,d0,e0);
+      for (final BigInteger[] x : nde) {
+        if (0==x[0].signum()) { continue; }
+        final int e1 = x[2].intValueExact();
+        final RationalFloat q1 = rf(x[0],x[1],e1);
+        final int c = expectedCompare(n0,d0,e0,x[0],x[1],e1);
+        assertEquals(c,q0.compareTo(q1),() -> q0 + " : " + q1);
+        assertEquals(-c,q1.compareTo(q0),() -> q1 + " : " + q0);
+        assertEquals(-c,q0.negate().compareTo(q1.negate()));
+        assertEquals(1,q0.compareTo(q1.negate()));
+        assertEquals(1,q0.compareTo(RationalFloat.ZERO));
+        assertEquals(-1,q1.negate().compareTo(RationalFloat.ZERO)); } } }
+
+  /** Is <code>x</code> the half-even rounding of
+   * <code>q</code>?
+   */
+
+  private static final boolean isRounded (final RationalFloat q,
+                                          final double x) {
+    if (Double.isInfinite(x)) {
+      return 0 < q.abs().compareTo(RationalFloat.valueOf(Double.MAX_VALUE)); }
+    final RationalFloat dx = q.subtract(RationalFloat.valueOf(x)).abs();
+    for (final double y : new double[] {Math.nextUp(x),Math.nextDown(x)}) {
+      if (Double.isInfinite(y)) { continue; }
+      final int c =
+        dx.compareTo(q.subtract(RationalFloat.valueOf(y)).abs());
+      if (0<c) { return false; }
+      if ((0==c) && (0L!=(Doubles.significand(x)&0x1L))) { return false; } }
+    return true; }
+
+  private static final boolean isRounded (final RationalFloat q,
+                                          final float x) {
+    if (Float.isInfinite(x)) {
+      return 0 < q.abs().compareTo(RationalFloat.valueOf(Float.MAX_VALUE)); }
+    final RationalFloat dx = q.subtract(RationalFloat.valueOf(x)).abs();
+    for (final float y : new float[] {Math.nextUp(x),Math.nextDown(x)}) {
+      if (Float.isInfinite(y)) { continue; }
+      final int c =
+        dx.compareTo(q.subtract(RationalFloat.valueOf(y)).abs());
+      if (0<c) { return false; }
+      if ((0==c) && (0!=(Floats.significand(x)&0x1))) { return false; } }
+    return true; }
+
+  /** Rounding from leading words agrees with exact rounding,
+   * for random ratios, and for ratios exactly at, or within a
+   * tiny distance of, a rounding boundary, where it has to fall
+   * back to exact division.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void rounding () {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        40,PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+    final double[] xs = {
+      1.0, 1.0/3.0, Math.PI, 1.0e300, 1.0e-300, Double.MAX_VALUE,
+      Double.MIN_NORMAL, 3*Double.MIN_VALUE, Double.MIN_VALUE,
+      Float.MAX_VALUE, Float.MIN_NORMAL, 3*Float.MIN_VALUE,
+      Float.MIN_VALUE, 0x1.fffffep0, 0x1.fffffffffffffp0, };
+    for (int i=0;i<256;i++) {
+      final BigInteger n = ((BigInteger) g.next()).abs().add(BigInteger.ONE);
+      final BigInteger k = ((BigInteger) g.next()).abs().add(BigInteger.TWO);
+      final RationalFloat q = rf(n,k,(i%7)-3);
+      assertTrue(isRounded(q,q.doubleValue()),q::toString);
+      assertTrue(isRounded(q,q.floatValue()),q::toString);
+      for (final double x0 : xs) {
+        final double x = ((0==(i&1)) ? x0 : (float) x0);
+        // midpoint between x and nextUp(x), over k
+        final BigInteger m =
+          BigInteger.valueOf(2*Doubles.significand(x)+1).multiply(k);
+        final int e = Doubles.exponent(x)-1;
+        for (final BigInteger mm :
+          new BigInteger[] { m, m.add(BigInteger.ONE),
+                             m.subtract(BigInteger.ONE), }) {
+          final RationalFloat r = rf(mm,k,e);
+          assertTrue(isRounded(r,r.doubleValue()),r::toString);
+          assertTrue(isRounded(r,r.floatValue()),r::toString);
+          final RationalFloat r1 = r.negate();
+          assertEquals(-r.doubleValue(),r1.doubleValue());
+          assertEquals(-r.floatValue(),r1.floatValue()); } } } }
+
+  /** Overflow, underflow and subnormal results, where the
+   * leading word quotient is near the ends of the exponent
+   * range.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void roundingLimits () {
+    final BigInteger one = BigInteger.ONE;
+    final BigInteger three = BigInteger.valueOf(3);
+    final BigInteger big = one.shiftLeft(67);
+    final BigInteger d53 = one.shiftLeft(53).add(one);
+    final BigInteger d34 = new BigInteger("3ffffffff",16);
+    final BigInteger n45 = one.shiftLeft(45);
+
+    // top quotient close to 2^62
+    final RationalFloat q0 = rf(big.subtract(one),big.add(one),-38);
+    assertEquals(0x1p-38,q0.doubleValue());
+    assertEquals(0x1p-38F,q0.floatValue());
+
+    // float overflow, double fine
+    final RationalFloat q1 = rf(new BigInteger("f07bc453067bf",16),d53,175);
+    assertEquals(Float.POSITIVE_INFINITY,q1.floatValue());
+    assertTrue(isRounded(q1,q1.doubleValue()),q1::toString);
+    final RationalFloat q2 = rf(n45,d34,130).negate();
+    assertEquals(Float.NEGATIVE_INFINITY,q2.floatValue());
+    assertTrue(isRounded(q2,q2.doubleValue()),q2::toString);
+    final RationalFloat q3 = rf(n45,d34,1020);
+    assertEquals(Double.POSITIVE_INFINITY,q3.doubleValue());
+    assertEquals(Float.POSITIVE_INFINITY,q3.floatValue());
+
+    // just below and above the largest finite values,
+    // and the midpoints to infinity
+    for (final BigInteger k : new BigInteger[] { d53, d34, three, }) {
+      for (final int e : new int[] { 1022, 1023, 1024, 126, 127, 128, }) {
+        for (final BigInteger m : new BigInteger[] {
+          k.subtract(one), k, k.add(one),
+          k.shiftLeft(1).subtract(one), k.shiftLeft(1), }) {
+          for (final int de : new int[] { -64, 0, 64, }) {
+            final RationalFloat r = rf(m.shiftLeft(64),k,e+de-64);
+            assertTrue(isRounded(r,r.doubleValue()),r::toString);
+            assertTrue(isRounded(r,r.floatValue()),r::toString); } } } }
+
+    // subnormal, and below half the smallest subnormal
+    for (final BigInteger k : new BigInteger[] { d53, d34, three, }) {
+      for (final int e : new int[] {
+        Doubles.MINIMUM_SUBNORMAL_EXPONENT,
+        Doubles.MINIMUM_SUBNORMAL_EXPONENT-1,
+        Doubles.MINIMUM_SUBNORMAL_EXPONENT-2,
+        Double.MIN_EXPONENT,
+        Double.MIN_EXPONENT-30,
+        Floats.MINIMUM_SUBNORMAL_EXPONENT,
+        Floats.MINIMUM_SUBNORMAL_EXPONENT-1,
+        Floats.MINIMUM_SUBNORMAL_EXPONENT-2,
+        Float.MIN_EXPONENT,
+        Float.MIN_EXPONENT-10, }) {
+        for (final BigInteger m : new BigInteger[] {
+          k.subtract(one), k, k.add(one), k.shiftLeft(1).add(one),
+          k.multiply(three).subtract(one), }) {
+          final RationalFloat r = rf(m,k,e);
+          assertTrue(isRounded(r,r.doubleValue()),r::toString);
+          assertTrue(isRounded(r,r.floatValue()),r::toString); } } }
+
+    // (1/2,1) of the smallest subnormal rounds up, 1/2 to 0
+    assertEquals(Double.MIN_VALUE,rf(BigInteger.TWO,three,
+      Doubles.MINIMUM_SUBNORMAL_EXPONENT).doubleValue());
+    assertEquals(Float.MIN_VALUE,rf(BigInteger.TWO,three,
+      Floats.MINIMUM_SUBNORMAL_EXPONENT).floatValue());
+    assertEquals(0.0,rf(three,BigInteger.valueOf(6),
+      Doubles.MINIMUM_SUBNORMAL_EXPONENT).doubleValue());
+    assertEquals(-0.0F,rf(n45,d34,-200).negate().floatValue());
+    assertEquals(0.0,rf(n45,d34,-1200).doubleValue()); }
+
+  /** Arithmetic on doubles stays dyadic, and agrees with the
+   * same values in non-dyadic form.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void dyadic () {
+    final BoundedNatural k = BoundedNatural.valueOf(3L);
+    final double[] x = {
+      1.0, -0.5, Math.PI, -1.0e30, 1.0e-30, 0x1.fffffffffffffp0,
+      -Double.MIN_VALUE, Double.MIN_NORMAL, 7.0, -3.0, };
+    RationalFloat s = RationalFloat.ZERO;
+    RationalFloat t = RationalFloat.ONE;
+    for (final double xi : x) {
+      final RationalFloat qi = RationalFloat.valueOf(xi);
+      s = s.add(qi).add(xi).subtract(qi.multiply(qi)).add2(xi);
+      t = t.multiply(qi).square();
+      assertTrue(s.isDyadic());
+      assertTrue(t.isDyadic());
+      // same values with denominator 3
+      final RationalFloat s4 = RationalFloat.valueOf(
+        s.nonNegative(),s.numerator().multiply(k),k,s.exponent());
+      assertTrue(! s4.isDyadic());
+      assertEquals(0,s.compareTo(s4));
+      assertEquals(0,s4.compareTo(s));
+      assertEquals(s,s4);
+      assertEquals(0,s.multiply(s4).compareTo(s.square()));
+      assertEquals(s.doubleValue(),s4.doubleValue());
+      assertEquals(0,s.compareTo(s.add(RationalFloat.ZERO)));
+      assertEquals(1,s.add(qi.abs()).compareTo(s)); }
+    assertTrue(! RationalFloat.valueOf(3.0).reciprocal().isDyadic());
+    assertTrue(RationalFloat.valueOf(0.25).reciprocal().reduce().isDyadic()); }
+
+  /** Adding zero to a non-dyadic value, either way round. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void addZero () {
+    final BoundedNatural seven = BoundedNatural.valueOf(7L);
+    final RationalFloat q =
+      RationalFloat.valueOf(false,BoundedNatural.ONE,seven,0);
+    final RationalFloat z =
+      RationalFloat.valueOf(true,BoundedNatural.valueOf(0L),seven,3);
+    final RationalFloat r =
+      RationalFloat.valueOf(BigInteger.valueOf(-1),BigInteger.valueOf(7));
+    final RationalFloat[] xs = {
+      q, q.multiply(RationalFloat.valueOf(0x1.8p-5)),
+      RationalFloat.valueOf(true,seven,BoundedNatural.valueOf(3L),9), };
+    for (final RationalFloat x : xs) {
+      assertEquals(x,x.add(RationalFloat.ZERO));
+      assertEquals(x,RationalFloat.ZERO.add(x));
+      assertEquals(x,x.add(z));
+      assertEquals(x,z.add(x));
+      assertEquals(x,x.subtract(RationalFloat.ZERO));
+      assertEquals(x.negate(),RationalFloat.ZERO.subtract(x));
+      assertEquals(x,x.add2(0.0));
+      assertEquals(x,x.addProduct(0.0,3.0)); }
+    assertEquals(0,r.compareTo(q.add(RationalFloat.ZERO)));
+    assertEquals(RationalFloat.valueOf(-0.75),z.add(-0.75));
+    assertEquals(RationalFloat.valueOf(2.0),z.add2(1.0).add(1.0));
+    assertEquals(RationalFloat.valueOf(-6.0),z.addProduct(-2.0,3.0)); }
+
   //--------------------------------------------------------------
 }
 //--------------------------------------------------------------
@@ -1,16 +1,31 @@
 package nzqr.java.test.numbers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.junit.jupiter.api.Test;
 
 import nzqr.java.numbers.BigFloat;
+import nzqr.java.numbers.BinaryFormat;
+import nzqr.java.numbers.BoundedNatural;
 import nzqr.java.numbers.Doubles;
 import nzqr.java.numbers.Floats;
+import nzqr.java.numbers.NaturalInts;
 import nzqr.java.numbers.RationalFloat;
+import nzqr.java.numbers.RationalFloatReduction;
 import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
 import nzqr.java.prng.PRNG;
 
 //----------------------------------------------------------------
@@ -21,7 +36,7 @@ import nzqr.java.prng.PRNG;
  * </pre>
  *
  * @author palisades dot lakes at gmail dot com
- * @version 2019-07-01
+ * @version 2026-10-17
  */
 
 public final class RoundtripTests {
@@ -216,6 +231,130 @@ public final class RoundtripTests {
     assertTrue(float2RBF2Float());
     assertTrue(float2BigDecimal2Float());
   }
+
+  //--------------------------------------------------------------
+  /** Binary format should preserve values exactly, as written,
+   * not just up to reduction.
+   */
+
+  private static final void assertSame (final Object x,
+                                        final Object y) {
+    if (x instanceof final BigFloat a) {
+      final BigFloat b = (BigFloat) y;
+      assertEquals(a.nonNegative(),b.nonNegative());
+      assertEquals(a.exponent(),b.exponent());
+      assertEquals(a.significand(),b.significand()); }
+    else if (x instanceof final RationalFloat a) {
+      final RationalFloat b = (RationalFloat) y;
+      assertEquals(a.nonNegative(),b.nonNegative());
+      assertEquals(a.exponent(),b.exponent());
+      assertEquals(a.numerator(),b.numerator());
+      assertEquals(a.denominator(),b.denominator()); }
+    else { assertEquals(x,y); } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void binaryRoundTripTest () throws IOException {
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*40000,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    final BigInteger big = ((BigInteger) g.next()).abs();
+    final Object[] xs = {
+      BoundedNatural.valueOf(0L),
+      BoundedNatural.valueOf(0xFFFFFFFFFFL),
+      BoundedNatural.valueOf(big),
+      BigFloat.valueOf(-0.75),
+      BigFloat.valueOf(true,BoundedNatural.valueOf(big),-123456),
+      RationalFloat.valueOf(false,
+        BoundedNatural.valueOf(6L),BoundedNatural.valueOf(4L),-7),
+      RationalFloat.valueOf(
+        big,big.shiftRight(1000).add(BigInteger.ONE)), };
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int size = 0;
+    for (final Object x : xs) {
+      if (x instanceof final BoundedNatural u) {
+        BinaryFormat.write(out,u);
+        size += BinaryFormat.serializedSize(u); }
+      else if (x instanceof final BigFloat f) {
+        BinaryFormat.write(out,f);
+        size += BinaryFormat.serializedSize(f); }
+      else {
+        BinaryFormat.write(out,(RationalFloat) x);
+        size += BinaryFormat.serializedSize((RationalFloat) x); } }
+    final byte[] bytes = out.toByteArray();
+    assertEquals(size,bytes.length);
+
+    // stream bytes and buffer bytes are the same format
+    final ByteBuffer b =
+      ByteBuffer.allocateDirect(size).order(ByteOrder.BIG_ENDIAN);
+    for (final Object x : xs) {
+      if (x instanceof final BoundedNatural u) { BinaryFormat.write(b,u); }
+      else if (x instanceof final BigFloat f) { BinaryFormat.write(b,f); }
+      else { BinaryFormat.write(b,(RationalFloat) x); } }
+    assertEquals(ByteOrder.BIG_ENDIAN,b.order());
+    assertEquals(ByteBuffer.wrap(bytes),b.flip());
+
+    final ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+    for (final Object x : xs) {
+      assertSame(x,BinaryFormat.read(in));
+      assertSame(x,BinaryFormat.read(b)); }
+    assertEquals(0,in.available());
+    assertEquals(0,b.remaining());
+
+    // read back as written, whatever the reduction policy
+    final RationalFloatReduction policy =
+      RationalFloat.reductionPolicy();
+    try {
+      RationalFloat.setReductionPolicy(RationalFloatReduction.ALWAYS);
+      final ByteArrayInputStream in2 = new ByteArrayInputStream(bytes);
+      b.rewind();
+      for (final Object x : xs) {
+        assertSame(x,BinaryFormat.read(in2));
+        assertSame(x,BinaryFormat.read(b)); } }
+    finally {
+      RationalFloat.setReductionPolicy(policy); }
+
+    final ByteArrayInputStream in1 = new ByteArrayInputStream(bytes);
+    assertEquals(xs[0],BinaryFormat.readBoundedNatural(in1));
+    assertThrows(StreamCorruptedException.class,
+      () -> BinaryFormat.readBigFloat(in1));
+    final byte[] bad = bytes.clone();
+    bad[1] = 99;
+    assertThrows(IllegalArgumentException.class,
+      () -> BinaryFormat.read(ByteBuffer.wrap(bad)));
+
+    // huge length, few words: fails at end of input
+    final ByteBuffer lying =
+      ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN);
+    lying.put(BinaryFormat.TAG_NATURAL).put(BinaryFormat.VERSION)
+    .putInt(NaturalInts.MAX_WORDS).putInt(1).putInt(2);
+    assertThrows(EOFException.class,
+      () -> BinaryFormat.read(new ByteArrayInputStream(lying.array())));
+    final ByteArrayOutputStream out1 = new ByteArrayOutputStream();
+    BinaryFormat.write(out1,(BoundedNatural) xs[2]);
+    final byte[] bytes1 = out1.toByteArray();
+    assertThrows(EOFException.class,
+      () -> BinaryFormat.read(
+        new ByteArrayInputStream(bytes1,0,bytes1.length-1)));
+
+    // leading zero word: not the canonical form
+    final ByteBuffer padded =
+      ByteBuffer.allocate(14).order(ByteOrder.LITTLE_ENDIAN);
+    padded.put(BinaryFormat.TAG_NATURAL).put(BinaryFormat.VERSION)
+    .putInt(2).putInt(1).putInt(0);
+    assertThrows(StreamCorruptedException.class,
+      () -> BinaryFormat.read(new ByteArrayInputStream(padded.array())));
+    assertThrows(IllegalArgumentException.class,
+      () -> BinaryFormat.read(padded.rewind()));
+    final ByteBuffer zero =
+      ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN);
+    zero.put(BinaryFormat.TAG_NATURAL).put(BinaryFormat.VERSION)
+    .putInt(1).putInt(0);
+    assertThrows(StreamCorruptedException.class,
+      () -> BinaryFormat.read(new ByteArrayInputStream(zero.array())));
+    assertThrows(IllegalArgumentException.class,
+      () -> BinaryFormat.read(zero.rewind())); }
   //--------------------------------------------------------------
 }
 //--------------------------------------------------------------
@@ -5,13 +5,17 @@ import nzqr.java.algebra.Set;
 import nzqr.java.algebra.Structure;
 import nzqr.java.numbers.BoundedNatural;
 import nzqr.java.numbers.UnboundedNatural;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
 import nzqr.java.prng.PRNG;
+import nzqr.java.test.Common;
 import nzqr.java.test.algebra.SetTests;
 import org.junit.jupiter.api.Assertions;
 import org.testng.annotations.Test;
 
 import java.math.BigInteger;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -54,6 +58,139 @@ public final class UnboundedNaturalTests {
       (cmp < 0),
       () -> "\nadd one doesn't increase value\ncompareTo -> " + cmp); }
 
+  /** Sums, comparisons and single word products, with carries
+   * across chunk boundaries.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void chunks () {
+    final int c = UnboundedNatural.CHUNK_WORDS;
+    final BigInteger ones =
+      BigInteger.ONE.shiftLeft(32*c).subtract(BigInteger.ONE);
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*(c+3),PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+    final BigInteger[] zs = {
+      BigInteger.ZERO, BigInteger.ONE, ones, ones.shiftLeft(32),
+      ones.add(BigInteger.ONE), ((BigInteger) g.next()).abs(),
+      ((BigInteger) g.next()).abs().shiftRight(32*5), };
+    for (final BigInteger z0 : zs) {
+      final UnboundedNatural u0 = UnboundedNatural.valueOf(z0);
+      Assertions.assertEquals(
+        UnboundedNatural.valueOf(z0.multiply(BigInteger.valueOf(0xFFFFFFFFL))),
+        u0.multiplyByWord(-1));
+      Assertions.assertEquals(
+        UnboundedNatural.valueOf(z0.shiftLeft(1)),
+        u0.multiplyByWord(2));
+      for (final BigInteger z1 : zs) {
+        final UnboundedNatural u1 = UnboundedNatural.valueOf(z1);
+        Assertions.assertEquals(
+          UnboundedNatural.valueOf(z0.add(z1)),u0.add(u1));
+        Assertions.assertEquals(
+          Integer.signum(z0.compareTo(z1)),
+          Integer.signum(u0.compareTo(u1)));
+        Assertions.assertEquals(z0.equals(z1),u0.equals(u1));
+        if (0<=z0.compareTo(z1)) {
+          Assertions.assertEquals(
+            UnboundedNatural.valueOf(z0.subtract(z1)),u0.subtract(u1)); }
+        if (z1.bitLength()<=256) {
+          Assertions.assertEquals(
+            UnboundedNatural.valueOf(z0.multiply(z1)),u0.multiply(u1));
+          Assertions.assertEquals(
+            UnboundedNatural.valueOf(z0.multiply(z1)),u1.multiply(u0)); } }
+      for (final long k : new long[] { 0L, 1L, 31L, 32L, 33L, 32L*c+5L, }) {
+        Assertions.assertEquals(
+          UnboundedNatural.valueOf(z0.shiftLeft((int) k)),u0.shiftUp(k));
+        Assertions.assertEquals(
+          UnboundedNatural.valueOf(z0.shiftRight((int) k)),u0.shiftDown(k)); } } }
+
+  /** Products of operands several blocks long. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void multiply () {
+    final int c = UnboundedNatural.CHUNK_WORDS;
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*300,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+    // (2^a+x)*(2^b+y) = 2^(a+b) + x*2^b + y*2^a + x*y
+    final int a = 32*c + 32*(c/2) + 7;
+    final int b = 32*c + 13;
+    final BigInteger x = ((BigInteger) g.next()).abs();
+    final BigInteger y = ((BigInteger) g.next()).abs();
+    final BigInteger z0 = BigInteger.ONE.shiftLeft(a).add(x);
+    final BigInteger z1 = BigInteger.ONE.shiftLeft(b).add(y);
+    final BigInteger z01 =
+      BigInteger.ONE.shiftLeft(a+b).add(x.shiftLeft(b))
+      .add(y.shiftLeft(a)).add(x.multiply(y));
+    final UnboundedNatural u0 = UnboundedNatural.valueOf(z0);
+    final UnboundedNatural u1 = UnboundedNatural.valueOf(z1);
+    Assertions.assertEquals(UnboundedNatural.valueOf(z01),u0.multiply(u1));
+    final BigInteger z00 =
+      BigInteger.ONE.shiftLeft(2*a).add(x.shiftLeft(a+1)).add(x.multiply(x));
+    Assertions.assertEquals(UnboundedNatural.valueOf(z00),u0.square());
+    // dense operands: square agrees with multiply
+    final Generator g1 =
+      Generators.bigIntegerGenerator(
+        4*(c+c/2),PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+    final UnboundedNatural v =
+      UnboundedNatural.valueOf(((BigInteger) g1.next()).abs());
+    Assertions.assertEquals(v.multiply(v),v.square());
+    Assertions.assertEquals(
+      v.square().add(v),v.add(UnboundedNatural.ONE).multiply(v)); }
+
+  /** Exactly <code>n</code> words of <code>z</code>, with the
+   * top bit set.
+   */
+
+  private static final BigInteger words (final BigInteger z,
+                                         final int n) {
+    return z.abs()
+      .and(BigInteger.ONE.shiftLeft(32*n).subtract(BigInteger.ONE))
+      .setBit(32*n-1); }
+
+  /** Arithmetic and shifts against BigInteger, with operands
+   * just below, at, and just above chunk boundaries.
+   * BigInteger products of million word operands take seconds,
+   * so only one product and one square have both operands
+   * longer than a chunk.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void bigIntegerOracle () {
+    final int c = UnboundedNatural.CHUNK_WORDS;
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        4*(2*c+3),PRNG.well44497b("seeds/Well44497b-2019-01-11.txt"));
+    final BigInteger[] zs = {
+      words((BigInteger) g.next(),1),
+      words((BigInteger) g.next(),37),
+      words((BigInteger) g.next(),c-1),
+      words((BigInteger) g.next(),c),
+      words((BigInteger) g.next(),c+1),
+      words((BigInteger) g.next(),2*c+3), };
+    final Function<BigInteger,UnboundedNatural> fromBI =
+      UnboundedNatural::valueOf;
+    final Function<UnboundedNatural,BigInteger> toBI =
+      UnboundedNatural::toBigInteger;
+    for (final BigInteger z0 : zs) {
+      final UnboundedNatural u0 = fromBI.apply(z0);
+      for (final int k :
+        new int[] { 1, 31, 32, 33, 32*(c-1)+7, 32*c, 32*c+1, }) {
+        Assertions.assertEquals(z0.shiftLeft(k),u0.shiftUp(k).toBigInteger());
+        Assertions.assertEquals(
+          z0.shiftRight(k),u0.shiftDown(k).toBigInteger()); }
+      for (final BigInteger z1 : zs) {
+        Common.add(fromBI,toBI,z0,z1);
+        Common.absDiff(fromBI,toBI,z0,z1);
+        if (Math.min(z0.bitLength(),z1.bitLength())<=32*37) {
+          Common.multiply(fromBI,toBI,z0,z1); } } }
+    // two blocks each, so a diagonal with two block products
+    Common.multiply(fromBI,toBI,zs[4],words((BigInteger) g.next(),c+2));
+    Common.square(fromBI,toBI,zs[4]); }
+
   @SuppressWarnings({ "static-method" })
   @Test
   public final void monoid () {
@@ -0,0 +1,117 @@
+package nzqr.java.test.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.foreign.Arena;
+import java.math.BigInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import nzqr.java.numbers.BoundedNatural;
+import nzqr.java.numbers.OffHeapNatural;
+import nzqr.java.prng.Generator;
+import nzqr.java.prng.Generators;
+import nzqr.java.prng.PRNG;
+import nzqr.java.test.Common;
+
+//----------------------------------------------------------------
+/** Test MemorySegment backed natural numbers against
+ * BigInteger.
+ * <p>
+ * <pre>
+ * mvn -q -Dtest=nzqr/java/test/numbers/OffHeapNaturalTest test > OHNT.txt
+ * </pre>
+ *
+ * @author palisades dot lakes at gmail dot com
+ * @version 2026-10-17
+ */
+
+public final class OffHeapNaturalTest {
+
+  private static final void arithmetic (final Arena arena,
+                                        final BigInteger z0,
+                                        final BigInteger z1) {
+    final Function<BigInteger,OffHeapNatural> fromBI =
+      (z) -> OffHeapNatural.valueOf(BoundedNatural.valueOf(z),arena);
+    final Function<OffHeapNatural,BigInteger> toBI =
+      (z) -> z.toBigInteger();
+    Common.add(fromBI,toBI,z0,z1);
+    Common.absDiff(fromBI,toBI,z0,z1);
+    Common.multiply(fromBI,toBI,z0,z1);
+    Common.square(fromBI,toBI,z0);
+    final OffHeapNatural y0 = fromBI.apply(z0);
+    assertEquals(z0.compareTo(z1),y0.compareTo(fromBI.apply(z1)));
+    assertEquals(y0,OffHeapNatural.valueOf(BoundedNatural.valueOf(z0)));
+    assertEquals(BoundedNatural.valueOf(z0).hashCode(),y0.hashCode());
+    final int h = z0.bitLength();
+    for (final int shift :
+      new int[] { 0, 1, 31, 32, 33, 100, h, h+1, 32*((h/32)+1), }) {
+      assertEquals(z0.shiftLeft(shift),y0.shiftUp(shift).toBigInteger());
+      assertEquals(z0.shiftRight(shift),
+        y0.shiftDown(shift).toBigInteger()); }
+    if (y0.isZero()) { assertSame(y0,y0.shiftUp(100)); } }
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void offHeapNatural () {
+    final int[] nbytes = { 3, 17, 4*70, 4*300, 4*3000, };
+    try (Arena arena = Arena.ofConfined()) {
+      arithmetic(arena,BigInteger.ZERO,BigInteger.ZERO);
+      arithmetic(arena,BigInteger.ONE,BigInteger.ZERO);
+      for (final int n0 : nbytes) {
+        final Generator g0 =
+          Generators.bigIntegerGenerator(
+            n0,PRNG.well44497b("seeds/Well44497b-2019-01-05.txt"));
+        for (final int n1 : nbytes) {
+          final Generator g1 =
+            Generators.bigIntegerGenerator(
+              n1,PRNG.well44497b("seeds/Well44497b-2019-01-07.txt"));
+          for (int i=0;i<4;i++) {
+            final BigInteger z0 = ((BigInteger) g0.next()).abs();
+            final BigInteger z1 = ((BigInteger) g1.next()).abs();
+            arithmetic(arena,z0,z1); } } } } }
+
+  /** Operands longer than one multiply chunk, and the square of
+   * one.
+   */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void chunkedMultiply () {
+    final int n = 4*(OffHeapNatural.CHUNK_WORDS + 1000);
+    final Generator g =
+      Generators.bigIntegerGenerator(
+        n,PRNG.well44497b("seeds/Well44497b-2019-01-09.txt"));
+    final BigInteger z0 = ((BigInteger) g.next()).abs();
+    final BigInteger z1 = ((BigInteger) g.next()).abs().shiftRight(8*n/3);
+    try (Arena arena = Arena.ofShared()) {
+      final OffHeapNatural y0 =
+        OffHeapNatural.valueOf(BoundedNatural.valueOf(z0),arena);
+      final OffHeapNatural y1 =
+        OffHeapNatural.valueOf(BoundedNatural.valueOf(z1),arena);
+      assertEquals(z0.multiply(z1),y0.multiply(y1).toBigInteger());
+      assertEquals(z0.multiply(z0),y0.square().toBigInteger()); } }
+
+  /** Results live in, and die with, the operands' arena. */
+
+  @SuppressWarnings({ "static-method" })
+  @Test
+  public final void lifetime () {
+    final OffHeapNatural y;
+    try (Arena arena = Arena.ofConfined()) {
+      final OffHeapNatural x =
+        OffHeapNatural.valueOf(BoundedNatural.valueOf(12345L),arena);
+      y = x.multiply(x);
+      assertEquals(BigInteger.valueOf(12345L*12345L),y.toBigInteger()); }
+    assertThrows(IllegalStateException.class,() -> y.toBigInteger());
+    // heap wrappers put results in automatic arenas
+    final OffHeapNatural z =
+      OffHeapNatural.valueOf(BoundedNatural.valueOf(12345L));
+    assertEquals(BigInteger.valueOf(2*12345L),z.add(z).toBigInteger()); }
+
+  //--------------------------------------------------------------
+}
+//--------------------------------------------------------------